@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+#
+# Levanta varios nodos del servicio en esta máquina con bankx.cluster.enabled=true, todos con
+# el mismo archivo de miembros. Ctrl-C detiene todos los nodos.
+#
+# Uso:
+#   scripts/local-cluster.sh                # 3 nodos en 8070, 8071, 8072
+#   NODES=4 SKIP_BUILD=1 scripts/local-cluster.sh
+#
+# Variables:
+#   NODES      cantidad de nodos (por defecto 3)
+#   BASE_PORT  puerto HTTP del primer nodo (por defecto 8070); RSocket usa BASE_PORT - 1070
+#   SKIP_BUILD si vale 1 reutiliza target/transactions-service-1.0.0.jar
+#   JAVA_OPTS  opciones adicionales para la JVM
+#   MVN        comando de Maven (por defecto mvn)
+#
+# Con los nodos arriba, editar target/cluster/members.txt agrega o quita miembros sin
+# reiniciar (se relee cada bankx.cluster.refresh-interval).
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/cluster"
+NODES="${NODES:-3}"
+BASE_PORT="${BASE_PORT:-8070}"
+JAVA_OPTS="${JAVA_OPTS:-}"
+JAR="$ROOT/target/transactions-service-1.0.0.jar"
+MVN="${MVN:-mvn}"
+PIDS=()
+
+stop() {
+  for pid in "${PIDS[@]}"; do
+    kill "$pid" 2>/dev/null || true
+  done
+  wait 2>/dev/null || true
+}
+trap stop EXIT INT TERM
+
+if [[ "${SKIP_BUILD:-0}" != "1" ]]; then
+  (cd "$ROOT" && $MVN -B -q -DskipTests package)
+fi
+
+mkdir -p "$WORK"
+: >"$WORK/members.txt"
+for i in $(seq 0 $((NODES - 1))); do
+  echo "http://localhost:$((BASE_PORT + i))" >>"$WORK/members.txt"
+done
+
+# Los nodos arrancan de a uno y con la carga inicial síncrona: cada DataSeeder recrea las
+# cuentas de ejemplo y carga las reglas de riesgo en su H2.
+for i in $(seq 0 $((NODES - 1))); do
+  port=$((BASE_PORT + i))
+  # shellcheck disable=SC2086
+  java $JAVA_OPTS -jar "$JAR" \
+    --server.port="$port" \
+    --spring.rsocket.server.port="$((port - 1070))" \
+    --bankx.seed.async=false \
+    --bankx.cluster.enabled=true \
+    --bankx.cluster.self="http://localhost:$port" \
+    --bankx.cluster.members-file="$WORK/members.txt" \
+    >"$WORK/node-$port.log" 2>&1 &
+  PIDS+=($!)
+  until curl -fs -o /dev/null "http://localhost:$port/actuator/health/readiness"; do
+    if ! kill -0 "${PIDS[-1]}" 2>/dev/null; then
+      echo "El nodo $port terminó antes de estar listo, ver $WORK/node-$port.log" >&2
+      exit 1
+    fi
+    sleep 0.2
+  done
+  echo ">> Nodo http://localhost:$port listo (log: $WORK/node-$port.log)"
+done
+
+echo ">> Cluster de $NODES nodos; miembros en $WORK/members.txt. Ctrl-C para detener."
+wait
@@ -0,0 +1,113 @@
+#!/usr/bin/env bash
+#
+# Mide el tiempo hasta la primera petición exitosa (time-to-first-successful-request)
+# del servicio en modo normal y en modo de arranque rápido (AOT + CDS + perfil "fast").
+#
+# Uso:
+#   scripts/startup-benchmark.sh            # construye ambos modos y mide
+#   RUNS=10 SKIP_BUILD=1 scripts/startup-benchmark.sh
+#
+# Variables:
+#   RUNS       número de arranques por modo (por defecto 5)
+#   PORT       puerto HTTP del servicio (por defecto 8070)
+#   PROBE_PATH ruta consultada hasta obtener 2xx; por defecto depende de los datos
+#              sembrados, así la siembra asíncrona no adelanta la primera respuesta
+#   SKIP_BUILD si vale 1 reutiliza los artefactos de target/startup
+#   JAVA_OPTS  opciones adicionales para la JVM en ambos modos
+#   MVN        comando de Maven (por defecto mvn)
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup"
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8070}"
+PROBE_PATH="${PROBE_PATH:-/api/accounts/001-0001/balance}"
+JAVA_OPTS="${JAVA_OPTS:-}"
+MAIN_CLASS="com.bank.transactions.TransactionsServiceApplication"
+JAR_NAME="transactions-service-1.0.0.jar"
+MVN="${MVN:-mvn}"
+# Ambos modos sin latencia ni fallas inyectadas por el mock de riesgo.
+COMMON_ARGS="--bankx.risk.mock.profile=none"
+
+build() {
+  mkdir -p "$WORK"
+  echo ">> Construyendo modo normal"
+  (cd "$ROOT" && $MVN -B -q -DskipTests package)
+  cp "$ROOT/target/$JAR_NAME" "$WORK/default.jar"
+
+  echo ">> Construyendo modo rápido (Spring AOT)"
+  (cd "$ROOT" && $MVN -B -q -DskipTests -Pfast-startup package)
+  rm -rf "$WORK/fast"
+  mkdir -p "$WORK/fast"
+  (cd "$WORK/fast" && unzip -q "$ROOT/target/$JAR_NAME")
+  # CDS no admite directorios en el classpath: se empaquetan las clases de la app.
+  jar cf "$WORK/fast/app.jar" -C "$WORK/fast/BOOT-INF/classes" .
+
+  echo ">> Ejecución de entrenamiento para generar el archivo CDS"
+  rm -f "$WORK/fast/app.jsa"
+  # shellcheck disable=SC2046
+  java -XX:ArchiveClassesAtExit="$WORK/fast/app.jsa" \
+    -Dspring.context.exit=onRefresh \
+    -Xlog:cds=off $(fast_args) >"$WORK/training.log" 2>&1 || true
+  if [[ ! -f "$WORK/fast/app.jsa" ]]; then
+    echo "No se generó el archivo CDS, ver $WORK/training.log" >&2
+    exit 1
+  fi
+}
+
+# Classpath explícito y ordenado: CDS exige el mismo classpath en entrenamiento y ejecución.
+fast_classpath() {
+  local cp="$WORK/fast/app.jar"
+  for jar in $(ls "$WORK/fast/BOOT-INF/lib/"*.jar | sort); do
+    cp="$cp:$jar"
+  done
+  echo "$cp"
+}
+
+fast_args() {
+  echo "-Dspring.aot.enabled=true -Dspring.profiles.active=fast -cp $(fast_classpath) $MAIN_CLASS"
+}
+
+# Arranca la JVM con los argumentos dados y devuelve los ms hasta la primera respuesta 2xx.
+measure() {
+  local start end pid
+  start=$(date +%s%N)
+  # shellcheck disable=SC2068
+  java $JAVA_OPTS $@ >"$WORK/run.log" 2>&1 &
+  pid=$!
+  until curl -fs -o /dev/null "http://localhost:$PORT$PROBE_PATH"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "El proceso terminó antes de responder, ver $WORK/run.log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  end=$(date +%s%N)
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  echo $(((end - start) / 1000000))
+}
+
+report() {
+  local mode=$1
+  shift
+  local samples=()
+  for _ in $(seq "$RUNS"); do
+    samples+=("$(measure "$@")")
+  done
+  printf '%s\n' "${samples[@]}" | sort -n | awk -v mode="$mode" '
+    { v[NR] = $1; sum += $1 }
+    END {
+      printf "%-8s runs=%d min=%dms median=%dms max=%dms avg=%.0fms\n",
+        mode, NR, v[1], v[int((NR + 1) / 2)], v[NR], sum / NR
+    }'
+}
+
+if [[ "${SKIP_BUILD:-0}" != "1" ]]; then
+  build
+fi
+
+echo ">> Midiendo time-to-first-successful-request ($RUNS arranques por modo)"
+# La línea base conserva la siembra síncrona del modo actual.
+report default -jar "$WORK/default.jar" --bankx.seed.async=false $COMMON_ARGS
+# shellcheck disable=SC2046
+report fast -XX:SharedArchiveFile="$WORK/fast/app.jsa" $(fast_args) $COMMON_ARGS
@@ -1,5 +1,6 @@
 package com.bank.transactions;
 
+import com.bank.transactions.infrastructure.saturation.SchedulerExecutors;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -16,6 +17,8 @@ public class TransactionsServiceApplication {
    * @param args argumentos de línea de comando
    */
   public static void main(String[] args) {
+    // Antes de que se creen los schedulers de Reactor, para medir su carga
+    SchedulerExecutors.install();
     SpringApplication.run(TransactionsServiceApplication.class, args);
   }
 }
\ No newline at end of file
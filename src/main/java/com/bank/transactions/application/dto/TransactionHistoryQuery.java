@@ -0,0 +1,23 @@
+package com.bank.transactions.application.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * DTO para consultar el historial de una cuenta por RSocket.
+ * Sin {@code before} ni {@code limit} se recorre el historial completo, al ritmo que pida el
+ * cliente.
+ */
+@Data
+public class TransactionHistoryQuery {
+
+  @NotBlank(message = "Account number is required")
+  private String accountNumber;
+
+  private Instant before;
+
+  @Min(value = 1, message = "Limit must be at least 1")
+  private Integer limit;
+}
@@ -0,0 +1,28 @@
+package com.bank.transactions.application.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import lombok.Data;
+
+/**
+ * DTO para una transferencia entre dos cuentas.
+ * Debita la cuenta origen y acredita la cuenta destino en una sola operación.
+ */
+@Data
+public class TransferRequest {
+
+  @NotBlank(message = "Source account is required")
+  private String fromAccount;
+
+  @NotBlank(message = "Target account is required")
+  private String toAccount;
+
+  @NotNull(message = "Amount is required")
+  @DecimalMin(value = "0.01", message = "Amount must be at least 0.01")
+  private BigDecimal amount;
+
+  @NotBlank(message = "Currency is required")
+  private String currency;
+}
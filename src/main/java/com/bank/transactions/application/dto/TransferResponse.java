@@ -0,0 +1,21 @@
+package com.bank.transactions.application.dto;
+
+import com.bank.transactions.domain.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una transferencia: las dos transacciones registradas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResponse {
+
+  private Transaction debit;
+
+  private Transaction credit;
+}
@@ -0,0 +1,284 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.domain.exception.ErrorCode;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.AccountView;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.bank.transactions.domain.repository.TransactionRepository;
+import com.bank.transactions.domain.repository.TransactionRepositoryCustom.TypeCounts;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Mantiene la vista de lectura {@link AccountView} a partir de los eventos de transacciones
+ * (lado de lectura de CQRS).
+ *
+ * <p>Las consultas de saldo y resumen leen un solo documento por {@code _id} que nadie más
+ * escribe, así que no compiten con las escrituras sobre {@code accounts}. El proyector se
+ * suscribe al sink de transacciones y aplica cada evento en segundo plano con un solo
+ * {@code update}: suma los contadores, agrega la transacción a las últimas
+ * {@code bankx.account-view.recent-size} y copia el saldo vigente de la cuenta. El filtro
+ * {@code recent._id != id} hace que un evento ya aplicado no se cuente dos veces. Los
+ * eventos de una misma cuenta se aplican en orden; cuentas distintas, en
+ * {@code bankx.account-view.concurrency} carriles.</p>
+ *
+ * <p>Si la vista no existe (cuenta sin eventos desde que se creó la colección, o vista
+ * descartada) se arma con las últimas transacciones del historial y conteos sobre la
+ * colección principal y el archivo. Si el proyector acumula más de
+ * {@code bankx.account-view.max-pending} eventos, los que no entran descartan la vista de su
+ * cuenta, que se vuelve a armar con la siguiente lectura o evento.</p>
+ *
+ * <p>Métricas: {@code bankx.account-view.lag} (desde la transacción hasta que la vista la
+ * refleja), {@code bankx.account-view.pending} y {@code bankx.account-view.rebuilds}.</p>
+ */
+@Service
+@Slf4j
+public class AccountViewProjector implements DisposableBean {
+
+  private static final String ID = "_id";
+  private static final String CREDIT = "CREDIT";
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final AccountRepository accountRepo;
+  private final TransactionRepository txRepo;
+  private final ShardedBalanceService shardedBalances;
+  private final CompactTransactionCodec codec;
+  private final Sinks.Many<Transaction> txSink;
+  private final int recentSize;
+  private final int concurrency;
+  private final int maxPending;
+  private final AtomicLong pending = new AtomicLong();
+  private final Timer lag;
+  private final Counter rebuilds;
+  private Disposable subscription;
+
+  /**
+   * Crea el proyector.
+   *
+   * @param mongoTemplate   plantilla reactiva de Mongo
+   * @param accountRepo     repositorio de cuentas
+   * @param txRepo          repositorio de transacciones, para armar vistas nuevas
+   * @param shardedBalances saldos de cuentas fraccionadas
+   * @param codec           codec del formato compacto de transacciones
+   * @param txSink          sink de eventos de transacciones
+   * @param registry        registro de métricas
+   * @param recentSize      {@code bankx.account-view.recent-size}, transacciones en la vista
+   * @param concurrency     {@code bankx.account-view.concurrency}, carriles de proyección
+   * @param maxPending      {@code bankx.account-view.max-pending}, eventos en espera
+   */
+  public AccountViewProjector(
+      ReactiveMongoTemplate mongoTemplate,
+      AccountRepository accountRepo,
+      TransactionRepository txRepo,
+      ShardedBalanceService shardedBalances,
+      CompactTransactionCodec codec,
+      Sinks.Many<Transaction> txSink,
+      MeterRegistry registry,
+      @Value("${bankx.account-view.recent-size:20}") int recentSize,
+      @Value("${bankx.account-view.concurrency:4}") int concurrency,
+      @Value("${bankx.account-view.max-pending:10000}") int maxPending) {
+    this.mongoTemplate = mongoTemplate;
+    this.accountRepo = accountRepo;
+    this.txRepo = txRepo;
+    this.shardedBalances = shardedBalances;
+    this.codec = codec;
+    this.txSink = txSink;
+    this.recentSize = Math.max(1, recentSize);
+    this.concurrency = Math.max(1, concurrency);
+    this.maxPending = Math.max(1, maxPending);
+    this.lag = Timer.builder("bankx.account-view.lag")
+      .description("Desde la transacción hasta que la vista de la cuenta la refleja")
+      .publishPercentiles(0.5, 0.99)
+      .register(registry);
+    this.rebuilds = Counter.builder("bankx.account-view.rebuilds")
+      .description("Vistas de cuenta armadas desde el historial")
+      .register(registry);
+    registry.gauge("bankx.account-view.pending", pending);
+  }
+
+  /**
+   * Empieza a consumir los eventos de transacciones.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    subscription = txSink.asFlux()
+      .doOnNext(tx -> pending.incrementAndGet())
+      .onBackpressureBuffer(maxPending, this::overflow, BufferOverflowStrategy.DROP_LATEST)
+      .groupBy(tx -> Math.floorMod(String.valueOf(tx.getAccountNumber()).hashCode(),
+        concurrency))
+      .flatMap(lane -> lane.concatMap(tx -> apply(tx)
+        .doOnSuccess(done -> recordLag(tx))
+        .onErrorResume(error -> {
+          log.error("Could not project transaction {}: {}", tx.getId(), error.getMessage());
+          return Mono.empty();
+        })
+        .doFinally(signal -> pending.decrementAndGet())), concurrency)
+      .subscribe();
+  }
+
+  void recordLag(Transaction tx) {
+    // Sin timestamp no hay desde dónde medir el retraso
+    if (tx.getTimestamp() != null) {
+      lag.record(Duration.between(tx.getTimestamp(), Instant.now()));
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (subscription != null) {
+      subscription.dispose();
+    }
+  }
+
+  /**
+   * Devuelve la vista de una cuenta, armándola desde el historial si todavía no existe.
+   *
+   * @param accountNumber número de cuenta
+   * @return un {@link Mono} con la vista
+   */
+  public Mono<AccountView> view(String accountNumber) {
+    return mongoTemplate.findById(accountNumber, AccountView.class)
+      .switchIfEmpty(Mono.defer(() -> rebuild(accountNumber)
+        .onErrorResume(DuplicateKeyException.class,
+          error -> mongoTemplate.findById(accountNumber, AccountView.class))))
+      .doOnNext(view -> view.getRecent().forEach(tx -> {
+        // El formato compacto puede omitir el número de cuenta
+        if (tx.getAccountNumber() == null) {
+          tx.setAccountNumber(accountNumber);
+        }
+      }));
+  }
+
+  /**
+   * Aplica un evento a la vista de su cuenta.
+   *
+   * @param tx transacción creada
+   * @return un {@link Mono} que completa cuando la vista refleja la transacción
+   */
+  Mono<Void> apply(Transaction tx) {
+    String accountNumber = tx.getAccountNumber();
+    Document entry = codec.encode(tx);
+    Query notApplied = Query.query(Criteria.where(ID).is(accountNumber)
+        .and("recent._id").ne(entry.get(ID)));
+
+    return accountRepo.findByNumber(accountNumber)
+      .flatMap(this::balanceOf)
+      .flatMap(balance -> mongoTemplate.updateFirst(notApplied, update(tx, entry, balance),
+        AccountView.class))
+      .flatMap(result -> result.getMatchedCount() > 0
+          ? Mono.<Void>empty()
+          : mongoTemplate.exists(Query.query(Criteria.where(ID).is(accountNumber)),
+              AccountView.class)
+            // Si existe, el evento ya estaba aplicado; si no, el historial ya lo incluye
+            .flatMap(exists -> exists ? Mono.<Void>empty() : rebuild(accountNumber).then())
+            // Otra vista se armó a la vez y quizá antes de esta transacción
+            .onErrorResume(DuplicateKeyException.class, error -> apply(tx)));
+  }
+
+  private Update update(Transaction tx, Document entry, BigDecimal balance) {
+    Update update = new Update()
+        .set("balance", new Decimal128(balance))
+        .inc("transactionCount", 1L)
+        .inc(CREDIT.equals(tx.getType()) ? "creditCount" : "debitCount", 1L)
+        .set("updatedAt", Instant.now());
+    if (tx.getTimestamp() != null) {
+      update.max("lastActivity", tx.getTimestamp());
+    }
+    // "ts" es la clave de la fecha en el formato compacto
+    update.push("recent")
+        .sort(Sort.by(Sort.Direction.DESC, "ts"))
+        .slice(recentSize)
+        .each(entry);
+    return update;
+  }
+
+  /**
+   * Arma la vista desde el historial de la cuenta y la inserta: solo se leen las últimas
+   * {@code recentSize} transacciones y los contadores salen de consultas de conteo sobre la
+   * colección principal y el archivo. El saldo se lee después del historial: una
+   * transacción que aún no figura en él llegará como evento.
+   */
+  private Mono<AccountView> rebuild(String accountNumber) {
+    return accountRepo.findByNumber(accountNumber)
+      .switchIfEmpty(Mono.error(ErrorCode.ACCOUNT_NOT_FOUND.exception()))
+      .flatMap(acc -> Mono.zip(
+          txRepo.findHistory(acc.getId(), null, recentSize).collectList(),
+          txRepo.countByType(acc.getId()))
+        .flatMap(history -> balanceOf(acc).map(balance ->
+          toView(acc, balance, history.getT1(), history.getT2()))))
+      .flatMap(mongoTemplate::insert)
+      .doOnSuccess(view -> {
+        rebuilds.increment();
+        log.debug("Account view rebuilt for {}", accountNumber);
+      });
+  }
+
+  private void overflow(Transaction tx) {
+    pending.decrementAndGet();
+    log.warn("Account view projector overflow, discarding view of {}", tx.getAccountNumber());
+    mongoTemplate.remove(Query.query(Criteria.where(ID).is(tx.getAccountNumber())),
+        AccountView.class)
+        .subscribe(result -> { }, error ->
+          log.error("Could not discard account view {}: {}", tx.getAccountNumber(),
+            error.getMessage()));
+  }
+
+  private Mono<BigDecimal> balanceOf(Account acc) {
+    return ShardedBalanceService.isSharded(acc)
+        ? shardedBalances.totalBalance(acc.getId())
+        : Mono.just(acc.getBalance());
+  }
+
+  /**
+   * Eventos aún no aplicados a las vistas.
+   *
+   * @return cantidad de eventos en espera
+   */
+  long pending() {
+    return pending.get();
+  }
+
+  private static AccountView toView(Account acc, BigDecimal balance, List<Transaction> recent,
+                                    TypeCounts counts) {
+    return AccountView.builder()
+      .accountNumber(acc.getNumber())
+      .accountId(acc.getId())
+      .currency(acc.getCurrency())
+      .balance(balance)
+      .transactionCount(counts.total())
+      .creditCount(counts.credits())
+      .debitCount(counts.debits())
+      .lastActivity(recent.isEmpty() ? null : recent.get(0).getTimestamp())
+      .recent(new ArrayList<>(recent))
+      .updatedAt(Instant.now())
+      .build();
+  }
+}
@@ -0,0 +1,273 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.domain.model.RiskRule;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Conjunto inmutable de {@link RiskRule} preparado para evaluarse sin recorrer todas las reglas.
+ *
+ * <p>Las reglas se indexan por moneda, tipo, segmento y hora UTC; cada celda es un arreglo ya
+ * ordenado por prioridad con solo las reglas que pueden aplicar, y las celdas con el mismo
+ * contenido comparten el arreglo. Evaluar es una búsqueda en mapas y un recorrido corto
+ * comparando montos, sin crear objetos.</p>
+ */
+@Slf4j
+public final class CompiledRiskRules {
+
+  /** Resultado de evaluar una operación. */
+  public enum Decision {
+    ALLOW,
+    REJECT,
+    /** Ninguna regla aplica; quien evalúa decide el valor por defecto. */
+    NO_MATCH
+  }
+
+  /**
+   * Límites de velocidad de una moneda; un campo {@code null} no limita.
+   *
+   * @param maxDebitPerDay suma máxima de débitos por día
+   * @param maxTxPerHour   cantidad máxima de débitos por hora
+   */
+  public record VelocityLimit(BigDecimal maxDebitPerDay, Integer maxTxPerHour) {
+  }
+
+  static final int DEBIT = 0;
+  static final int CREDIT = 1;
+  private static final String[] TYPES = {"DEBIT", "CREDIT"};
+  private static final int HOURS = 24;
+  private static final Rule[] NONE = new Rule[0];
+
+  private static final CompiledRiskRules EMPTY =
+      new CompiledRiskRules(Map.of(), null, Map.of(), null, 0);
+
+  private final Map<String, Bucket[]> byCurrency;
+  private final Bucket[] anyCurrency;
+  private final Map<String, VelocityLimit> velocityByCurrency;
+  private final VelocityLimit anyCurrencyVelocity;
+  private final int size;
+
+  private CompiledRiskRules(Map<String, Bucket[]> byCurrency, Bucket[] anyCurrency,
+                            Map<String, VelocityLimit> velocityByCurrency,
+                            VelocityLimit anyCurrencyVelocity, int size) {
+    this.byCurrency = byCurrency;
+    this.anyCurrency = anyCurrency;
+    this.velocityByCurrency = velocityByCurrency;
+    this.anyCurrencyVelocity = anyCurrencyVelocity;
+    this.size = size;
+  }
+
+  /**
+   * Conjunto sin reglas: todo se evalúa como {@link Decision#NO_MATCH}.
+   *
+   * @return conjunto vacío
+   */
+  public static CompiledRiskRules empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Compila las reglas activas. Las reglas con un tipo desconocido se descartan.
+   *
+   * @param rules reglas a compilar
+   * @return conjunto compilado
+   */
+  public static CompiledRiskRules compile(Collection<RiskRule> rules) {
+    List<RiskRule> active = new ArrayList<>();
+    for (RiskRule rule : rules) {
+      if (Boolean.FALSE.equals(rule.getActive())) {
+        continue;
+      }
+      if (rule.getType() != null && typeIndex(rule.getType()) < 0) {
+        log.warn("Ignoring risk rule {} with unknown type {}", rule.getId(), rule.getType());
+        continue;
+      }
+      active.add(rule);
+    }
+    active.sort(Comparator
+        .comparingInt((RiskRule r) -> r.getPriority() != null ? r.getPriority() : 0)
+        .thenComparing(r -> r.getId() != null ? r.getId() : Long.MAX_VALUE));
+
+    Set<String> currencies = new LinkedHashSet<>();
+    Set<String> tiers = new LinkedHashSet<>();
+    for (RiskRule rule : active) {
+      if (rule.getCurrency() != null) {
+        currencies.add(rule.getCurrency());
+      }
+      if (rule.getAccountTier() != null) {
+        tiers.add(rule.getAccountTier());
+      }
+    }
+
+    Map<String, Bucket[]> byCurrency = new HashMap<>();
+    Map<String, VelocityLimit> velocityByCurrency = new HashMap<>();
+    for (String currency : currencies) {
+      byCurrency.put(currency, buckets(active, currency, tiers));
+      VelocityLimit limit = velocityLimitOf(active, currency);
+      if (limit != null) {
+        velocityByCurrency.put(currency, limit);
+      }
+    }
+    Bucket[] anyCurrency = buckets(active, null, tiers);
+    return new CompiledRiskRules(Map.copyOf(byCurrency), anyCurrency,
+        Map.copyOf(velocityByCurrency), velocityLimitOf(active, null), active.size());
+  }
+
+  /**
+   * Evalúa una operación: decide la primera regla (por prioridad) cuyos criterios coinciden.
+   *
+   * @param currency moneda
+   * @param type     tipo (CREDIT o DEBIT, sin distinguir mayúsculas)
+   * @param amount   monto
+   * @param tier     segmento de la cuenta; {@code null} solo coincide con reglas sin segmento
+   * @param hour     hora UTC (0-23)
+   * @return decisión
+   */
+  public Decision evaluate(String currency, String type, BigDecimal amount, String tier,
+                           int hour) {
+    int typeIndex = typeIndex(type);
+    if (typeIndex < 0) {
+      return Decision.NO_MATCH;
+    }
+    Bucket[] buckets = byCurrency.get(currency);
+    if (buckets == null) {
+      buckets = anyCurrency;
+      if (buckets == null) {
+        return Decision.NO_MATCH;
+      }
+    }
+    Rule[] candidates = buckets[typeIndex].rules(tier)[hour];
+    for (Rule rule : candidates) {
+      if (rule.matches(amount)) {
+        return rule.decide(amount, typeIndex == DEBIT);
+      }
+    }
+    return Decision.NO_MATCH;
+  }
+
+  /**
+   * Límites de velocidad de la moneda: los de la primera regla (por prioridad) que defina
+   * alguno.
+   *
+   * @param currency moneda
+   * @return límites, o {@code null} si ninguna regla los define
+   */
+  public VelocityLimit velocityLimit(String currency) {
+    VelocityLimit limit = velocityByCurrency.get(currency);
+    return limit != null || byCurrency.containsKey(currency) ? limit : anyCurrencyVelocity;
+  }
+
+  /**
+   * Cantidad de reglas activas compiladas.
+   *
+   * @return número de reglas
+   */
+  public int size() {
+    return size;
+  }
+
+  static int typeIndex(String type) {
+    if (TYPES[DEBIT].equalsIgnoreCase(type)) {
+      return DEBIT;
+    }
+    if (TYPES[CREDIT].equalsIgnoreCase(type)) {
+      return CREDIT;
+    }
+    return -1;
+  }
+
+  private static Bucket[] buckets(List<RiskRule> active, String currency, Set<String> tiers) {
+    Bucket[] buckets = new Bucket[TYPES.length];
+    for (int type = 0; type < TYPES.length; type++) {
+      String typeName = TYPES[type];
+      List<RiskRule> applicable = active.stream()
+          .filter(r -> r.getCurrency() == null || r.getCurrency().equals(currency))
+          .filter(r -> r.getType() == null || typeName.equalsIgnoreCase(r.getType()))
+          .toList();
+      Map<String, Rule[][]> byTier = new HashMap<>();
+      for (String tier : tiers) {
+        byTier.put(tier, byHour(applicable.stream()
+            .filter(r -> r.getAccountTier() == null || r.getAccountTier().equals(tier))
+            .toList()));
+      }
+      Rule[][] anyTier = byHour(applicable.stream()
+          .filter(r -> r.getAccountTier() == null)
+          .toList());
+      buckets[type] = new Bucket(Map.copyOf(byTier), anyTier);
+    }
+    return buckets;
+  }
+
+  private static VelocityLimit velocityLimitOf(List<RiskRule> active, String currency) {
+    return active.stream()
+        .filter(r -> r.getCurrency() == null || r.getCurrency().equals(currency))
+        .filter(r -> r.getMaxDebitPerDay() != null || r.getMaxTxPerHour() != null)
+        .findFirst()
+        .map(r -> new VelocityLimit(r.getMaxDebitPerDay(), r.getMaxTxPerHour()))
+        .orElse(null);
+  }
+
+  private static Rule[][] byHour(List<RiskRule> rules) {
+    Rule[][] byHour = new Rule[HOURS][];
+    for (int hour = 0; hour < HOURS; hour++) {
+      final int h = hour;
+      Rule[] cell = rules.stream()
+          .filter(r -> activeAt(r, h))
+          .map(Rule::of)
+          .toArray(Rule[]::new);
+      // Las horas con las mismas reglas comparten el arreglo
+      byHour[hour] = cell.length == 0 ? NONE
+          : hour > 0 && Arrays.equals(byHour[hour - 1], cell) ? byHour[hour - 1] : cell;
+    }
+    return byHour;
+  }
+
+  private static boolean activeAt(RiskRule rule, int hour) {
+    Integer from = rule.getFromHour();
+    Integer to = rule.getToHour();
+    if (from == null || to == null || from.equals(to)) {
+      return true;
+    }
+    return from < to ? hour >= from && hour < to : hour >= from || hour < to;
+  }
+
+  private record Bucket(Map<String, Rule[][]> byTier, Rule[][] anyTier) {
+    Rule[][] rules(String tier) {
+      if (tier == null) {
+        return anyTier;
+      }
+      Rule[][] rules = byTier.get(tier);
+      return rules != null ? rules : anyTier;
+    }
+  }
+
+  private record Rule(BigDecimal min, BigDecimal max, BigDecimal debitCap, boolean reject) {
+
+    static Rule of(RiskRule rule) {
+      return new Rule(rule.getMinAmount(), rule.getMaxAmount(), rule.getMaxDebitPerTx(),
+          rule.getAction() != null && "REJECT".equals(rule.getAction().toUpperCase(Locale.ROOT)));
+    }
+
+    boolean matches(BigDecimal amount) {
+      return (min == null || amount.compareTo(min) >= 0)
+          && (max == null || amount.compareTo(max) <= 0);
+    }
+
+    Decision decide(BigDecimal amount, boolean debit) {
+      if (reject || (debit && debitCap != null && amount.compareTo(debitCap) > 0)) {
+        return Decision.REJECT;
+      }
+      return Decision.ALLOW;
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package com.bank.transactions.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Peticiones con cobertura ("hedged requests") para recortar la cola de latencia.
+ *
+ * <p>Si la llamada no respondió dentro del percentil configurado de la latencia reciente,
+ * se lanza una segunda y se usa la primera respuesta; la otra se cancela. El percentil se
+ * recalcula en cada ventana con las latencias de todos los intentos. Un presupuesto limita
+ * las coberturas a una fracción de las llamadas ({@code budgetRatio}, con una ráfaga de
+ * {@code budgetBurst}), así que durante una caída la carga extra no pasa de esa fracción.</p>
+ *
+ * <p>La cobertura solo responde a la lentitud: si la llamada original falla, el error se
+ * propaga (y lo manejan {@code @Retry} y el circuit breaker); si falla la cobertura, se
+ * sigue esperando la original.</p>
+ *
+ * <p>Métricas con el tag {@code client}: {@code bankx.hedge.sent}, {@code bankx.hedge.wins},
+ * {@code bankx.hedge.skipped} (sin presupuesto) y {@code bankx.hedge.delay} (ms).</p>
+ */
+@Slf4j
+public class RequestHedger {
+
+  private static final long TOKEN = 1_000;
+
+  private final boolean enabled;
+  private final double percentile;
+  private final long minDelayNanos;
+  private final long maxDelayNanos;
+  private final long windowNanos;
+  private final long minSamples;
+  private final long depositPerCall;
+  private final long maxTokens;
+
+  private final Recorder latencies = new Recorder(3);
+  private Histogram recycled;
+  private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+  private final AtomicLong tokens;
+  private volatile long delayNanos;
+
+  private final Counter sent;
+  private final Counter wins;
+  private final Counter skipped;
+
+  /**
+   * Crea el cubridor de peticiones.
+   *
+   * @param client      nombre del cliente, para el tag de las métricas
+   * @param registry    registro de métricas
+   * @param enabled     si es {@code false}, las llamadas pasan sin cobertura
+   * @param percentile  percentil de latencia tras el cual se cubre (por ejemplo 95)
+   * @param minDelay    espera mínima antes de cubrir
+   * @param maxDelay    espera máxima antes de cubrir; se usa mientras no hay muestras
+   * @param window      ventana de recálculo del percentil
+   * @param minSamples  muestras mínimas en la ventana para recalcular
+   * @param budgetRatio coberturas permitidas por llamada (por ejemplo 0.05)
+   * @param budgetBurst coberturas acumulables como máximo
+   */
+  public RequestHedger(String client, MeterRegistry registry, boolean enabled,
+                       double percentile, Duration minDelay, Duration maxDelay, Duration window,
+                       long minSamples, double budgetRatio, int budgetBurst) {
+    this.enabled = enabled;
+    this.percentile = percentile;
+    this.minDelayNanos = minDelay.toNanos();
+    this.maxDelayNanos = Math.max(maxDelay.toNanos(), minDelayNanos);
+    this.windowNanos = window.toNanos();
+    this.minSamples = minSamples;
+    this.depositPerCall = Math.round(budgetRatio * TOKEN);
+    this.maxTokens = Math.max(1, budgetBurst) * TOKEN;
+    this.tokens = new AtomicLong(maxTokens);
+    this.delayNanos = maxDelayNanos;
+
+    this.sent = Counter.builder("bankx.hedge.sent")
+      .description("Peticiones de cobertura lanzadas")
+      .tag("client", client)
+      .register(registry);
+    this.wins = Counter.builder("bankx.hedge.wins")
+      .description("Coberturas que respondieron antes que la petición original")
+      .tag("client", client)
+      .register(registry);
+    this.skipped = Counter.builder("bankx.hedge.skipped")
+      .description("Coberturas no lanzadas por falta de presupuesto")
+      .tag("client", client)
+      .register(registry);
+    registry.gauge("bankx.hedge.delay", Tags.of("client", client),
+        this, h -> h.delayNanos / 1_000_000.0);
+  }
+
+  /**
+   * Ejecuta la llamada con cobertura.
+   *
+   * @param call crea la llamada; se invoca una vez más si se cubre
+   * @param <T>  tipo de la respuesta
+   * @return {@link Mono} con la primera respuesta
+   */
+  public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+    if (!enabled) {
+      return Mono.defer(call);
+    }
+    return Mono.defer(() -> {
+      refreshDelay();
+      deposit();
+      AtomicBoolean decided = new AtomicBoolean();
+      Mono<T> primary = timed(call.get())
+          .doOnEach(signal -> decided.compareAndSet(false, true));
+      Mono<T> backup = Mono.delay(Duration.ofNanos(delayNanos))
+          .flatMap(tick -> {
+            if (!tryAcquire()) {
+              skipped.increment();
+              return Mono.never();
+            }
+            sent.increment();
+            return timed(call.get())
+              .doOnNext(value -> {
+                if (decided.compareAndSet(false, true)) {
+                  wins.increment();
+                }
+              })
+              .onErrorResume(error -> {
+                log.debug("Hedged request failed: {}", error.getMessage());
+                return Mono.never();
+              })
+              .switchIfEmpty(Mono.never());
+          });
+      return Mono.firstWithSignal(primary, backup);
+    });
+  }
+
+  /**
+   * Espera actual antes de cubrir.
+   *
+   * @return espera
+   */
+  public Duration currentDelay() {
+    return Duration.ofNanos(delayNanos);
+  }
+
+  private <T> Mono<T> timed(Mono<T> attempt) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      // Los intentos cancelados también cuentan: su latencia fue al menos la registrada
+      return attempt.doFinally(signal -> latencies.recordValue(
+          TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+    });
+  }
+
+  private void refreshDelay() {
+    long now = System.nanoTime();
+    long start = windowStart.get();
+    if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+      return;
+    }
+    recycled = latencies.getIntervalHistogram(recycled);
+    if (recycled.getTotalCount() < minSamples) {
+      return;
+    }
+    long nanos = TimeUnit.MICROSECONDS.toNanos(recycled.getValueAtPercentile(percentile));
+    delayNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, nanos));
+    log.debug("Hedge delay updated to {} ms (p{} of {} samples)", delayNanos / 1_000_000,
+        percentile, recycled.getTotalCount());
+  }
+
+  private void deposit() {
+    tokens.accumulateAndGet(depositPerCall, (current, add) -> Math.min(maxTokens, current + add));
+  }
+
+  private boolean tryAcquire() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current < TOKEN) {
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - TOKEN));
+    return true;
+  }
+}
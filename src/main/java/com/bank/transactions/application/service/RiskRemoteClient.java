@@ -4,7 +4,10 @@ import com.bank.transactions.config.LogContext;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import io.micrometer.observation.ObservationRegistry;
 import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,34 +26,52 @@ public class RiskRemoteClient {
   private final WebClient riskWebClient;
   private final LogContext logContext;
   private final RiskService legacyRiskService;
+  private final RequestHedger riskHedger;
+  private final ObservationRegistry observations;
+  private final AtomicInteger pending = new AtomicInteger();
 
   /**
    * Verifica si una operación está permitida según el servicio de riesgo remoto.
+   * Las llamadas lentas se cubren con una segunda petición ({@link RequestHedger}). Cada
+   * intento se observa como la etapa {@code risk-call}.
    *
    * @param currency tipo de moneda
    * @param type     tipo de operación
    * @param amount   monto de la operación
+   * @param tier     segmento de la cuenta, o {@code null}; se envía como {@code tier}
    * @return Mono con valor booleano que indica si está permitido
    */
   @TimeLimiter(name = "riskClient")
   @Retry(name = "riskClient")
   @CircuitBreaker(name = "riskClient", fallbackMethod = "fallback")
-  public Mono<Boolean> isAllowed(String currency, String type, BigDecimal amount) {
-    log.debug("Calling remote risk service - currency: {}, type: {}, amount: {}",
-        currency, type, amount);
+  public Mono<Boolean> isAllowed(String currency, String type, BigDecimal amount, String tier) {
+    log.debug("Calling remote risk service - currency: {}, type: {}, amount: {}, tier: {}",
+        currency, type, amount, tier);
 
-    return riskWebClient.get()
-      .uri(uri -> uri.path("/allow")
-        .queryParam("currency", currency)
-        .queryParam("type", type)
-        .queryParam("amount", amount)
-        .queryParam("fail", false)
-        .queryParam("delayMs", 200)
-        .build())
-      .retrieve()
-      .bodyToMono(Boolean.class)
+    return riskHedger.hedge(() -> riskWebClient.get()
+        .uri(uri -> uri.path("/allow")
+          .queryParam("currency", currency)
+          .queryParam("type", type)
+          .queryParam("amount", amount)
+          .queryParamIfPresent("tier", Optional.ofNullable(tier))
+          .build())
+        .retrieve()
+        .bodyToMono(Boolean.class))
+      .doOnSubscribe(subscription -> pending.incrementAndGet())
+      .doFinally(signal -> pending.decrementAndGet())
       .doOnNext(result -> log.debug("Remote risk service returned: {}", result))
-      .doOnError(error -> log.error("Error calling remote risk service: {}", error.getMessage()));
+      .doOnError(error -> log.error("Error calling remote risk service: {}", error.getMessage()))
+      .transform(call -> TransactionStages.observe(call, TransactionStages.RISK_CALL,
+          observations));
+  }
+
+  /**
+   * Llamadas al servicio remoto en curso, contando cada reintento una vez.
+   *
+   * @return llamadas suscritas que aún no terminaron
+   */
+  public int pendingCalls() {
+    return pending.get();
   }
 
   /**
@@ -59,25 +80,32 @@ public class RiskRemoteClient {
    * @param currency tipo de moneda
    * @param type     tipo de operación
    * @param amount   monto de la operación
+   * @param tier     segmento de la cuenta, o {@code null}
    * @param ex       excepción ocurrida durante la llamada
    * @return resultado del servicio de riesgo legado
    */
-  public Mono<Boolean> fallback(String currency, String type, BigDecimal amount, Throwable ex) {
+  public Mono<Boolean> fallback(String currency, String type, BigDecimal amount, String tier,
+                                Throwable ex) {
     log.warn("Using fallback to legacy risk service due to: {}", ex.getMessage());
-    return legacyAllowed(currency, type, amount);
+    return legacyAllowed(currency, type, amount, tier);
   }
 
   /**
-   * Método auxiliar para invocar el módulo de riesgo legado de forma reactiva.
+   * Método auxiliar para invocar el módulo de riesgo legado de forma reactiva. Evalúa las
+   * reglas compiladas en memoria, así que no necesita un scheduler para bloqueos.
    *
    * @param currency tipo de moneda
    * @param type     tipo de operación
    * @param amount   monto de la operación
+   * @param tier     segmento de la cuenta, o {@code null}
    * @return Mono con el resultado del módulo legado
    */
-  private Mono<Boolean> legacyAllowed(String currency, String type, BigDecimal amount) {
-    return Mono.fromCallable(() -> legacyRiskService.isAllowedLegacy(currency, type, amount))
+  private Mono<Boolean> legacyAllowed(String currency, String type, BigDecimal amount,
+                                      String tier) {
+    return Mono.fromCallable(() -> legacyRiskService.isAllowedLegacy(currency, type, amount,
+          tier))
       .doOnNext(result -> log.info("Legacy risk service returned: {}", result))
-      .subscribeOn(reactor.core.scheduler.Schedulers.boundedElastic());
+      .transform(call -> TransactionStages.observe(call, TransactionStages.RISK_LEGACY,
+          observations));
   }
 }
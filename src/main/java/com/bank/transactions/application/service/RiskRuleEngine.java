@@ -0,0 +1,142 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.application.service.CompiledRiskRules.Decision;
+import com.bank.transactions.application.service.CompiledRiskRules.VelocityLimit;
+import com.bank.transactions.domain.model.RiskRule;
+import com.bank.transactions.domain.repository.RiskRuleRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Motor de reglas de riesgo: mantiene la versión compilada ({@link CompiledRiskRules}) de las
+ * reglas activas y evalúa las operaciones contra ella.
+ *
+ * <p>Las reglas se leen de H2 al arrancar y cada {@code bankx.risk.rules.refresh-interval};
+ * la nueva versión se compila aparte y se publica con una sola escritura, así que cada
+ * evaluación ve el conjunto anterior o el nuevo completo, nunca una mezcla. Si la lectura
+ * falla se mantiene la versión vigente.</p>
+ */
+@Service
+@Slf4j
+public class RiskRuleEngine implements DisposableBean {
+
+  private static final long MILLIS_PER_HOUR = Duration.ofHours(1).toMillis();
+
+  private final RiskRuleRepository riskRepo;
+  private final Scheduler blockingScheduler;
+  private final Duration refreshInterval;
+  private volatile CompiledRiskRules rules = CompiledRiskRules.empty();
+  private Disposable refresh;
+
+  /**
+   * Crea el motor.
+   *
+   * @param riskRepo          repositorio de reglas
+   * @param blockingScheduler scheduler para la lectura JPA
+   * @param refreshInterval   {@code bankx.risk.rules.refresh-interval}
+   */
+  public RiskRuleEngine(
+      RiskRuleRepository riskRepo,
+      Scheduler blockingScheduler,
+      @Value("${bankx.risk.rules.refresh-interval:30s}") Duration refreshInterval) {
+    this.riskRepo = riskRepo;
+    this.blockingScheduler = blockingScheduler;
+    this.refreshInterval = refreshInterval;
+  }
+
+  /**
+   * Programa la recarga periódica de reglas al terminar el arranque.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void startRefresh() {
+    refresh = Flux.interval(Duration.ZERO, refreshInterval)
+      .onBackpressureDrop()
+      .concatMap(tick -> reload().onErrorResume(error -> Mono.empty()), 1)
+      .subscribe();
+  }
+
+  @Override
+  public void destroy() {
+    if (refresh != null) {
+      refresh.dispose();
+    }
+  }
+
+  /**
+   * Lee las reglas de H2, las compila y publica el resultado.
+   *
+   * @return {@link Mono} con la cantidad de reglas activas publicadas
+   */
+  public Mono<Integer> reload() {
+    return Mono.fromCallable(riskRepo::findAll)
+      .subscribeOn(blockingScheduler)
+      .map(this::replace)
+      .doOnError(error -> log.error("Could not reload risk rules, keeping {} active rules: {}",
+          rules.size(), error.getMessage()));
+  }
+
+  /**
+   * Compila y publica un conjunto de reglas.
+   *
+   * @param source reglas a publicar
+   * @return cantidad de reglas activas publicadas
+   */
+  public int replace(Collection<RiskRule> source) {
+    CompiledRiskRules compiled = CompiledRiskRules.compile(source);
+    rules = compiled;
+    log.debug("Risk rules published: {} active", compiled.size());
+    return compiled.size();
+  }
+
+  /**
+   * Evalúa la operación contra las reglas vigentes a la hora actual (UTC).
+   *
+   * @param currency moneda
+   * @param type     tipo (CREDIT o DEBIT)
+   * @param amount   monto
+   * @param tier     segmento de la cuenta, o {@code null}
+   * @return decisión, {@link Decision#NO_MATCH} si ninguna regla aplica
+   */
+  public Decision evaluate(String currency, String type, BigDecimal amount, String tier) {
+    int hour = (int) ((System.currentTimeMillis() / MILLIS_PER_HOUR) % 24);
+    return rules.evaluate(currency, type, amount, tier, hour);
+  }
+
+  /**
+   * Indica si la operación está permitida. Sin regla aplicable los débitos se rechazan y los
+   * créditos se permiten.
+   *
+   * @param currency moneda
+   * @param type     tipo (CREDIT o DEBIT)
+   * @param amount   monto
+   * @param tier     segmento de la cuenta, o {@code null}
+   * @return {@code true} si está permitida
+   */
+  public boolean isAllowed(String currency, String type, BigDecimal amount, String tier) {
+    Decision decision = evaluate(currency, type, amount, tier);
+    return decision == Decision.NO_MATCH
+        ? CompiledRiskRules.typeIndex(type) != CompiledRiskRules.DEBIT
+        : decision == Decision.ALLOW;
+  }
+
+  /**
+   * Límites de velocidad vigentes para la moneda, sin consultar H2.
+   *
+   * @param currency moneda
+   * @return límites, o {@code null} si ninguna regla los define
+   */
+  public VelocityLimit velocityLimit(String currency) {
+    return rules.velocityLimit(currency);
+  }
+}
@@ -1,13 +1,12 @@
 package com.bank.transactions.application.service;
 
-import com.bank.transactions.domain.model.RiskRule;
-import com.bank.transactions.domain.repository.RiskRuleRepository;
+import com.bank.transactions.application.service.CompiledRiskRules.VelocityLimit;
 import java.math.BigDecimal;
+import java.time.Instant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 /**
  * Servicio encargado de evaluar las reglas de riesgo asociadas a las transacciones.
@@ -18,38 +17,26 @@ import reactor.core.scheduler.Schedulers;
 @Slf4j
 public class RiskService {
 
-  private final RiskRuleRepository riskRepo;
+  private final VelocityAggregates velocity;
+  private final RiskRuleEngine ruleEngine;
 
   /**
-   * Verifica de manera reactiva si una transacción está permitida según la moneda,
-   * el tipo (CREDIT o DEBIT) y el monto especificado.
+   * Verifica la transacción contra las reglas compiladas de {@link RiskRuleEngine}, sin
+   * consultar H2 en cada llamada.
    *
    * @param currency  moneda de la transacción
    * @param type      tipo de transacción (CREDIT o DEBIT)
    * @param amount    monto de la transacción
+   * @param tier      segmento de la cuenta, o {@code null}
    * @return          un {@link Mono} que emite {@code true} si la transacción está permitida,
    *                  o {@code false} en caso contrario
    */
-  public Mono<Boolean> isAllowed(String currency, String type, BigDecimal amount) {
-    log.debug("Checking risk for currency: {}, type: {}, amount: {}", currency, type, amount);
+  public Mono<Boolean> isAllowed(String currency, String type, BigDecimal amount, String tier) {
+    log.debug("Checking risk for currency: {}, type: {}, amount: {}, tier: {}",
+        currency, type, amount, tier);
 
-    return Mono.fromCallable(() ->
-        riskRepo.findFirstByCurrency(currency)
-          .map(RiskRule::getMaxDebitPerTx)
-          .orElse(BigDecimal.ZERO))
-      .subscribeOn(Schedulers.boundedElastic())
-      .map(maxDebit -> {
-        if ("DEBIT".equalsIgnoreCase(type)) {
-          boolean allowed = amount.compareTo(maxDebit) <= 0;
-          log.debug(
-              "Debit transaction allowed: {} (amount: {}, max: {})",
-              allowed, amount, maxDebit
-          );
-          return allowed;
-        }
-        log.debug("Credit transaction always allowed");
-        return true;
-      })
+    return Mono.fromSupplier(() -> ruleEngine.isAllowed(currency, type, amount, tier))
+      .doOnNext(allowed -> log.debug("Risk decision: {}", allowed))
       .onErrorResume(throwable -> {
         log.error("Error checking risk rules", throwable);
         return Mono.just(false);
@@ -57,36 +44,72 @@ public class RiskService {
   }
 
   /**
-   * Verificación alternativa no reactiva de las reglas de riesgo.
-   * Se utiliza como mecanismo de respaldo en casos donde no se requiera flujo reactivo.
+   * Reserva el débito en los acumulados de velocidad de la cuenta solo si no supera
+   * {@code maxDebitPerDay} ni {@code maxTxPerHour}; la verificación y el incremento son una
+   * misma escritura condicional, así que débitos concurrentes no pueden pasar todos el límite.
+   * Los límites salen de las reglas compiladas de {@link RiskRuleEngine}, sin consultar H2.
+   * Los créditos no se reservan y siempre se permiten.
+   *
+   * @param accountId identificador de la cuenta
+   * @param currency  moneda de la transacción
+   * @param type      tipo de transacción (CREDIT o DEBIT)
+   * @param amount    monto de la transacción
+   * @param at        instante del débito
+   * @return          un {@link Mono} que emite {@code true} si el débito quedó reservado
+   */
+  public Mono<Boolean> reserveVelocity(String accountId, String currency, String type,
+                                       BigDecimal amount, Instant at) {
+    if (!"DEBIT".equalsIgnoreCase(type)) {
+      return Mono.just(true);
+    }
+    VelocityLimit limit = ruleEngine.velocityLimit(currency);
+    return velocity.reserve(accountId, amount, at,
+        limit != null ? limit.maxDebitPerDay() : null,
+        limit != null ? limit.maxTxPerHour() : null)
+      .doOnNext(reserved -> log.debug("Velocity reservation for {}: {} ({} / {})",
+          accountId, reserved, amount, limit));
+  }
+
+  /**
+   * Devuelve una reserva de {@link #reserveVelocity} cuyo débito no llegó a registrarse.
+   *
+   * @param accountId identificador de la cuenta
+   * @param type      tipo de transacción (CREDIT o DEBIT)
+   * @param amount    monto reservado
+   * @param at        instante usado al reservar
+   * @return          un {@link Mono} que completa cuando la reserva está liberada
+   */
+  public Mono<Void> releaseVelocity(String accountId, String type, BigDecimal amount,
+                                    Instant at) {
+    if (!"DEBIT".equalsIgnoreCase(type)) {
+      return Mono.empty();
+    }
+    return velocity.release(accountId, amount, at)
+      .doOnError(error -> log.error("Could not release velocity reservation for {}",
+          accountId, error))
+      .onErrorResume(error -> Mono.empty());
+  }
+
+  /**
+   * Verificación alternativa no reactiva de las reglas de riesgo, usada como respaldo cuando
+   * el servicio remoto falla. Evalúa las mismas reglas compiladas de {@link RiskRuleEngine}
+   * que {@link #isAllowed}, en memoria y sin consultar H2.
    *
    * @param currency moneda de la transacción
    * @param type     tipo de transacción (CREDIT o DEBIT)
    * @param amount   monto de la transacción
+   * @param tier     segmento de la cuenta, o {@code null}
    * @return {@code true} si la transacción está permitida, {@code false} en caso contrario
    */
-  public Boolean isAllowedLegacy(String currency, String type, BigDecimal amount) {
+  public Boolean isAllowedLegacy(String currency, String type, BigDecimal amount, String tier) {
     log.debug(
-        "Using legacy risk check for currency: {}, type: {}, amount: {}",
-        currency, type, amount
+        "Using legacy risk check for currency: {}, type: {}, amount: {}, tier: {}",
+        currency, type, amount, tier
     );
     try {
-      RiskRule rule = riskRepo.findFirstByCurrency(currency)
-          .orElse(new RiskRule());
-
-      BigDecimal maxDebit = rule.getMaxDebitPerTx() != null
-          ? rule.getMaxDebitPerTx()
-          : new BigDecimal("1000");
-
-      if ("DEBIT".equalsIgnoreCase(type)) {
-        boolean allowed = amount.compareTo(maxDebit) <= 0;
-        log.debug(
-            "Legacy debit check - allowed: {}, amount: {}, max: {}",
-            allowed, amount, maxDebit
-        );
-        return allowed;
-      }
-      return true;
+      boolean allowed = ruleEngine.isAllowed(currency, type, amount, tier);
+      log.debug("Legacy risk decision: {}", allowed);
+      return allowed;
     } catch (Exception e) {
       log.error("Error in legacy risk check", e);
       return false;
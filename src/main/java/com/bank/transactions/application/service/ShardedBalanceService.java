@@ -0,0 +1,220 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.exception.ErrorCode;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.AccountShard;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.mongodb.MongoException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Gestiona los sub-saldos de cuentas fraccionadas ("sharded").
+ *
+ * <p>Una cuenta muy activa (por ejemplo, un comercio) reparte su saldo en N documentos
+ * {@link AccountShard} para que las escrituras concurrentes no se serialicen sobre un
+ * solo documento. Los créditos van a un sub-saldo al azar con {@code $inc}; los débitos
+ * toman de un sub-saldo con fondos suficientes con un {@code findAndModify} condicional y,
+ * si ninguno alcanza por sí solo, se concentran los fondos en uno (rebalanceo).</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShardedBalanceService {
+
+  private static final String ACCOUNT_ID = "accountId";
+  private static final String SHARD = "shard";
+  private static final String BALANCE = "balance";
+  private static final int WRITE_CONFLICT = 112;
+  private static final int TRANSIENT_RETRIES = 3;
+  private static final Duration TRANSIENT_BACKOFF = Duration.ofMillis(10);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final TransactionalOperator mongoTxOperator;
+  private final AccountRepository accountRepo;
+
+  /**
+   * Indica si la cuenta usa sub-saldos.
+   *
+   * @param account cuenta a evaluar
+   * @return {@code true} si la cuenta está fraccionada
+   */
+  public static boolean isSharded(Account account) {
+    return account.getShards() != null && account.getShards() > 0;
+  }
+
+  /**
+   * Fracciona el saldo de una cuenta en {@code shards} sub-saldos.
+   * El saldo actual queda en el sub-saldo 0 y se reparte con los créditos posteriores. Si el
+   * saldo cambia mientras tanto o la transacción choca con otra escritura, se reintenta.
+   *
+   * @param accountNumber número de cuenta
+   * @param shards        cantidad de sub-saldos (mayor que 0)
+   * @return {@link Mono} con la cuenta actualizada
+   */
+  public Mono<Account> enableSharding(String accountNumber, int shards) {
+    if (shards < 1) {
+      return Mono.error(ErrorCode.INVALID_SHARD_COUNT.exception());
+    }
+    return Mono.defer(() -> accountRepo.findByNumber(accountNumber))
+      .switchIfEmpty(Mono.error(ErrorCode.ACCOUNT_NOT_FOUND.exception()))
+      .flatMap(acc -> {
+        if (isSharded(acc)) {
+          return Mono.error(ErrorCode.ACCOUNT_ALREADY_SHARDED.exception());
+        }
+        Flux<AccountShard> docs = Flux.range(0, shards)
+            .map(i -> AccountShard.builder()
+              .accountId(acc.getId())
+              .shard(i)
+              .balance(i == 0 ? acc.getBalance() : BigDecimal.ZERO)
+              .build());
+        // Solo se marca la cuenta (escritura parcial) si el saldo leído sigue vigente
+        Mono<Void> split = accountRepo.markSharded(acc.getId(), acc.getBalance(), shards)
+            .flatMap(marked -> marked
+              ? mongoTemplate.insertAll(docs.collectList()).then()
+              : Mono.error(ErrorCode.CONCURRENT_UPDATE.exception()));
+        return mongoTemplate.indexOps(AccountShard.class)
+          .ensureIndex(new Index().on(ACCOUNT_ID, Sort.Direction.ASC)
+            .on(SHARD, Sort.Direction.ASC).unique())
+          .then(mongoTxOperator.transactional(split))
+          .then(Mono.fromSupplier(() -> {
+            acc.setShards(shards);
+            return acc;
+          }));
+      })
+      // Un débito o crédito concurrente cambió el saldo: se relee y se vuelve a intentar
+      .retryWhen(retry(error -> isTransient(error)
+        || error instanceof BusinessException business
+          && business.getErrorCode() == ErrorCode.CONCURRENT_UPDATE))
+      .doOnNext(acc -> log.info("Account {} sharded in {} sub-balances",
+          acc.getNumber(), acc.getShards()));
+  }
+
+  /**
+   * Acredita el monto en un sub-saldo elegido al azar.
+   *
+   * @param account cuenta fraccionada
+   * @param amount  monto a acreditar
+   * @return {@link Mono} que completa cuando el crédito fue aplicado
+   */
+  public Mono<Void> credit(Account account, BigDecimal amount) {
+    int shard = ThreadLocalRandom.current().nextInt(account.getShards());
+    return mongoTemplate.updateFirst(
+        shardQuery(account.getId(), shard),
+        new Update().inc(BALANCE, new Decimal128(amount)),
+        AccountShard.class)
+      .flatMap(result -> result.getMatchedCount() == 1
+          ? Mono.<Void>empty()
+          : Mono.error(new IllegalStateException(
+            "Missing shard " + shard + " for account " + account.getId())));
+  }
+
+  /**
+   * Debita el monto de algún sub-saldo con fondos suficientes, rebalanceando si hace falta.
+   *
+   * @param account cuenta fraccionada
+   * @param amount  monto a debitar
+   * @return {@link Mono} con {@code true} si se debitó o {@code false} si no hay fondos
+   */
+  public Mono<Boolean> debit(Account account, BigDecimal amount) {
+    int shards = account.getShards();
+    int start = ThreadLocalRandom.current().nextInt(shards);
+    return Flux.range(0, shards)
+      .concatMap(offset -> tryDebit(account.getId(), (start + offset) % shards, amount))
+      .next()
+      .switchIfEmpty(Mono.defer(() -> rebalance(account.getId(), shards, start)
+        .then(tryDebit(account.getId(), start, amount))))
+      .hasElement();
+  }
+
+  /**
+   * Saldo total de la cuenta fraccionada (suma de sus sub-saldos).
+   *
+   * @param accountId identificador de la cuenta
+   * @return {@link Mono} con la suma de los sub-saldos
+   */
+  public Mono<BigDecimal> totalBalance(String accountId) {
+    return mongoTemplate.find(Query.query(Criteria.where(ACCOUNT_ID).is(accountId)),
+        AccountShard.class)
+      .map(AccountShard::getBalance)
+      .reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
+
+  private Mono<AccountShard> tryDebit(String accountId, int shard, BigDecimal amount) {
+    return mongoTemplate.findAndModify(
+        shardQuery(accountId, shard).addCriteria(
+          Criteria.where(BALANCE).gte(new Decimal128(amount))),
+        new Update().inc(BALANCE, new Decimal128(amount.negate())),
+        FindAndModifyOptions.options().returnNew(true),
+        AccountShard.class);
+  }
+
+  /**
+   * Mueve los fondos de todos los sub-saldos al sub-saldo destino, en una transacción
+   * para que la suma total nunca se observe incompleta; si choca con otra escritura, la
+   * transacción se repite.
+   */
+  private Mono<Void> rebalance(String accountId, int shards, int target) {
+    log.debug("Rebalancing shards of account {} into shard {}", accountId, target);
+    Mono<Void> sweep = Flux.range(0, shards)
+        .filter(shard -> shard != target)
+        .concatMap(shard -> mongoTemplate.findAndModify(
+          shardQuery(accountId, shard).addCriteria(
+            Criteria.where(BALANCE).gt(new Decimal128(BigDecimal.ZERO))),
+          new Update().set(BALANCE, new Decimal128(BigDecimal.ZERO)),
+          AccountShard.class))
+        .map(AccountShard::getBalance)
+        .reduce(BigDecimal.ZERO, BigDecimal::add)
+        .filter(moved -> moved.signum() > 0)
+        .flatMap(moved -> mongoTemplate.updateFirst(
+          shardQuery(accountId, target),
+          new Update().inc(BALANCE, new Decimal128(moved)),
+          AccountShard.class))
+        .then();
+    return mongoTxOperator.transactional(sweep)
+      .retryWhen(retry(ShardedBalanceService::isTransient));
+  }
+
+  private static Retry retry(Predicate<Throwable> retryable) {
+    return Retry.backoff(TRANSIENT_RETRIES, TRANSIENT_BACKOFF)
+      .filter(retryable)
+      .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+  }
+
+  /**
+   * Indica si el error es un conflicto de escritura u otro error transitorio de una
+   * transacción de Mongo, que se resuelve repitiendo la transacción completa.
+   */
+  static boolean isTransient(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof MongoException mongo
+          && (mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)
+            || mongo.getCode() == WRITE_CONFLICT)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Query shardQuery(String accountId, int shard) {
+    return Query.query(Criteria.where(ACCOUNT_ID).is(accountId).and(SHARD).is(shard));
+  }
+}
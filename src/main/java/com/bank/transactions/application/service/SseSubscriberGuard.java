@@ -0,0 +1,209 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.domain.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Aísla a cada suscriptor del stream SSE de transacciones de los demás.
+ *
+ * <p>Cada conexión tiene su propio buffer de hasta {@code bankx.sse.subscriber.max-lag}
+ * eventos entre el sink compartido y el socket: el sink nunca espera al más lento y la memoria
+ * por suscriptor queda acotada. El retraso ("lag") de una conexión son los eventos en ese
+ * buffer. Si llega al tope se aplica {@code bankx.sse.subscriber.policy}:</p>
+ *
+ * <ul>
+ *   <li>{@code evict}: se descarta el buffer y el stream termina con el comentario
+ *   {@code :evicted}; {@code EventSource} se reconecta solo, desde los eventos nuevos.</li>
+ *   <li>{@code downgrade}: la conexión sigue pero pierde los eventos más viejos; el siguiente
+ *   evento entregado lleva el comentario {@code :dropped N}.</li>
+ * </ul>
+ *
+ * <p>Cada {@code bankx.sse.subscriber.heartbeat} se envía el comentario {@code :heartbeat};
+ * escribir en una conexión muerta falla y libera al suscriptor aunque no haya tráfico.</p>
+ *
+ * <p>Métricas: {@code bankx.sse.subscribers}, {@code bankx.sse.subscriber.lag} (muestreado
+ * cada {@code lag-sample-interval}), {@code bankx.sse.subscriber.evictions} y
+ * {@code bankx.sse.subscriber.dropped}.</p>
+ */
+@Component
+@Slf4j
+public class SseSubscriberGuard implements DisposableBean {
+
+  /**
+   * Qué hacer con un suscriptor que llega al retraso máximo.
+   */
+  public enum Policy {
+    /** Cerrar el stream. */
+    EVICT,
+    /** Seguir perdiendo los eventos más viejos. */
+    DOWNGRADE
+  }
+
+  private static final ServerSentEvent<Transaction> HEARTBEAT =
+      ServerSentEvent.<Transaction>builder().comment("heartbeat").build();
+  private static final ServerSentEvent<Transaction> EVICTED =
+      ServerSentEvent.<Transaction>builder().comment("evicted").build();
+
+  private final int maxLag;
+  private final Policy policy;
+  private final Duration heartbeat;
+  private final Duration lagSampleInterval;
+  private final Set<Subscriber> active = ConcurrentHashMap.newKeySet();
+  private final DistributionSummary lag;
+  private final Counter evictions;
+  private final Counter droppedEvents;
+  private Disposable sampler;
+
+  /**
+   * Crea la guarda.
+   *
+   * @param registry          registro de métricas
+   * @param maxLag            {@code bankx.sse.subscriber.max-lag}, eventos en espera por
+   *                          suscriptor
+   * @param policy            {@code bankx.sse.subscriber.policy}, {@code evict} o
+   *                          {@code downgrade}
+   * @param heartbeat         {@code bankx.sse.subscriber.heartbeat}; cero los desactiva
+   * @param lagSampleInterval {@code bankx.sse.subscriber.lag-sample-interval}
+   */
+  public SseSubscriberGuard(
+      MeterRegistry registry,
+      @Value("${bankx.sse.subscriber.max-lag:1000}") int maxLag,
+      @Value("${bankx.sse.subscriber.policy:evict}") String policy,
+      @Value("${bankx.sse.subscriber.heartbeat:15s}") Duration heartbeat,
+      @Value("${bankx.sse.subscriber.lag-sample-interval:1s}") Duration lagSampleInterval) {
+    this.maxLag = Math.max(1, maxLag);
+    this.policy = Policy.valueOf(policy.toUpperCase(Locale.ROOT));
+    this.heartbeat = heartbeat;
+    this.lagSampleInterval = lagSampleInterval;
+    this.lag = DistributionSummary.builder("bankx.sse.subscriber.lag")
+      .description("Eventos en espera por suscriptor SSE")
+      .publishPercentiles(0.5, 0.99)
+      .register(registry);
+    this.evictions = Counter.builder("bankx.sse.subscriber.evictions")
+      .description("Suscriptores SSE desconectados por retraso")
+      .register(registry);
+    this.droppedEvents = Counter.builder("bankx.sse.subscriber.dropped")
+      .description("Eventos SSE descartados a suscriptores degradados")
+      .register(registry);
+    registry.gauge("bankx.sse.subscribers", active, Set::size);
+  }
+
+  /**
+   * Programa el muestreo del retraso al terminar el arranque.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void startSampling() {
+    sampler = Flux.interval(lagSampleInterval, lagSampleInterval)
+      .onBackpressureDrop()
+      .subscribe(tick -> sampleLag());
+  }
+
+  @Override
+  public void destroy() {
+    if (sampler != null) {
+      sampler.dispose();
+    }
+  }
+
+  /**
+   * Convierte el flujo compartido en el stream SSE de un suscriptor, con buffer propio,
+   * política de retraso y latidos.
+   *
+   * @param source transacciones en tiempo real, compartidas entre suscriptores
+   * @return un {@link Flux} de eventos {@code transaction} y comentarios de control
+   */
+  public Flux<ServerSentEvent<Transaction>> attach(Flux<Transaction> source) {
+    return Flux.defer(() -> {
+      Subscriber subscriber = new Subscriber();
+      Flux<ServerSentEvent<Transaction>> events = source
+          .doOnNext(tx -> subscriber.received.incrementAndGet())
+          .onBackpressureBuffer(maxLag, tx -> subscriber.overflow(),
+              BufferOverflowStrategy.DROP_OLDEST)
+          .map(subscriber::toEvent);
+      if (!heartbeat.isZero() && !heartbeat.isNegative()) {
+        events = events.mergeWith(Flux.interval(heartbeat, heartbeat)
+          .onBackpressureDrop()
+          .map(tick -> HEARTBEAT));
+      }
+      return events
+        .takeUntilOther(subscriber.evicted.asMono())
+        .concatWith(Mono.fromCallable(() -> subscriber.isEvicted() ? EVICTED : null))
+        .doOnSubscribe(subscription -> active.add(subscriber))
+        .doFinally(signal -> active.remove(subscriber));
+    });
+  }
+
+  /**
+   * Registra el retraso de cada suscriptor activo.
+   */
+  void sampleLag() {
+    active.forEach(subscriber -> lag.record(subscriber.lag()));
+  }
+
+  /**
+   * Suscriptores conectados.
+   *
+   * @return cantidad de suscriptores
+   */
+  public int subscribers() {
+    return active.size();
+  }
+
+  private final class Subscriber {
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong reported = new AtomicLong();
+    private final AtomicBoolean evictedFlag = new AtomicBoolean();
+    private final Sinks.Empty<Void> evicted = Sinks.empty();
+
+    long lag() {
+      return Math.max(0, received.get() - delivered.get() - dropped.get());
+    }
+
+    boolean isEvicted() {
+      return evictedFlag.get();
+    }
+
+    void overflow() {
+      dropped.incrementAndGet();
+      if (policy == Policy.DOWNGRADE) {
+        droppedEvents.increment();
+      } else if (evictedFlag.compareAndSet(false, true)) {
+        evictions.increment();
+        log.warn("Evicting SSE subscriber: {} events behind", maxLag);
+        evicted.tryEmitEmpty();
+      }
+    }
+
+    ServerSentEvent<Transaction> toEvent(Transaction tx) {
+      delivered.incrementAndGet();
+      long total = dropped.get();
+      long skipped = total - reported.getAndSet(total);
+      ServerSentEvent.Builder<Transaction> event = ServerSentEvent.builder(tx)
+          .event("transaction");
+      return skipped > 0 ? event.comment("dropped " + skipped).build() : event.build();
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.TransactionRepository;
+import com.mongodb.MongoBulkWriteException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Escritura agrupada ("group commit") de transacciones.
+ *
+ * <p>Las transacciones de solicitudes concurrentes se encolan y se escriben con un solo
+ * {@code insertMany} no ordenado. La ventana es adaptativa: si no hay escrituras en curso
+ * la transacción se escribe de inmediato (lote de 1); mientras haya
+ * {@code bankx.tx-batch.max-in-flight} lotes en curso, las nuevas se acumulan y salen juntas
+ * en el siguiente, hasta {@code bankx.tx-batch.max-size}. Cada {@link Mono} completa
+ * recién cuando Mongo confirma su lote, así que la durabilidad es la misma que con
+ * {@code save}.</p>
+ *
+ * <p>Con {@code bankx.tx-batch.enabled=false} se usa {@link TransactionRepository#save}.</p>
+ */
+@Service
+@Slf4j
+public class TransactionBatchWriter {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final TransactionRepository txRepo;
+  private final boolean enabled;
+  private final int maxSize;
+  private final int maxInFlight;
+
+  private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final DistributionSummary batchSize;
+  private final Timer flushLatency;
+  private final Timer flushFailures;
+
+  /**
+   * Crea el escritor agrupado.
+   *
+   * @param mongoTemplate plantilla reactiva de Mongo
+   * @param txRepo        repositorio usado cuando el agrupamiento está desactivado
+   * @param registry      registro de métricas
+   * @param enabled       {@code bankx.tx-batch.enabled}
+   * @param maxSize       {@code bankx.tx-batch.max-size}, tamaño máximo de lote
+   * @param maxInFlight   {@code bankx.tx-batch.max-in-flight}, lotes simultáneos en curso
+   */
+  public TransactionBatchWriter(
+      ReactiveMongoTemplate mongoTemplate,
+      TransactionRepository txRepo,
+      MeterRegistry registry,
+      @Value("${bankx.tx-batch.enabled:true}") boolean enabled,
+      @Value("${bankx.tx-batch.max-size:256}") int maxSize,
+      @Value("${bankx.tx-batch.max-in-flight:2}") int maxInFlight) {
+    this.mongoTemplate = mongoTemplate;
+    this.txRepo = txRepo;
+    this.enabled = enabled;
+    this.maxSize = Math.max(1, maxSize);
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.batchSize = DistributionSummary.builder("bankx.tx.batch.size")
+      .description("Transacciones por insertMany")
+      .publishPercentiles(0.5, 0.99)
+      .register(registry);
+    this.flushLatency = Timer.builder("bankx.tx.batch.flush")
+      .description("Latencia de escritura de un lote")
+      .tag("outcome", "success")
+      .publishPercentiles(0.5, 0.99)
+      .register(registry);
+    this.flushFailures = Timer.builder("bankx.tx.batch.flush")
+      .description("Latencia de escritura de un lote")
+      .tag("outcome", "error")
+      .register(registry);
+    registry.gauge("bankx.tx.batch.pending", queue, Queue::size);
+  }
+
+  /**
+   * Inserta la transacción en el próximo lote.
+   *
+   * @param tx transacción a insertar
+   * @return un {@link Mono} con la transacción persistida, cuando su lote es confirmado
+   */
+  public Mono<Transaction> insert(Transaction tx) {
+    if (!enabled) {
+      return txRepo.save(tx);
+    }
+    return Mono.create(sink -> {
+      if (tx.getId() == null) {
+        // insertMany no devuelve los ids generados, así que se asignan aquí
+        tx.setId(new ObjectId().toHexString());
+      }
+      queue.offer(new Pending(tx, sink));
+      drain();
+    });
+  }
+
+  /**
+   * Lanza lotes mientras haya pendientes y cupo de escrituras en curso.
+   */
+  private void drain() {
+    while (!queue.isEmpty()) {
+      int current = inFlight.get();
+      if (current >= maxInFlight) {
+        return;
+      }
+      if (!inFlight.compareAndSet(current, current + 1)) {
+        continue;
+      }
+      List<Pending> batch = new ArrayList<>(Math.min(maxSize, 64));
+      Pending next;
+      while (batch.size() < maxSize && (next = queue.poll()) != null) {
+        batch.add(next);
+      }
+      if (batch.isEmpty()) {
+        inFlight.decrementAndGet();
+      } else {
+        flush(batch);
+      }
+    }
+  }
+
+  private void flush(List<Pending> batch) {
+    List<Transaction> docs = new ArrayList<>(batch.size());
+    batch.forEach(p -> docs.add(p.tx()));
+    batchSize.record(batch.size());
+    long start = System.nanoTime();
+
+    mongoTemplate.bulkOps(BulkMode.UNORDERED, Transaction.class)
+        .insert(docs)
+        .execute()
+        .subscribe(
+          null,
+          error -> {
+            flushFailures.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            fail(batch, error);
+            release();
+          },
+          () -> {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.forEach(p -> p.sink().success(p.tx()));
+            release();
+          });
+  }
+
+  /**
+   * En un lote no ordenado solo fallan los documentos con error; el resto sí se escribió.
+   */
+  private void fail(List<Pending> batch, Throwable error) {
+    MongoBulkWriteException bulkError = findBulkError(error);
+    if (bulkError == null || bulkError.getWriteConcernError() != null) {
+      log.error("Transaction batch of {} failed: {}", batch.size(), error.getMessage());
+      batch.forEach(p -> p.sink().error(error));
+      return;
+    }
+    Set<Integer> failed = new HashSet<>();
+    bulkError.getWriteErrors().forEach(e -> failed.add(e.getIndex()));
+    log.warn("Transaction batch of {} had {} write errors", batch.size(), failed.size());
+    for (int i = 0; i < batch.size(); i++) {
+      Pending p = batch.get(i);
+      if (failed.contains(i)) {
+        p.sink().error(error);
+      } else {
+        p.sink().success(p.tx());
+      }
+    }
+  }
+
+  private static MongoBulkWriteException findBulkError(Throwable error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof MongoBulkWriteException bulk) {
+        return bulk;
+      }
+    }
+    return null;
+  }
+
+  private void release() {
+    inFlight.decrementAndGet();
+    drain();
+  }
+
+  private record Pending(Transaction tx, MonoSink<Transaction> sink) {
+  }
+}
@@ -0,0 +1,50 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.domain.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Publica las transacciones creadas hacia los suscriptores locales (SSE, RSocket, vista de
+ * cuentas), que leen el sink de transacciones.
+ *
+ * <p>Con {@code bankx.stream.source=local} (por defecto) la transacción se emite en el sink
+ * de este nodo. Con {@code change-stream} no se emite nada aquí: todos los nodos la reciben
+ * del change stream de Mongo ({@code TransactionChangeStream}), así que cada suscriptor ve
+ * las transacciones de todo el cluster, una sola vez.</p>
+ */
+@Component
+@Slf4j
+public class TransactionEventPublisher {
+
+  private final Sinks.Many<Transaction> txSink;
+  private final boolean local;
+
+  /**
+   * Crea el publicador.
+   *
+   * @param txSink sink de transacciones de este nodo
+   * @param source {@code bankx.stream.source}: {@code local} o {@code change-stream}
+   */
+  public TransactionEventPublisher(Sinks.Many<Transaction> txSink,
+                                   @Value("${bankx.stream.source:local}") String source) {
+    this.txSink = txSink;
+    this.local = !"change-stream".equalsIgnoreCase(source);
+  }
+
+  /**
+   * Publica una transacción ya persistida.
+   *
+   * @param tx transacción creada
+   */
+  public void publish(Transaction tx) {
+    if (local) {
+      Sinks.EmitResult result = txSink.tryEmitNext(tx);
+      if (result.isFailure()) {
+        log.warn("Transaction {} not published: {}", tx.getId(), result);
+      }
+    }
+  }
+}
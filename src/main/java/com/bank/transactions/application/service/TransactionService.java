@@ -3,12 +3,15 @@ package com.bank.transactions.application.service;
 import com.bank.transactions.application.dto.CreateTxRequest;
 import com.bank.transactions.config.LogContext;
 import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.exception.ErrorCode;
 import com.bank.transactions.domain.model.Account;
 import com.bank.transactions.domain.model.Transaction;
 import com.bank.transactions.domain.repository.AccountRepository;
 import com.bank.transactions.domain.repository.TransactionRepository;
+import io.micrometer.observation.ObservationRegistry;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.codec.ServerSentEvent;
@@ -32,14 +35,22 @@ import reactor.core.scheduler.Schedulers;
 public class TransactionService {
 
   private static final String DEBIT_KEY = "DEBIT";
+  private static final int BALANCE_WRITE_ATTEMPTS = 3;
   private final AccountRepository accountRepo;
   private final TransactionRepository txRepo;
   private final RiskRemoteClient riskRemoteClient;
   private final LogContext logContext;
   private final Sinks.Many<Transaction> txSink;
+  private final TransactionEventPublisher events;
+  private final ShardedBalanceService shardedBalances;
+  private final TransactionBatchWriter txWriter;
+  private final RiskService riskService;
+  private final SseSubscriberGuard sseSubscribers;
+  private final ObservationRegistry observations;
 
   /**
-   * Crea una nueva transacción validando tipo, fondos y reglas de riesgo.
+   * Crea una nueva transacción validando tipo, fondos y reglas de riesgo. Cada etapa se
+   * observa por separado ({@link TransactionStages}).
    *
    * @param req la solicitud de creación de transacción
    * @return un {@link Mono} con la transacción creada
@@ -49,14 +60,17 @@ public class TransactionService {
     log.info("Creating transaction: {}", req);
 
     return logContext.withMdc(
-      accountRepo.findByNumber(req.getAccountNumber())
-        .switchIfEmpty(Mono.error(new BusinessException("account_not_found")))
+      TransactionStages.observe(accountRepo.findByNumber(req.getAccountNumber()),
+          TransactionStages.ACCOUNT_LOOKUP, observations)
+        .switchIfEmpty(Mono.error(ErrorCode.ACCOUNT_NOT_FOUND.exception()))
         .flatMap(acc -> validateAndApply(acc, req))
         .doOnSuccess(tx -> {
           log.info("Transaction created successfully: {}", tx.getId());
-          txSink.tryEmitNext(tx);
+          events.publish(tx);
         })
-        .doOnError(error -> log.error("Error creating transaction: {}", error.getMessage()))
+        // Los rechazos de negocio los registra GlobalErrorHandler con límite de frecuencia
+        .doOnError(error -> !(error instanceof BusinessException),
+            error -> log.error("Error creating transaction: {}", error.getMessage()))
     );
   }
 
@@ -72,44 +86,116 @@ public class TransactionService {
     BigDecimal amount = req.getAmount();
 
     if (!"CREDIT".equals(type) && !DEBIT_KEY.equals(type)) {
-      return Mono.error(new BusinessException("invalid_transaction_type"));
+      return Mono.error(ErrorCode.INVALID_TRANSACTION_TYPE.exception());
     }
 
-    // Validación de riesgo remoto
-    return riskRemoteClient.isAllowed(acc.getCurrency(), type, amount)
-      .flatMap(allowed -> {
-        if (!allowed) {
-          return Mono.error(new BusinessException("risk_rejected"));
+    // Validación de riesgo remoto (con reintentos y fallback) y reserva de límites de velocidad
+    Instant now = Instant.now();
+    return TransactionStages.observe(
+          riskRemoteClient.isAllowed(acc.getCurrency(), type, amount, acc.getTier()),
+          TransactionStages.RISK_CHECK, observations)
+      .flatMap(allowed -> allowed
+          ? riskService.reserveVelocity(acc.getId(), acc.getCurrency(), type, amount, now)
+          : Mono.error(ErrorCode.RISK_REJECTED.exception()))
+      .flatMap(reserved -> {
+        if (!reserved) {
+          return Mono.error(ErrorCode.VELOCITY_LIMIT_EXCEEDED.exception());
         }
 
-        // Validación de fondos
-        if (DEBIT_KEY.equals(type) && acc.getBalance().compareTo(amount) < 0) {
-          return Mono.error(new BusinessException("insufficient_funds"));
-        }
-
-        // Actualizar balance y registrar transacción
+        // Actualizar balance y registrar transacción; si falla se devuelve la reserva
         return Mono.just(acc)
           .publishOn(Schedulers.parallel())
-          .map(account -> {
-            BigDecimal newBalance = DEBIT_KEY.equals(type)
-                ? account.getBalance().subtract(amount)
-                : account.getBalance().add(amount);
-            account.setBalance(newBalance);
-            return account;
-          })
-          .flatMap(accountRepo::save)
-          .flatMap(updatedAccount -> txRepo.save(Transaction.builder()
-            .accountId(updatedAccount.getId())
-            .accountNumber(updatedAccount.getNumber())
-            .type(type)
-            .amount(amount)
-            .currency(acc.getCurrency())
-            .timestamp(Instant.now())
-            .status("COMPLETED")
-            .build()));
+          .flatMap(account -> apply(account, type, amount, BALANCE_WRITE_ATTEMPTS))
+          .onErrorResume(error -> riskService.releaseVelocity(acc.getId(), type, amount, now)
+            .then(Mono.error(error)));
+      });
+  }
+
+  /**
+   * Aplica la transacción sobre el saldo leído. El saldo se escribe con un {@code $set}
+   * condicionado a que no haya cambiado ni se haya fraccionado la cuenta; si otra escritura
+   * se adelantó, se relee la cuenta y se vuelve a validar, hasta {@code attempts} veces.
+   *
+   * @param acc      la cuenta leída
+   * @param type     tipo de transacción (CREDIT o DEBIT)
+   * @param amount   monto de la transacción
+   * @param attempts intentos restantes
+   * @return un {@link Mono} con la transacción persistida
+   */
+  private Mono<Transaction> apply(Account acc, String type, BigDecimal amount, int attempts) {
+    if (ShardedBalanceService.isSharded(acc)) {
+      return applySharded(acc, type, amount);
+    }
+
+    // Validación de fondos
+    if (DEBIT_KEY.equals(type) && acc.getBalance().compareTo(amount) < 0) {
+      return Mono.error(ErrorCode.INSUFFICIENT_FUNDS.exception());
+    }
+
+    BigDecimal newBalance = DEBIT_KEY.equals(type)
+        ? acc.getBalance().subtract(amount)
+        : acc.getBalance().add(amount);
+    Mono<Boolean> write = accountRepo.compareAndSetBalance(acc.getId(), acc.getBalance(),
+        newBalance);
+    return TransactionStages.observe(write, TransactionStages.ACCOUNT_SAVE, observations)
+      .flatMap(written -> {
+        if (written) {
+          acc.setBalance(newBalance);
+          return persist(acc, type, amount);
+        }
+        if (attempts <= 1) {
+          return Mono.error(ErrorCode.CONCURRENT_UPDATE.exception());
+        }
+        return accountRepo.findById(acc.getId())
+          .switchIfEmpty(Mono.error(ErrorCode.ACCOUNT_NOT_FOUND.exception()))
+          .flatMap(current -> apply(current, type, amount, attempts - 1));
       });
   }
 
+  /**
+   * Aplica la transacción sobre una cuenta fraccionada: el saldo vive en sus sub-saldos,
+   * por lo que no se reescribe el documento de la cuenta.
+   *
+   * @param acc    la cuenta fraccionada
+   * @param type   tipo de transacción (CREDIT o DEBIT)
+   * @param amount monto de la transacción
+   * @return un {@link Mono} con la transacción persistida
+   */
+  private Mono<Transaction> applySharded(Account acc, String type, BigDecimal amount) {
+    Mono<Void> apply = DEBIT_KEY.equals(type)
+        ? shardedBalances.debit(acc, amount)
+          .flatMap(debited -> debited
+            ? Mono.<Void>empty()
+            : Mono.error(ErrorCode.INSUFFICIENT_FUNDS.exception()))
+        : shardedBalances.credit(acc, amount);
+    return apply.then(Mono.defer(() -> persist(acc, type, amount)));
+  }
+
+  /**
+   * Registra la transacción.
+   *
+   * @param acc    la cuenta
+   * @param type   tipo de transacción (CREDIT o DEBIT)
+   * @param amount monto de la transacción
+   * @return un {@link Mono} con la transacción persistida
+   */
+  private Mono<Transaction> persist(Account acc, String type, BigDecimal amount) {
+    return TransactionStages.observe(txWriter.insert(completed(acc, type, amount)),
+        TransactionStages.TRANSACTION_SAVE, observations);
+  }
+
+  private static Transaction completed(Account account, String type, BigDecimal amount) {
+    return Transaction.builder()
+      .accountId(account.getId())
+      .accountNumber(account.getNumber())
+      .type(type)
+      .amount(amount)
+      .currency(account.getCurrency())
+      .timestamp(Instant.now())
+      .status("COMPLETED")
+      .build();
+  }
+
   /**
    * Recupera todas las transacciones de una cuenta específica, ordenadas por fecha descendente.
    *
@@ -119,10 +205,37 @@ public class TransactionService {
   public Flux<Transaction> byAccount(String accountNumber) {
     log.debug("Fetching transactions for account: {}", accountNumber);
 
+    return history(accountNumber,
+        acc -> txRepo.findByAccountIdOrderByTimestampDesc(acc.getId()));
+  }
+
+  /**
+   * Recupera una página del historial de una cuenta, de la más reciente a la más antigua.
+   * Las transacciones archivadas solo se consultan si la página llega hasta ellas.
+   *
+   * @param accountNumber número de cuenta
+   * @param before        solo transacciones anteriores a esta fecha; {@code null} para las últimas
+   * @param limit         tamaño de la página
+   * @return un {@link Flux} con las transacciones de la página
+   */
+  public Flux<Transaction> byAccount(String accountNumber, Instant before, int limit) {
+    log.debug("Fetching {} transactions for account {} before {}", limit, accountNumber, before);
+
+    return history(accountNumber, acc -> txRepo.findHistory(acc.getId(), before, limit));
+  }
+
+  private Flux<Transaction> history(String accountNumber,
+                                    Function<Account, Flux<Transaction>> query) {
     return logContext.withMdc(
       accountRepo.findByNumber(accountNumber)
-        .switchIfEmpty(Mono.error(new BusinessException("account_not_found")))
-        .flatMapMany(acc -> txRepo.findByAccountIdOrderByTimestampDesc(acc.getId()))
+        .switchIfEmpty(Mono.error(ErrorCode.ACCOUNT_NOT_FOUND.exception()))
+        .flatMapMany(acc -> query.apply(acc)
+          .doOnNext(tx -> {
+            // El formato compacto puede omitir el número de cuenta
+            if (tx.getAccountNumber() == null) {
+              tx.setAccountNumber(acc.getNumber());
+            }
+          }))
         .doOnComplete(() ->
           log.debug("Completed fetching transactions for account: {}", accountNumber))
     );
@@ -130,14 +243,22 @@ public class TransactionService {
 
   /**
    * Devuelve un flujo reactivo (Server-Sent Events) con las transacciones en tiempo real.
+   * Cada suscriptor tiene su propio buffer acotado y latidos; ver {@link SseSubscriberGuard}.
    *
    * @return un {@link Flux} de {@link ServerSentEvent} con transacciones
    */
   public Flux<ServerSentEvent<Transaction>> stream() {
+    return sseSubscribers.attach(live());
+  }
+
+  /**
+   * Devuelve las transacciones en tiempo real sin envoltorio SSE, para los formatos de
+   * streaming (NDJSON, secuencias CBOR, Smile, Protobuf delimitado).
+   *
+   * @return un {@link Flux} con las transacciones a medida que se crean
+   */
+  public Flux<Transaction> live() {
     return txSink.asFlux()
-      .map(transaction -> ServerSentEvent.builder(transaction)
-        .event("transaction")
-        .build())
       .doOnSubscribe(subscription -> log.debug("New subscriber to transaction stream"))
       .doOnCancel(() -> log.debug("Transaction stream subscription cancelled"));
   }
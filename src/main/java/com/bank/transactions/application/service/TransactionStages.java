@@ -0,0 +1,42 @@
+package com.bank.transactions.application.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Etapas del procesamiento de una transacción, observadas como {@code bankx.transaction.stage}
+ * con el tag {@code stage}. Con tracing activo cada etapa es un span hijo del que esté en el
+ * contexto de Reactor (el de la petición HTTP o el de la etapa que la contiene).
+ */
+final class TransactionStages {
+
+  static final String OBSERVATION = "bankx.transaction.stage";
+  static final String ACCOUNT_LOOKUP = "account-lookup";
+  static final String RISK_CHECK = "risk-check";
+  static final String RISK_CALL = "risk-call";
+  static final String RISK_LEGACY = "risk-legacy";
+  static final String ACCOUNT_SAVE = "account-save";
+  static final String TRANSACTION_SAVE = "transaction-save";
+
+  private TransactionStages() {
+  }
+
+  /**
+   * Observa cada suscripción a {@code mono} como la etapa indicada; un reintento que vuelve a
+   * suscribirse abre otra observación.
+   *
+   * @param mono     etapa a observar
+   * @param stage    nombre de la etapa, que también es el nombre del span
+   * @param registry registro de observaciones
+   * @param <T>      tipo del resultado
+   * @return la etapa observada
+   */
+  static <T> Mono<T> observe(Mono<T> mono, String stage, ObservationRegistry registry) {
+    return mono.tap(Micrometer.observation(registry, reg ->
+        Observation.createNotStarted(OBSERVATION, reg)
+          .contextualName(stage)
+          .lowCardinalityKeyValue("stage", stage)));
+  }
+}
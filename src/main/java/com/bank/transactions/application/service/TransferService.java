@@ -0,0 +1,170 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.application.dto.TransferRequest;
+import com.bank.transactions.application.dto.TransferResponse;
+import com.bank.transactions.config.LogContext;
+import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.exception.ErrorCode;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Servicio de transferencias entre cuentas.
+ *
+ * <p>Una transferencia hace una sola evaluación de riesgo (débito de la cuenta origen) y
+ * escribe ambos saldos con una única escritura masiva ordenada por número de cuenta, y
+ * ambas {@link Transaction} con un único {@code insertMany}, todo dentro de una
+ * transacción multi-documento de Mongo: o se aplican las dos patas o ninguna.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferService {
+
+  private static final String DEBIT_KEY = "DEBIT";
+  private static final String CREDIT_KEY = "CREDIT";
+  private static final String BALANCE = "balance";
+
+  private final AccountRepository accountRepo;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final TransactionalOperator mongoTxOperator;
+  private final RiskRemoteClient riskRemoteClient;
+  private final LogContext logContext;
+  private final TransactionEventPublisher events;
+  private final RiskService riskService;
+
+  /**
+   * Ejecuta una transferencia entre dos cuentas de la misma moneda.
+   *
+   * @param req datos de la transferencia
+   * @return un {@link Mono} con las dos transacciones registradas
+   */
+  public Mono<TransferResponse> transfer(TransferRequest req) {
+    log.info("Creating transfer: {}", req);
+
+    if (req.getFromAccount().equals(req.getToAccount())) {
+      return Mono.error(ErrorCode.SAME_ACCOUNT.exception());
+    }
+
+    return logContext.withMdc(
+      Mono.zip(
+          findAccount(req.getFromAccount()),
+          findAccount(req.getToAccount()))
+        .flatMap(accounts -> validateAndApply(accounts.getT1(), accounts.getT2(), req))
+        .doOnSuccess(result -> {
+          log.info("Transfer completed: {} -> {}",
+              result.getDebit().getId(), result.getCredit().getId());
+          events.publish(result.getDebit());
+          events.publish(result.getCredit());
+        })
+        .doOnError(error -> !(error instanceof BusinessException),
+            error -> log.error("Error creating transfer: {}", error.getMessage()))
+    );
+  }
+
+  private Mono<Account> findAccount(String number) {
+    return accountRepo.findByNumber(number)
+      .switchIfEmpty(Mono.error(ErrorCode.ACCOUNT_NOT_FOUND.exception()));
+  }
+
+  private Mono<TransferResponse> validateAndApply(Account from, Account to, TransferRequest req) {
+    BigDecimal amount = req.getAmount();
+
+    if (ShardedBalanceService.isSharded(from) || ShardedBalanceService.isSharded(to)) {
+      return Mono.error(ErrorCode.SHARDED_ACCOUNT_NOT_SUPPORTED.exception());
+    }
+
+    if (!from.getCurrency().equals(to.getCurrency())
+        || !from.getCurrency().equalsIgnoreCase(req.getCurrency())) {
+      return Mono.error(ErrorCode.CURRENCY_MISMATCH.exception());
+    }
+
+    // Una sola evaluación de riesgo por transferencia
+    Instant now = Instant.now();
+    return riskRemoteClient.isAllowed(from.getCurrency(), DEBIT_KEY, amount, from.getTier())
+      .flatMap(allowed -> {
+        if (!allowed) {
+          return Mono.error(ErrorCode.RISK_REJECTED.exception());
+        }
+        if (from.getBalance().compareTo(amount) < 0) {
+          return Mono.error(ErrorCode.INSUFFICIENT_FUNDS.exception());
+        }
+        return riskService.reserveVelocity(from.getId(), from.getCurrency(), DEBIT_KEY, amount,
+            now);
+      })
+      .flatMap(reserved -> {
+        if (!reserved) {
+          return Mono.error(ErrorCode.VELOCITY_LIMIT_EXCEEDED.exception());
+        }
+        // Si la transacción de Mongo falla se devuelve la reserva de velocidad
+        return mongoTxOperator.transactional(writeLegs(from, to, amount, now))
+          .onErrorResume(error -> riskService.releaseVelocity(from.getId(), DEBIT_KEY, amount,
+              now).then(Mono.error(error)));
+      });
+  }
+
+  /**
+   * Escribe ambas patas: saldos con una escritura masiva (en orden determinista de número
+   * de cuenta, condicionada al saldo leído y a que la cuenta siga sin fraccionar) y
+   * transacciones con un solo {@code insertMany}.
+   */
+  private Mono<TransferResponse> writeLegs(Account from, Account to, BigDecimal amount,
+                                           Instant now) {
+    List<Account> ordered = List.of(from, to).stream()
+        .sorted(Comparator.comparing(Account::getNumber))
+        .toList();
+
+    ReactiveBulkOperations balances = mongoTemplate.bulkOps(BulkMode.ORDERED, Account.class);
+    for (Account account : ordered) {
+      BigDecimal newBalance = account == from
+          ? account.getBalance().subtract(amount)
+          : account.getBalance().add(amount);
+      balances.updateOne(
+          Query.query(Criteria.where("_id").is(account.getId())
+            .and(BALANCE).is(account.getBalance())
+            .and("shards").is(null)),
+          Update.update(BALANCE, newBalance));
+    }
+
+    Transaction debit = leg(from, DEBIT_KEY, amount, now);
+    Transaction credit = leg(to, CREDIT_KEY, amount, now);
+
+    return balances.execute()
+      .flatMap(result -> result.getMatchedCount() == ordered.size()
+          ? Mono.just(result)
+          : Mono.error(ErrorCode.CONCURRENT_UPDATE.exception()))
+      .then(mongoTemplate.insertAll(List.of(debit, credit)).collectList())
+      .map(saved -> TransferResponse.builder()
+        .debit(saved.get(0))
+        .credit(saved.get(1))
+        .build());
+  }
+
+  private static Transaction leg(Account account, String type, BigDecimal amount, Instant now) {
+    return Transaction.builder()
+      .accountId(account.getId())
+      .accountNumber(account.getNumber())
+      .type(type)
+      .amount(amount)
+      .currency(account.getCurrency())
+      .timestamp(now)
+      .status("COMPLETED")
+      .build();
+  }
+}
@@ -0,0 +1,186 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.domain.model.VelocityWindow;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Decimal128;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Acumulados de débitos por cuenta en ventanas diaria y horaria ({@link VelocityWindow}).
+ *
+ * <p>Cada débito se reserva con un {@code $inc} (upsert) condicionado a los límites sobre el
+ * documento de la hora y el del día en curso; leer los acumulados vigentes es una búsqueda de
+ * dos documentos por {@code _id}, sin recorrer transacciones. Un índice TTL sobre
+ * {@code expiresAt} borra las ventanas vencidas.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VelocityAggregates {
+
+  private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd")
+      .withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyyMMddHH")
+      .withZone(ZoneOffset.UTC);
+  /** Margen tras el fin de la ventana antes de borrarla. */
+  private static final Duration RETENTION = Duration.ofHours(1);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  /**
+   * Acumulados vigentes de una cuenta.
+   *
+   * @param debitSumToday   suma de débitos del día (UTC)
+   * @param debitsThisHour  cantidad de débitos de la hora en curso
+   */
+  public record Snapshot(BigDecimal debitSumToday, long debitsThisHour) {
+  }
+
+  /**
+   * Crea el índice TTL al arrancar; si Mongo no está disponible solo se registra el error.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensureTtlIndex() {
+    mongoTemplate.indexOps(VelocityWindow.class)
+        .ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO))
+        .subscribe(
+          name -> log.debug("Velocity TTL index ready: {}", name),
+          error -> log.warn("Could not create velocity TTL index: {}", error.getMessage()));
+  }
+
+  /**
+   * Lee los acumulados del día y la hora en curso.
+   *
+   * @param accountId identificador de la cuenta
+   * @param now       instante de referencia
+   * @return {@link Mono} con los acumulados (en cero si aún no hay ventanas)
+   */
+  public Mono<Snapshot> current(String accountId, Instant now) {
+    String dayId = dayId(accountId, now);
+    String hourId = hourId(accountId, now);
+    return mongoTemplate.find(Query.query(Criteria.where("_id").in(dayId, hourId)),
+        VelocityWindow.class)
+      .collectMap(VelocityWindow::getId)
+      .map(windows -> new Snapshot(
+        windows.containsKey(dayId) ? windows.get(dayId).getDebitSum() : BigDecimal.ZERO,
+        windows.containsKey(hourId) ? windows.get(hourId).getDebitCount() : 0L));
+  }
+
+  /**
+   * Reserva un débito en las ventanas de la hora y del día solo si no supera los límites.
+   *
+   * <p>Cada ventana se actualiza con un upsert condicional: el filtro exige
+   * {@code debitCount < maxTxPerHour} en la hora y {@code debitSum <= maxDebitPerDay - amount}
+   * en el día, y el {@code $inc} se aplica en la misma operación atómica, así que débitos
+   * concurrentes no pueden superar el límite entre la verificación y la escritura. Si el
+   * filtro no coincide, el upsert intenta insertar un {@code _id} que ya existe y Mongo
+   * responde clave duplicada: la reserva se rechaza, y si la hora ya estaba reservada se
+   * libera.</p>
+   *
+   * @param accountId      identificador de la cuenta
+   * @param amount         monto a debitar
+   * @param at             instante del débito
+   * @param maxDebitPerDay suma máxima diaria, o {@code null} sin límite
+   * @param maxTxPerHour   cantidad máxima por hora, o {@code null} sin límite
+   * @return {@link Mono} con {@code true} si el débito quedó reservado
+   */
+  public Mono<Boolean> reserve(String accountId, BigDecimal amount, Instant at,
+                               BigDecimal maxDebitPerDay, Integer maxTxPerHour) {
+    // Sin ventana previa el upsert inserta sin evaluar el filtro
+    if ((maxDebitPerDay != null && amount.compareTo(maxDebitPerDay) > 0)
+        || (maxTxPerHour != null && maxTxPerHour < 1)) {
+      return Mono.just(false);
+    }
+    Instant dayStart = at.truncatedTo(ChronoUnit.DAYS);
+    Instant hourStart = at.truncatedTo(ChronoUnit.HOURS);
+    Criteria hour = Criteria.where("_id").is(hourId(accountId, at));
+    if (maxTxPerHour != null) {
+      hour = hour.and("debitCount").lt(maxTxPerHour.longValue());
+    }
+    Criteria day = Criteria.where("_id").is(dayId(accountId, at));
+    if (maxDebitPerDay != null) {
+      day = day.and("debitSum").lte(new Decimal128(maxDebitPerDay.subtract(amount)));
+    }
+    Query dayQuery = Query.query(day);
+    return reserveWindow(Query.query(hour),
+        increment(accountId, amount, hourStart, hourStart.plus(Duration.ofHours(1))))
+      .flatMap(hourReserved -> !hourReserved ? Mono.just(false)
+        : reserveWindow(dayQuery,
+            increment(accountId, amount, dayStart, dayStart.plus(Duration.ofDays(1))))
+          .flatMap(dayReserved -> dayReserved ? Mono.just(true)
+            : undo(hourId(accountId, at), amount).thenReturn(false)));
+  }
+
+  /**
+   * Devuelve un débito reservado con {@link #reserve} que finalmente no se registró.
+   *
+   * @param accountId identificador de la cuenta
+   * @param amount    monto reservado
+   * @param at        instante usado al reservar
+   * @return {@link Mono} que completa cuando ambas ventanas están actualizadas
+   */
+  public Mono<Void> release(String accountId, BigDecimal amount, Instant at) {
+    return mongoTemplate.bulkOps(BulkMode.UNORDERED, VelocityWindow.class)
+      .updateOne(Query.query(Criteria.where("_id").is(dayId(accountId, at))), decrement(amount))
+      .updateOne(Query.query(Criteria.where("_id").is(hourId(accountId, at))), decrement(amount))
+      .execute()
+      .then();
+  }
+
+  private Mono<Boolean> reserveWindow(Query query, Update update) {
+    return mongoTemplate.upsert(query, update, VelocityWindow.class)
+      .thenReturn(true)
+      // Otro débito pudo crear la ventana a la vez; el reintento ya evalúa el filtro
+      .onErrorResume(DuplicateKeyException.class,
+        e -> mongoTemplate.upsert(query, update, VelocityWindow.class).thenReturn(true))
+      .onErrorReturn(DuplicateKeyException.class, false);
+  }
+
+  private Mono<Void> undo(String windowId, BigDecimal amount) {
+    return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(windowId)),
+        decrement(amount), VelocityWindow.class)
+      .then();
+  }
+
+  private static Update increment(String accountId, BigDecimal amount, Instant start,
+                                  Instant end) {
+    return new Update()
+      .inc("debitSum", new Decimal128(amount))
+      .inc("debitCount", 1L)
+      .setOnInsert("accountId", accountId)
+      .setOnInsert("start", start)
+      .setOnInsert("expiresAt", end.plus(RETENTION));
+  }
+
+  private static Update decrement(BigDecimal amount) {
+    return new Update()
+      .inc("debitSum", new Decimal128(amount.negate()))
+      .inc("debitCount", -1L);
+  }
+
+  static String dayId(String accountId, Instant at) {
+    return accountId + ":D:" + DAY.format(at);
+  }
+
+  static String hourId(String accountId, Instant at) {
+    return accountId + ":H:" + HOUR.format(at);
+  }
+}
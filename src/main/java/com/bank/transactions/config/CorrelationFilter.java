@@ -1,8 +1,11 @@
 package com.bank.transactions.config;
 
+import io.micrometer.common.KeyValue;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
@@ -13,12 +16,16 @@ import reactor.util.context.Context;
 /**
  * Filtro WebFlux que agrega y propaga un identificador de correlación (Correlation ID)
  * en cada solicitud HTTP entrante y saliente.
+ *
+ * <p>El ID también se agrega como {@code correlation.id} a la observación de la petición, de
+ * modo que su span puede buscarse por el mismo valor que aparece en los logs.</p>
  */
 @Component
 public class CorrelationFilter implements WebFilter {
 
   private static final String HEADER = "X-Correlation-Id";
   private static final String CORRELATION_ID_KEY = "corrId";
+  static final String SPAN_TAG = "correlation.id";
 
   @Override
   public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
@@ -26,11 +33,28 @@ public class CorrelationFilter implements WebFilter {
     String correlationId = Optional.ofNullable(exchange.getRequest()
         .getHeaders()
         .getFirst(HEADER))
-        .orElse(UUID.randomUUID().toString());
+        .orElseGet(CorrelationFilter::newCorrelationId);
 
     response.getHeaders().add(HEADER, correlationId);
+    ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+        .ifPresent(context -> context.addHighCardinalityKeyValue(
+            KeyValue.of(SPAN_TAG, correlationId)));
 
     return chain.filter(exchange)
       .contextWrite(Context.of(CORRELATION_ID_KEY, correlationId));
   }
+
+  /**
+   * UUID versión 4 tomado de {@link ThreadLocalRandom}. {@link UUID#randomUUID()} usa
+   * {@code SecureRandom}, que puede leer {@code /dev/urandom} en el event loop; el ID de
+   * correlación no necesita ser impredecible.
+   *
+   * @return nuevo ID de correlación
+   */
+  static String newCorrelationId() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long mostSig = (random.nextLong() & ~0xF000L) | 0x4000L;
+    long leastSig = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(mostSig, leastSig).toString();
+  }
 }
@@ -0,0 +1,42 @@
+package com.bank.transactions.config;
+
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+/**
+ * Configuración del formato de almacenamiento en Mongo.
+ *
+ * <p>Las transacciones se guardan con {@link CompactTransactionCodec}. Con
+ * {@code bankx.tx-storage.drop-account-number=true} además se omite el número de cuenta,
+ * que se completa al leer desde la cuenta consultada.</p>
+ */
+@Configuration
+public class MongoStorageConfig {
+
+  /**
+   * Crea el codec compacto de transacciones.
+   *
+   * @param dropAccountNumber si no se persiste {@code accountNumber}
+   * @return codec de transacciones
+   */
+  @Bean
+  public CompactTransactionCodec compactTransactionCodec(
+      @Value("${bankx.tx-storage.drop-account-number:false}") boolean dropAccountNumber) {
+    return new CompactTransactionCodec(dropAccountNumber);
+  }
+
+  /**
+   * Registra los convertidores del formato compacto.
+   *
+   * @param codec codec de transacciones
+   * @return conversiones personalizadas de Mongo
+   */
+  @Bean
+  public MongoCustomConversions mongoCustomConversions(CompactTransactionCodec codec) {
+    return new MongoCustomConversions(List.of(codec.writer(), codec.reader()));
+  }
+}
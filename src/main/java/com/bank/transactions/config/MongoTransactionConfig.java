@@ -0,0 +1,30 @@
+package com.bank.transactions.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Configuración de transacciones multi-documento de Mongo.
+ *
+ * <p>Solo se expone un {@link TransactionalOperator}: registrar el
+ * {@link ReactiveMongoTransactionManager} como bean desactivaría el
+ * {@code transactionManager} de JPA que usa el módulo de riesgo legado.
+ * Requiere que Mongo corra como replica set (basta uno de un solo nodo).</p>
+ */
+@Configuration
+public class MongoTransactionConfig {
+
+  /**
+   * Crea el operador transaccional reactivo para Mongo.
+   *
+   * @param databaseFactory factoría reactiva de Mongo
+   * @return operador para envolver flujos en una transacción de Mongo
+   */
+  @Bean
+  public TransactionalOperator mongoTxOperator(ReactiveMongoDatabaseFactory databaseFactory) {
+    return TransactionalOperator.create(new ReactiveMongoTransactionManager(databaseFactory));
+  }
+}
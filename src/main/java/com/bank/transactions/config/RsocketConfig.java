@@ -0,0 +1,55 @@
+package com.bank.transactions.config;
+
+import io.rsocket.core.RSocketServer;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.ServerTransport;
+import io.rsocket.transport.netty.server.WebsocketRouteTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.rsocket.RSocketMessageHandlerCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+/**
+ * RSocket por TCP y por WebSocket.
+ *
+ * <p>Spring Boot levanta el servidor TCP en {@code spring.rsocket.server.port}. Boot solo sirve
+ * uno de los dos transportes, así que el de WebSocket se agrega aquí como ruta del servidor
+ * Netty de WebFlux en {@code bankx.rsocket.websocket.path}; ambos comparten el mismo
+ * {@link RSocketMessageHandler}.</p>
+ */
+@Configuration
+public class RsocketConfig {
+
+  /**
+   * Valida los payloads anotados con {@code @Valid}, como en los controladores REST.
+   *
+   * @param validator validador de Bean Validation de Spring Boot
+   * @return el personalizador del handler
+   */
+  @Bean
+  public RSocketMessageHandlerCustomizer validatingMessageHandler(
+      LocalValidatorFactoryBean validator) {
+    return handler -> handler.setValidator(validator);
+  }
+
+  /**
+   * RSocket sobre WebSocket en el puerto HTTP.
+   *
+   * @param handler handler de los {@code @MessageMapping}
+   * @param path    {@code bankx.rsocket.websocket.path}
+   * @return la ruta para el servidor Netty
+   */
+  @Bean
+  public NettyRouteProvider rsocketWebSocketRoute(
+      RSocketMessageHandler handler,
+      @Value("${bankx.rsocket.websocket.path:/rsocket}") String path) {
+    ServerTransport.ConnectionAcceptor acceptor = RSocketServer.create(handler.responder())
+        // Igual que el servidor TCP de Boot: los payloads quedan en los buffers de Netty
+        .payloadDecoder(PayloadDecoder.ZERO_COPY)
+        .asConnectionAcceptor();
+    return routes -> routes.ws(path, WebsocketRouteTransport.newHandler(acceptor));
+  }
+}
@@ -0,0 +1,53 @@
+package com.bank.transactions.config;
+
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuración del {@link Scheduler} usado para aislar las llamadas bloqueantes
+ * (JPA/H2 del módulo de riesgo legado, lectura de archivos, etc.).
+ *
+ * <p>Con {@code bankx.blocking.scheduler=virtual} (por defecto) cada tarea corre en su
+ * propio hilo virtual, sin el tope de 10 × núcleos ni la cola de
+ * {@link Schedulers#boundedElastic()}. Con {@code bounded-elastic} se mantiene el
+ * comportamiento anterior.</p>
+ */
+@Configuration
+@Slf4j
+public class SchedulerConfig {
+
+  /**
+   * Crea el scheduler para secciones bloqueantes.
+   *
+   * @param type {@code virtual} o {@code bounded-elastic}
+   * @return scheduler configurado
+   */
+  @Bean(destroyMethod = "dispose")
+  public Scheduler blockingScheduler(
+      @Value("${bankx.blocking.scheduler:virtual}") String type) {
+    log.info("Blocking scheduler: {}", type);
+    if ("bounded-elastic".equalsIgnoreCase(type)) {
+      return Schedulers.newBoundedElastic(
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+        "blocking");
+    }
+    return virtualThreads();
+  }
+
+  /**
+   * Scheduler que ejecuta cada tarea en un hilo virtual nuevo.
+   *
+   * @return scheduler respaldado por hilos virtuales
+   */
+  public static Scheduler virtualThreads() {
+    return Schedulers.fromExecutorService(
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-vt-", 0).factory()),
+      "blocking-vt");
+  }
+}
@@ -0,0 +1,85 @@
+package com.bank.transactions.config;
+
+import com.bank.transactions.infrastructure.tracing.FileSpanExporter;
+import com.bank.transactions.infrastructure.tracing.HeadSampler;
+import com.bank.transactions.infrastructure.tracing.SlowOrErrorSpanProcessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Trazas de Micrometer Tracing sobre OpenTelemetry.
+ *
+ * <p>Se muestrea en la cabecera una fracción {@code management.tracing.sampling.probability}
+ * de las peticiones; del resto se conservan las lentas o con errores
+ * ({@code bankx.tracing.*}). Los spans se escriben en {@code bankx.tracing.file.path} y, si
+ * se define {@code management.otlp.tracing.endpoint}, también se envían por OTLP.</p>
+ */
+@Configuration
+@ConditionalOnEnabledTracing
+public class TracingConfig {
+
+  /**
+   * Reemplaza el sampler de Spring Boot por uno que registra todas las trazas y marca una
+   * fracción como muestreada.
+   *
+   * @param probability {@code management.tracing.sampling.probability}
+   * @return sampler del {@code SdkTracerProvider}
+   */
+  @Bean
+  public Sampler headSampler(
+      @Value("${management.tracing.sampling.probability:0.1}") double probability) {
+    return HeadSampler.parentBased(probability);
+  }
+
+  /**
+   * Exporta las trazas no muestreadas que resultan lentas o con errores.
+   *
+   * @param exporters         exportadores de spans (archivo y OTLP)
+   * @param blockingScheduler scheduler para escribir fuera del event loop
+   * @param registry          registro de métricas
+   * @param slowThreshold     {@code bankx.tracing.slow-threshold}
+   * @param maxPendingTraces  {@code bankx.tracing.max-pending-traces}
+   * @return procesador de spans
+   */
+  @Bean
+  public SlowOrErrorSpanProcessor slowOrErrorSpanProcessor(
+      ObjectProvider<SpanExporter> exporters,
+      Scheduler blockingScheduler,
+      MeterRegistry registry,
+      @Value("${bankx.tracing.slow-threshold:500ms}") Duration slowThreshold,
+      @Value("${bankx.tracing.max-pending-traces:10000}") int maxPendingTraces) {
+    return new SlowOrErrorSpanProcessor(
+        () -> SpanExporter.composite(exporters.orderedStream().toList()),
+        slowThreshold, maxPendingTraces, blockingScheduler, registry);
+  }
+
+  /**
+   * Exportador a archivo, para revisar trazas sin colector.
+   *
+   * @param mapper   serializador JSON
+   * @param path     {@code bankx.tracing.file.path}
+   * @param maxSize  {@code bankx.tracing.file.max-size}
+   * @return exportador a archivo
+   */
+  @Bean
+  @ConditionalOnProperty(name = "bankx.tracing.file.enabled", havingValue = "true",
+      matchIfMissing = true)
+  public FileSpanExporter fileSpanExporter(
+      ObjectMapper mapper,
+      @Value("${bankx.tracing.file.path:traces/spans.jsonl}") Path path,
+      @Value("${bankx.tracing.file.max-size:100MB}") DataSize maxSize) {
+    return new FileSpanExporter(path, maxSize.toBytes(), mapper);
+  }
+}
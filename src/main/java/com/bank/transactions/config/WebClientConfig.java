@@ -1,8 +1,16 @@
 package com.bank.transactions.config;
 
+import com.bank.transactions.application.service.RequestHedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
  * Configuración del cliente WebClient para realizar llamadas HTTP reactivas
@@ -12,14 +20,89 @@ import org.springframework.web.reactive.function.client.WebClient;
 public class WebClientConfig {
 
   /**
-   * Crea un {@link WebClient} configurado para el servicio mock de riesgo.
+   * Crea un {@link WebClient} configurado para el servicio mock de riesgo. Parte del builder
+   * de Spring Boot, que observa cada petición y propaga el contexto de la traza.
    *
+   * @param builder builder de WebClient de Spring Boot
    * @return instancia de WebClient configurada.
    */
   @Bean
-  public WebClient riskWebClient() {
-    return WebClient.builder()
+  public WebClient riskWebClient(WebClient.Builder builder) {
+    return builder
       .baseUrl("http://localhost:8070/mock/risk")
       .build();
   }
-}
\ No newline at end of file
+
+  /**
+   * Cobertura de las llamadas al servicio de riesgo ({@code bankx.risk.hedge.*}).
+   *
+   * @param registry    registro de métricas
+   * @param enabled     activa la cobertura
+   * @param percentile  percentil de latencia tras el cual se cubre
+   * @param minDelay    espera mínima antes de cubrir
+   * @param maxDelay    espera máxima (y la inicial, mientras no hay muestras)
+   * @param window      ventana de recálculo del percentil
+   * @param minSamples  muestras mínimas por ventana
+   * @param budgetRatio fracción máxima de llamadas extra
+   * @param budgetBurst coberturas acumulables
+   * @return cubridor del cliente de riesgo
+   */
+  @Bean
+  public RequestHedger riskHedger(
+      MeterRegistry registry,
+      @Value("${bankx.risk.hedge.enabled:true}") boolean enabled,
+      @Value("${bankx.risk.hedge.percentile:95}") double percentile,
+      @Value("${bankx.risk.hedge.min-delay:20ms}") Duration minDelay,
+      @Value("${bankx.risk.hedge.max-delay:1s}") Duration maxDelay,
+      @Value("${bankx.risk.hedge.window:10s}") Duration window,
+      @Value("${bankx.risk.hedge.min-samples:100}") long minSamples,
+      @Value("${bankx.risk.hedge.budget-ratio:0.05}") double budgetRatio,
+      @Value("${bankx.risk.hedge.budget-burst:10}") int budgetBurst) {
+    return new RequestHedger("risk", registry, enabled, percentile, minDelay, maxDelay, window,
+        minSamples, budgetRatio, budgetBurst);
+  }
+
+  /**
+   * Conexiones reutilizables entre nodos del cluster ({@code bankx.cluster.client.*}).
+   *
+   * @param maxConnections conexiones abiertas como máximo por nodo destino
+   * @param pendingAcquire espera máxima por una conexión libre
+   * @param maxIdleTime    tiempo tras el cual se cierra una conexión sin uso
+   * @return pool de conexiones
+   */
+  @Bean(destroyMethod = "dispose")
+  @ConditionalOnProperty(name = "bankx.cluster.enabled", havingValue = "true")
+  public ConnectionProvider clusterConnections(
+      @Value("${bankx.cluster.client.max-connections:200}") int maxConnections,
+      @Value("${bankx.cluster.client.pending-acquire-timeout:1s}") Duration pendingAcquire,
+      @Value("${bankx.cluster.client.max-idle-time:30s}") Duration maxIdleTime) {
+    return ConnectionProvider.builder("cluster")
+      .maxConnections(maxConnections)
+      .pendingAcquireTimeout(pendingAcquire)
+      .maxIdleTime(maxIdleTime)
+      .metrics(true)
+      .build();
+  }
+
+  /**
+   * Cliente interno para reenviar peticiones al nodo dueño de la cuenta. Parte del builder
+   * de Spring Boot, así el reenvío queda en la misma traza que la petición original.
+   *
+   * @param builder            builder de WebClient de Spring Boot
+   * @param clusterConnections pool de conexiones entre nodos
+   * @param responseTimeout    {@code bankx.cluster.client.response-timeout}
+   * @return cliente sin URL base; cada reenvío usa la del dueño
+   */
+  @Bean
+  @ConditionalOnProperty(name = "bankx.cluster.enabled", havingValue = "true")
+  public WebClient clusterWebClient(
+      WebClient.Builder builder,
+      ConnectionProvider clusterConnections,
+      @Value("${bankx.cluster.client.response-timeout:5s}") Duration responseTimeout) {
+    HttpClient http = HttpClient.create(clusterConnections)
+        .responseTimeout(responseTimeout);
+    return builder
+      .clientConnector(new ReactorClientHttpConnector(http))
+      .build();
+  }
+}
@@ -0,0 +1,77 @@
+package com.bank.transactions.config;
+
+import com.bank.transactions.infrastructure.web.CoalescingSseWriter;
+import com.bank.transactions.infrastructure.web.SseProperties;
+import com.bank.transactions.infrastructure.web.TransactionCborEncoder;
+import com.bank.transactions.infrastructure.web.TransactionJsonEncoder;
+import com.bank.transactions.infrastructure.web.TransactionProtobufDecoder;
+import com.bank.transactions.infrastructure.web.TransactionProtobufEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Códecs de la API además de los de Spring Boot. Smile lo registra Spring al estar en el
+ * classpath. JSON sigue siendo el predeterminado: los endpoints de transacciones lo declaran
+ * primero en {@code produces}.
+ *
+ * <ul>
+ *   <li>{@link TransactionJsonEncoder} antes de Jackson para {@code Transaction}; se desactiva
+ *   con {@code bankx.web.transaction-encoder.enabled=false}.</li>
+ *   <li>CBOR y secuencias CBOR para {@code Transaction}; CBOR para los cuerpos de
+ *   entrada.</li>
+ *   <li>Protobuf para {@code Transaction} y {@code CreateTxRequest}.</li>
+ *   <li>{@link CoalescingSseWriter} antes del escritor SSE de Spring para los eventos de
+ *   {@code Transaction}, con {@code bankx.sse.coalesce.enabled=true}.</li>
+ * </ul>
+ */
+@Configuration
+@EnableConfigurationProperties(SseProperties.class)
+public class WebCodecConfig implements WebFluxConfigurer {
+
+  private final boolean directJson;
+  private final SseProperties sse;
+  private final ObjectProvider<MeterRegistry> registry;
+
+  /**
+   * Crea la configuración.
+   *
+   * @param directJson usa {@link TransactionJsonEncoder} para {@code Transaction}
+   * @param sse        parámetros del stream SSE
+   * @param registry   registro de métricas; los tests de controladores no lo tienen
+   */
+  public WebCodecConfig(
+      @Value("${bankx.web.transaction-encoder.enabled:true}") boolean directJson,
+      SseProperties sse,
+      ObjectProvider<MeterRegistry> registry) {
+    this.directJson = directJson;
+    this.sse = sse;
+    this.registry = registry;
+  }
+
+  @Override
+  public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+    if (directJson) {
+      configurer.customCodecs().register(new TransactionJsonEncoder());
+    }
+    ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+    configurer.customCodecs().register(new TransactionCborEncoder(cbor));
+    configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+    configurer.customCodecs().register(new TransactionProtobufEncoder());
+    configurer.customCodecs().register(new TransactionProtobufDecoder());
+    if (sse.getCoalesce().isEnabled()) {
+      configurer.customCodecs().register(new CoalescingSseWriter(sse,
+          registry.getIfAvailable(SimpleMeterRegistry::new), Schedulers.parallel()));
+    }
+  }
+}
@@ -9,17 +9,23 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * Esta excepción se lanza cuando se produce una violación de las reglas de negocio
  * y retorna una respuesta HTTP 400 (Bad Request).
  * </p>
+ * <p>
+ * Es un rechazo esperado, no un fallo: no captura traza de pila ni admite excepciones
+ * suprimidas. Para códigos conocidos usar {@link ErrorCode#exception()}.
+ * </p>
  */
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class BusinessException extends RuntimeException {
 
+  private final transient ErrorCode errorCode;
+
   /**
    * Crea una nueva excepción de negocio con un mensaje descriptivo.
    *
    * @param message el mensaje que describe la causa del error.
    */
   public BusinessException(String message) {
-    super(message);
+    this(message, null);
   }
 
   /**
@@ -29,6 +35,21 @@ public class BusinessException extends RuntimeException {
    * @param cause   la excepción original que causó este error.
    */
   public BusinessException(String message, Throwable cause) {
-    super(message, cause);
+    super(message, cause, false, false);
+    this.errorCode = ErrorCode.fromCode(message);
+  }
+
+  BusinessException(ErrorCode errorCode) {
+    super(errorCode.code(), null, false, false);
+    this.errorCode = errorCode;
+  }
+
+  /**
+   * Código del catálogo.
+   *
+   * @return el código, o {@code null} si el mensaje no está catalogado
+   */
+  public ErrorCode getErrorCode() {
+    return errorCode;
   }
 }
@@ -0,0 +1,69 @@
+package com.bank.transactions.domain.exception;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Catálogo de errores de negocio conocidos.
+ *
+ * <p>Cada código tiene una única {@link BusinessException} sin traza de pila, creada al cargar
+ * la clase; los rechazos frecuentes (fondos insuficientes, riesgo, cuenta inexistente) no
+ * crean objetos ni recorren la pila al fallar.</p>
+ */
+public enum ErrorCode {
+  ACCOUNT_NOT_FOUND("account_not_found"),
+  ACCOUNT_ALREADY_SHARDED("account_already_sharded"),
+  CONCURRENT_UPDATE("concurrent_update"),
+  CURRENCY_MISMATCH("currency_mismatch"),
+  INSUFFICIENT_FUNDS("insufficient_funds"),
+  INVALID_SHARD_COUNT("invalid_shard_count"),
+  INVALID_TRANSACTION_TYPE("invalid_transaction_type"),
+  RISK_REJECTED("risk_rejected"),
+  SAME_ACCOUNT("same_account"),
+  SHARDED_ACCOUNT_NOT_SUPPORTED("sharded_account_not_supported"),
+  VELOCITY_LIMIT_EXCEEDED("velocity_limit_exceeded");
+
+  private static final Map<String, ErrorCode> BY_CODE = new HashMap<>();
+
+  static {
+    for (ErrorCode error : values()) {
+      BY_CODE.put(error.code, error);
+    }
+  }
+
+  private final String code;
+  private final BusinessException exception;
+
+  ErrorCode(String code) {
+    this.code = code;
+    this.exception = new BusinessException(this);
+  }
+
+  /**
+   * Código expuesto en el cuerpo de error.
+   *
+   * @return código en snake_case
+   */
+  public String code() {
+    return code;
+  }
+
+  /**
+   * Excepción compartida del código; es inmutable y se puede lanzar desde varios hilos.
+   *
+   * @return excepción sin traza de pila
+   */
+  public BusinessException exception() {
+    return exception;
+  }
+
+  /**
+   * Busca un código del catálogo.
+   *
+   * @param code código en snake_case
+   * @return el error, o {@code null} si no está catalogado
+   */
+  public static ErrorCode fromCode(String code) {
+    return BY_CODE.get(code);
+  }
+}
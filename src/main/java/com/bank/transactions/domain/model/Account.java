@@ -27,4 +27,16 @@ public class Account {
   private String currency;
 
   private BigDecimal balance;
+
+  /**
+   * Segmento de la cuenta para las reglas de riesgo ({@code RiskRule.accountTier});
+   * {@code null} si no tiene, y entonces solo aplican las reglas sin segmento.
+   */
+  private String tier;
+
+  /**
+   * Número de sub-saldos si la cuenta está fraccionada; {@code null} si no lo está.
+   * En ese caso {@link #balance} no se usa y el saldo es la suma de {@link AccountShard}.
+   */
+  private Integer shards;
 }
\ No newline at end of file
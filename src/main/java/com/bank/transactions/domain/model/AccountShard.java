@@ -0,0 +1,34 @@
+package com.bank.transactions.domain.model;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Sub-saldo de una cuenta fraccionada ("sharded").
+ * El saldo total de la cuenta es la suma de todos sus sub-saldos.
+ */
+@Document("account_shards")
+@CompoundIndex(name = "account_shard", def = "{'accountId': 1, 'shard': 1}", unique = true)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountShard {
+  @Id
+  private String id;
+
+  private String accountId;
+
+  private int shard;
+
+  @Field(targetType = FieldType.DECIMAL128)
+  private BigDecimal balance;
+}
@@ -0,0 +1,51 @@
+package com.bank.transactions.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Vista de lectura de una cuenta: saldo, últimas transacciones y contadores en un solo
+ * documento. La mantiene {@code AccountViewProjector} a partir de los eventos de
+ * transacciones, así que puede ir levemente atrasada respecto de {@link Account}.
+ */
+@Document("account_views")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountView {
+  /** Número de cuenta; la vista se busca por {@code _id}. */
+  @Id
+  private String accountNumber;
+
+  private String accountId;
+
+  private String currency;
+
+  /** Saldo total (suma de sub-saldos si la cuenta está fraccionada). */
+  @Field(targetType = FieldType.DECIMAL128)
+  private BigDecimal balance;
+
+  private long transactionCount;
+
+  private long creditCount;
+
+  private long debitCount;
+
+  private Instant lastActivity;
+
+  /** Últimas transacciones, de la más reciente a la más antigua. */
+  private List<Transaction> recent;
+
+  /** Última actualización de la vista. */
+  private Instant updatedAt;
+}
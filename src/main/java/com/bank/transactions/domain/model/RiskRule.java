@@ -13,6 +13,10 @@ import lombok.NoArgsConstructor;
 
 /**
  * Representa una regla de riesgo para operaciones financieras.
+ *
+ * <p>Los criterios vacíos ({@code null}) no restringen: una regla con solo {@code currency}
+ * y {@code maxDebitPerTx} aplica a cualquier tipo, segmento, monto y hora. Si varias reglas
+ * coinciden decide la de menor {@code priority}.</p>
  */
 @Entity
 @Table(name = "risk_rules")
@@ -28,4 +32,37 @@ public class RiskRule {
   private String currency;
 
   private BigDecimal maxDebitPerTx;
+
+  /** Tipo de operación (CREDIT o DEBIT); {@code null} para ambos. */
+  private String type;
+
+  /** Segmento de la cuenta; {@code null} para cualquiera. */
+  private String accountTier;
+
+  /** Monto mínimo (inclusive) al que aplica la regla; {@code null} sin mínimo. */
+  private BigDecimal minAmount;
+
+  /** Monto máximo (inclusive) al que aplica la regla; {@code null} sin máximo. */
+  private BigDecimal maxAmount;
+
+  /** Hora UTC (0-23) desde la que aplica la regla, inclusive; {@code null} todo el día. */
+  private Integer fromHour;
+
+  /** Hora UTC (0-23) hasta la que aplica la regla, exclusive; puede pasar la medianoche. */
+  private Integer toHour;
+
+  /** {@code ALLOW} o {@code REJECT}; {@code null} equivale a {@code ALLOW}. */
+  private String action;
+
+  /** Orden de evaluación, menor primero; {@code null} equivale a 0. */
+  private Integer priority;
+
+  /** Las reglas con {@code active=false} no se compilan; {@code null} equivale a activa. */
+  private Boolean active;
+
+  /** Suma máxima de débitos por cuenta en un día (UTC); {@code null} sin límite. */
+  private BigDecimal maxDebitPerDay;
+
+  /** Cantidad máxima de débitos por cuenta en una hora; {@code null} sin límite. */
+  private Integer maxTxPerHour;
 }
\ No newline at end of file
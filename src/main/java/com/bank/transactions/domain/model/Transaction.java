@@ -8,9 +8,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 /**
  * Representa una transacción bancaria.
+ *
+ * <p>Se persiste con claves cortas (ver {@code CompactTransactionCodec}); los {@link Field}
+ * indican esas claves para que las consultas derivadas y los ordenamientos las usen.
+ * El JSON de la API no cambia.</p>
  */
 @Document("transactions")
 @Data
@@ -21,19 +26,27 @@ public class Transaction {
   @Id
   private String id;
 
+  @Field("a")
   private String accountId;
 
+  @Field("n")
   private String accountNumber;
 
+  @Field("c")
   private String currency;
 
+  @Field("t")
   private String type;
 
+  @Field("m")
   private BigDecimal amount;
 
+  @Field("ts")
   private Instant timestamp;
 
+  @Field("s")
   private String status;
 
+  @Field("r")
   private String reason;
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.bank.transactions.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Acumulado de débitos de una cuenta en una ventana de tiempo (un día o una hora, en UTC).
+ * Se actualiza con cada débito y Mongo lo borra solo al pasar {@link #expiresAt}.
+ */
+@Document("account_velocity")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VelocityWindow {
+  /** {@code <accountId>:D:<yyyyMMdd>} o {@code <accountId>:H:<yyyyMMddHH>}. */
+  @Id
+  private String id;
+
+  private String accountId;
+
+  private Instant start;
+
+  @Field(targetType = FieldType.DECIMAL128)
+  private BigDecimal debitSum;
+
+  private long debitCount;
+
+  private Instant expiresAt;
+}
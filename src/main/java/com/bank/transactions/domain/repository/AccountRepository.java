@@ -7,7 +7,8 @@ import reactor.core.publisher.Mono;
 /**
  * Repositorio reactivo para gestionar las operaciones CRUD de {@link Account}.
  */
-public interface AccountRepository extends ReactiveMongoRepository<Account, String> {
+public interface AccountRepository extends ReactiveMongoRepository<Account, String>,
+    AccountRepositoryCustom {
 
   /**
      * Busca una cuenta por su número.
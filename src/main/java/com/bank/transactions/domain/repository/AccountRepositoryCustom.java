@@ -0,0 +1,37 @@
+package com.bank.transactions.domain.repository;
+
+import com.bank.transactions.domain.model.Account;
+import java.math.BigDecimal;
+import reactor.core.publisher.Mono;
+
+/**
+ * Escrituras parciales de {@link Account} implementadas a mano en
+ * {@link AccountRepositoryCustomImpl}.
+ *
+ * <p>Solo tocan los campos que cambian y están condicionadas al saldo leído, de modo que una
+ * escritura con datos viejos no pisa la de otra petición (por ejemplo, el fraccionamiento de
+ * la cuenta).</p>
+ */
+public interface AccountRepositoryCustom {
+
+  /**
+   * Cambia el saldo de una cuenta no fraccionada si sigue siendo {@code expected}.
+   *
+   * @param accountId identificador de la cuenta
+   * @param expected  saldo leído
+   * @param balance   nuevo saldo
+   * @return {@link Mono} con {@code true} si se escribió, {@code false} si la cuenta cambió
+   */
+  Mono<Boolean> compareAndSetBalance(String accountId, BigDecimal expected, BigDecimal balance);
+
+  /**
+   * Marca una cuenta no fraccionada como fraccionada si su saldo sigue siendo
+   * {@code expected}.
+   *
+   * @param accountId identificador de la cuenta
+   * @param expected  saldo leído, que pasa al primer sub-saldo
+   * @param shards    cantidad de sub-saldos
+   * @return {@link Mono} con {@code true} si se marcó, {@code false} si la cuenta cambió
+   */
+  Mono<Boolean> markSharded(String accountId, BigDecimal expected, int shards);
+}
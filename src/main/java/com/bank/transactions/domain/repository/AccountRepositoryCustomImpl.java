@@ -0,0 +1,49 @@
+package com.bank.transactions.domain.repository;
+
+import com.bank.transactions.domain.model.Account;
+import java.math.BigDecimal;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementación de {@link AccountRepositoryCustom} con {@code updateOne} condicionales.
+ */
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+  private static final String BALANCE = "balance";
+  private static final String SHARDS = "shards";
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  /**
+   * Crea el repositorio.
+   *
+   * @param mongoTemplate plantilla reactiva de Mongo
+   */
+  public AccountRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public Mono<Boolean> compareAndSetBalance(String accountId, BigDecimal expected,
+                                            BigDecimal balance) {
+    return update(accountId, expected, Update.update(BALANCE, balance));
+  }
+
+  @Override
+  public Mono<Boolean> markSharded(String accountId, BigDecimal expected, int shards) {
+    return update(accountId, expected, Update.update(SHARDS, shards));
+  }
+
+  private Mono<Boolean> update(String accountId, BigDecimal expected, Update update) {
+    // shards nulo o ausente: la cuenta no está fraccionada
+    Query query = Query.query(Criteria.where("_id").is(accountId)
+        .and(BALANCE).is(expected)
+        .and(SHARDS).is(null));
+    return mongoTemplate.updateFirst(query, update, Account.class)
+      .map(result -> result.getMatchedCount() == 1);
+  }
+}
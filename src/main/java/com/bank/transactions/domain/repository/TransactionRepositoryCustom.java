@@ -0,0 +1,74 @@
+package com.bank.transactions.domain.repository;
+
+import com.bank.transactions.domain.model.Transaction;
+import java.time.Instant;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de {@link Transaction} implementadas a mano en
+ * {@link TransactionRepositoryCustomImpl}.
+ */
+public interface TransactionRepositoryCustom {
+
+  /**
+   * Obtiene las transacciones de una cuenta ordenadas por fecha descendente, incluyendo
+   * las archivadas.
+   *
+   * @param accountId identificador de la cuenta
+   * @return {@link Flux} con las transacciones de la cuenta
+   */
+  Flux<Transaction> findByAccountIdOrderByTimestampDesc(String accountId);
+
+  /**
+   * Obtiene una página del historial de una cuenta, de la más reciente a la más antigua.
+   * Lee primero la colección principal y solo consulta el archivo si hace falta para
+   * completar la página.
+   *
+   * @param accountId identificador de la cuenta
+   * @param before    solo transacciones anteriores a esta fecha; {@code null} para todas
+   * @param limit     máximo de transacciones; {@code 0} sin límite
+   * @return {@link Flux} con las transacciones de la página
+   */
+  Flux<Transaction> findHistory(String accountId, Instant before, int limit);
+
+  /**
+   * Cuenta las transacciones de una cuenta, incluyendo las archivadas, sin leerlas: una
+   * consulta de conteo por colección.
+   *
+   * @param accountId identificador de la cuenta
+   * @return {@link Mono} con el total y los créditos
+   */
+  Mono<TypeCounts> countByType(String accountId);
+
+  /**
+   * Conteo de transacciones de una cuenta.
+   *
+   * @param total   todas las transacciones
+   * @param credits las de tipo {@code CREDIT}
+   */
+  record TypeCounts(long total, long credits) {
+
+    /** Sin transacciones. */
+    public static final TypeCounts NONE = new TypeCounts(0, 0);
+
+    /**
+     * Transacciones que no son créditos.
+     *
+     * @return total menos créditos
+     */
+    public long debits() {
+      return total - credits;
+    }
+
+    /**
+     * Suma dos conteos.
+     *
+     * @param other otro conteo
+     * @return la suma
+     */
+    public TypeCounts plus(TypeCounts other) {
+      return new TypeCounts(total + other.total, credits + other.credits);
+    }
+  }
+}
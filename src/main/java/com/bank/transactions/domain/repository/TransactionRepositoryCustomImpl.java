@@ -0,0 +1,131 @@
+package com.bank.transactions.domain.repository;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.persistence.ArchiveCollections;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementación de {@link TransactionRepositoryCustom}.
+ *
+ * <p>Las transacciones antiguas viven en colecciones mensuales de archivo
+ * ({@link ArchiveCollections}); el historial se lee primero de la colección principal y
+ * luego, mes a mes hacia atrás, del archivo, de forma perezosa: si quien consume deja de
+ * pedir elementos, los meses restantes no se consultan.</p>
+ *
+ * <p>Mientras la migración al formato compacto no termina
+ * ({@code bankx.tx-storage.legacy-reads=true}), también se leen los documentos de la
+ * colección principal con el formato anterior y se mezclan por fecha.</p>
+ */
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+  private static final String CREDIT = "CREDIT";
+  private static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(
+      Transaction::getTimestamp, Comparator.nullsLast(Comparator.<Instant>reverseOrder()));
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final boolean legacyReads;
+
+  /**
+   * Crea el repositorio.
+   *
+   * @param mongoTemplate plantilla reactiva de Mongo
+   * @param legacyReads   si también se consultan documentos con el formato anterior
+   */
+  public TransactionRepositoryCustomImpl(
+      ReactiveMongoTemplate mongoTemplate,
+      @Value("${bankx.tx-storage.legacy-reads:true}") boolean legacyReads) {
+    this.mongoTemplate = mongoTemplate;
+    this.legacyReads = legacyReads;
+  }
+
+  @Override
+  public Flux<Transaction> findByAccountIdOrderByTimestampDesc(String accountId) {
+    return findHistory(accountId, null, 0);
+  }
+
+  @Override
+  public Flux<Transaction> findHistory(String accountId, Instant before, int limit) {
+    Flux<Transaction> history = Flux.concat(hot(accountId, before, limit),
+        Flux.defer(() -> archived(accountId, before, limit)));
+    return limit > 0 ? history.take(limit) : history;
+  }
+
+  @Override
+  public Mono<TypeCounts> countByType(String accountId) {
+    String hotCollection = mongoTemplate.getCollectionName(Transaction.class);
+    Flux<TypeCounts> hot = count(hotCollection, CompactTransactionCodec.ACCOUNT_ID, accountId,
+        CompactTransactionCodec.TYPE, CompactTransactionCodec.typeCode(CREDIT)).flux();
+    if (legacyReads) {
+      hot = hot.concatWith(count(hotCollection, CompactTransactionCodec.LEGACY_MARKER,
+          accountId, "type", CREDIT));
+    }
+    Flux<TypeCounts> archived = mongoTemplate.getCollectionNames()
+        .filter(name -> ArchiveCollections.monthOf(name).isPresent())
+        .concatMap(name -> count(name, CompactTransactionCodec.ACCOUNT_ID, accountId,
+          CompactTransactionCodec.TYPE, CompactTransactionCodec.typeCode(CREDIT)));
+    return hot.concatWith(archived).reduce(TypeCounts.NONE, TypeCounts::plus);
+  }
+
+  /**
+   * Cuenta con las claves tal como están guardadas: sin clase de entidad no se traducen.
+   */
+  private Mono<TypeCounts> count(String collection, String accountKey, String accountId,
+                                 String typeKey, String creditCode) {
+    Criteria account = Criteria.where(accountKey).is(accountId);
+    Criteria credits = Criteria.where(accountKey).is(accountId).and(typeKey).is(creditCode);
+    return Mono.zip(mongoTemplate.count(Query.query(account), collection),
+        mongoTemplate.count(Query.query(credits), collection))
+      .map(counts -> new TypeCounts(counts.getT1(), counts.getT2()));
+  }
+
+  private Flux<Transaction> hot(String accountId, Instant before, int limit) {
+    Flux<Transaction> compact = mongoTemplate.find(
+        page(Criteria.where("accountId").is(accountId), "timestamp", before, limit),
+        Transaction.class);
+    if (!legacyReads) {
+      return compact;
+    }
+    // Sin clase de entidad las claves no se traducen: se consulta el formato anterior
+    Flux<Transaction> legacy = mongoTemplate.find(
+        page(Criteria.where(CompactTransactionCodec.LEGACY_MARKER).is(accountId),
+          "timestamp", before, limit),
+        Document.class,
+        mongoTemplate.getCollectionName(Transaction.class))
+        .map(doc -> mongoTemplate.getConverter().read(Transaction.class, doc));
+    return Flux.mergeComparing(NEWEST_FIRST, compact, legacy);
+  }
+
+  private Flux<Transaction> archived(String accountId, Instant before, int limit) {
+    YearMonth newest = before != null ? YearMonth.from(before.atZone(ZoneOffset.UTC)) : null;
+    return mongoTemplate.getCollectionNames()
+      .flatMap(name -> Flux.fromStream(ArchiveCollections.monthOf(name)
+        .map(month -> Map.entry(month, name)).stream()))
+      .filter(archive -> newest == null || !archive.getKey().isAfter(newest))
+      .sort(Map.Entry.<YearMonth, String>comparingByKey().reversed())
+      .concatMap(archive -> mongoTemplate.find(
+          page(Criteria.where("accountId").is(accountId), "timestamp", before, limit),
+          Transaction.class, archive.getValue()));
+  }
+
+  private static Query page(Criteria criteria, String timestampKey, Instant before, int limit) {
+    if (before != null) {
+      criteria = criteria.and(timestampKey).lt(Date.from(before));
+    }
+    Query query = Query.query(criteria).with(Sort.by(Sort.Direction.DESC, timestampKey));
+    return limit > 0 ? query.limit(limit) : query;
+  }
+}
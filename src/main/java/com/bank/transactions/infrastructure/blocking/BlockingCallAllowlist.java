@@ -0,0 +1,32 @@
+package com.bank.transactions.infrastructure.blocking;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+/**
+ * Llamadas bloqueantes aprobadas en hilos no bloqueantes. BlockHound la carga con
+ * {@code ServiceLoader}, tanto en los tests como en el modo de diagnóstico.
+ *
+ * <p>Solo entran llamadas que bloquean una vez por proceso; cualquier otra se corrige o se
+ * mueve al {@code blockingScheduler}.</p>
+ */
+public class BlockingCallAllowlist implements BlockHoundIntegration {
+
+  @Override
+  public void applyTo(BlockHound.Builder builder) {
+    // El primer setup de RSocket inicializa MessageHeaders, que siembra su generador de IDs
+    // con SecureRandom (BlockHound no admite constructores ni inicializadores estáticos)
+    builder.allowBlockingCallsInside(
+        "org.springframework.messaging.rsocket.annotation.support.MessagingRSocket",
+        "createHeaders");
+    // Hibernate Validator lista los proveedores JPA del classpath al validar el primer body
+    builder.allowBlockingCallsInside(
+        "jakarta.persistence.spi.PersistenceProviderResolverHolder"
+            + "$DefaultPersistenceProviderResolver",
+        "getPersistenceProviders");
+    // Lee los spring.factories del classpath una vez y los guarda; pasa en el event loop si
+    // la primera clase que los pide se inicializa ahí
+    builder.allowBlockingCallsInside("org.springframework.core.io.support.SpringFactoriesLoader",
+        "loadFactoriesResource");
+  }
+}
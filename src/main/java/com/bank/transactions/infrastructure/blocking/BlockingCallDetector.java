@@ -0,0 +1,80 @@
+package com.bank.transactions.infrastructure.blocking;
+
+import com.bank.transactions.infrastructure.web.RateLimitedLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+/**
+ * Modo de diagnóstico ({@code bankx.blocking-detector.enabled=true}): instala BlockHound y
+ * registra, con límite por ventana, la pila de cada llamada bloqueante en un event loop de
+ * Netty o en {@code Schedulers.parallel()}, sin cortarla. Cada llamada se cuenta en
+ * {@code bankx.blocking.calls}, etiquetada por método.
+ *
+ * <p>Las llamadas de {@link BlockingCallAllowlist} no se informan. La JVM necesita
+ * {@code -XX:+AllowRedefinitionToAddDeleteMethods}; sin esa opción el detector queda
+ * desactivado y lo avisa al iniciar.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "bankx.blocking-detector.enabled", havingValue = "true")
+@Slf4j
+public class BlockingCallDetector {
+
+  /** Marca el hilo mientras informa, por si el propio registro bloquea. */
+  private static final ThreadLocal<Boolean> REPORTING = ThreadLocal.withInitial(() -> false);
+
+  private final MeterRegistry registry;
+  private final RateLimitedLog limiter;
+
+  /**
+   * Crea el detector e instala BlockHound.
+   *
+   * @param registry   registro de métricas
+   * @param logPermits pilas registradas en cada ventana
+   * @param logWindow  duración de la ventana
+   */
+  public BlockingCallDetector(
+      MeterRegistry registry,
+      @Value("${bankx.blocking-detector.log.permits:5}") long logPermits,
+      @Value("${bankx.blocking-detector.log.window:10s}") Duration logWindow) {
+    this.registry = registry;
+    this.limiter = new RateLimitedLog(logPermits, logWindow, System::nanoTime);
+    try {
+      BlockHound.builder()
+          .loadIntegrations()
+          .blockingMethodCallback(this::onBlockingCall)
+          .install();
+      log.warn("Blocking call detector enabled; expect extra latency");
+    } catch (IllegalStateException e) {
+      log.warn("Blocking call detector not installed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Cuenta la llamada y registra su pila si quedan permisos en la ventana.
+   *
+   * @param method método bloqueante invocado
+   */
+  void onBlockingCall(BlockingMethod method) {
+    if (REPORTING.get()) {
+      return;
+    }
+    REPORTING.set(true);
+    try {
+      registry.counter("bankx.blocking.calls", "method", method.toString()).increment();
+      long suppressed = limiter.tryAcquire();
+      if (suppressed != RateLimitedLog.SUPPRESSED) {
+        log.warn("Blocking call {} on thread {} ({} more suppressed)", method,
+            Thread.currentThread().getName(), suppressed,
+            new Throwable("Blocking call " + method));
+      }
+    } finally {
+      REPORTING.set(false);
+    }
+  }
+}
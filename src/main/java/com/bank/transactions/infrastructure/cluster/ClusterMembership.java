@@ -0,0 +1,193 @@
+package com.bank.transactions.infrastructure.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Miembros del cluster y dueño de cada cuenta ({@code bankx.cluster.*}).
+ *
+ * <p>La lista sale de {@code bankx.cluster.members} o, si se indica, de
+ * {@code bankx.cluster.members-file} (una URL base por línea; {@code #} comenta), que se
+ * relee cada {@code refresh-interval}. Todos los nodos deben ver la misma lista para
+ * coincidir en los dueños; mientras difieran, el encabezado de reenvío evita que una
+ * petición rebote entre nodos.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "bankx.cluster.enabled", havingValue = "true")
+@Slf4j
+public class ClusterMembership implements DisposableBean {
+
+  private final String self;
+  private final String membersFile;
+  private final int virtualNodes;
+  private final Duration refreshInterval;
+  private final Scheduler blockingScheduler;
+  private final AtomicReference<ConsistentHashRing> ring = new AtomicReference<>();
+  private Disposable refresh;
+
+  /**
+   * Crea la membresía con la lista inicial.
+   *
+   * @param registry          registro de métricas
+   * @param blockingScheduler scheduler para releer el archivo de miembros
+   * @param self              {@code bankx.cluster.self}, URL base de este nodo
+   * @param members           {@code bankx.cluster.members}, URLs separadas por coma
+   * @param membersFile       {@code bankx.cluster.members-file}; si se indica, reemplaza a
+   *                          {@code members}
+   * @param virtualNodes      {@code bankx.cluster.virtual-nodes}, puntos por miembro
+   * @param refreshInterval   {@code bankx.cluster.refresh-interval} del archivo
+   */
+  public ClusterMembership(
+      MeterRegistry registry,
+      Scheduler blockingScheduler,
+      @Value("${bankx.cluster.self:http://localhost:${server.port:8070}}") String self,
+      @Value("${bankx.cluster.members:}") String members,
+      @Value("${bankx.cluster.members-file:}") String membersFile,
+      @Value("${bankx.cluster.virtual-nodes:128}") int virtualNodes,
+      @Value("${bankx.cluster.refresh-interval:5s}") Duration refreshInterval) {
+    this.self = normalize(self);
+    this.membersFile = membersFile;
+    this.virtualNodes = virtualNodes;
+    this.refreshInterval = refreshInterval;
+    this.blockingScheduler = blockingScheduler;
+    List<String> initial = membersFile.isBlank() ? parse(Arrays.asList(members.split(",")))
+        : readFile();
+    update(initial.isEmpty() ? List.of(this.self) : initial);
+    Gauge.builder("bankx.cluster.members", ring, current -> current.get().members().size())
+        .description("Miembros del anillo de cuentas")
+        .register(registry);
+  }
+
+  /**
+   * Empieza a releer el archivo de miembros, si lo hay.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (membersFile.isBlank()) {
+      return;
+    }
+    refresh = Flux.interval(refreshInterval)
+      .onBackpressureDrop()
+      .concatMap(tick -> Mono.fromRunnable(this::reload)
+        .subscribeOn(blockingScheduler)
+        .onErrorResume(error -> {
+          log.warn("Could not reload cluster members from {}: {}", membersFile,
+              error.getMessage());
+          return Mono.empty();
+        }), 1)
+      .subscribe();
+  }
+
+  @Override
+  public void destroy() {
+    if (refresh != null) {
+      refresh.dispose();
+    }
+  }
+
+  /**
+   * Dueño de una cuenta según los miembros actuales.
+   *
+   * @param accountNumber número de cuenta
+   * @return URL base del dueño
+   */
+  public String owner(String accountNumber) {
+    return ring.get().owner(accountNumber);
+  }
+
+  /**
+   * Indica si la cuenta pertenece a este nodo.
+   *
+   * @param accountNumber número de cuenta
+   * @return {@code true} si este nodo es el dueño
+   */
+  public boolean isLocal(String accountNumber) {
+    return self.equals(owner(accountNumber));
+  }
+
+  /**
+   * URL base de este nodo.
+   *
+   * @return URL sin barra final
+   */
+  public String self() {
+    return self;
+  }
+
+  /**
+   * Miembros actuales.
+   *
+   * @return lista ordenada
+   */
+  public List<String> members() {
+    return ring.get().members();
+  }
+
+  /**
+   * Relee el archivo de miembros y reemplaza el anillo si cambió. Un archivo vacío se
+   * ignora, para no quedar sin dueños mientras se reescribe.
+   */
+  void reload() {
+    List<String> members = readFile();
+    if (!members.isEmpty()) {
+      update(members);
+    }
+  }
+
+  private void update(List<String> members) {
+    ConsistentHashRing next = ConsistentHashRing.of(members, virtualNodes);
+    ConsistentHashRing previous = ring.getAndSet(next);
+    if (previous != null && previous.members().equals(next.members())) {
+      return;
+    }
+    log.info("Cluster members: {} (self {})", next.members(), self);
+    if (!next.members().contains(self)) {
+      log.warn("This node ({}) is not a cluster member; every account request is forwarded",
+          self);
+    }
+  }
+
+  private List<String> readFile() {
+    try {
+      return parse(Files.readAllLines(Path.of(membersFile)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static List<String> parse(List<String> lines) {
+    return lines.stream()
+      .map(line -> {
+        int comment = line.indexOf('#');
+        return comment < 0 ? line : line.substring(0, comment);
+      })
+      .map(ClusterMembership::normalize)
+      .filter(member -> !member.isEmpty())
+      .distinct()
+      .toList();
+  }
+
+  private static String normalize(String url) {
+    String trimmed = url.trim();
+    return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+  }
+}
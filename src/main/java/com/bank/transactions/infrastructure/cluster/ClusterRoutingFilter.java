@@ -0,0 +1,237 @@
+package com.bank.transactions.infrastructure.cluster;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.application.dto.TransferRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reenvía al nodo dueño las peticiones de una cuenta que llegan a otro nodo
+ * ({@code bankx.cluster.enabled=true}).
+ *
+ * <p>La cuenta de cada ruta:</p>
+ * <ul>
+ *   <li>{@code /api/accounts/{number}/**}: el número del path.</li>
+ *   <li>{@code GET /api/transactions}: el parámetro {@code accountNumber}.</li>
+ *   <li>{@code POST /api/transactions}: {@code accountNumber} del cuerpo.</li>
+ *   <li>{@code POST /api/transfers}: {@code fromAccount}, la cuenta que se debita.</li>
+ * </ul>
+ *
+ * <p>Los cuerpos se leen con los mismos códecs que los controladores (JSON, CBOR, Smile,
+ * Protobuf) y se reenvían tal cual llegaron; si la cuenta es de este nodo, el controlador
+ * recibe el cuerpo ya leído. Las demás rutas y los streams se atienden localmente. La
+ * petición reenviada lleva {@value #FORWARDED_BY}, y el nodo que la recibe la atiende sin
+ * volver a reenviarla aunque su lista de miembros difiera. Si el dueño no responde, se
+ * contesta 503 con {@code owner_unavailable}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "bankx.cluster.enabled", havingValue = "true")
+@Slf4j
+public class ClusterRoutingFilter implements WebFilter {
+
+  static final String FORWARDED_BY = "X-BankX-Forwarded-By";
+  private static final String ACCOUNTS = "/api/accounts/";
+  private static final String TRANSACTIONS = "/api/transactions";
+  private static final String TRANSFERS = "/api/transfers";
+  private static final byte[] UNAVAILABLE =
+      "{\"error\":\"owner_unavailable\"}".getBytes(StandardCharsets.UTF_8);
+  private static final List<String> HOP_BY_HOP = List.of(HttpHeaders.HOST,
+      HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING,
+      HttpHeaders.UPGRADE, "Keep-Alive");
+
+  private final ClusterMembership membership;
+  private final WebClient clusterWebClient;
+  private final List<HttpMessageReader<?>> readers;
+  private final int maxBodySize;
+  private final Counter forwarded;
+  private final Counter failures;
+
+  /**
+   * Crea el filtro.
+   *
+   * @param membership        miembros del cluster
+   * @param clusterWebClient  cliente con el pool de conexiones entre nodos
+   * @param codecs            códecs de la API, para leer la cuenta del cuerpo
+   * @param registry          registro de métricas
+   * @param maxBodySize       {@code bankx.cluster.max-body-size}, cuerpo máximo a reenviar
+   */
+  public ClusterRoutingFilter(
+      ClusterMembership membership,
+      WebClient clusterWebClient,
+      ServerCodecConfigurer codecs,
+      MeterRegistry registry,
+      @Value("${bankx.cluster.max-body-size:256KB}") DataSize maxBodySize) {
+    this.membership = membership;
+    this.clusterWebClient = clusterWebClient;
+    this.readers = codecs.getReaders();
+    this.maxBodySize = (int) maxBodySize.toBytes();
+    this.forwarded = Counter.builder("bankx.cluster.forwarded")
+      .description("Peticiones reenviadas al nodo dueño de la cuenta")
+      .register(registry);
+    this.failures = Counter.builder("bankx.cluster.forward.failures")
+      .description("Reenvíos sin respuesta del nodo dueño")
+      .register(registry);
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    ServerHttpRequest request = exchange.getRequest();
+    if (request.getHeaders().containsKey(FORWARDED_BY)) {
+      return chain.filter(exchange);
+    }
+    String path = request.getPath().pathWithinApplication().value();
+    HttpMethod method = request.getMethod();
+    if (path.startsWith(ACCOUNTS)) {
+      int end = path.indexOf('/', ACCOUNTS.length());
+      return route(exchange, chain, path.substring(ACCOUNTS.length(),
+          end < 0 ? path.length() : end), null);
+    }
+    if (HttpMethod.GET.equals(method) && TRANSACTIONS.equals(path)) {
+      return route(exchange, chain, request.getQueryParams().getFirst("accountNumber"), null);
+    }
+    if (HttpMethod.POST.equals(method) && TRANSACTIONS.equals(path)) {
+      return routeByBody(exchange, chain, CreateTxRequest.class,
+          CreateTxRequest::getAccountNumber);
+    }
+    if (HttpMethod.POST.equals(method) && TRANSFERS.equals(path)) {
+      return routeByBody(exchange, chain, TransferRequest.class, TransferRequest::getFromAccount);
+    }
+    return chain.filter(exchange);
+  }
+
+  /**
+   * Lee el cuerpo una vez, obtiene la cuenta con los códecs de la API y sigue con una
+   * petición que vuelve a entregar ese cuerpo.
+   */
+  private <T> Mono<Void> routeByBody(ServerWebExchange exchange, WebFilterChain chain,
+                                     Class<T> type, Function<T, String> account) {
+    ServerHttpRequest request = exchange.getRequest();
+    return DataBufferUtils.join(request.getBody(), maxBodySize)
+      .map(buffer -> {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+      })
+      .defaultIfEmpty(new byte[0])
+      .flatMap(body -> {
+        ServerWebExchange replay = exchange.mutate().request(replay(request, body)).build();
+        return read(replay.getRequest(), type)
+          .map(account)
+          .onErrorResume(error -> Mono.empty())
+          .defaultIfEmpty("")
+          .flatMap(number -> route(replay, chain, number, body));
+      })
+      .onErrorResume(DataBufferLimitException.class,
+          error -> reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE, null));
+  }
+
+  /**
+   * Atiende localmente si la cuenta es de este nodo o no se pudo leer (el controlador
+   * responde el error de validación); si no, reenvía al dueño.
+   */
+  private Mono<Void> route(ServerWebExchange exchange, WebFilterChain chain,
+                           String accountNumber, byte[] body) {
+    if (accountNumber == null || accountNumber.isBlank()
+        || membership.isLocal(accountNumber)) {
+      return chain.filter(exchange);
+    }
+    return forward(exchange, membership.owner(accountNumber), body);
+  }
+
+  private Mono<Void> forward(ServerWebExchange exchange, String owner, byte[] body) {
+    ServerHttpRequest request = exchange.getRequest();
+    URI uri = request.getURI();
+    String query = uri.getRawQuery();
+    URI target = URI.create(owner + uri.getRawPath() + (query == null ? "" : "?" + query));
+    WebClient.RequestBodySpec spec = clusterWebClient.method(request.getMethod())
+        .uri(target)
+        .headers(headers -> {
+          headers.addAll(request.getHeaders());
+          HOP_BY_HOP.forEach(headers::remove);
+          headers.set(FORWARDED_BY, membership.self());
+        });
+    if (body != null) {
+      spec.bodyValue(body);
+    }
+    forwarded.increment();
+    return spec.exchangeToMono(reply -> {
+      ServerHttpResponse response = exchange.getResponse();
+      response.setStatusCode(reply.statusCode());
+      HttpHeaders headers = response.getHeaders();
+      headers.putAll(reply.headers().asHttpHeaders());
+      HOP_BY_HOP.forEach(headers::remove);
+      return response.writeWith(reply.bodyToFlux(DataBuffer.class));
+    })
+      .onErrorResume(error -> {
+        if (exchange.getResponse().isCommitted()) {
+          return Mono.error(error);
+        }
+        failures.increment();
+        log.warn("Could not forward {} to {}: {}", uri.getRawPath(), owner, error.getMessage());
+        return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, UNAVAILABLE);
+      });
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Mono<T> read(ServerHttpRequest request, Class<T> type) {
+    MediaType contentType = request.getHeaders().getContentType();
+    ResolvableType target = ResolvableType.forClass(type);
+    MediaType mediaType = contentType == null ? MediaType.APPLICATION_JSON : contentType;
+    return readers.stream()
+      .filter(reader -> reader.canRead(target, mediaType))
+      .findFirst()
+      .map(reader -> ((HttpMessageReader<T>) reader).readMono(target, request, Map.of()))
+      .orElseGet(Mono::empty);
+  }
+
+  private static ServerHttpRequest replay(ServerHttpRequest request, byte[] body) {
+    return new ServerHttpRequestDecorator(request) {
+      @Override
+      public Flux<DataBuffer> getBody() {
+        return Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+      }
+    };
+  }
+
+  private static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status,
+                                   byte[] body) {
+    ServerHttpResponse response = exchange.getResponse();
+    response.setStatusCode(status);
+    if (body == null) {
+      return response.setComplete();
+    }
+    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+  }
+}
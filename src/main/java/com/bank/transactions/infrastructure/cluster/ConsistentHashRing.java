@@ -0,0 +1,103 @@
+package com.bank.transactions.infrastructure.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Anillo de hashing consistente que asigna cada número de cuenta a un miembro del cluster.
+ *
+ * <p>Cada miembro ocupa {@code virtualNodes} puntos del anillo y una cuenta pertenece al
+ * primer punto igual o posterior a su hash. Al agregar un miembro solo se mueven a él las
+ * cuentas de los tramos que ahora ocupa (alrededor de 1/N); al quitarlo, solo las suyas se
+ * reparten entre los demás. El anillo es inmutable: un cambio de miembros crea otro.</p>
+ */
+public final class ConsistentHashRing {
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final List<String> members;
+  private final long[] points;
+  private final String[] owners;
+
+  private ConsistentHashRing(List<String> members, int virtualNodes) {
+    this.members = members;
+    int size = members.size() * virtualNodes;
+    long[][] entries = new long[size][2];
+    for (int m = 0; m < members.size(); m++) {
+      for (int v = 0; v < virtualNodes; v++) {
+        entries[m * virtualNodes + v] = new long[] {hash(members.get(m) + "#" + v), m};
+      }
+    }
+    // Si dos puntos coinciden, gana siempre el mismo miembro en todos los nodos
+    Arrays.sort(entries, Comparator.<long[]>comparingLong(e -> e[0])
+        .thenComparingLong(e -> e[1]));
+    this.points = new long[size];
+    this.owners = new String[size];
+    for (int i = 0; i < size; i++) {
+      points[i] = entries[i][0];
+      owners[i] = members.get((int) entries[i][1]);
+    }
+  }
+
+  /**
+   * Crea el anillo. El orden y los duplicados de {@code members} no cambian el resultado.
+   *
+   * @param members      URL base de cada miembro
+   * @param virtualNodes puntos por miembro; más puntos reparten las cuentas más parejo
+   * @return anillo con los miembros dados
+   */
+  public static ConsistentHashRing of(Collection<String> members, int virtualNodes) {
+    if (virtualNodes < 1) {
+      throw new IllegalArgumentException("virtualNodes must be positive: " + virtualNodes);
+    }
+    return new ConsistentHashRing(members.stream().distinct().sorted().toList(), virtualNodes);
+  }
+
+  /**
+   * Miembro dueño de una cuenta.
+   *
+   * @param accountNumber número de cuenta
+   * @return URL base del dueño, o {@code null} si el anillo está vacío
+   */
+  public String owner(String accountNumber) {
+    if (points.length == 0) {
+      return null;
+    }
+    int index = Arrays.binarySearch(points, hash(accountNumber));
+    if (index < 0) {
+      index = -index - 1;
+    }
+    return owners[index == points.length ? 0 : index];
+  }
+
+  /**
+   * Miembros del anillo, ordenados.
+   *
+   * @return lista inmutable de miembros
+   */
+  public List<String> members() {
+    return members;
+  }
+
+  /**
+   * FNV-1a de 64 bits sobre UTF-8 con la mezcla final de MurmurHash3, para que claves
+   * parecidas ({@code 001-0001}, {@code 001-0002}) caigan lejos en el anillo.
+   */
+  static long hash(String key) {
+    long h = FNV_OFFSET;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xff;
+      h *= FNV_PRIME;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
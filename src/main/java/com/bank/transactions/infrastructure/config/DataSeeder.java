@@ -1,27 +1,43 @@
 package com.bank.transactions.infrastructure.config;
 
+import com.bank.transactions.application.service.RiskRuleEngine;
 import com.bank.transactions.domain.model.Account;
 import com.bank.transactions.domain.model.RiskRule;
 import com.bank.transactions.domain.repository.AccountRepository;
 import com.bank.transactions.domain.repository.RiskRuleRepository;
 import java.math.BigDecimal;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * Inicializa datos de prueba en la base de datos al iniciar la aplicación.
  * Carga reglas de riesgo y cuentas predefinidas.
+ *
+ * <p>Se puede desactivar con {@code bankx.seed.enabled=false}. Por defecto la carga
+ * es asíncrona ({@code bankx.seed.async=true}) para que el arranque y el readiness
+ * no esperen a Mongo ni a H2.</p>
  */
 @Component
+@ConditionalOnProperty(name = "bankx.seed.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class DataSeeder implements CommandLineRunner {
 
   private final RiskRuleRepository riskRepo;
   private final AccountRepository accountRepo;
+  private final Scheduler blockingScheduler;
+  private final RiskRuleEngine ruleEngine;
+
+  @Value("${bankx.seed.async:true}")
+  private boolean async;
 
   /**
    * Ejecuta la carga de datos inicial al inicio del contexto de Spring Boot.
@@ -30,50 +46,94 @@ public class DataSeeder implements CommandLineRunner {
    */
   @Override
   public void run(String... args) {
-    log.info("Seeding initial data...");
+    log.info("Seeding initial data (async: {})...", async);
+
+    Mono<Void> seed = seedRiskRules()
+        .then(ruleEngine.reload())
+        .then(seedAccounts())
+        .doOnSuccess(v -> log.info("Initial data seeded"));
+
+    if (async) {
+      seed.subscribe(
+          null,
+          error -> log.error("Error seeding initial data: {}", error.getMessage()));
+    } else {
+      seed.block(); // Solo para seed síncrono en arranque
+    }
+  }
+
+  /**
+   * Carga las reglas de riesgo en H2 aislando la llamada JPA bloqueante en el
+   * scheduler de secciones bloqueantes.
+   *
+   * @return {@link Mono} que completa cuando las reglas están guardadas
+   */
+  Mono<Void> seedRiskRules() {
+    return Mono.fromRunnable(() -> {
+      riskRepo.deleteAllInBatch();
+      riskRepo.saveAll(riskRules());
+      log.info("Risk rules seeded");
+    })
+      .subscribeOn(blockingScheduler)
+      .then();
+  }
+
+  /**
+   * Carga las cuentas de ejemplo en Mongo.
+   *
+   * @return {@link Mono} que completa cuando las cuentas están guardadas
+   */
+  Mono<Void> seedAccounts() {
+    return accountRepo.deleteAll()
+      .thenMany(Flux.fromIterable(accounts()))
+      .flatMap(accountRepo::save)
+      .doOnNext(acc -> log.info("Account seeded: {}", acc.getNumber()))
+      .then();
+  }
 
-    // Reglas de riesgo (bloqueante)
-    riskRepo.deleteAllInBatch();
-    riskRepo.save(
+  /**
+   * Reglas de riesgo de ejemplo: tope por débito de 1500 PEN y 500 USD.
+   *
+   * @return reglas nuevas, sin id
+   */
+  public static List<RiskRule> riskRules() {
+    return List.of(
         RiskRule.builder()
           .currency("PEN")
           .maxDebitPerTx(new BigDecimal("1500"))
-          .build()
-    );
-    riskRepo.save(
+          .build(),
         RiskRule.builder()
           .currency("USD")
           .maxDebitPerTx(new BigDecimal("500"))
           .build()
     );
-    log.info("Risk rules seeded");
+  }
 
-    // Cuentas reactivas (Mongo)
-    accountRepo.deleteAll()
-      .thenMany(
-        Flux.just(
-          Account.builder()
-            .number("001-0001")
-            .holderName("Ana Peru")
-            .currency("PEN")
-            .balance(new BigDecimal("2000"))
-            .build(),
-          Account.builder()
-            .number("001-0002")
-            .holderName("Luis Acuña")
-            .currency("PEN")
-            .balance(new BigDecimal("800"))
-            .build(),
-          Account.builder()
-            .number("001-0003")
-            .holderName("Carlos Dollar")
-            .currency("USD")
-            .balance(new BigDecimal("1000"))
-            .build()
-        )
-      )
-      .flatMap(accountRepo::save)
-      .doOnNext(acc -> log.info("Account seeded: {}", acc.getNumber()))
-        .blockLast(); // Solo para seed en arranque
+  /**
+   * Cuentas de ejemplo.
+   *
+   * @return cuentas nuevas, sin id
+   */
+  public static List<Account> accounts() {
+    return List.of(
+        Account.builder()
+          .number("001-0001")
+          .holderName("Ana Peru")
+          .currency("PEN")
+          .balance(new BigDecimal("2000"))
+          .build(),
+        Account.builder()
+          .number("001-0002")
+          .holderName("Luis Acuña")
+          .currency("PEN")
+          .balance(new BigDecimal("800"))
+          .build(),
+        Account.builder()
+          .number("001-0003")
+          .holderName("Carlos Dollar")
+          .currency("USD")
+          .balance(new BigDecimal("1000"))
+          .build()
+    );
   }
 }
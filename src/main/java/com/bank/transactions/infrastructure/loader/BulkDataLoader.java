@@ -0,0 +1,190 @@
+package com.bank.transactions.infrastructure.loader;
+
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Cargador masivo de cuentas y transacciones para reproducir volúmenes de producción.
+ *
+ * <p>Genera datos sintéticos con {@link SyntheticDataGenerator} o los lee en streaming
+ * desde archivos CSV/NDJSON, y los escribe con inserciones masivas no ordenadas en lotes
+ * de {@code bankx.loader.batch-size}, con {@code bankx.loader.parallelism} lotes en vuelo.
+ * Se activa con {@code bankx.loader.enabled=true} (perfil {@code loader}).</p>
+ */
+@Component
+@ConditionalOnProperty(name = "bankx.loader.enabled", havingValue = "true")
+@EnableConfigurationProperties(BulkLoadProperties.class)
+@Slf4j
+public class BulkDataLoader implements ApplicationRunner {
+
+  private final BulkLoadProperties props;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final AccountRepository accountRepo;
+  private final RecordFileReader fileReader;
+  private final ConfigurableApplicationContext context;
+  private final Map<String, Mono<String>> accountIdsByNumber;
+
+  /**
+   * Crea el cargador.
+   *
+   * @param props         parámetros de la carga
+   * @param mongoTemplate plantilla reactiva usada para las inserciones masivas
+   * @param accountRepo   repositorio para resolver cuentas de transacciones leídas de archivo
+   * @param objectMapper  mapper para interpretar los archivos de entrada
+   * @param blockingScheduler scheduler para la lectura bloqueante de archivos
+   * @param context       contexto de la aplicación, para cerrarla al terminar
+   */
+  public BulkDataLoader(BulkLoadProperties props,
+                        ReactiveMongoTemplate mongoTemplate,
+                        AccountRepository accountRepo,
+                        ObjectMapper objectMapper,
+                        Scheduler blockingScheduler,
+                        ConfigurableApplicationContext context) {
+    this.props = props;
+    this.mongoTemplate = mongoTemplate;
+    this.accountRepo = accountRepo;
+    this.fileReader = new RecordFileReader(objectMapper, blockingScheduler);
+    this.context = context;
+    this.accountIdsByNumber = Collections.synchronizedMap(lruCache(props.getAccountCacheSize()));
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    log.info("Starting bulk load: {}", props);
+    load().block();
+    if (props.isExitOnFinish()) {
+      System.exit(SpringApplication.exit(context, () -> 0));
+    }
+  }
+
+  /**
+   * Ejecuta la carga completa: cuentas y luego transacciones.
+   *
+   * @return {@link Mono} que completa cuando ambas fases terminaron
+   */
+  public Mono<Void> load() {
+    Mono<Void> drop = props.isDropExisting()
+        ? mongoTemplate.dropCollection(Account.class)
+          .then(mongoTemplate.dropCollection(Transaction.class))
+        : Mono.empty();
+
+    return drop
+      .then(Mono.defer(this::loadAccounts))
+      .flatMap(accounts -> loadTransactions(accounts).thenReturn(accounts))
+      .then();
+  }
+
+  private Mono<Long> loadAccounts() {
+    if (props.getAccountsFile() != null) {
+      return write(Account.class, fileReader.read(Path.of(props.getAccountsFile()), Account.class),
+          new LoadProgress("accounts", -1));
+    }
+    SyntheticDataGenerator generator =
+        new SyntheticDataGenerator(props, props.getAccounts(), Instant.now());
+    return write(Account.class,
+        Flux.range(0, Math.toIntExact(props.getAccounts())).map(generator::account),
+        new LoadProgress("accounts", props.getAccounts()));
+  }
+
+  private Mono<Long> loadTransactions(long accounts) {
+    if (props.getTransactionsFile() != null) {
+      Flux<Transaction> source = fileReader
+          .read(Path.of(props.getTransactionsFile()), Transaction.class)
+          .concatMap(this::resolveAccountId);
+      return write(Transaction.class, source, new LoadProgress("transactions", -1));
+    }
+    if (props.getAccountsFile() != null) {
+      log.warn("Synthetic transactions need synthetic accounts, "
+          + "set bankx.loader.transactions-file");
+      return Mono.just(0L);
+    }
+    if (accounts == 0) {
+      log.warn("No accounts loaded, skipping synthetic transactions");
+      return Mono.just(0L);
+    }
+    SyntheticDataGenerator generator = new SyntheticDataGenerator(props, accounts, Instant.now());
+    Flux<Transaction> source = Flux.<Long, Long>generate(() -> 0L, (i, sink) -> {
+      if (i >= props.getTransactions()) {
+        sink.complete();
+      } else {
+        sink.next(i);
+      }
+      return i + 1;
+    }).map(generator::transaction);
+    return write(Transaction.class, source,
+        new LoadProgress("transactions", props.getTransactions()));
+  }
+
+  /**
+   * Escribe el flujo en lotes no ordenados con paralelismo limitado e informa el progreso.
+   */
+  private <T> Mono<Long> write(Class<T> type, Flux<T> source, LoadProgress progress) {
+    Disposable reporter = Flux.interval(props.getProgressInterval())
+        .subscribe(tick -> log.info("Bulk load progress - {}", progress.summary()));
+
+    return source
+      .buffer(props.getBatchSize())
+      .flatMap(batch -> insertBatch(type, batch).doOnNext(progress::onBatch),
+        props.getParallelism())
+      .then(Mono.fromSupplier(progress::written))
+      .doOnSuccess(total -> log.info("Bulk load finished - {}", progress.summary()))
+      .doFinally(signal -> reporter.dispose());
+  }
+
+  private <T> Mono<Integer> insertBatch(Class<T> type, List<T> batch) {
+    return mongoTemplate.bulkOps(BulkMode.UNORDERED, type)
+      .insert(batch)
+      .execute()
+      .map(result -> result.getInsertedCount());
+  }
+
+  /**
+   * Mapa en orden de acceso que descarta la entrada menos usada al superar {@code maxSize}.
+   */
+  private static <K, V> Map<K, V> lruCache(int maxSize) {
+    return new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  private Mono<Transaction> resolveAccountId(Transaction tx) {
+    if (tx.getAccountId() != null) {
+      return Mono.just(tx);
+    }
+    return accountIdsByNumber
+      .computeIfAbsent(tx.getAccountNumber(), number -> accountRepo.findByNumber(number)
+        .map(Account::getId)
+        .cache())
+      .map(id -> {
+        tx.setAccountId(id);
+        return tx;
+      })
+      .switchIfEmpty(Mono.fromRunnable(() ->
+        log.warn("Skipping transaction for unknown account: {}", tx.getAccountNumber())));
+  }
+}
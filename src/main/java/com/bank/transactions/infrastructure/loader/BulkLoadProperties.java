@@ -0,0 +1,67 @@
+package com.bank.transactions.infrastructure.loader;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Parámetros del cargador masivo de cuentas y transacciones ({@code bankx.loader.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "bankx.loader")
+public class BulkLoadProperties {
+
+  /** Activa el cargador al arrancar la aplicación. */
+  private boolean enabled = false;
+
+  /** Borra las colecciones antes de cargar. */
+  private boolean dropExisting = false;
+
+  /** Cierra la aplicación al terminar la carga. */
+  private boolean exitOnFinish = true;
+
+  /** Cantidad de cuentas a generar (ignorado si se indica {@link #accountsFile}). */
+  private long accounts = 100_000;
+
+  /** Cantidad de transacciones a generar (ignorado si se indica {@link #transactionsFile}). */
+  private long transactions = 1_000_000;
+
+  /** Archivo CSV o NDJSON con cuentas; si se indica, no se generan cuentas sintéticas. */
+  private String accountsFile;
+
+  /** Archivo CSV o NDJSON con transacciones; si se indica, no se generan transacciones. */
+  private String transactionsFile;
+
+  /** Documentos por inserción masiva. */
+  private int batchSize = 1_000;
+
+  /** Inserciones masivas concurrentes. */
+  private int parallelism = 4;
+
+  /** Semilla para reproducir exactamente el mismo conjunto de datos. */
+  private long seed = 42L;
+
+  /** Exponente de la distribución Zipf que concentra transacciones en cuentas "calientes". */
+  private double hotAccountSkew = 1.1;
+
+  /** Peso relativo de cada moneda en las cuentas generadas. */
+  private Map<String, Integer> currencies = new LinkedHashMap<>(
+      Map.of("PEN", 60, "USD", 30, "EUR", 10));
+
+  /** Proporción de débitos sobre el total de transacciones. */
+  private double debitRatio = 0.45;
+
+  /** Días hacia atrás sobre los que se reparten las fechas de las transacciones. */
+  private int daysSpread = 365;
+
+  /** Prefijo de los números de cuenta generados. */
+  private String accountPrefix = "900-";
+
+  /** Cuentas cuyo id se recuerda al leer transacciones de archivo (las menos usadas salen). */
+  private int accountCacheSize = 10_000;
+
+  /** Intervalo entre reportes de progreso. */
+  private Duration progressInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,70 @@
+package com.bank.transactions.infrastructure.loader;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * Contador de progreso y throughput de una fase de carga.
+ */
+public class LoadProgress {
+
+  @Getter
+  private final String phase;
+  private final long expected;
+  private final long startNanos;
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+
+  /**
+   * Crea el contador de una fase.
+   *
+   * @param phase    nombre de la fase (por ejemplo "accounts")
+   * @param expected documentos esperados, o un valor negativo si se desconoce
+   */
+  public LoadProgress(String phase, long expected) {
+    this.phase = phase;
+    this.expected = expected;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Registra un lote escrito.
+   *
+   * @param documents documentos del lote
+   */
+  public void onBatch(int documents) {
+    written.addAndGet(documents);
+    batches.incrementAndGet();
+  }
+
+  /**
+   * Documentos escritos hasta el momento.
+   *
+   * @return total escrito
+   */
+  public long written() {
+    return written.get();
+  }
+
+  /**
+   * Documentos por segundo desde el inicio de la fase.
+   *
+   * @return throughput medio
+   */
+  public double docsPerSecond() {
+    double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    return seconds > 0 ? written.get() / seconds : 0.0;
+  }
+
+  /**
+   * Resumen legible para los logs.
+   *
+   * @return texto con avance, lotes y throughput
+   */
+  public String summary() {
+    long done = written.get();
+    String pct = expected > 0 ? String.format(" (%.1f%%)", done * 100.0 / expected) : "";
+    return String.format("%s: %d docs%s in %d batches, %.0f docs/s",
+        phase, done, pct, batches.get(), docsPerSecond());
+  }
+}
@@ -0,0 +1,94 @@
+package com.bank.transactions.infrastructure.loader;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Lee registros desde archivos CSV o NDJSON en streaming, sin cargar el archivo en memoria.
+ *
+ * <p>El formato se deduce de la extensión: {@code .csv} (primera línea con los nombres de
+ * los campos, separados por coma y sin comillas) o {@code .ndjson}/{@code .jsonl}
+ * (un objeto JSON por línea).</p>
+ */
+@RequiredArgsConstructor
+public class RecordFileReader {
+
+  private final ObjectMapper objectMapper;
+  private final Scheduler blockingScheduler;
+
+  /**
+   * Emite los registros del archivo convertidos al tipo indicado.
+   *
+   * @param file ruta del archivo
+   * @param type clase destino de cada registro
+   * @param <T>  tipo del registro
+   * @return {@link Flux} con los registros, leído en el scheduler de secciones bloqueantes
+   */
+  public <T> Flux<T> read(Path file, Class<T> type) {
+    boolean csv = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+    return Flux.using(
+        () -> Files.newBufferedReader(file),
+        reader -> csv ? csv(reader, type) : ndjson(reader, type),
+        RecordFileReader::closeQuietly)
+      .subscribeOn(blockingScheduler);
+  }
+
+  private <T> Flux<T> ndjson(BufferedReader reader, Class<T> type) {
+    return Flux.fromStream(nonBlankLines(reader))
+      .map(line -> {
+        try {
+          return objectMapper.readValue(line, type);
+        } catch (JsonProcessingException e) {
+          throw new IllegalArgumentException("Invalid NDJSON line: " + line, e);
+        }
+      });
+  }
+
+  private <T> Flux<T> csv(BufferedReader reader, Class<T> type) {
+    String[] header;
+    try {
+      String first = reader.readLine();
+      if (first == null) {
+        return Flux.empty();
+      }
+      header = first.split(",", -1);
+    } catch (IOException e) {
+      return Flux.error(new UncheckedIOException(e));
+    }
+    return Flux.fromStream(nonBlankLines(reader))
+      .map(line -> {
+        String[] values = line.split(",", -1);
+        Map<String, String> row = new HashMap<>(header.length * 2);
+        for (int i = 0; i < header.length && i < values.length; i++) {
+          if (!values[i].isEmpty()) {
+            row.put(header[i].trim(), values[i].trim());
+          }
+        }
+        return objectMapper.convertValue(row, type);
+      });
+  }
+
+  private static Stream<String> nonBlankLines(BufferedReader reader) {
+    return reader.lines().filter(line -> !line.isBlank());
+  }
+
+  private static void closeQuietly(BufferedReader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package com.bank.transactions.infrastructure.loader;
+
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * Genera cuentas y transacciones sintéticas con distribuciones parecidas a producción.
+ *
+ * <p>Cada registro se deriva de la semilla y de su índice, por lo que la generación es
+ * reproducible y se puede paralelizar sin estado compartido. Las transacciones se
+ * concentran en pocas cuentas siguiendo una ley de potencias (Zipf), las monedas
+ * siguen pesos configurables y las fechas se reparten en una ventana de días.</p>
+ */
+public class SyntheticDataGenerator {
+
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final String ID_PREFIX = "b4a1c0de";
+
+  private final BulkLoadProperties props;
+  private final long accountCount;
+  private final String[] currencyCodes;
+  private final int[] cumulativeWeights;
+  private final int totalWeight;
+  private final Instant now;
+  private final long spreadMillis;
+
+  /**
+   * Crea un generador para la configuración dada.
+   *
+   * @param props        parámetros de la carga
+   * @param accountCount número de cuentas sobre las que se reparten las transacciones
+   * @param now          instante de referencia para las fechas generadas
+   */
+  public SyntheticDataGenerator(BulkLoadProperties props, long accountCount, Instant now) {
+    this.props = props;
+    this.accountCount = accountCount;
+    this.now = now;
+    this.spreadMillis = Duration.ofDays(props.getDaysSpread()).toMillis();
+
+    Map<String, Integer> sorted = new TreeMap<>(props.getCurrencies());
+    this.currencyCodes = sorted.keySet().toArray(new String[0]);
+    this.cumulativeWeights = new int[currencyCodes.length];
+    int acc = 0;
+    for (int i = 0; i < currencyCodes.length; i++) {
+      acc += sorted.get(currencyCodes[i]);
+      cumulativeWeights[i] = acc;
+    }
+    this.totalWeight = acc;
+  }
+
+  /**
+   * Identificador determinista de la cuenta con el índice dado (ObjectId hexadecimal válido).
+   *
+   * @param index índice de la cuenta
+   * @return identificador de 24 caracteres hexadecimales
+   */
+  public static String accountId(long index) {
+    return ID_PREFIX + String.format("%016x", index);
+  }
+
+  /**
+   * Número de cuenta legible para el índice dado.
+   *
+   * @param index índice de la cuenta
+   * @return número de cuenta
+   */
+  public String accountNumber(long index) {
+    return props.getAccountPrefix() + String.format("%08d", index);
+  }
+
+  /**
+   * Genera la cuenta con el índice dado.
+   *
+   * @param index índice de la cuenta
+   * @return cuenta sintética
+   */
+  public Account account(long index) {
+    SplittableRandom rnd = random(index, 1);
+    return Account.builder()
+      .id(accountId(index))
+      .number(accountNumber(index))
+      .holderName("Holder " + index)
+      .currency(currencyOf(index))
+      .balance(logNormal(rnd, 7.0, 1.2))
+      .build();
+  }
+
+  /**
+   * Genera la transacción con el índice dado.
+   *
+   * @param index índice de la transacción
+   * @return transacción sintética asociada a una cuenta elegida por la distribución Zipf
+   */
+  public Transaction transaction(long index) {
+    SplittableRandom rnd = random(index, 2);
+    long accountIndex = hotAccountIndex(rnd.nextDouble());
+    boolean debit = rnd.nextDouble() < props.getDebitRatio();
+    return Transaction.builder()
+      .accountId(accountId(accountIndex))
+      .accountNumber(accountNumber(accountIndex))
+      .currency(currencyOf(accountIndex))
+      .type(debit ? "DEBIT" : "CREDIT")
+      .amount(logNormal(rnd, 4.0, 1.0))
+      .timestamp(now.minusMillis((long) (rnd.nextDouble() * spreadMillis)))
+      .status("COMPLETED")
+      .build();
+  }
+
+  /**
+   * Moneda de la cuenta con el índice dado según los pesos configurados.
+   *
+   * @param accountIndex índice de la cuenta
+   * @return código de moneda
+   */
+  public String currencyOf(long accountIndex) {
+    int pick = random(accountIndex, 3).nextInt(totalWeight);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (pick < cumulativeWeights[i]) {
+        return currencyCodes[i];
+      }
+    }
+    return currencyCodes[currencyCodes.length - 1];
+  }
+
+  /**
+   * Convierte un uniforme en [0, 1) en un índice de cuenta con distribución de ley de
+   * potencias, usando la inversa de la CDF continua (O(1) y sin tablas).
+   *
+   * @param u valor uniforme en [0, 1)
+   * @return índice de cuenta en [0, accountCount)
+   */
+  long hotAccountIndex(double u) {
+    double s = props.getHotAccountSkew();
+    double n = accountCount;
+    double rank;
+    if (Math.abs(s - 1.0) < 1e-9) {
+      rank = Math.pow(n, u);
+    } else {
+      double oneMinusS = 1.0 - s;
+      rank = Math.pow((Math.pow(n, oneMinusS) - 1.0) * u + 1.0, 1.0 / oneMinusS);
+    }
+    return Math.min(accountCount - 1, Math.max(0, (long) rank - 1));
+  }
+
+  private SplittableRandom random(long index, int stream) {
+    return new SplittableRandom(props.getSeed() ^ (index * GOLDEN_GAMMA) ^ stream);
+  }
+
+  private static BigDecimal logNormal(SplittableRandom rnd, double mu, double sigma) {
+    // Box-Muller para obtener una normal estándar
+    double u1 = 1.0 - rnd.nextDouble();
+    double u2 = rnd.nextDouble();
+    double z = Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    return BigDecimal.valueOf(Math.exp(mu + sigma * z))
+      .setScale(2, RoundingMode.HALF_UP)
+      .max(new BigDecimal("0.01"));
+  }
+}
@@ -0,0 +1,27 @@
+package com.bank.transactions.infrastructure.migration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Parámetros de la migración al formato compacto ({@code bankx.migration.compact.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "bankx.migration.compact")
+public class CompactMigrationProperties {
+
+  /** Activa la migración al arrancar la aplicación. */
+  private boolean enabled = false;
+
+  /** Solo imprime el reporte de tamaño, sin reescribir documentos. */
+  private boolean reportOnly = false;
+
+  /** Cierra la aplicación al terminar. */
+  private boolean exitOnFinish = true;
+
+  /** Documentos reescritos por escritura masiva. */
+  private int batchSize = 1_000;
+
+  /** Tope de documentos reescritos por segundo, para no competir con el tráfico en línea. */
+  private int docsPerSecond = 5_000;
+}
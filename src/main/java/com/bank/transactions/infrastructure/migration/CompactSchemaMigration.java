@@ -0,0 +1,161 @@
+package com.bank.transactions.infrastructure.migration;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import com.bank.transactions.infrastructure.persistence.Throttling;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Migración en línea de la colección de transacciones al formato compacto.
+ *
+ * <p>Recorre los documentos con el formato anterior en orden de {@code _id}, en lotes de
+ * {@code bankx.migration.compact.batch-size}, y reemplaza cada uno por su versión compacta
+ * con una escritura masiva no ordenada. El ritmo se limita a
+ * {@code bankx.migration.compact.docs-per-second}. Cada reemplazo está condicionado a que el
+ * documento siga en el formato anterior, así que se puede interrumpir y volver a lanzar.
+ * Imprime el tamaño de la colección antes y después. Se activa con
+ * {@code bankx.migration.compact.enabled=true} (perfil {@code migrate}).</p>
+ */
+@Component
+@ConditionalOnProperty(name = "bankx.migration.compact.enabled", havingValue = "true")
+@EnableConfigurationProperties(CompactMigrationProperties.class)
+@Slf4j
+public class CompactSchemaMigration implements ApplicationRunner {
+
+  private static final String ID = "_id";
+
+  private final CompactMigrationProperties props;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final CompactTransactionCodec codec;
+  private final ConfigurableApplicationContext context;
+  private final String collection;
+
+  /**
+   * Crea la migración.
+   *
+   * @param props         parámetros de la migración
+   * @param mongoTemplate plantilla reactiva de Mongo
+   * @param codec         codec del formato compacto
+   * @param context       contexto de la aplicación, para cerrarla al terminar
+   */
+  public CompactSchemaMigration(CompactMigrationProperties props,
+                                ReactiveMongoTemplate mongoTemplate,
+                                CompactTransactionCodec codec,
+                                ConfigurableApplicationContext context) {
+    this.props = props;
+    this.mongoTemplate = mongoTemplate;
+    this.codec = codec;
+    this.context = context;
+    this.collection = mongoTemplate.getCollectionName(Transaction.class);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    log.info("Starting compact schema migration: {}", props);
+    migrate().block();
+    if (props.isExitOnFinish()) {
+      System.exit(SpringApplication.exit(context, () -> 0));
+    }
+  }
+
+  /**
+   * Ejecuta la migración completa e imprime el reporte de tamaño.
+   *
+   * @return {@link Mono} con la cantidad de documentos reescritos
+   */
+  public Mono<Long> migrate() {
+    if (props.isReportOnly()) {
+      return storageReport()
+        .doOnNext(report -> log.info("Storage report for {}: {}", collection, report))
+        .thenReturn(0L);
+    }
+    return storageReport()
+      .flatMap(before -> ensureIndex()
+        .then(rewriteAll())
+        .flatMap(migrated -> storageReport()
+          .doOnNext(after -> log.info(
+              "Compact migration finished: {} documents rewritten{}{}", migrated,
+              System.lineSeparator(), StorageReport.compare(before, after)))
+          .thenReturn(migrated)));
+  }
+
+  /**
+   * Tamaño actual de la colección de transacciones.
+   *
+   * @return {@link Mono} con el reporte
+   */
+  public Mono<StorageReport> storageReport() {
+    return mongoTemplate.getCollection(collection)
+      .flatMap(coll -> Mono.from(coll.aggregate(List.of(
+          new Document("$collStats", new Document("storageStats", new Document()))))
+        .first()))
+      .map(stats -> StorageReport.from(stats.get("storageStats", Document.class)));
+  }
+
+  private Mono<String> ensureIndex() {
+    // Claves del formato compacto: accountId (a) y timestamp (ts)
+    return mongoTemplate.indexOps(collection)
+      .ensureIndex(new Index().on("a", Sort.Direction.ASC).on("ts", Sort.Direction.DESC)
+        .named("account_timestamp"));
+  }
+
+  private Mono<Long> rewriteAll() {
+    AtomicLong migrated = new AtomicLong();
+    Duration minBatch = Throttling.minBatchDuration(props.getBatchSize(),
+        props.getDocsPerSecond());
+
+    return nextBatch(null)
+      .expand(batch -> batch.isEmpty()
+          ? Mono.empty()
+          : Throttling.atLeast(rewrite(batch), minBatch)
+            .doOnNext(n -> log.info("Compact migration progress: {} documents",
+                migrated.addAndGet(n)))
+            .then(nextBatch(batch.get(batch.size() - 1).get(ID))))
+      .then(Mono.fromSupplier(migrated::get));
+  }
+
+  private Mono<List<Document>> nextBatch(Object lastId) {
+    Criteria criteria = Criteria.where(CompactTransactionCodec.LEGACY_MARKER).exists(true);
+    if (lastId != null) {
+      criteria = criteria.and(ID).gt(lastId);
+    }
+    return mongoTemplate.find(
+        Query.query(criteria).with(Sort.by(ID)).limit(props.getBatchSize()),
+        Document.class, collection)
+      .collectList();
+  }
+
+  private Mono<Long> rewrite(List<Document> batch) {
+    List<WriteModel<Document>> replacements = batch.stream()
+        .<WriteModel<Document>>map(legacy -> new ReplaceOneModel<>(
+          Filters.and(Filters.eq(ID, legacy.get(ID)),
+            Filters.exists(CompactTransactionCodec.LEGACY_MARKER)),
+          codec.encode(codec.decode(legacy))))
+        .toList();
+    return mongoTemplate.getCollection(collection)
+      .flatMap(coll -> Mono.from(
+          coll.bulkWrite(replacements, new BulkWriteOptions().ordered(false))))
+      .map(result -> (long) result.getModifiedCount());
+  }
+}
@@ -0,0 +1,58 @@
+package com.bank.transactions.infrastructure.migration;
+
+import org.bson.Document;
+
+/**
+ * Tamaño de una colección según {@code $collStats}.
+ *
+ * @param count          documentos
+ * @param size           bytes de datos sin comprimir
+ * @param avgObjSize     bytes promedio por documento
+ * @param storageSize    bytes en disco (comprimidos)
+ * @param totalIndexSize bytes de índices
+ */
+public record StorageReport(long count, long size, long avgObjSize, long storageSize,
+                            long totalIndexSize) {
+
+  /**
+   * Crea el reporte desde el sub-documento {@code storageStats} de {@code $collStats}.
+   *
+   * @param stats documento {@code storageStats}
+   * @return reporte
+   */
+  public static StorageReport from(Document stats) {
+    return new StorageReport(
+      number(stats, "count"),
+      number(stats, "size"),
+      number(stats, "avgObjSize"),
+      number(stats, "storageSize"),
+      number(stats, "totalIndexSize"));
+  }
+
+  /**
+   * Tabla comparativa entre dos reportes.
+   *
+   * @param before reporte previo
+   * @param after  reporte posterior
+   * @return texto con una fila por métrica
+   */
+  public static String compare(StorageReport before, StorageReport after) {
+    return String.format(
+        "%-15s %15s %15s %8s%n", "metric", "before", "after", "change")
+      + row("count", before.count(), after.count())
+      + row("size", before.size(), after.size())
+      + row("avgObjSize", before.avgObjSize(), after.avgObjSize())
+      + row("storageSize", before.storageSize(), after.storageSize())
+      + row("totalIndexSize", before.totalIndexSize(), after.totalIndexSize());
+  }
+
+  private static String row(String metric, long before, long after) {
+    String change = before == 0 ? "-" : String.format("%+.1f%%", (after - before) * 100.0 / before);
+    return String.format("%-15s %15d %15d %8s%n", metric, before, after, change);
+  }
+
+  private static long number(Document stats, String key) {
+    Object value = stats.get(key);
+    return value instanceof Number n ? n.longValue() : 0L;
+  }
+}
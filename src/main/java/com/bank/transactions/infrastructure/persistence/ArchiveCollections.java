@@ -0,0 +1,60 @@
+package com.bank.transactions.infrastructure.persistence;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Nombres de las colecciones mensuales del archivo de transacciones
+ * ({@code transactions_archive_2024_01}, en UTC).
+ */
+public final class ArchiveCollections {
+
+  /** Prefijo común de las colecciones de archivo. */
+  public static final String PREFIX = "transactions_archive_";
+
+  private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+  private ArchiveCollections() {
+  }
+
+  /**
+   * Colección de archivo del mes de la fecha indicada.
+   *
+   * @param timestamp fecha de la transacción
+   * @return nombre de la colección
+   */
+  public static String forTimestamp(Instant timestamp) {
+    return forMonth(YearMonth.from(timestamp.atZone(ZoneOffset.UTC)));
+  }
+
+  /**
+   * Colección de archivo de un mes.
+   *
+   * @param month mes
+   * @return nombre de la colección
+   */
+  public static String forMonth(YearMonth month) {
+    return PREFIX + MONTH.format(month);
+  }
+
+  /**
+   * Mes de una colección de archivo.
+   *
+   * @param collection nombre de la colección
+   * @return el mes, o vacío si no es una colección de archivo
+   */
+  public static Optional<YearMonth> monthOf(String collection) {
+    if (collection == null || !collection.startsWith(PREFIX)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(YearMonth.parse(collection.substring(PREFIX.length()), MONTH));
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,281 @@
+package com.bank.transactions.infrastructure.persistence;
+
+import com.bank.transactions.domain.model.Transaction;
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+/**
+ * Representación compacta de {@link Transaction} en Mongo.
+ *
+ * <ul>
+ *   <li>Claves de una o dos letras ({@code a}, {@code n}, {@code c}, {@code t}, {@code m},
+ *   {@code ts}, {@code s}, {@code r}) y sin {@code _class}.</li>
+ *   <li>{@code type} y {@code status} como códigos de una letra; la moneda como su código
+ *   numérico ISO 4217.</li>
+ *   <li>El monto en unidades menores ({@code int}/{@code long}) según los decimales de la
+ *   moneda; si no cabe exacto, como {@link Decimal128}.</li>
+ *   <li>Opcionalmente sin {@code accountNumber}, que es redundante con {@code accountId}.</li>
+ * </ul>
+ *
+ * <p>Los valores desconocidos se guardan tal cual y la lectura acepta también el formato
+ * anterior (claves largas, monto como texto), para poder migrar en línea.</p>
+ *
+ * <p>Las unidades menores no guardan la escala con la que se escribió el monto, así que al
+ * leer, cualquiera sea el formato, los montos de una moneda conocida se devuelven con los
+ * decimales de la moneda ({@code 100} PEN se lee como {@code 100.00}); solo conservan su
+ * escala los que tienen más decimales que la moneda.</p>
+ */
+public class CompactTransactionCodec {
+
+  public static final String ID = "_id";
+  public static final String ACCOUNT_ID = "a";
+  public static final String ACCOUNT_NUMBER = "n";
+  public static final String CURRENCY = "c";
+  public static final String TYPE = "t";
+  public static final String AMOUNT = "m";
+  public static final String TIMESTAMP = "ts";
+  public static final String STATUS = "s";
+  public static final String REASON = "r";
+
+  /** Campo que solo existe en documentos con el formato anterior. */
+  public static final String LEGACY_MARKER = "accountId";
+
+  private static final Map<String, String> TYPE_CODES = Map.of("CREDIT", "C", "DEBIT", "D");
+  private static final Map<String, String> STATUS_CODES = Map.of(
+      "COMPLETED", "C", "REJECTED", "R", "PENDING", "P", "FAILED", "F");
+  private static final Map<String, String> TYPE_NAMES = invert(TYPE_CODES);
+  private static final Map<String, String> STATUS_NAMES = invert(STATUS_CODES);
+  private static final Map<Integer, Currency> CURRENCIES_BY_NUMBER = currenciesByNumber();
+
+  private final boolean dropAccountNumber;
+
+  /**
+   * Crea el codec.
+   *
+   * @param dropAccountNumber si {@code true}, no se persiste {@code accountNumber}
+   */
+  public CompactTransactionCodec(boolean dropAccountNumber) {
+    this.dropAccountNumber = dropAccountNumber;
+  }
+
+  /**
+   * Convierte la transacción a su documento compacto.
+   *
+   * @param tx transacción
+   * @return documento a persistir
+   */
+  public Document encode(Transaction tx) {
+    Document doc = new Document();
+    if (tx.getId() != null) {
+      doc.put(ID, ObjectId.isValid(tx.getId()) ? new ObjectId(tx.getId()) : tx.getId());
+    }
+    putIfPresent(doc, ACCOUNT_ID, tx.getAccountId());
+    if (!dropAccountNumber) {
+      putIfPresent(doc, ACCOUNT_NUMBER, tx.getAccountNumber());
+    }
+    Currency currency = currencyOf(tx.getCurrency());
+    putIfPresent(doc, CURRENCY, currency != null ? currency.getNumericCode() : tx.getCurrency());
+    putIfPresent(doc, TYPE, code(TYPE_CODES, tx.getType()));
+    putIfPresent(doc, AMOUNT, encodeAmount(tx.getAmount(), currency));
+    putIfPresent(doc, TIMESTAMP, tx.getTimestamp() != null ? Date.from(tx.getTimestamp()) : null);
+    putIfPresent(doc, STATUS, code(STATUS_CODES, tx.getStatus()));
+    putIfPresent(doc, REASON, tx.getReason());
+    return doc;
+  }
+
+  /**
+   * Lee un documento compacto o con el formato anterior.
+   *
+   * @param doc documento de Mongo
+   * @return transacción
+   */
+  public Transaction decode(Document doc) {
+    if (doc.containsKey(LEGACY_MARKER)) {
+      return decodeLegacy(doc);
+    }
+    Object rawCurrency = doc.get(CURRENCY);
+    Currency currency = rawCurrency instanceof Number number
+        ? CURRENCIES_BY_NUMBER.get(number.intValue())
+        : null;
+    return Transaction.builder()
+      .id(idOf(doc.get(ID)))
+      .accountId(doc.getString(ACCOUNT_ID))
+      .accountNumber(doc.getString(ACCOUNT_NUMBER))
+      .currency(currency != null ? currency.getCurrencyCode() : asString(rawCurrency))
+      .type(name(TYPE_NAMES, doc.getString(TYPE)))
+      .amount(normalize(decodeAmount(doc.get(AMOUNT), currency), currency))
+      .timestamp(doc.getDate(TIMESTAMP) != null ? doc.getDate(TIMESTAMP).toInstant() : null)
+      .status(name(STATUS_NAMES, doc.getString(STATUS)))
+      .reason(doc.getString(REASON))
+      .build();
+  }
+
+  /**
+   * Código compacto de un tipo de transacción, para consultar por {@link #TYPE}.
+   *
+   * @param type tipo ({@code CREDIT}, {@code DEBIT} u otro, que se guarda tal cual)
+   * @return código guardado en el documento
+   */
+  public static String typeCode(String type) {
+    return code(TYPE_CODES, type);
+  }
+
+  /**
+   * Convertidor de escritura para registrar en {@code MongoCustomConversions}.
+   *
+   * @return convertidor {@link Transaction} a {@link Document}
+   */
+  public Converter<Transaction, Document> writer() {
+    return new Writer(this);
+  }
+
+  /**
+   * Convertidor de lectura para registrar en {@code MongoCustomConversions}.
+   *
+   * @return convertidor {@link Document} a {@link Transaction}
+   */
+  public Converter<Document, Transaction> reader() {
+    return new Reader(this);
+  }
+
+  private static Transaction decodeLegacy(Document doc) {
+    Object raw = doc.get("amount");
+    BigDecimal amount = raw instanceof Decimal128 d ? d.bigDecimalValue()
+        : raw != null ? new BigDecimal(raw.toString()) : null;
+    return Transaction.builder()
+      .id(idOf(doc.get(ID)))
+      .accountId(doc.getString(LEGACY_MARKER))
+      .accountNumber(doc.getString("accountNumber"))
+      .currency(doc.getString("currency"))
+      .type(doc.getString("type"))
+      .amount(normalize(amount, currencyOf(doc.getString("currency"))))
+      .timestamp(doc.getDate("timestamp") != null ? doc.getDate("timestamp").toInstant() : null)
+      .status(doc.getString("status"))
+      .reason(doc.getString("reason"))
+      .build();
+  }
+
+  private static Object encodeAmount(BigDecimal amount, Currency currency) {
+    if (amount == null) {
+      return null;
+    }
+    int digits = currency != null ? currency.getDefaultFractionDigits() : -1;
+    if (digits >= 0 && amount.stripTrailingZeros().scale() <= digits) {
+      BigDecimal minor = amount.movePointRight(digits);
+      if (minor.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0) {
+        long units = minor.longValueExact();
+        return units == (int) units ? (Object) (int) units : (Object) units;
+      }
+    }
+    return new Decimal128(amount);
+  }
+
+  private static BigDecimal decodeAmount(Object raw, Currency currency) {
+    if (raw instanceof Integer || raw instanceof Long) {
+      int digits = currency != null ? Math.max(currency.getDefaultFractionDigits(), 0) : 0;
+      return BigDecimal.valueOf(((Number) raw).longValue(), digits);
+    }
+    if (raw instanceof Decimal128 d) {
+      return d.bigDecimalValue();
+    }
+    return raw != null ? new BigDecimal(raw.toString()) : null;
+  }
+
+  /**
+   * Lleva el monto a los decimales de la moneda si los tiene de sobra o le faltan ceros.
+   */
+  private static BigDecimal normalize(BigDecimal amount, Currency currency) {
+    if (amount == null || currency == null || currency.getDefaultFractionDigits() < 0) {
+      return amount;
+    }
+    int digits = currency.getDefaultFractionDigits();
+    return amount.stripTrailingZeros().scale() <= digits ? amount.setScale(digits) : amount;
+  }
+
+  private static Currency currencyOf(String code) {
+    if (code == null) {
+      return null;
+    }
+    try {
+      Currency currency = Currency.getInstance(code);
+      // Solo se codifica si el número identifica a la moneda sin ambigüedad
+      return currency.equals(CURRENCIES_BY_NUMBER.get(currency.getNumericCode()))
+          ? currency
+          : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static String code(Map<String, String> codes, String value) {
+    return value != null ? codes.getOrDefault(value, value) : null;
+  }
+
+  private static String name(Map<String, String> names, String code) {
+    return code != null ? names.getOrDefault(code, code) : null;
+  }
+
+  private static String idOf(Object id) {
+    return id instanceof ObjectId objectId ? objectId.toHexString() : asString(id);
+  }
+
+  private static String asString(Object value) {
+    return value != null ? value.toString() : null;
+  }
+
+  private static void putIfPresent(Document doc, String key, Object value) {
+    if (value != null) {
+      doc.put(key, value);
+    }
+  }
+
+  private static Map<String, String> invert(Map<String, String> map) {
+    Map<String, String> inverted = new HashMap<>();
+    map.forEach((k, v) -> inverted.put(v, k));
+    return Map.copyOf(inverted);
+  }
+
+  private static Map<Integer, Currency> currenciesByNumber() {
+    Map<Integer, Currency> byNumber = new HashMap<>();
+    Map<Integer, Integer> seen = new HashMap<>();
+    for (Currency currency : Currency.getAvailableCurrencies()) {
+      int number = currency.getNumericCode();
+      if (number > 0) {
+        byNumber.put(number, currency);
+        seen.merge(number, 1, Integer::sum);
+      }
+    }
+    // Los números compartidos por más de una moneda no se usan
+    seen.forEach((number, count) -> {
+      if (count > 1) {
+        byNumber.remove(number);
+      }
+    });
+    return Map.copyOf(byNumber);
+  }
+
+  @WritingConverter
+  private record Writer(CompactTransactionCodec codec) implements Converter<Transaction, Document> {
+    @Override
+    public Document convert(Transaction source) {
+      return codec.encode(source);
+    }
+  }
+
+  @ReadingConverter
+  private record Reader(CompactTransactionCodec codec) implements Converter<Document, Transaction> {
+    @Override
+    public Transaction convert(Document source) {
+      return codec.decode(source);
+    }
+  }
+}
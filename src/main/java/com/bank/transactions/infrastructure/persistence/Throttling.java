@@ -0,0 +1,45 @@
+package com.bank.transactions.infrastructure.persistence;
+
+import java.time.Duration;
+import reactor.core.publisher.Mono;
+
+/**
+ * Limitación de ritmo para trabajos de fondo que reescriben colecciones por lotes.
+ */
+public final class Throttling {
+
+  private Throttling() {
+  }
+
+  /**
+   * Duración mínima de un lote para no superar el ritmo indicado.
+   *
+   * @param batchSize    documentos por lote
+   * @param docsPerSecond tope de documentos por segundo
+   * @return duración mínima del lote
+   */
+  public static Duration minBatchDuration(int batchSize, int docsPerSecond) {
+    return Duration.ofNanos(Duration.ofSeconds(1).toNanos() * batchSize
+        / Math.max(1, docsPerSecond));
+  }
+
+  /**
+   * Completa el trabajo y espera lo que falte para que dure al menos {@code min}.
+   *
+   * @param work trabajo a ejecutar
+   * @param min  duración mínima
+   * @param <T>  tipo del resultado
+   * @return {@link Mono} con el resultado del trabajo
+   */
+  public static <T> Mono<T> atLeast(Mono<T> work, Duration min) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return work.flatMap(value -> {
+        long remaining = min.toNanos() - (System.nanoTime() - start);
+        return remaining > 0
+            ? Mono.delay(Duration.ofNanos(remaining)).thenReturn(value)
+            : Mono.just(value);
+      });
+    });
+  }
+}
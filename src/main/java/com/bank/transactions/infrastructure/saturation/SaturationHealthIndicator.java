@@ -0,0 +1,28 @@
+package com.bank.transactions.infrastructure.saturation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indicador de salud {@code saturation}: {@code OUT_OF_SERVICE} mientras alguna señal de
+ * {@link SaturationMonitor} supere su umbral. Forma parte del grupo {@code readiness}, así
+ * que el balanceador deja de enviar tráfico al nodo hasta que se recupere.
+ */
+@Component
+@RequiredArgsConstructor
+public class SaturationHealthIndicator implements HealthIndicator {
+
+  private final SaturationMonitor monitor;
+
+  @Override
+  public Health health() {
+    SaturationMonitor.Snapshot snapshot = monitor.snapshot();
+    Health.Builder health = snapshot.saturated().isEmpty() ? Health.up() : Health.outOfService();
+    return health
+      .withDetails(snapshot.values())
+      .withDetail("saturated", snapshot.saturated())
+      .build();
+  }
+}
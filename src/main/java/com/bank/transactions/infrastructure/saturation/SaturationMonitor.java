@@ -0,0 +1,267 @@
+package com.bank.transactions.infrastructure.saturation;
+
+import com.bank.transactions.application.service.RiskRemoteClient;
+import com.bank.transactions.domain.model.Transaction;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Señales de saturación para el autoscaler ({@code bankx.saturation.*}), publicadas como
+ * métricas y resumidas en el indicador de salud {@code saturation}.
+ *
+ * <ul>
+ *   <li>{@code bankx.saturation.event-loop.lag}: demora del event loop de Netty más atrasado
+ *   en ejecutar una tarea de prueba; una sonda que no corrió cuenta el tiempo que lleva en
+ *   espera.</li>
+ *   <li>{@code bankx.saturation.bounded-elastic.active} y {@code .queued}: tareas en
+ *   ejecución y en espera en {@code Schedulers.boundedElastic()}.</li>
+ *   <li>{@code bankx.saturation.parallel.utilization}: fracción de hilos ocupados de
+ *   {@code Schedulers.parallel()}, promediada entre muestras.</li>
+ *   <li>{@code bankx.saturation.sink.fill}: fracción ocupada del buffer del sink de
+ *   transacciones.</li>
+ *   <li>{@code bankx.saturation.risk.pending}: llamadas al servicio de riesgo en curso.</li>
+ * </ul>
+ *
+ * <p>Se muestrea cada {@code sample-interval} en {@code Schedulers.single()}, para no
+ * contarse a sí mismo en {@code parallel()}.</p>
+ */
+@Component
+@Slf4j
+public class SaturationMonitor implements DisposableBean {
+
+  /** Peso de cada muestra en el promedio de utilización de {@code parallel()}. */
+  private static final double SMOOTHING = 0.2;
+
+  static {
+    SchedulerExecutors.install();
+  }
+
+  private final Sinks.Many<Transaction> txSink;
+  private final RiskRemoteClient riskClient;
+  private final Supplier<EventLoopGroup> eventLoops;
+  private final Duration sampleInterval;
+  private final Thresholds thresholds;
+  private final List<Probe> probes = new CopyOnWriteArrayList<>();
+  private volatile double parallelUtilization;
+  private Disposable sampler;
+
+  /** Umbrales a partir de los cuales el indicador de salud marca saturación. */
+  private record Thresholds(Duration eventLoopLag, int boundedElasticQueued,
+                           double parallelUtilization, double sinkFill, int riskPending) {
+  }
+
+  /**
+   * Crea el monitor sobre los event loops del servidor HTTP.
+   *
+   * @param registry       registro de métricas
+   * @param txSink         sink de transacciones
+   * @param riskClient     cliente del servicio de riesgo
+   * @param resources      recursos de Reactor Netty del servidor; sin ellos, los globales
+   * @param sampleInterval {@code bankx.saturation.sample-interval}
+   * @param eventLoopLag   {@code bankx.saturation.threshold.event-loop-lag}
+   * @param elasticQueued  {@code bankx.saturation.threshold.bounded-elastic-queued}
+   * @param parallelUsage  {@code bankx.saturation.threshold.parallel-utilization}
+   * @param sinkFill       {@code bankx.saturation.threshold.sink-fill}
+   * @param riskPending    {@code bankx.saturation.threshold.risk-pending}
+   */
+  public SaturationMonitor(
+      MeterRegistry registry,
+      Sinks.Many<Transaction> txSink,
+      RiskRemoteClient riskClient,
+      ObjectProvider<ReactorResourceFactory> resources,
+      @Value("${bankx.saturation.sample-interval:250ms}") Duration sampleInterval,
+      @Value("${bankx.saturation.threshold.event-loop-lag:100ms}") Duration eventLoopLag,
+      @Value("${bankx.saturation.threshold.bounded-elastic-queued:1000}") int elasticQueued,
+      @Value("${bankx.saturation.threshold.parallel-utilization:0.9}") double parallelUsage,
+      @Value("${bankx.saturation.threshold.sink-fill:0.8}") double sinkFill,
+      @Value("${bankx.saturation.threshold.risk-pending:200}") int riskPending) {
+    this.txSink = txSink;
+    this.riskClient = riskClient;
+    this.eventLoops = () -> {
+      ReactorResourceFactory factory = resources.getIfAvailable();
+      LoopResources loops = factory != null ? factory.getLoopResources() : HttpResources.get();
+      return loops.onServer(LoopResources.DEFAULT_NATIVE);
+    };
+    this.sampleInterval = sampleInterval;
+    this.thresholds = new Thresholds(eventLoopLag, elasticQueued, parallelUsage, sinkFill,
+        riskPending);
+    TimeGauge.builder("bankx.saturation.event-loop.lag", this,
+        TimeUnit.NANOSECONDS, SaturationMonitor::eventLoopLagNanos)
+        .description("Demora del event loop más atrasado en ejecutar una tarea")
+        .register(registry);
+    Gauge.builder("bankx.saturation.bounded-elastic.active",
+        () -> SchedulerExecutors.load(Schedulers.boundedElastic()).active())
+        .description("Tareas en ejecución en Schedulers.boundedElastic()")
+        .register(registry);
+    Gauge.builder("bankx.saturation.bounded-elastic.queued",
+        () -> SchedulerExecutors.load(Schedulers.boundedElastic()).queued())
+        .description("Tareas en espera en Schedulers.boundedElastic()")
+        .register(registry);
+    Gauge.builder("bankx.saturation.parallel.utilization", this, m -> m.parallelUtilization)
+        .description("Fracción de hilos ocupados de Schedulers.parallel()")
+        .register(registry);
+    Gauge.builder("bankx.saturation.sink.fill", this, SaturationMonitor::sinkFill)
+        .description("Fracción ocupada del buffer del sink de transacciones")
+        .register(registry);
+    Gauge.builder("bankx.saturation.risk.pending", riskClient, RiskRemoteClient::pendingCalls)
+        .description("Llamadas al servicio de riesgo en curso")
+        .register(registry);
+  }
+
+  /**
+   * Empieza a muestrear.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    for (EventExecutor executor : eventLoops.get()) {
+      probes.add(new Probe(executor));
+    }
+    if (SchedulerExecutors.load(Schedulers.parallel()).threads() == 0) {
+      log.warn("Schedulers.parallel() started before saturation tracking; "
+          + "its utilization is reported as 0");
+    }
+    sampler = Flux.interval(sampleInterval, Schedulers.single())
+      .onBackpressureDrop()
+      .subscribe(tick -> sample());
+  }
+
+  @Override
+  public void destroy() {
+    if (sampler != null) {
+      sampler.dispose();
+    }
+  }
+
+  /**
+   * Toma una muestra: lanza las sondas de los event loops y promedia la utilización de
+   * {@code parallel()}.
+   */
+  void sample() {
+    probes.forEach(Probe::launch);
+    double usage = SchedulerExecutors.load(Schedulers.parallel()).utilization();
+    parallelUtilization += SMOOTHING * (usage - parallelUtilization);
+  }
+
+  /**
+   * Valores actuales y los que superan su umbral.
+   *
+   * @return estado de saturación
+   */
+  public Snapshot snapshot() {
+    SchedulerExecutors.Load elastic = SchedulerExecutors.load(Schedulers.boundedElastic());
+    Map<String, Object> values = new LinkedHashMap<>();
+    List<String> saturated = new ArrayList<>();
+    Duration lag = Duration.ofNanos(eventLoopLagNanos());
+    check(values, saturated, "eventLoopLag", lag,
+        lag.compareTo(thresholds.eventLoopLag()) > 0);
+    values.put("boundedElasticActive", elastic.active());
+    check(values, saturated, "boundedElasticQueued", elastic.queued(),
+        elastic.queued() > thresholds.boundedElasticQueued());
+    check(values, saturated, "parallelUtilization", parallelUtilization,
+        parallelUtilization > thresholds.parallelUtilization());
+    double sinkFill = sinkFill();
+    check(values, saturated, "sinkFill", sinkFill, sinkFill > thresholds.sinkFill());
+    int riskPending = riskClient.pendingCalls();
+    check(values, saturated, "riskPending", riskPending,
+        riskPending > thresholds.riskPending());
+    return new Snapshot(values, saturated);
+  }
+
+  /**
+   * Estado de saturación.
+   *
+   * @param values    valor de cada señal
+   * @param saturated señales que superan su umbral
+   */
+  public record Snapshot(Map<String, Object> values, List<String> saturated) {
+  }
+
+  private static void check(Map<String, Object> values, List<String> saturated, String name,
+                            Object value, boolean over) {
+    values.put(name, value);
+    if (over) {
+      saturated.add(name);
+    }
+  }
+
+  private long eventLoopLagNanos() {
+    long now = System.nanoTime();
+    long max = 0;
+    for (Probe probe : probes) {
+      max = Math.max(max, probe.lag(now));
+    }
+    return max;
+  }
+
+  private double sinkFill() {
+    Integer buffered = txSink.scan(Scannable.Attr.BUFFERED);
+    Integer capacity = txSink.scan(Scannable.Attr.CAPACITY);
+    if (buffered == null || capacity == null || capacity <= 0) {
+      return 0;
+    }
+    return Math.min(1.0, buffered / (double) capacity);
+  }
+
+  /**
+   * Sonda de un event loop. Solo hay una en vuelo por loop; si la anterior no corrió, su
+   * demora sigue creciendo.
+   */
+  private static final class Probe {
+
+    private final EventExecutor executor;
+    private final AtomicLong submittedAt = new AtomicLong();
+    private volatile long lastLag;
+
+    Probe(EventExecutor executor) {
+      this.executor = executor;
+    }
+
+    void launch() {
+      long now = System.nanoTime();
+      if (submittedAt.compareAndSet(0, now)) {
+        try {
+          executor.execute(() -> {
+            lastLag = System.nanoTime() - now;
+            submittedAt.set(0);
+          });
+        } catch (RejectedExecutionException e) {
+          // El loop se está cerrando
+          submittedAt.set(0);
+        }
+      }
+    }
+
+    long lag(long now) {
+      long pending = submittedAt.get();
+      return pending == 0 ? lastLag : Math.max(lastLag, now - pending);
+    }
+  }
+}
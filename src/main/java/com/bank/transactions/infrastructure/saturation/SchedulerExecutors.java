@@ -0,0 +1,91 @@
+package com.bank.transactions.infrastructure.saturation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Registra los ejecutores que crean los schedulers de Reactor, para leer cuántas tareas
+ * corren y cuántas esperan en cada uno.
+ *
+ * <p>Reactor no expone esos valores; un decorador de {@link Schedulers} guarda cada
+ * ejecutor al crearse, sin envolverlo. Solo se ven los ejecutores creados después de
+ * {@link #install()}: {@code Schedulers.parallel()} crea los suyos al iniciarse y
+ * {@code boundedElastic()} uno por hilo, a medida que los necesita.</p>
+ */
+public final class SchedulerExecutors {
+
+  private static final String KEY = "bankx-saturation";
+  private static final Map<Scheduler, Set<ScheduledExecutorService>> EXECUTORS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private SchedulerExecutors() {
+  }
+
+  /**
+   * Empieza a registrar ejecutores; llamarlo más de una vez no tiene efecto.
+   */
+  public static void install() {
+    Schedulers.addExecutorServiceDecorator(KEY, (scheduler, executor) -> {
+      EXECUTORS.computeIfAbsent(scheduler, key -> ConcurrentHashMap.newKeySet()).add(executor);
+      return executor;
+    });
+  }
+
+  /**
+   * Carga actual de un scheduler.
+   *
+   * @param scheduler scheduler, o el envoltorio de {@code Schedulers.parallel()} y similares
+   * @return tareas en ejecución, en espera y ejecutores vivos
+   */
+  public static Load load(Scheduler scheduler) {
+    Set<ScheduledExecutorService> executors = EXECUTORS.get(unwrap(scheduler));
+    if (executors == null) {
+      return new Load(0, 0, 0);
+    }
+    executors.removeIf(ScheduledExecutorService::isShutdown);
+    int active = 0;
+    int queued = 0;
+    int threads = 0;
+    for (ScheduledExecutorService executor : executors) {
+      if (executor instanceof ThreadPoolExecutor pool) {
+        active += pool.getActiveCount();
+        queued += pool.getQueue().size();
+        threads += pool.getMaximumPoolSize();
+      }
+    }
+    return new Load(active, queued, threads);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Scheduler unwrap(Scheduler scheduler) {
+    return scheduler instanceof Supplier<?> cached ? ((Supplier<Scheduler>) cached).get()
+        : scheduler;
+  }
+
+  /**
+   * Carga de un scheduler.
+   *
+   * @param active  tareas en ejecución
+   * @param queued  tareas en espera, incluidas las programadas a futuro
+   * @param threads hilos disponibles
+   */
+  public record Load(int active, int queued, int threads) {
+
+    /**
+     * Fracción de hilos ocupados.
+     *
+     * @return entre 0 y 1; 0 si no hay hilos registrados
+     */
+    public double utilization() {
+      return threads == 0 ? 0 : Math.min(1.0, active / (double) threads);
+    }
+  }
+}
@@ -0,0 +1,259 @@
+package com.bank.transactions.infrastructure.stream;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+/**
+ * Sigue el change stream de Mongo sobre {@code transactions} y emite cada inserción en el
+ * sink local, para que los suscriptores de cualquier nodo vean las transacciones de todo el
+ * cluster. Se activa con {@code bankx.stream.source=change-stream}; en ese modo
+ * {@code TransactionEventPublisher} deja de emitir localmente.
+ *
+ * <p>Cada nodo guarda el resume token del último evento emitido en
+ * {@code stream_resume_tokens} (por {@code bankx.stream.change-stream.node-id}), como
+ * mucho una vez cada {@code checkpoint-interval}. Al reiniciar o ante un error retoma desde
+ * ese token, así que no pierde inserciones mientras el oplog las conserve; si el token ya
+ * no está en el oplog, sigue desde las inserciones nuevas. Requiere Mongo como replica
+ * set (alcanza uno de un solo nodo).</p>
+ *
+ * <p>Métricas: {@code bankx.stream.change-stream.events} y
+ * {@code bankx.stream.change-stream.lag} (desde la transacción hasta su emisión local).</p>
+ */
+@Component
+@ConditionalOnProperty(name = "bankx.stream.source", havingValue = "change-stream")
+@Slf4j
+public class TransactionChangeStream implements DisposableBean {
+
+  static final String TOKENS = "stream_resume_tokens";
+  static final String TOKEN = "token";
+  /** {@code ChangeStreamHistoryLost}: el token ya salió del oplog. */
+  private static final int HISTORY_LOST = 286;
+  /** Máximo de espera activa cuando otro hilo está emitiendo en el sink. */
+  private static final Duration EMIT_SPIN = Duration.ofMillis(100);
+  private static final Aggregation INSERTS = Aggregation.newAggregation(
+      Aggregation.match(Criteria.where("operationType").is("insert")));
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final AccountRepository accountRepo;
+  private final Sinks.Many<Transaction> txSink;
+  private final String nodeId;
+  private final Duration checkpointInterval;
+  private final Duration retryBackoff;
+  private final String collection;
+  private final AtomicReference<BsonValue> lastToken = new AtomicReference<>();
+  private final AtomicReference<BsonValue> savedToken = new AtomicReference<>();
+  private final Counter events;
+  private final Timer lag;
+  private Disposable tail;
+  private Disposable checkpoints;
+
+  /**
+   * Crea el lector del change stream.
+   *
+   * @param mongoTemplate      plantilla reactiva de Mongo
+   * @param accountRepo        repositorio de cuentas, para completar el número de cuenta
+   * @param txSink             sink de transacciones de este nodo
+   * @param registry           registro de métricas
+   * @param nodeId             {@code bankx.stream.change-stream.node-id}
+   * @param checkpointInterval {@code bankx.stream.change-stream.checkpoint-interval}
+   * @param retryBackoff       {@code bankx.stream.change-stream.retry-backoff}, primer reintento
+   */
+  public TransactionChangeStream(
+      ReactiveMongoTemplate mongoTemplate,
+      AccountRepository accountRepo,
+      Sinks.Many<Transaction> txSink,
+      MeterRegistry registry,
+      @Value("${bankx.stream.change-stream.node-id:${HOSTNAME:local}}") String nodeId,
+      @Value("${bankx.stream.change-stream.checkpoint-interval:1s}") Duration checkpointInterval,
+      @Value("${bankx.stream.change-stream.retry-backoff:1s}") Duration retryBackoff) {
+    this.mongoTemplate = mongoTemplate;
+    this.accountRepo = accountRepo;
+    this.txSink = txSink;
+    this.nodeId = nodeId;
+    this.checkpointInterval = checkpointInterval;
+    this.retryBackoff = retryBackoff;
+    this.collection = mongoTemplate.getCollectionName(Transaction.class);
+    this.events = Counter.builder("bankx.stream.change-stream.events")
+      .description("Transacciones recibidas del change stream")
+      .register(registry);
+    this.lag = Timer.builder("bankx.stream.change-stream.lag")
+      .description("Desde la transacción hasta su emisión a los suscriptores locales")
+      .publishPercentiles(0.5, 0.99)
+      .register(registry);
+  }
+
+  /**
+   * Retoma el change stream desde el último token guardado de este nodo.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    log.info("Tailing {} change stream as node {}", collection, nodeId);
+    tail = loadToken()
+      .doOnNext(token -> {
+        lastToken.set(token);
+        savedToken.set(token);
+      })
+      .thenMany(Flux.defer(() -> changes(lastToken.get()))
+        .concatMap(this::emit)
+        .retryWhen(Retry.backoff(Long.MAX_VALUE, retryBackoff)
+          .maxBackoff(Duration.ofSeconds(30))
+          .doBeforeRetry(signal -> {
+            if (historyLost(signal.failure())) {
+              log.warn("Resume token of node {} is no longer in the oplog, "
+                  + "continuing from new transactions", nodeId);
+              lastToken.set(null);
+            } else {
+              log.warn("Change stream failed, resuming: {}", signal.failure().getMessage());
+            }
+          })))
+      .subscribe();
+    checkpoints = Flux.interval(checkpointInterval)
+      .onBackpressureDrop()
+      .concatMap(tick -> checkpoint()
+        .onErrorResume(error -> {
+          log.warn("Could not store resume token: {}", error.getMessage());
+          return Mono.empty();
+        }), 1)
+      .subscribe();
+  }
+
+  @Override
+  public void destroy() {
+    if (tail != null) {
+      tail.dispose();
+    }
+    if (checkpoints != null) {
+      checkpoints.dispose();
+    }
+    try {
+      checkpoint().block(Duration.ofSeconds(5));
+    } catch (RuntimeException e) {
+      log.warn("Could not store resume token on shutdown: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Inserciones en {@code transactions} a partir del token, o desde ahora si es
+   * {@code null}.
+   */
+  Flux<ChangeStreamEvent<Document>> changes(BsonValue resumeToken) {
+    ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+        .filter(INSERTS);
+    if (resumeToken != null) {
+      options.resumeAfter(resumeToken);
+    }
+    return mongoTemplate.changeStream(collection, options.build(), Document.class);
+  }
+
+  /**
+   * Convierte la inserción en {@link Transaction}, la emite en el sink local y recuerda su
+   * token. Si el sink la rechaza, el token no avanza y el error reinicia el change stream
+   * desde el último evento emitido, que vuelve a entregar este.
+   */
+  Mono<Transaction> emit(ChangeStreamEvent<Document> event) {
+    Document body = event.getBody();
+    if (body == null) {
+      lastToken.set(event.getResumeToken());
+      return Mono.empty();
+    }
+    Transaction tx = mongoTemplate.getConverter().read(Transaction.class, body);
+    // El formato compacto puede omitir el número de cuenta
+    Mono<Transaction> complete = tx.getAccountNumber() != null || tx.getAccountId() == null
+        ? Mono.just(tx)
+        : accountRepo.findById(tx.getAccountId())
+          .map(acc -> {
+            tx.setAccountNumber(acc.getNumber());
+            return tx;
+          })
+          .defaultIfEmpty(tx);
+    return complete.flatMap(ready -> {
+      Sinks.EmitResult result = emitLocally(ready);
+      if (result.isFailure()) {
+        return Mono.error(new IllegalStateException(
+            "Transaction " + ready.getId() + " not emitted locally: " + result));
+      }
+      lastToken.set(event.getResumeToken());
+      events.increment();
+      if (ready.getTimestamp() != null) {
+        lag.record(Duration.between(ready.getTimestamp(), Instant.now()));
+      }
+      return Mono.just(ready);
+    });
+  }
+
+  private Sinks.EmitResult emitLocally(Transaction tx) {
+    Sinks.EmitResult result = txSink.tryEmitNext(tx);
+    // Otro hilo emite en el mismo sink: se reintenta enseguida, como busyLooping
+    long deadline = System.nanoTime() + EMIT_SPIN.toNanos();
+    while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+      result = txSink.tryEmitNext(tx);
+    }
+    return result;
+  }
+
+  /**
+   * Guarda el último token emitido si cambió desde el último guardado.
+   */
+  Mono<Void> checkpoint() {
+    BsonValue token = lastToken.get();
+    if (token == null || Objects.equals(token, savedToken.get())) {
+      return Mono.empty();
+    }
+    return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(nodeId)),
+        new Update()
+          .set(TOKEN, token.asDocument().toJson())
+          .set("updatedAt", Instant.now()),
+        TOKENS)
+      .doOnSuccess(result -> savedToken.set(token))
+      .then();
+  }
+
+  private Mono<BsonValue> loadToken() {
+    return mongoTemplate.findById(nodeId, Document.class, TOKENS)
+      .<BsonValue>map(doc -> BsonDocument.parse(doc.getString(TOKEN)))
+      .onErrorResume(error -> {
+        log.warn("Could not read resume token of node {}: {}", nodeId, error.getMessage());
+        return Mono.empty();
+      });
+  }
+
+  static boolean historyLost(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof MongoException mongo && mongo.getCode() == HISTORY_LOST) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,28 @@
+package com.bank.transactions.infrastructure.tiering;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Parámetros del archivado de transacciones antiguas ({@code bankx.tiering.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "bankx.tiering")
+public class TieringProperties {
+
+  /** Activa el archivado periódico. */
+  private boolean enabled = false;
+
+  /** Antigüedad a partir de la cual una transacción se mueve al archivo. */
+  private Duration hotAge = Duration.ofDays(90);
+
+  /** Intervalo entre pasadas. */
+  private Duration interval = Duration.ofHours(1);
+
+  /** Documentos movidos por lote. */
+  private int batchSize = 1_000;
+
+  /** Tope de documentos movidos por segundo, para no competir con el tráfico en línea. */
+  private int docsPerSecond = 2_000;
+}
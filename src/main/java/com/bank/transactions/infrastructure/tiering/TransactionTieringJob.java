@@ -0,0 +1,174 @@
+package com.bank.transactions.infrastructure.tiering;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.persistence.ArchiveCollections;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import com.bank.transactions.infrastructure.persistence.Throttling;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mueve en segundo plano las transacciones más antiguas que {@code bankx.tiering.hot-age}
+ * a colecciones mensuales de archivo ({@link ArchiveCollections}).
+ *
+ * <p>Cada pasada recorre la colección principal en orden de {@code _id} por lotes: copia
+ * el lote al archivo con reemplazos {@code upsert} por {@code _id} y recién después lo
+ * borra de la colección principal. Si se interrumpe, la siguiente pasada vuelve a copiar
+ * lo pendiente sin duplicar nada. El ritmo se limita a {@code bankx.tiering.docs-per-second}.
+ * Se activa con {@code bankx.tiering.enabled=true}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "bankx.tiering.enabled", havingValue = "true")
+@EnableConfigurationProperties(TieringProperties.class)
+@Slf4j
+public class TransactionTieringJob implements ApplicationRunner, DisposableBean {
+
+  private static final String ID = "_id";
+
+  private final TieringProperties props;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final CompactTransactionCodec codec;
+  private final String hotCollection;
+  private final Set<String> indexedArchives = ConcurrentHashMap.newKeySet();
+  private Disposable schedule;
+
+  /**
+   * Crea el job de archivado.
+   *
+   * @param props         parámetros del archivado
+   * @param mongoTemplate plantilla reactiva de Mongo
+   * @param codec         codec del formato compacto
+   */
+  public TransactionTieringJob(TieringProperties props,
+                               ReactiveMongoTemplate mongoTemplate,
+                               CompactTransactionCodec codec) {
+    this.props = props;
+    this.mongoTemplate = mongoTemplate;
+    this.codec = codec;
+    this.hotCollection = mongoTemplate.getCollectionName(Transaction.class);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    log.info("Starting transaction tiering: {}", props);
+    schedule = Flux.interval(Duration.ZERO, props.getInterval())
+      .onBackpressureDrop()
+      .concatMap(tick -> runOnce()
+        .onErrorResume(error -> {
+          log.error("Tiering pass failed: {}", error.getMessage());
+          return Mono.empty();
+        }), 1)
+      .subscribe();
+  }
+
+  @Override
+  public void destroy() {
+    if (schedule != null) {
+      schedule.dispose();
+    }
+  }
+
+  /**
+   * Ejecuta una pasada completa de archivado.
+   *
+   * @return {@link Mono} con la cantidad de transacciones movidas
+   */
+  public Mono<Long> runOnce() {
+    Date cutoff = Date.from(Instant.now().minus(props.getHotAge()));
+    Duration minBatch = Throttling.minBatchDuration(props.getBatchSize(),
+        props.getDocsPerSecond());
+    AtomicLong moved = new AtomicLong();
+
+    return nextBatch(cutoff, null)
+      .expand(batch -> batch.isEmpty()
+          ? Mono.empty()
+          : Throttling.atLeast(move(batch), minBatch)
+            .doOnNext(n -> log.info("Tiering progress: {} transactions archived",
+                moved.addAndGet(n)))
+            .then(nextBatch(cutoff, batch.get(batch.size() - 1).get(ID))))
+      .then(Mono.fromSupplier(moved::get))
+      .doOnNext(total -> log.info("Tiering pass finished: {} transactions archived", total));
+  }
+
+  private Mono<List<Document>> nextBatch(Date cutoff, Object lastId) {
+    // Se contemplan ambos formatos mientras la migración al compacto no termine
+    Criteria criteria = new Criteria().orOperator(
+        Criteria.where("ts").lt(cutoff),
+        Criteria.where("timestamp").lt(cutoff));
+    if (lastId != null) {
+      criteria = new Criteria().andOperator(criteria, Criteria.where(ID).gt(lastId));
+    }
+    return mongoTemplate.find(
+        Query.query(criteria).with(Sort.by(ID)).limit(props.getBatchSize()),
+        Document.class, hotCollection)
+      .collectList();
+  }
+
+  /**
+   * Copia el lote a su archivo mensual y luego lo borra de la colección principal.
+   */
+  private Mono<Long> move(List<Document> batch) {
+    Map<String, List<Document>> byArchive = batch.stream()
+        .map(codec::decode)
+        .collect(Collectors.groupingBy(
+          tx -> ArchiveCollections.forTimestamp(tx.getTimestamp()),
+          Collectors.mapping(codec::encode, Collectors.toList())));
+    List<Object> ids = batch.stream().map(doc -> doc.get(ID)).toList();
+
+    return Flux.fromIterable(byArchive.entrySet())
+      .concatMap(archive -> copy(archive.getKey(), archive.getValue()))
+      .then(mongoTemplate.remove(Query.query(Criteria.where(ID).in(ids)), hotCollection))
+      .map(result -> result.getDeletedCount());
+  }
+
+  private Mono<Void> copy(String archive, List<Document> docs) {
+    List<WriteModel<Document>> upserts = docs.stream()
+        .<WriteModel<Document>>map(doc -> new ReplaceOneModel<>(
+          Filters.eq(ID, doc.get(ID)), doc, new ReplaceOptions().upsert(true)))
+        .toList();
+    return ensureIndex(archive)
+      .then(mongoTemplate.getCollection(archive))
+      .flatMap(coll -> Mono.from(
+          coll.bulkWrite(upserts, new BulkWriteOptions().ordered(false))))
+      .then();
+  }
+
+  private Mono<Void> ensureIndex(String archive) {
+    if (indexedArchives.contains(archive)) {
+      return Mono.empty();
+    }
+    return mongoTemplate.indexOps(archive)
+      .ensureIndex(new Index().on("a", Sort.Direction.ASC).on("ts", Sort.Direction.DESC)
+        .named("account_timestamp"))
+      .doOnSuccess(name -> indexedArchives.add(archive))
+      .then();
+  }
+}
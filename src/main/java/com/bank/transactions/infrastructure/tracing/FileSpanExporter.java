@@ -0,0 +1,128 @@
+package com.bank.transactions.infrastructure.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exporta spans a un archivo local, un objeto JSON por línea, para revisar trazas sin un
+ * colector. Al superar {@code maxBytes} el archivo pasa a {@code <archivo>.1} (reemplazando el
+ * anterior) y se empieza uno nuevo.
+ *
+ * <p>Escribe en disco: solo debe llamarse desde el procesador por lotes de Spring Boot o desde
+ * el scheduler de exportación, nunca desde el event loop.</p>
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+
+  private static final int NEW_LINE_BYTES =
+      System.lineSeparator().getBytes(StandardCharsets.UTF_8).length;
+
+  private final Path file;
+  private final long maxBytes;
+  private final ObjectMapper mapper;
+  private BufferedWriter writer;
+  private long written;
+
+  /**
+   * Crea el exportador; el archivo se abre en la primera exportación.
+   *
+   * @param file     archivo de destino
+   * @param maxBytes tamaño a partir del cual se rota
+   * @param mapper   serializador JSON
+   */
+  public FileSpanExporter(Path file, long maxBytes, ObjectMapper mapper) {
+    this.file = file;
+    this.maxBytes = maxBytes;
+    this.mapper = mapper;
+  }
+
+  @Override
+  public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+    try {
+      for (SpanData span : spans) {
+        if (writer == null || written >= maxBytes) {
+          open();
+        }
+        String line = mapper.writeValueAsString(toMap(span));
+        writer.write(line);
+        writer.newLine();
+        // Se cuentan bytes UTF-8, no caracteres: maxBytes es el tamaño en disco
+        written += line.getBytes(StandardCharsets.UTF_8).length + NEW_LINE_BYTES;
+      }
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      log.warn("Could not write spans to {}: {}", file, e.getMessage());
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  @Override
+  public CompletableResultCode flush() {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public synchronized CompletableResultCode shutdown() {
+    if (writer != null) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        return CompletableResultCode.ofFailure();
+      } finally {
+        writer = null;
+      }
+    }
+    return CompletableResultCode.ofSuccess();
+  }
+
+  private void open() throws IOException {
+    if (writer != null) {
+      writer.close();
+      Files.move(file, file.resolveSibling(file.getFileName() + ".1"),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    written = Files.size(file);
+  }
+
+  private static Map<String, Object> toMap(SpanData span) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("traceId", span.getTraceId());
+    json.put("spanId", span.getSpanId());
+    if (span.getParentSpanContext().isValid()) {
+      json.put("parentSpanId", span.getParentSpanId());
+    }
+    json.put("name", span.getName());
+    json.put("kind", span.getKind().name());
+    json.put("start", Instant.EPOCH.plusNanos(span.getStartEpochNanos()).toString());
+    json.put("durationMicros",
+        TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+    json.put("sampled", span.getSpanContext().isSampled());
+    json.put("status", span.getStatus().getStatusCode().name());
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+    json.put("attributes", attributes);
+    return json;
+  }
+}
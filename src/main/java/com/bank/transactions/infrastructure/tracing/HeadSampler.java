@@ -0,0 +1,56 @@
+package com.bank.transactions.infrastructure.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.List;
+
+/**
+ * Muestreo en la cabecera que no descarta: una fracción de las trazas se marca como muestreada
+ * y se exporta siempre; el resto se registra sin exportar, para que
+ * {@link SlowOrErrorSpanProcessor} conserve las lentas o con errores.
+ */
+public final class HeadSampler implements Sampler {
+
+  private final Sampler ratio;
+
+  private HeadSampler(Sampler ratio) {
+    this.ratio = ratio;
+  }
+
+  /**
+   * Sampler para el {@code SdkTracerProvider}. Las trazas que llegan de otro servicio respetan
+   * su decisión; las que llegan sin muestrear y los hijos de una traza sin muestrear se
+   * registran igual.
+   *
+   * @param probability fracción de trazas muestreadas en la cabecera
+   * @return el sampler
+   */
+  public static Sampler parentBased(double probability) {
+    HeadSampler recordOnly = new HeadSampler(Sampler.alwaysOff());
+    return Sampler.parentBasedBuilder(new HeadSampler(Sampler.traceIdRatioBased(probability)))
+      .setRemoteParentNotSampled(recordOnly)
+      .setLocalParentNotSampled(recordOnly)
+      .build();
+  }
+
+  @Override
+  public SamplingResult shouldSample(Context parentContext, String traceId, String name,
+                                     SpanKind spanKind, Attributes attributes,
+                                     List<LinkData> parentLinks) {
+    SamplingResult result = ratio.shouldSample(parentContext, traceId, name, spanKind,
+        attributes, parentLinks);
+    return result.getDecision() == SamplingDecision.RECORD_AND_SAMPLE
+        ? result
+        : SamplingResult.recordOnly();
+  }
+
+  @Override
+  public String getDescription() {
+    return "HeadSampler{" + ratio.getDescription() + "}";
+  }
+}
@@ -0,0 +1,167 @@
+package com.bank.transactions.infrastructure.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Conserva las trazas no muestreadas en la cabecera ({@link HeadSampler}) que resultan lentas
+ * o con errores. Los spans de cada traza se acumulan en memoria hasta que termina su raíz local;
+ * entonces se exportan si la raíz superó {@code slowThreshold}, si algún span terminó con
+ * error o si la respuesta fue un 5xx, y se descartan en otro caso.
+ *
+ * <p>Las trazas muestreadas no pasan por aquí: las exporta el procesador de Spring Boot. Como
+ * máximo se siguen {@code maxPendingTraces} trazas a la vez; las que no entran se descartan
+ * y se cuentan en {@code bankx.tracing.overflow}. Las conservadas se cuentan en
+ * {@code bankx.tracing.kept}, con el tag {@code reason} ({@code slow} o {@code error}).</p>
+ */
+public class SlowOrErrorSpanProcessor implements SpanProcessor {
+
+  private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+  private final Supplier<SpanExporter> exporter;
+  private final long slowNanos;
+  private final int maxPendingTraces;
+  private final Scheduler exportScheduler;
+  private final Map<String, Queue<SpanData>> pending = new ConcurrentHashMap<>();
+  /** Lugares ocupados en {@code pending}; se reservan antes de agregar la traza. */
+  private final AtomicInteger slots = new AtomicInteger();
+  private final Counter keptSlow;
+  private final Counter keptError;
+  private final Counter overflow;
+  private volatile SpanExporter resolvedExporter;
+
+  /**
+   * Crea el procesador.
+   *
+   * @param exporter         exportador de las trazas conservadas; se pide en la primera
+   * @param slowThreshold    duración de la raíz a partir de la cual la traza se conserva
+   * @param maxPendingTraces trazas seguidas a la vez como máximo
+   * @param exportScheduler  scheduler donde se exporta, fuera del event loop
+   * @param registry         registro de métricas
+   */
+  public SlowOrErrorSpanProcessor(Supplier<SpanExporter> exporter, Duration slowThreshold,
+                                  int maxPendingTraces, Scheduler exportScheduler,
+                                  MeterRegistry registry) {
+    this.exporter = exporter;
+    this.slowNanos = slowThreshold.toNanos();
+    this.maxPendingTraces = maxPendingTraces;
+    this.exportScheduler = exportScheduler;
+    this.keptSlow = registry.counter("bankx.tracing.kept", "reason", "slow");
+    this.keptError = registry.counter("bankx.tracing.kept", "reason", "error");
+    this.overflow = registry.counter("bankx.tracing.overflow");
+  }
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {
+    if (span.getSpanContext().isSampled() || !isLocalRoot(span)) {
+      return;
+    }
+    if (!reserveSlot()) {
+      overflow.increment();
+      return;
+    }
+    if (pending.putIfAbsent(span.getSpanContext().getTraceId(),
+        new ConcurrentLinkedQueue<>()) != null) {
+      // Otra raíz local de la misma traza ya la está siguiendo
+      slots.decrementAndGet();
+    }
+  }
+
+  @Override
+  public boolean isStartRequired() {
+    return true;
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    if (span.getSpanContext().isSampled()) {
+      return;
+    }
+    String traceId = span.getSpanContext().getTraceId();
+    boolean root = isLocalRoot(span);
+    // Los spans que terminan después de su raíz ya no tienen a dónde ir
+    Queue<SpanData> spans = root ? pending.remove(traceId) : pending.get(traceId);
+    if (spans == null) {
+      return;
+    }
+    if (root) {
+      slots.decrementAndGet();
+    }
+    spans.add(span.toSpanData());
+    if (!root) {
+      return;
+    }
+    boolean slow = span.getLatencyNanos() >= slowNanos;
+    if (!slow && !failed(span, spans)) {
+      return;
+    }
+    (slow ? keptSlow : keptError).increment();
+    List<SpanData> trace = new ArrayList<>(spans);
+    exportScheduler.schedule(() -> exporter().export(trace));
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return true;
+  }
+
+  /**
+   * Suma una traza seguida si queda lugar; verificar y sumar son una sola operación, así que
+   * raíces concurrentes no superan {@code maxPendingTraces}.
+   */
+  private boolean reserveSlot() {
+    int used;
+    do {
+      used = slots.get();
+      if (used >= maxPendingTraces) {
+        return false;
+      }
+    } while (!slots.compareAndSet(used, used + 1));
+    return true;
+  }
+
+  private SpanExporter exporter() {
+    SpanExporter resolved = resolvedExporter;
+    if (resolved == null) {
+      resolved = exporter.get();
+      resolvedExporter = resolved;
+    }
+    return resolved;
+  }
+
+  private static boolean isLocalRoot(ReadableSpan span) {
+    SpanContext parent = span.getParentSpanContext();
+    return !parent.isValid() || parent.isRemote();
+  }
+
+  private static boolean failed(ReadableSpan root, Queue<SpanData> spans) {
+    if ("SERVER_ERROR".equals(root.getAttribute(OUTCOME))) {
+      return true;
+    }
+    for (SpanData span : spans) {
+      if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
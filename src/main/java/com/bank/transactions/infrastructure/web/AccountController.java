@@ -0,0 +1,84 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.bank.transactions.application.service.AccountViewProjector;
+import com.bank.transactions.application.service.ShardedBalanceService;
+import com.bank.transactions.domain.exception.ErrorCode;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.AccountView;
+import com.bank.transactions.domain.repository.AccountRepository;
+import java.math.BigDecimal;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST para consultas y ajustes de cuentas.
+ */
+@RestController
+@RequestMapping("/api/accounts")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountController {
+
+  private final AccountRepository accountRepo;
+  private final ShardedBalanceService shardedBalances;
+  private final AccountViewProjector accountViews;
+
+  /**
+   * Devuelve el saldo total de la cuenta, sumando sus sub-saldos si está fraccionada.
+   *
+   * @param number número de cuenta
+   * @return un {@link Mono} con el número de cuenta y su saldo
+   */
+  @GetMapping("/{number}/balance")
+  public Mono<Map<String, Object>> balance(@PathVariable String number) {
+    log.info("GET /api/accounts/{}/balance", number);
+
+    return accountRepo.findByNumber(number)
+      .switchIfEmpty(Mono.error(ErrorCode.ACCOUNT_NOT_FOUND.exception()))
+      .flatMap(acc -> totalBalance(acc)
+        .map(balance -> Map.<String, Object>of("accountNumber", number, "balance", balance)));
+  }
+
+  /**
+   * Devuelve el resumen de la cuenta desde su vista de lectura: saldo, últimas
+   * transacciones, contadores y última actividad. Puede ir levemente atrasado respecto de
+   * {@code /balance}; ver {@link AccountViewProjector}.
+   *
+   * @param number número de cuenta
+   * @return un {@link Mono} con la vista de la cuenta
+   */
+  @GetMapping("/{number}/summary")
+  public Mono<AccountView> summary(@PathVariable String number) {
+    log.info("GET /api/accounts/{}/summary", number);
+
+    return accountViews.view(number);
+  }
+
+  /**
+   * Activa el modo fraccionado de una cuenta muy activa.
+   *
+   * @param number número de cuenta
+   * @param count  cantidad de sub-saldos
+   * @return un {@link Mono} con la cuenta actualizada
+   */
+  @PutMapping("/{number}/shards")
+  public Mono<Account> enableSharding(@PathVariable String number, @RequestParam int count) {
+    log.info("PUT /api/accounts/{}/shards?count={}", number, count);
+
+    return shardedBalances.enableSharding(number, count);
+  }
+
+  private Mono<BigDecimal> totalBalance(Account acc) {
+    return ShardedBalanceService.isSharded(acc)
+        ? shardedBalances.totalBalance(acc.getId())
+        : Mono.just(acc.getBalance());
+  }
+}
@@ -0,0 +1,141 @@
+package com.bank.transactions.infrastructure.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Agrupa los elementos de un flujo en lotes para enviarlos en un solo frame.
+ *
+ * <p>La ventana es adaptativa: si pasó al menos {@code maxDelay} desde el último lote, el
+ * elemento sale de inmediato en un lote de 1, así que con poco tráfico no se agrega latencia.
+ * Si no, se acumula hasta cumplir {@code maxDelay} desde el último lote o juntar
+ * {@code maxEvents}. Del origen se piden como máximo {@code maxEvents} elementos sin
+ * entregar: si el consumidor no pide más, el lote pendiente se llena y el resto espera en el
+ * origen, que decide qué hacer con un consumidor lento.</p>
+ */
+final class AdaptiveCoalescer {
+
+  private AdaptiveCoalescer() {
+  }
+
+  /**
+   * Agrupa el flujo.
+   *
+   * @param source    elementos a agrupar
+   * @param maxEvents elementos que fuerzan el envío del lote
+   * @param maxDelay  espera máxima de un elemento antes de salir
+   * @param timer     planificador de los envíos diferidos; también da la hora
+   * @param <T>       tipo de elemento
+   * @return un {@link Flux} de lotes, en el orden de llegada
+   */
+  static <T> Flux<List<T>> coalesce(Publisher<T> source, int maxEvents, Duration maxDelay,
+                                    Scheduler timer) {
+    return Flux.create(sink -> {
+      Batcher<T> batcher = new Batcher<>(sink, maxEvents, maxDelay.toNanos(), timer);
+      sink.onRequest(n -> batcher.onRequest());
+      source.subscribe(batcher);
+      sink.onDispose(() -> {
+        batcher.dispose();
+        batcher.cancelTimer();
+      });
+    });
+  }
+
+  private static final class Batcher<T> extends BaseSubscriber<T> {
+
+    private final FluxSink<List<T>> sink;
+    private final int maxEvents;
+    private final long maxDelayNanos;
+    private final Scheduler timer;
+
+    private List<T> batch = new ArrayList<>();
+    private long lastFlushNanos;
+    private Disposable pending;
+    /** El lote debió salir pero el consumidor no tenía demanda. */
+    private boolean overdue;
+
+    Batcher(FluxSink<List<T>> sink, int maxEvents, long maxDelayNanos, Scheduler timer) {
+      this.sink = sink;
+      this.maxEvents = Math.max(1, maxEvents);
+      this.maxDelayNanos = maxDelayNanos;
+      this.timer = timer;
+      this.lastFlushNanos = timer.now(TimeUnit.NANOSECONDS) - maxDelayNanos;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      subscription.request(maxEvents);
+    }
+
+    @Override
+    protected synchronized void hookOnNext(T item) {
+      batch.add(item);
+      long elapsed = timer.now(TimeUnit.NANOSECONDS) - lastFlushNanos;
+      if (batch.size() >= maxEvents || pending == null && elapsed >= maxDelayNanos) {
+        flush();
+      } else if (pending == null) {
+        pending = timer.schedule(this::onTimer, maxDelayNanos - elapsed, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    synchronized void onRequest() {
+      if (overdue) {
+        flush();
+      }
+    }
+
+    private synchronized void flush() {
+      if (batch.isEmpty()) {
+        return;
+      }
+      if (sink.requestedFromDownstream() == 0) {
+        overdue = true;
+        return;
+      }
+      overdue = false;
+      cancelTimer();
+      List<T> ready = batch;
+      batch = new ArrayList<>(Math.min(ready.size(), maxEvents));
+      lastFlushNanos = timer.now(TimeUnit.NANOSECONDS);
+      sink.next(ready);
+      request(ready.size());
+    }
+
+    @Override
+    protected synchronized void hookOnComplete() {
+      cancelTimer();
+      if (!batch.isEmpty()) {
+        sink.next(batch);
+        batch = new ArrayList<>();
+      }
+      sink.complete();
+    }
+
+    @Override
+    protected synchronized void hookOnError(Throwable error) {
+      cancelTimer();
+      sink.error(error);
+    }
+
+    synchronized void cancelTimer() {
+      if (pending != null) {
+        pending.dispose();
+        pending = null;
+      }
+    }
+
+    private synchronized void onTimer() {
+      pending = null;
+      flush();
+    }
+  }
+}
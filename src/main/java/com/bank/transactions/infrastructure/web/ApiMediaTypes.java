@@ -0,0 +1,32 @@
+package com.bank.transactions.infrastructure.web;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Tipos de contenido de la API además de JSON, que sigue siendo el predeterminado.
+ */
+public final class ApiMediaTypes {
+
+  /** CBOR, un valor por cuerpo (las listas van como arreglo). */
+  public static final String CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+
+  /** Secuencia CBOR (RFC 8742): un valor tras otro, para listas y streams. */
+  public static final String CBOR_SEQ_VALUE = "application/cbor-seq";
+
+  /** Smile, el JSON binario de Jackson. */
+  public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+  /** Smile en streaming: un valor tras otro. */
+  public static final String SMILE_STREAM_VALUE = "application/stream+x-jackson-smile";
+
+  /** Protobuf según {@code src/main/proto/transactions.proto}. */
+  public static final String PROTOBUF_VALUE = "application/x-protobuf";
+
+  public static final MediaType CBOR_SEQ = MediaType.parseMediaType(CBOR_SEQ_VALUE);
+  public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+  public static final MediaType SMILE_STREAM = MediaType.parseMediaType(SMILE_STREAM_VALUE);
+  public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+  private ApiMediaTypes() {
+  }
+}
@@ -0,0 +1,224 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.bank.transactions.domain.model.Transaction;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Escribe streams SSE de {@link Transaction} agrupando eventos en frames.
+ *
+ * <p>El escritor SSE de Spring hace un flush por evento: con miles de transacciones por
+ * segundo son miles de escrituras al socket por suscriptor. Aquí los eventos se agrupan con
+ * {@link AdaptiveCoalescer} y cada lote se arma en un solo buffer con un solo flush. El texto
+ * es el mismo que produce Spring, evento por evento, así que los clientes no cambian.</p>
+ *
+ * <p>Si {@code bankx.sse.compression.enabled} está activo y la petición acepta gzip, la
+ * conexión se comprime con {@link GzipFrameCompressor}; cada frame se puede descomprimir apenas
+ * llega.</p>
+ *
+ * <p>Métricas: {@code bankx.sse.frame.events} (eventos por frame; su conteo es el número de
+ * frames) y {@code bankx.sse.frame.bytes} (bytes enviados por frame, con la etiqueta
+ * {@code compression}).</p>
+ */
+public class CoalescingSseWriter implements HttpMessageWriter<ServerSentEvent<?>> {
+
+  private static final MediaType DEFAULT_MEDIA_TYPE =
+      new MediaType(MediaType.TEXT_EVENT_STREAM, StandardCharsets.UTF_8);
+
+  private static final byte[] ID = "id:".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] EVENT = "event:".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] RETRY = "retry:".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] DATA = "data:".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] END_EVENT = "\n\n".getBytes(StandardCharsets.US_ASCII);
+
+  /** Tamaño inicial del buffer por evento del frame. */
+  private static final int ESTIMATED_EVENT_SIZE = 288;
+
+  private final int maxEvents;
+  private final Duration maxDelay;
+  private final boolean compression;
+  private final Scheduler timer;
+  private final DistributionSummary eventsPerFrame;
+  private final DistributionSummary plainBytes;
+  private final DistributionSummary gzipBytes;
+
+  /**
+   * Crea el escritor.
+   *
+   * @param properties parámetros {@code bankx.sse.*}
+   * @param registry   registro de métricas
+   * @param timer      planificador de los envíos diferidos
+   */
+  public CoalescingSseWriter(SseProperties properties, MeterRegistry registry, Scheduler timer) {
+    this.maxEvents = properties.getCoalesce().getMaxEvents();
+    this.maxDelay = properties.getCoalesce().getMaxDelay();
+    this.compression = properties.getCompression().isEnabled();
+    this.timer = timer;
+    this.eventsPerFrame = DistributionSummary.builder("bankx.sse.frame.events")
+      .description("Eventos SSE por frame")
+      .publishPercentiles(0.5, 0.99)
+      .register(registry);
+    this.plainBytes = frameBytes(registry, "none");
+    this.gzipBytes = frameBytes(registry, "gzip");
+  }
+
+  @Override
+  public List<MediaType> getWritableMediaTypes() {
+    return List.of(MediaType.TEXT_EVENT_STREAM);
+  }
+
+  @Override
+  public boolean canWrite(ResolvableType elementType, MediaType mediaType) {
+    return (mediaType == null || MediaType.TEXT_EVENT_STREAM.includes(mediaType))
+        && ServerSentEvent.class.isAssignableFrom(elementType.toClass())
+        && Transaction.class.isAssignableFrom(elementType.getGeneric(0).toClass());
+  }
+
+  @Override
+  public Mono<Void> write(Publisher<? extends ServerSentEvent<?>> input,
+                          ResolvableType elementType, MediaType mediaType,
+                          ReactiveHttpOutputMessage message, Map<String, Object> hints) {
+    return write(input, mediaType, message, false);
+  }
+
+  @Override
+  public Mono<Void> write(Publisher<? extends ServerSentEvent<?>> input,
+                          ResolvableType actualType, ResolvableType elementType,
+                          MediaType mediaType, ServerHttpRequest request,
+                          ServerHttpResponse response, Map<String, Object> hints) {
+    return write(input, mediaType, response, compression && acceptsGzip(request));
+  }
+
+  private Mono<Void> write(Publisher<? extends ServerSentEvent<?>> input, MediaType mediaType,
+                           ReactiveHttpOutputMessage message, boolean gzip) {
+    message.getHeaders().setContentType(
+        mediaType != null && mediaType.getCharset() != null ? mediaType : DEFAULT_MEDIA_TYPE);
+    DataBufferFactory factory = message.bufferFactory();
+    Flux<? extends List<? extends ServerSentEvent<?>>> batches =
+        AdaptiveCoalescer.coalesce(input, maxEvents, maxDelay, timer);
+    if (!gzip) {
+      return message.writeAndFlushWith(batches
+        .map(batch -> {
+          DataBuffer frame = render(batch, factory);
+          plainBytes.record(frame.readableByteCount());
+          return Mono.just(frame);
+        }));
+    }
+    message.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    message.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    return message.writeAndFlushWith(Flux.using(GzipFrameCompressor::new,
+        gzipper -> batches
+          .map(batch -> {
+            DataBuffer frame = render(batch, factory);
+            try {
+              byte[] compressed = gzipper.compress(frame);
+              gzipBytes.record(compressed.length);
+              return Mono.just(factory.wrap(compressed));
+            } finally {
+              DataBufferUtils.release(frame);
+            }
+          })
+          .concatWith(Mono.fromSupplier(() -> Mono.just(factory.wrap(gzipper.finish())))),
+        GzipFrameCompressor::close));
+  }
+
+  private DataBuffer render(List<? extends ServerSentEvent<?>> batch, DataBufferFactory factory) {
+    eventsPerFrame.record(batch.size());
+    DataBuffer out = factory.allocateBuffer(batch.size() * ESTIMATED_EVENT_SIZE);
+    try {
+      for (ServerSentEvent<?> event : batch) {
+        writeEvent(event, out);
+      }
+      return out;
+    } catch (RuntimeException e) {
+      DataBufferUtils.release(out);
+      throw e;
+    }
+  }
+
+  /**
+   * Escribe un evento con el mismo formato que
+   * {@link org.springframework.http.codec.ServerSentEventHttpMessageWriter}.
+   */
+  private static void writeEvent(ServerSentEvent<?> event, DataBuffer out) {
+    writeField(out, ID, event.id());
+    writeField(out, EVENT, event.event());
+    if (event.retry() != null) {
+      writeField(out, RETRY, Long.toString(event.retry().toMillis()));
+    }
+    if (event.comment() != null) {
+      out.write((byte) ':');
+      out.write(event.comment().replace("\n", "\n:").getBytes(StandardCharsets.UTF_8));
+      out.write((byte) '\n');
+    }
+    if (event.data() == null) {
+      out.write((byte) '\n');
+      return;
+    }
+    out.write(DATA);
+    TransactionJsonEncoder.writeObject((Transaction) event.data(), out);
+    out.write(END_EVENT);
+  }
+
+  private static void writeField(DataBuffer out, byte[] name, String value) {
+    if (value != null) {
+      out.write(name);
+      out.write(value.getBytes(StandardCharsets.UTF_8));
+      out.write((byte) '\n');
+    }
+  }
+
+  /**
+   * Indica si {@code Accept-Encoding} incluye gzip con calidad mayor que cero.
+   */
+  static boolean acceptsGzip(ServerHttpRequest request) {
+    for (String header : request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+      for (String coding : header.split(",")) {
+        String[] parts = coding.split(";");
+        if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+          continue;
+        }
+        for (int i = 1; i < parts.length; i++) {
+          String param = parts[i].trim();
+          if (param.startsWith("q=")) {
+            try {
+              return Double.parseDouble(param.substring(2)) > 0;
+            } catch (NumberFormatException e) {
+              return false;
+            }
+          }
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static DistributionSummary frameBytes(MeterRegistry registry, String compression) {
+    return DistributionSummary.builder("bankx.sse.frame.bytes")
+      .description("Bytes enviados por frame SSE")
+      .baseUnit("bytes")
+      .tag("compression", compression)
+      .publishPercentiles(0.5, 0.99)
+      .register(registry);
+  }
+}
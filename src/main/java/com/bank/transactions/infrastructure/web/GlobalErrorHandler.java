@@ -1,9 +1,15 @@
 package com.bank.transactions.infrastructure.web;
 
 import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.exception.ErrorCode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -13,7 +19,12 @@ import reactor.core.publisher.Mono;
 /**
  * Controlador global de manejo de excepciones para los endpoints reactivos.
  * Intercepta excepciones de negocio, validación y errores genéricos,
- * devolviendo respuestas con un formato uniforme.
+ * devolviendo respuestas con un formato uniforme. Los errores siempre van en JSON, aunque la
+ * petición haya pedido un formato binario.
+ *
+ * <p>Para los códigos de {@link ErrorCode} la respuesta completa se arma una sola vez con el
+ * JSON ya codificado, y el registro de rechazos se limita a
+ * {@code bankx.errors.log.permits} por código cada {@code bankx.errors.log.window}.</p>
  */
 @RestControllerAdvice
 @Slf4j
@@ -21,6 +32,29 @@ public class GlobalErrorHandler {
 
   private static final String ERROR_KEY = "error";
 
+  private final Map<ErrorCode, Mono<ResponseEntity<?>>> encoded = new EnumMap<>(ErrorCode.class);
+  private final Map<ErrorCode, RateLimitedLog> rejectionLogs = new EnumMap<>(ErrorCode.class);
+  private final RateLimitedLog uncataloguedLog;
+
+  /**
+   * Crea el manejador.
+   *
+   * @param logPermits registros de rechazo permitidos por código en cada ventana
+   * @param logWindow  duración de la ventana
+   */
+  public GlobalErrorHandler(@Value("${bankx.errors.log.permits:5}") long logPermits,
+                            @Value("${bankx.errors.log.window:1s}") Duration logWindow) {
+    for (ErrorCode error : ErrorCode.values()) {
+      byte[] body = ("{\"" + ERROR_KEY + "\":\"" + error.code() + "\"}")
+          .getBytes(StandardCharsets.UTF_8);
+      encoded.put(error, Mono.just(ResponseEntity.badRequest()
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(body)));
+      rejectionLogs.put(error, new RateLimitedLog(logPermits, logWindow, System::nanoTime));
+    }
+    this.uncataloguedLog = new RateLimitedLog(logPermits, logWindow, System::nanoTime);
+  }
+
   /**
    * Maneja excepciones del tipo {@link BusinessException}.
    *
@@ -28,10 +62,15 @@ public class GlobalErrorHandler {
    * @return respuesta con código HTTP 400 y mensaje de error
    */
   @ExceptionHandler(BusinessException.class)
-  public Mono<ResponseEntity<Map<String, Object>>> handleBusinessException(BusinessException ex) {
-    log.warn("Business exception: {}", ex.getMessage());
+  public Mono<ResponseEntity<?>> handleBusinessException(BusinessException ex) {
+    ErrorCode error = ex.getErrorCode();
+    logRejection(error != null ? rejectionLogs.get(error) : uncataloguedLog, ex.getMessage());
+    if (error != null) {
+      return encoded.get(error);
+    }
     return Mono.just(
       ResponseEntity.badRequest()
+        .contentType(MediaType.APPLICATION_JSON)
         .body(Map.of(ERROR_KEY, ex.getMessage()))
     );
   }
@@ -52,6 +91,7 @@ public class GlobalErrorHandler {
 
     return Mono.just(
       ResponseEntity.badRequest()
+        .contentType(MediaType.APPLICATION_JSON)
         .body(Map.of(
           ERROR_KEY, "validation_failed",
           "details", errors
@@ -70,7 +110,17 @@ public class GlobalErrorHandler {
     log.error("Internal server error", ex);
     return Mono.just(
       ResponseEntity.internalServerError()
+        .contentType(MediaType.APPLICATION_JSON)
         .body(Map.of(ERROR_KEY, "internal_server_error"))
     );
   }
+
+  private static void logRejection(RateLimitedLog limiter, String code) {
+    long suppressed = limiter.tryAcquire();
+    if (suppressed == 0) {
+      log.warn("Business exception: {}", code);
+    } else if (suppressed > 0) {
+      log.warn("Business exception: {} ({} more since last log)", code, suppressed);
+    }
+  }
 }
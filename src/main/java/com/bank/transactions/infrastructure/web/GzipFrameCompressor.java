@@ -0,0 +1,105 @@
+package com.bank.transactions.infrastructure.web;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Compresión gzip de una conexión de streaming, frame a frame.
+ *
+ * <p>Un solo {@link Deflater} por conexión: cada frame se cierra con {@code SYNC_FLUSH}, así que
+ * el cliente puede descomprimirlo apenas llega, y el diccionario se conserva entre frames, por
+ * lo que los nombres de campo y valores repetidos de un evento a otro cuestan pocos bytes. El
+ * {@link Deflater} usa memoria nativa: hay que cerrar el compresor al terminar la conexión; la
+ * cancelación puede llegar desde otro hilo, por eso los métodos se sincronizan.</p>
+ */
+final class GzipFrameCompressor implements AutoCloseable {
+
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0,
+      (byte) 0xff};
+
+  private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+  private final CRC32 crc = new CRC32();
+  private final byte[] chunk = new byte[8 * 1024];
+  private boolean started;
+  private boolean closed;
+
+  /**
+   * Comprime un frame completo; el primero incluye la cabecera gzip.
+   *
+   * @param frame bytes del frame; no se consumen ni se liberan
+   * @return bytes comprimidos, decodificables sin esperar al siguiente frame; vacío si la
+   *     conexión ya se cerró
+   */
+  synchronized byte[] compress(DataBuffer frame) {
+    if (closed) {
+      return new byte[0];
+    }
+    ByteArrayOutputStream out =
+        new ByteArrayOutputStream(Math.max(64, frame.readableByteCount() / 4));
+    if (!started) {
+      out.writeBytes(HEADER);
+      started = true;
+    }
+    try (DataBuffer.ByteBufferIterator buffers = frame.readableByteBuffers()) {
+      while (buffers.hasNext()) {
+        ByteBuffer input = buffers.next();
+        crc.update(input.duplicate());
+        deflater.setInput(input);
+        while (!deflater.needsInput()) {
+          drain(out, Deflater.NO_FLUSH);
+        }
+      }
+    }
+    // SYNC_FLUSH terminó cuando deflate deja espacio libre en el bloque de salida
+    int written;
+    do {
+      written = drain(out, Deflater.SYNC_FLUSH);
+    } while (written == chunk.length);
+    return out.toByteArray();
+  }
+
+  /**
+   * Cierra el stream gzip: último bloque y cola con CRC y tamaño.
+   *
+   * @return bytes finales
+   */
+  synchronized byte[] finish() {
+    if (closed) {
+      return new byte[0];
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+    if (!started) {
+      out.writeBytes(HEADER);
+      started = true;
+    }
+    deflater.finish();
+    while (!deflater.finished()) {
+      drain(out, Deflater.NO_FLUSH);
+    }
+    writeIntLe(out, (int) crc.getValue());
+    writeIntLe(out, (int) deflater.getBytesRead());
+    return out.toByteArray();
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    deflater.end();
+  }
+
+  private int drain(ByteArrayOutputStream out, int flush) {
+    int written = deflater.deflate(chunk, 0, chunk.length, flush);
+    out.write(chunk, 0, written);
+    return written;
+  }
+
+  private static void writeIntLe(ByteArrayOutputStream out, int value) {
+    out.write(value);
+    out.write(value >>> 8);
+    out.write(value >>> 16);
+    out.write(value >>> 24);
+  }
+}
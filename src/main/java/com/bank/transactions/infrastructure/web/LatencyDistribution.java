@@ -0,0 +1,146 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Distribución de latencia simulada del servicio de riesgo mock, en milisegundos.
+ *
+ * <p>En JSON se distingue por {@code type}: {@code fixed}, {@code uniform},
+ * {@code lognormal} o {@code percentiles}.</p>
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+  @JsonSubTypes.Type(value = LatencyDistribution.Fixed.class, name = "fixed"),
+  @JsonSubTypes.Type(value = LatencyDistribution.Uniform.class, name = "uniform"),
+  @JsonSubTypes.Type(value = LatencyDistribution.LogNormal.class, name = "lognormal"),
+  @JsonSubTypes.Type(value = LatencyDistribution.Percentiles.class, name = "percentiles")
+})
+public sealed interface LatencyDistribution {
+
+  /**
+   * Toma una muestra.
+   *
+   * @param random generador a usar
+   * @return latencia en milisegundos
+   */
+  long sampleMs(Random random);
+
+  /**
+   * Latencia constante.
+   *
+   * @param ms milisegundos
+   */
+  record Fixed(long ms) implements LatencyDistribution {
+    /**
+     * Rechaza latencias negativas.
+     */
+    public Fixed {
+      if (ms < 0) {
+        throw new IllegalArgumentException("ms must be >= 0");
+      }
+    }
+
+    @Override
+    public long sampleMs(Random random) {
+      return ms;
+    }
+  }
+
+  /**
+   * Latencia uniforme en {@code [minMs, maxMs]}.
+   *
+   * @param minMs mínimo
+   * @param maxMs máximo
+   */
+  record Uniform(long minMs, long maxMs) implements LatencyDistribution {
+    /**
+     * Exige un rango no negativo y ordenado.
+     */
+    public Uniform {
+      if (minMs < 0 || maxMs < minMs) {
+        throw new IllegalArgumentException("expected 0 <= minMs <= maxMs");
+      }
+    }
+
+    @Override
+    public long sampleMs(Random random) {
+      return minMs + (long) (random.nextDouble() * (maxMs - minMs + 1));
+    }
+  }
+
+  /**
+   * Latencia log-normal: la mediana y la dispersión del logaritmo. Con {@code sigma=1} el
+   * p99 es unas 10 veces la mediana.
+   *
+   * @param medianMs mediana
+   * @param sigma    desviación estándar del logaritmo
+   */
+  record LogNormal(double medianMs, double sigma) implements LatencyDistribution {
+    /**
+     * Exige mediana positiva y dispersión no negativa.
+     */
+    public LogNormal {
+      if (medianMs <= 0 || sigma < 0) {
+        throw new IllegalArgumentException("expected medianMs > 0 and sigma >= 0");
+      }
+    }
+
+    @Override
+    public long sampleMs(Random random) {
+      return Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+    }
+  }
+
+  /**
+   * Latencia según una tabla de percentiles medidos, interpolando entre puntos.
+   *
+   * @param points puntos {@code (percentile, ms)} en orden creciente
+   */
+  record Percentiles(List<Point> points) implements LatencyDistribution {
+    /**
+     * Exige puntos crecientes en percentil y en milisegundos.
+     */
+    public Percentiles {
+      if (points == null || points.isEmpty()) {
+        throw new IllegalArgumentException("points must not be empty");
+      }
+      for (int i = 1; i < points.size(); i++) {
+        if (points.get(i).percentile() <= points.get(i - 1).percentile()
+            || points.get(i).ms() < points.get(i - 1).ms()) {
+          throw new IllegalArgumentException("points must be increasing");
+        }
+      }
+      points = List.copyOf(points);
+    }
+
+    @Override
+    public long sampleMs(Random random) {
+      double p = random.nextDouble() * 100;
+      Point previous = new Point(0, points.get(0).ms());
+      for (Point point : points) {
+        double span = point.percentile() - previous.percentile();
+        if (p <= point.percentile()) {
+          if (span <= 0) {
+            return point.ms();
+          }
+          double fraction = (p - previous.percentile()) / span;
+          return Math.round(previous.ms() + fraction * (point.ms() - previous.ms()));
+        }
+        previous = point;
+      }
+      return previous.ms();
+    }
+
+    /**
+     * Punto de la tabla.
+     *
+     * @param percentile percentil (0-100)
+     * @param ms         latencia en ese percentil
+     */
+    public record Point(double percentile, long ms) {
+    }
+  }
+}
@@ -1,31 +1,66 @@
 package com.bank.transactions.infrastructure.web;
 
+import com.bank.transactions.application.service.CompiledRiskRules.Decision;
+import com.bank.transactions.application.service.RiskRuleEngine;
+import io.netty.channel.ChannelOption;
 import java.math.BigDecimal;
 import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
 
 /**
  * Controlador mock que simula un servicio remoto de evaluación de riesgo.
  * Se utiliza principalmente para pruebas locales o de integración.
+ *
+ * <p>Decide con las reglas compiladas de {@link RiskRuleEngine}; si ninguna aplica, rechaza
+ * los débitos mayores a {@code bankx.risk.mock.default-max-debit} (1200 por defecto).</p>
+ *
+ * <p>La latencia, los errores y los cortes de conexión siguen el perfil activo de
+ * {@link RiskFaultInjector}, salvo que la petición pida {@code delayMs} o {@code fail}.</p>
  */
 @RestController
 @RequestMapping("/mock/risk")
 @Slf4j
 public class MockRiskController {
 
+  private final RiskRuleEngine ruleEngine;
+  private final RiskFaultInjector faults;
+  private final BigDecimal defaultMaxDebit;
+
+  /**
+   * Crea el controlador.
+   *
+   * @param ruleEngine      motor de reglas de riesgo
+   * @param faults          perfil de latencia y fallas
+   * @param defaultMaxDebit {@code bankx.risk.mock.default-max-debit}
+   */
+  public MockRiskController(
+      RiskRuleEngine ruleEngine,
+      RiskFaultInjector faults,
+      @Value("${bankx.risk.mock.default-max-debit:1200}") BigDecimal defaultMaxDebit) {
+    this.ruleEngine = ruleEngine;
+    this.faults = faults;
+    this.defaultMaxDebit = defaultMaxDebit;
+  }
+
   /**
    * Endpoint que simula la respuesta del servicio de riesgo.
    *
    * @param currency tipo de moneda (por ejemplo, "USD")
    * @param type     tipo de transacción (DEBIT o CREDIT)
    * @param amount   monto de la transacción
+   * @param tier     segmento de la cuenta (opcional)
    * @param fail     si es true, simula un error del servicio
-   * @param delayMs  retraso artificial en milisegundos para simular latencia
+   * @param delayMs  retraso artificial en milisegundos; si falta, se usa el perfil activo
+   * @param exchange intercambio HTTP, para cortar la conexión
    * @return {@link Mono} que emite true si la operación está permitida; false si está rechazada
    */
   @GetMapping("/allow")
@@ -33,25 +68,55 @@ public class MockRiskController {
       @RequestParam String currency,
       @RequestParam String type,
       @RequestParam BigDecimal amount,
+      @RequestParam(required = false) String tier,
       @RequestParam(defaultValue = "false") boolean fail,
-      @RequestParam(defaultValue = "0") long delayMs) {
+      @RequestParam(required = false) Long delayMs,
+      ServerWebExchange exchange) {
+
+    RiskFaultInjector.Plan plan = fail || delayMs != null
+        ? new RiskFaultInjector.Plan(delayMs != null ? delayMs : 0,
+          fail ? RiskFaultInjector.Outcome.ERROR : RiskFaultInjector.Outcome.RESPOND)
+        : faults.next();
 
     log.info(
-        "Risk check - currency: {}, type: {}, amount: {}, fail: {}, delay: {}ms",
-        currency, type, amount, fail, delayMs);
+        "Risk check - currency: {}, type: {}, amount: {}, outcome: {}, delay: {}ms",
+        currency, type, amount, plan.outcome(), plan.delayMs());
 
-    if (fail) {
+    Duration delay = Duration.ofMillis(plan.delayMs());
+    if (plan.outcome() == RiskFaultInjector.Outcome.ERROR) {
       log.warn("Simulating risk service failure");
-      return Mono.error(new RuntimeException("risk_service_unavailable"));
+      return Mono.delay(delay)
+        .then(Mono.error(new RuntimeException("risk_service_unavailable")));
+    }
+    if (plan.outcome() == RiskFaultInjector.Outcome.RESET) {
+      // Diferido: el corte debe ocurrir tras la latencia, no al armar el flujo
+      return Mono.delay(delay).then(Mono.defer(() -> resetConnection(exchange)));
     }
 
-    boolean allowed = !("DEBIT".equalsIgnoreCase(type)
-        && amount.compareTo(new BigDecimal("1200")) > 0);
+    Decision decision = ruleEngine.evaluate(currency, type, amount, tier);
+    boolean allowed = decision == Decision.NO_MATCH
+        ? !("DEBIT".equalsIgnoreCase(type) && amount.compareTo(defaultMaxDebit) > 0)
+        : decision == Decision.ALLOW;
 
     log.info("Risk decision: {}", allowed);
 
     return Mono.just(allowed)
-      .delayElement(Duration.ofMillis(delayMs))
+      .delayElement(delay)
       .doOnNext(result -> log.debug("Risk check completed: {}", result));
   }
+
+  /**
+   * Cierra la conexión TCP con RST (SO_LINGER=0), sin respuesta HTTP. Fuera de Reactor Netty
+   * (por ejemplo en pruebas con servidor simulado) responde con error.
+   */
+  private static Mono<Boolean> resetConnection(ServerWebExchange exchange) {
+    Object nativeRequest = ServerHttpRequestDecorator.getNativeRequest(exchange.getRequest());
+    if (nativeRequest instanceof Connection connection) {
+      log.warn("Simulating connection reset");
+      connection.channel().config().setOption(ChannelOption.SO_LINGER, 0);
+      connection.channel().close();
+      return Mono.empty();
+    }
+    return Mono.error(new RuntimeException("risk_service_connection_reset"));
+  }
 }
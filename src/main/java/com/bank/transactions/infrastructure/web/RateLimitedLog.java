@@ -0,0 +1,55 @@
+package com.bank.transactions.infrastructure.web;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita cuántas veces se registra un mismo evento por ventana de tiempo y cuenta los que se
+ * omiten, para informarlos en el siguiente registro permitido.
+ */
+public final class RateLimitedLog {
+
+  /** Valor de {@link #tryAcquire()} cuando el evento no debe registrarse. */
+  public static final long SUPPRESSED = -1;
+
+  private final long permits;
+  private final long windowNanos;
+  private final LongSupplier nanoClock;
+  private final AtomicLong windowStart;
+  private final AtomicLong used = new AtomicLong();
+  private final AtomicLong suppressed = new AtomicLong();
+
+  /**
+   * Crea el limitador.
+   *
+   * @param permits   registros permitidos en cada ventana
+   * @param window    duración de la ventana
+   * @param nanoClock reloj en nanosegundos
+   */
+  public RateLimitedLog(long permits, Duration window, LongSupplier nanoClock) {
+    this.permits = permits;
+    this.windowNanos = window.toNanos();
+    this.nanoClock = nanoClock;
+    this.windowStart = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  /**
+   * Pide permiso para registrar un evento.
+   *
+   * @return eventos omitidos desde el último registro, o {@link #SUPPRESSED} si este evento no
+   *     debe registrarse
+   */
+  public long tryAcquire() {
+    long now = nanoClock.getAsLong();
+    long start = windowStart.get();
+    if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+      used.set(0);
+    }
+    if (used.incrementAndGet() <= permits) {
+      return suppressed.getAndSet(0);
+    }
+    suppressed.incrementAndGet();
+    return SUPPRESSED;
+  }
+}
@@ -0,0 +1,72 @@
+package com.bank.transactions.infrastructure.web;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Administración en caliente del perfil de fallas del servicio de riesgo mock.
+ */
+@RestController
+@RequestMapping("/mock/risk/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class RiskFaultAdminController {
+
+  private final RiskFaultInjector faults;
+
+  /**
+   * Perfil activo.
+   *
+   * @return un {@link Mono} con el perfil
+   */
+  @GetMapping("/profile")
+  public Mono<RiskFaultProfile> current() {
+    return Mono.just(faults.current());
+  }
+
+  /**
+   * Perfiles predefinidos.
+   *
+   * @return un {@link Mono} con los perfiles por nombre
+   */
+  @GetMapping("/profiles")
+  public Mono<Map<String, RiskFaultProfile>> presets() {
+    return Mono.just(faults.presets());
+  }
+
+  /**
+   * Activa un perfil definido en el cuerpo.
+   *
+   * @param profile perfil nuevo
+   * @return un {@link Mono} con el perfil activado
+   */
+  @PutMapping("/profile")
+  public Mono<RiskFaultProfile> activate(@RequestBody RiskFaultProfile profile) {
+    log.info("PUT /mock/risk/admin/profile {}", profile.name());
+    return Mono.just(faults.activate(profile));
+  }
+
+  /**
+   * Activa un perfil predefinido.
+   *
+   * @param name nombre del perfil
+   * @return un {@link Mono} con el perfil activado, o 404 si no existe
+   */
+  @PutMapping("/profile/{name}")
+  public Mono<ResponseEntity<RiskFaultProfile>> activatePreset(@PathVariable String name) {
+    log.info("PUT /mock/risk/admin/profile/{}", name);
+    RiskFaultProfile preset = faults.presets().get(name);
+    return Mono.just(preset != null
+        ? ResponseEntity.ok(faults.activate(preset))
+        : ResponseEntity.notFound().build());
+  }
+}
@@ -0,0 +1,120 @@
+package com.bank.transactions.infrastructure.web;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantiene el {@link RiskFaultProfile} activo del servicio de riesgo mock y decide, por
+ * petición, la latencia y si se responde con error o se corta la conexión.
+ *
+ * <p>El perfil inicial es {@code bankx.risk.mock.profile}; se cambia en caliente desde
+ * {@link RiskFaultAdminController}.</p>
+ */
+@Component
+@Slf4j
+public class RiskFaultInjector {
+
+  /** Qué hacer con una petición. */
+  public enum Outcome {
+    RESPOND,
+    ERROR,
+    RESET
+  }
+
+  /**
+   * Decisión para una petición.
+   *
+   * @param delayMs latencia a aplicar antes del resultado
+   * @param outcome resultado
+   */
+  public record Plan(long delayMs, Outcome outcome) {
+  }
+
+  private final Map<String, RiskFaultProfile> presets = RiskFaultProfile.presets();
+  private volatile RiskFaultProfile profile;
+
+  /**
+   * Crea el inyector.
+   *
+   * @param initial nombre del perfil inicial ({@code bankx.risk.mock.profile})
+   */
+  public RiskFaultInjector(
+      @Value("${bankx.risk.mock.profile:" + RiskFaultProfile.DEFAULT + "}") String initial) {
+    this.profile = preset(initial);
+  }
+
+  /**
+   * Perfil activo.
+   *
+   * @return perfil
+   */
+  public RiskFaultProfile current() {
+    return profile;
+  }
+
+  /**
+   * Perfiles predefinidos.
+   *
+   * @return perfiles por nombre
+   */
+  public Map<String, RiskFaultProfile> presets() {
+    return presets;
+  }
+
+  /**
+   * Activa un perfil.
+   *
+   * @param next perfil nuevo
+   * @return el perfil activado
+   */
+  public RiskFaultProfile activate(RiskFaultProfile next) {
+    log.info("Mock risk fault profile changed: {} -> {}", profile.name(), next);
+    profile = next;
+    return next;
+  }
+
+  /**
+   * Busca un perfil predefinido.
+   *
+   * @param name nombre
+   * @return perfil
+   * @throws IllegalArgumentException si no existe
+   */
+  public RiskFaultProfile preset(String name) {
+    RiskFaultProfile preset = presets.get(name);
+    if (preset == null) {
+      throw new IllegalArgumentException("unknown profile " + name);
+    }
+    return preset;
+  }
+
+  /**
+   * Decide el comportamiento de una petición según el perfil activo.
+   *
+   * @return plan de la petición
+   */
+  public Plan next() {
+    return plan(profile, ThreadLocalRandom.current(), System.currentTimeMillis());
+  }
+
+  static Plan plan(RiskFaultProfile profile, Random random, long nowMs) {
+    RiskFaultProfile.Brownout brownout = profile.brownout();
+    boolean degraded = brownout != null && brownout.activeAt(nowMs);
+    long delayMs = Math.max(0, degraded
+        ? brownout.latency().sampleMs(random)
+        : profile.latency().sampleMs(random));
+    double errorRate = degraded ? brownout.errorRate() : profile.errorRate();
+
+    if (random.nextDouble() < profile.resetRate()) {
+      return new Plan(delayMs, Outcome.RESET);
+    }
+    if (random.nextDouble() < errorRate) {
+      return new Plan(delayMs, Outcome.ERROR);
+    }
+    return new Plan(delayMs, Outcome.RESPOND);
+  }
+}
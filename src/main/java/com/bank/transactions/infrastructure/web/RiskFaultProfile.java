@@ -0,0 +1,97 @@
+package com.bank.transactions.infrastructure.web;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comportamiento simulado del servicio de riesgo mock: latencia, tasa de errores, tasa de
+ * cortes de conexión y, opcionalmente, apagones parciales ("brownouts") periódicos.
+ *
+ * @param name       nombre del perfil
+ * @param latency    distribución de latencia normal
+ * @param errorRate  fracción de respuestas con error (0-1)
+ * @param resetRate  fracción de conexiones cortadas sin respuesta (0-1)
+ * @param brownout   degradación periódica, o {@code null}
+ */
+public record RiskFaultProfile(String name, LatencyDistribution latency, double errorRate,
+                               double resetRate, Brownout brownout) {
+
+  /** Perfil por defecto: 200 ms fijos, el retraso que antes pedía el cliente. */
+  public static final String DEFAULT = "steady";
+
+  /**
+   * Valida rangos.
+   */
+  public RiskFaultProfile {
+    if (name == null || name.isBlank()) {
+      name = "custom";
+    }
+    if (latency == null) {
+      latency = new LatencyDistribution.Fixed(0);
+    }
+    requireRate(errorRate, "errorRate");
+    requireRate(resetRate, "resetRate");
+  }
+
+  /**
+   * Degradación que se repite cada {@code periodMs} y dura {@code durationMs}.
+   *
+   * @param periodMs   período
+   * @param durationMs duración al inicio de cada período
+   * @param latency    latencia durante la degradación
+   * @param errorRate  tasa de errores durante la degradación
+   */
+  public record Brownout(long periodMs, long durationMs, LatencyDistribution latency,
+                         double errorRate) {
+
+    /**
+     * Valida rangos.
+     */
+    public Brownout {
+      if (periodMs <= 0 || durationMs < 0 || durationMs > periodMs) {
+        throw new IllegalArgumentException("expected 0 <= durationMs <= periodMs");
+      }
+      if (latency == null) {
+        throw new IllegalArgumentException("brownout latency is required");
+      }
+      requireRate(errorRate, "brownout.errorRate");
+    }
+
+    /**
+     * Indica si el instante cae dentro de la degradación.
+     *
+     * @param epochMs instante en milisegundos
+     * @return {@code true} durante la degradación
+     */
+    public boolean activeAt(long epochMs) {
+      return epochMs % periodMs < durationMs;
+    }
+  }
+
+  /**
+   * Perfiles predefinidos.
+   *
+   * @return perfiles por nombre
+   */
+  public static Map<String, RiskFaultProfile> presets() {
+    LatencyDistribution production = new LatencyDistribution.LogNormal(40, 0.9);
+    return Map.of(
+        "none", new RiskFaultProfile("none", new LatencyDistribution.Fixed(0), 0, 0, null),
+        DEFAULT, new RiskFaultProfile(DEFAULT, new LatencyDistribution.Fixed(200), 0, 0, null),
+        "production", new RiskFaultProfile("production", production, 0.005, 0.001, null),
+        "long-tail", new RiskFaultProfile("long-tail", new LatencyDistribution.Percentiles(List.of(
+            new LatencyDistribution.Percentiles.Point(50, 30),
+            new LatencyDistribution.Percentiles.Point(90, 80),
+            new LatencyDistribution.Percentiles.Point(99, 900),
+            new LatencyDistribution.Percentiles.Point(99.9, 3000),
+            new LatencyDistribution.Percentiles.Point(100, 5000))), 0.01, 0.001, null),
+        "brownout", new RiskFaultProfile("brownout", production, 0.005, 0.001, new Brownout(
+            60_000, 10_000, new LatencyDistribution.Uniform(500, 3000), 0.3)));
+  }
+
+  private static void requireRate(double rate, String field) {
+    if (rate < 0 || rate > 1) {
+      throw new IllegalArgumentException(field + " must be between 0 and 1");
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.bank.transactions.infrastructure.web;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Parámetros del stream SSE de transacciones ({@code bankx.sse.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "bankx.sse")
+public class SseProperties {
+
+  private final Coalesce coalesce = new Coalesce();
+
+  private final Compression compression = new Compression();
+
+  /**
+   * Agrupamiento de eventos en frames.
+   */
+  @Data
+  public static class Coalesce {
+
+    /** Agrupa los eventos de cada conexión en lugar de enviar uno por frame. */
+    private boolean enabled = false;
+
+    /** Eventos que fuerzan el envío del frame. */
+    private int maxEvents = 256;
+
+    /** Espera máxima de un evento; con menos de un evento por ventana no hay espera. */
+    private Duration maxDelay = Duration.ofMillis(50);
+  }
+
+  /**
+   * Compresión por conexión, solo con el agrupamiento activo.
+   */
+  @Data
+  public static class Compression {
+
+    /** Comprime con gzip las conexiones que lo aceptan en {@code Accept-Encoding}. */
+    private boolean enabled = false;
+  }
+}
@@ -0,0 +1,63 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link Jackson2CborEncoder} para {@link Transaction} que además acepta un {@link Flux}, que
+ * el de Spring no soporta: como {@code application/cbor-seq} escribe cada valor apenas llega;
+ * como {@code application/cbor} junta los valores en un arreglo.
+ *
+ * <p>Se limita a {@link Transaction} porque Spring ubica los códecs propios antes que Jackson
+ * JSON: con un CBOR general, las respuestas de otros tipos sin {@code Accept} saldrían en
+ * CBOR.</p>
+ */
+public class TransactionCborEncoder extends Jackson2CborEncoder {
+
+  /**
+   * Crea el codificador.
+   *
+   * @param mapper {@link ObjectMapper} con fábrica CBOR
+   */
+  public TransactionCborEncoder(ObjectMapper mapper) {
+    super(mapper, MediaType.APPLICATION_CBOR, ApiMediaTypes.CBOR_SEQ);
+    setStreamingMediaTypes(List.of(ApiMediaTypes.CBOR_SEQ));
+  }
+
+  @Override
+  public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+    return Transaction.class.isAssignableFrom(elementType.toClass())
+        && super.canEncode(elementType, mimeType);
+  }
+
+  @Override
+  public Flux<DataBuffer> encode(Publisher<?> input, DataBufferFactory bufferFactory,
+                                 ResolvableType elementType, MimeType mimeType,
+                                 Map<String, Object> hints) {
+    if (input instanceof Mono) {
+      return Mono.from(input)
+        .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+        .flux();
+    }
+    if (ApiMediaTypes.CBOR_SEQ.isCompatibleWith(mimeType)) {
+      return Flux.from(input)
+        .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+    }
+    ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+    return Flux.from(input)
+      .collectList()
+      .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+      .flux();
+  }
+}
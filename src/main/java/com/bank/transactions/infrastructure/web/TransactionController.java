@@ -1,9 +1,13 @@
 package com.bank.transactions.infrastructure.web;
 
 import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.application.dto.TransferRequest;
+import com.bank.transactions.application.dto.TransferResponse;
 import com.bank.transactions.application.service.TransactionService;
+import com.bank.transactions.application.service.TransferService;
 import com.bank.transactions.domain.model.Transaction;
 import jakarta.validation.Valid;
+import java.time.Instant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -28,15 +32,22 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class TransactionController {
 
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final int MAX_PAGE_SIZE = 1_000;
+
   private final TransactionService service;
+  private final TransferService transferService;
 
   /**
-   * Crea una nueva transacción para una cuenta específica.
+   * Crea una nueva transacción para una cuenta específica. El cuerpo puede llegar en JSON,
+   * CBOR, Smile o Protobuf según {@code Content-Type}.
    *
    * @param req Objeto {@link CreateTxRequest} con los datos de la transacción.
    * @return Un {@link Mono} con la respuesta HTTP que contiene la transacción creada.
    */
-  @PostMapping("/transactions")
+  @PostMapping(value = "/transactions", produces = {
+      MediaType.APPLICATION_JSON_VALUE, ApiMediaTypes.CBOR_VALUE, ApiMediaTypes.SMILE_VALUE,
+      ApiMediaTypes.PROTOBUF_VALUE})
   public Mono<ResponseEntity<Transaction>> create(@Valid @RequestBody CreateTxRequest req) {
     log.info("POST /api/transactions - Account: {}, Type: {}, Amount: {}",
         req.getAccountNumber(), req.getType(), req.getAmount());
@@ -47,20 +58,54 @@ public class TransactionController {
   }
 
   /**
-   * Lista todas las transacciones asociadas a un número de cuenta.
+   * Transfiere un monto entre dos cuentas en una sola operación atómica.
+   *
+   * @param req Objeto {@link TransferRequest} con las cuentas origen y destino y el monto.
+   * @return Un {@link Mono} con la respuesta HTTP que contiene el débito y el crédito.
+   */
+  @PostMapping("/transfers")
+  public Mono<ResponseEntity<TransferResponse>> transfer(@Valid @RequestBody TransferRequest req) {
+    log.info("POST /api/transfers - From: {}, To: {}, Amount: {}",
+        req.getFromAccount(), req.getToAccount(), req.getAmount());
+
+    return transferService.transfer(req)
+      .map(result -> ResponseEntity.status(HttpStatus.CREATED).body(result));
+  }
+
+  /**
+   * Lista las transacciones asociadas a un número de cuenta, de la más reciente a la más
+   * antigua. Con {@code limit} devuelve una página; la siguiente se pide con {@code before}
+   * igual a la fecha de la última transacción recibida.
+   * Con {@code Accept: application/x-ndjson} se recibe una transacción por línea a medida
+   * que se leen; también responde CBOR, Smile y Protobuf (ver {@link ApiMediaTypes}).
    *
    * @param accountNumber Número de cuenta del cliente.
+   * @param before        Solo transacciones anteriores a esta fecha (opcional).
+   * @param limit         Tamaño de la página (opcional).
    * @return Un {@link Flux} con las transacciones encontradas.
    */
-  @GetMapping("/transactions")
-  public Flux<Transaction> list(@RequestParam String accountNumber) {
-    log.info("GET /api/transactions?accountNumber={}", accountNumber);
+  @GetMapping(value = "/transactions", produces = {
+      MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+      ApiMediaTypes.CBOR_VALUE, ApiMediaTypes.CBOR_SEQ_VALUE, ApiMediaTypes.SMILE_VALUE,
+      ApiMediaTypes.SMILE_STREAM_VALUE, ApiMediaTypes.PROTOBUF_VALUE})
+  public Flux<Transaction> list(@RequestParam String accountNumber,
+                                @RequestParam(required = false) Instant before,
+                                @RequestParam(required = false) Integer limit) {
+    log.info("GET /api/transactions?accountNumber={}&before={}&limit={}",
+        accountNumber, before, limit);
 
-    return service.byAccount(accountNumber)
+    Flux<Transaction> transactions = before == null && limit == null
+        ? service.byAccount(accountNumber)
+        : service.byAccount(accountNumber, before, pageSize(limit));
+    return transactions
       .doOnComplete(() ->
         log.debug("Completed listing transactions for account: {}", accountNumber));
   }
 
+  static int pageSize(Integer limit) {
+    return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+  }
+
   /**
    * Stream reactivo de transacciones usando Server-Sent Events (SSE).
    *
@@ -74,4 +119,20 @@ public class TransactionController {
       .doOnComplete(() -> log.debug("SSE stream completed"))
                 .doOnCancel(() -> log.debug("SSE stream cancelled"));
   }
-}
\ No newline at end of file
+
+  /**
+   * Stream de transacciones en tiempo real en un formato de streaming, según {@code Accept}:
+   * NDJSON (por defecto), secuencia CBOR, Smile o Protobuf delimitado. SSE es solo texto, por
+   * eso los formatos binarios van en una ruta aparte.
+   *
+   * @return Un {@link Flux} con las transacciones emitidas.
+   */
+  @GetMapping(value = "/live/transactions", produces = {
+      MediaType.APPLICATION_NDJSON_VALUE, ApiMediaTypes.CBOR_SEQ_VALUE,
+      ApiMediaTypes.SMILE_STREAM_VALUE, ApiMediaTypes.PROTOBUF_VALUE})
+  public Flux<Transaction> streamValues() {
+    log.debug("GET /api/live/transactions - streaming connection established");
+
+    return service.live();
+  }
+}
@@ -0,0 +1,287 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.bank.transactions.domain.model.Transaction;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Codifica {@link Transaction} a JSON escribiendo directo en el {@link DataBuffer} de la
+ * respuesta, sin reflexión ni {@code String} intermedios: los nombres de campo están
+ * precodificados y los textos se escriben como UTF-8 carácter a carácter en el buffer.
+ *
+ * <p>El resultado es idéntico byte a byte al de Jackson con la configuración de Spring Boot
+ * (mismo orden de campos, {@code null} incluidos, fechas ISO-8601). Con
+ * {@code application/x-ndjson} escribe una transacción por línea y cada línea se envía apenas
+ * está lista; con {@code application/json} un arreglo. En ambos casos cada transacción ocupa
+ * su propio buffer, así que un historial grande se transmite con memoria constante.</p>
+ */
+public class TransactionJsonEncoder extends AbstractEncoder<Transaction>
+    implements HttpMessageEncoder<Transaction> {
+
+  private static final byte[] ID = ascii("{\"id\":");
+  private static final byte[] ACCOUNT_ID = ascii(",\"accountId\":");
+  private static final byte[] ACCOUNT_NUMBER = ascii(",\"accountNumber\":");
+  private static final byte[] CURRENCY = ascii(",\"currency\":");
+  private static final byte[] TYPE = ascii(",\"type\":");
+  private static final byte[] AMOUNT = ascii(",\"amount\":");
+  private static final byte[] TIMESTAMP = ascii(",\"timestamp\":");
+  private static final byte[] STATUS = ascii(",\"status\":");
+  private static final byte[] REASON = ascii(",\"reason\":");
+  private static final byte[] NULL = ascii("null");
+  private static final byte[] EMPTY_ARRAY = ascii("[]");
+  private static final byte[] END_ARRAY = ascii("]");
+  private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+  /** Tamaño inicial del buffer de una transacción; alcanza para las de la semilla. */
+  private static final int ESTIMATED_SIZE = 256;
+
+  // 0000-01-01T00:00:00Z y 9999-12-31T23:59:59Z: fuera de ese rango Instant usa otro formato
+  private static final long MIN_SECOND = -62_167_219_200L;
+  private static final long MAX_SECOND = 253_402_300_799L;
+
+  /**
+   * Crea el codificador para JSON y NDJSON.
+   */
+  public TransactionJsonEncoder() {
+    super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+  }
+
+  @Override
+  public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+    return Transaction.class.isAssignableFrom(elementType.toClass())
+        && super.canEncode(elementType, mimeType);
+  }
+
+  @Override
+  public List<MediaType> getStreamingMediaTypes() {
+    return List.of(MediaType.APPLICATION_NDJSON);
+  }
+
+  @Override
+  public Flux<DataBuffer> encode(Publisher<? extends Transaction> input,
+                                 DataBufferFactory bufferFactory, ResolvableType elementType,
+                                 MimeType mimeType, Map<String, Object> hints) {
+    if (input instanceof Mono) {
+      return Mono.from(input).map(tx -> write(tx, bufferFactory, -1, -1)).flux();
+    }
+    if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {
+      return Flux.from(input).map(tx -> write(tx, bufferFactory, -1, '\n'));
+    }
+    return Flux.defer(() -> {
+      boolean[] empty = {true};
+      return Flux.<Transaction>from(input)
+        .map(tx -> {
+          int separator = empty[0] ? '[' : ',';
+          empty[0] = false;
+          return write(tx, bufferFactory, separator, -1);
+        })
+        .concatWith(Mono.fromSupplier(() ->
+            bufferFactory.wrap(empty[0] ? EMPTY_ARRAY : END_ARRAY)));
+    });
+  }
+
+  @Override
+  public DataBuffer encodeValue(Transaction value, DataBufferFactory bufferFactory,
+                                ResolvableType valueType, MimeType mimeType,
+                                Map<String, Object> hints) {
+    return write(value, bufferFactory, -1, -1);
+  }
+
+  private static DataBuffer write(Transaction tx, DataBufferFactory bufferFactory, int prefix,
+                                  int suffix) {
+    DataBuffer out = bufferFactory.allocateBuffer(ESTIMATED_SIZE);
+    try {
+      if (prefix >= 0) {
+        out.write((byte) prefix);
+      }
+      writeObject(tx, out);
+      if (suffix >= 0) {
+        out.write((byte) suffix);
+      }
+      return out;
+    } catch (RuntimeException e) {
+      DataBufferUtils.release(out);
+      throw e;
+    }
+  }
+
+  /**
+   * Escribe la transacción como objeto JSON al final de un buffer ya abierto; lo usa también
+   * el escritor SSE agrupado para armar varios eventos en un mismo frame.
+   *
+   * @param tx  transacción
+   * @param out destino
+   */
+  static void writeObject(Transaction tx, DataBuffer out) {
+    out.write(ID);
+    writeString(out, tx.getId());
+    out.write(ACCOUNT_ID);
+    writeString(out, tx.getAccountId());
+    out.write(ACCOUNT_NUMBER);
+    writeString(out, tx.getAccountNumber());
+    out.write(CURRENCY);
+    writeString(out, tx.getCurrency());
+    out.write(TYPE);
+    writeString(out, tx.getType());
+    out.write(AMOUNT);
+    writeNumber(out, tx.getAmount());
+    out.write(TIMESTAMP);
+    writeInstant(out, tx.getTimestamp());
+    out.write(STATUS);
+    writeString(out, tx.getStatus());
+    out.write(REASON);
+    writeString(out, tx.getReason());
+    out.write((byte) '}');
+  }
+
+  private static void writeString(DataBuffer out, String value) {
+    if (value == null) {
+      out.write(NULL);
+      return;
+    }
+    out.write((byte) '"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (c < 0x20 || c == '"' || c == '\\') {
+          writeEscaped(out, c);
+        } else {
+          out.write((byte) c);
+        }
+      } else if (c < 0x800) {
+        out.write((byte) (0xC0 | c >> 6));
+        out.write((byte) (0x80 | c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        out.write((byte) (0xF0 | codePoint >> 18));
+        out.write((byte) (0x80 | codePoint >> 12 & 0x3F));
+        out.write((byte) (0x80 | codePoint >> 6 & 0x3F));
+        out.write((byte) (0x80 | codePoint & 0x3F));
+      } else {
+        out.write((byte) (0xE0 | c >> 12));
+        out.write((byte) (0x80 | c >> 6 & 0x3F));
+        out.write((byte) (0x80 | c & 0x3F));
+      }
+    }
+    out.write((byte) '"');
+  }
+
+  private static void writeEscaped(DataBuffer out, char c) {
+    out.write((byte) '\\');
+    switch (c) {
+      case '"', '\\' -> out.write((byte) c);
+      case '\n' -> out.write((byte) 'n');
+      case '\r' -> out.write((byte) 'r');
+      case '\t' -> out.write((byte) 't');
+      case '\b' -> out.write((byte) 'b');
+      case '\f' -> out.write((byte) 'f');
+      default -> out.write(new byte[] {'u', '0', '0', HEX[c >> 4], HEX[c & 0xF]});
+    }
+  }
+
+  private static void writeNumber(DataBuffer out, BigDecimal value) {
+    if (value == null) {
+      out.write(NULL);
+    } else {
+      // BigDecimal guarda su toString, que es el formato que usa Jackson
+      writeAscii(out, value.toString());
+    }
+  }
+
+  /**
+   * Escribe el instante con el formato de {@link Instant#toString()}: fracción en grupos de 3
+   * dígitos y solo si no es cero.
+   */
+  private static void writeInstant(DataBuffer out, Instant value) {
+    if (value == null) {
+      out.write(NULL);
+      return;
+    }
+    long seconds = value.getEpochSecond();
+    if (seconds < MIN_SECOND || seconds > MAX_SECOND) {
+      out.write((byte) '"');
+      writeAscii(out, value.toString());
+      out.write((byte) '"');
+      return;
+    }
+    long epochDay = Math.floorDiv(seconds, 86_400);
+
+    // Fecha civil desde el día epoch (algoritmo de H. Hinnant, calendario gregoriano proléptico)
+    long z = epochDay + 719_468;
+    long era = Math.floorDiv(z, 146_097);
+    long dayOfEra = z - era * 146_097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096)
+        / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long shiftedMonth = (5 * dayOfYear + 2) / 153;
+    final int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+    int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+    int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+    out.write((byte) '"');
+    writeDigits(out, year, 4);
+    out.write((byte) '-');
+    writeDigits(out, month, 2);
+    out.write((byte) '-');
+    writeDigits(out, day, 2);
+    out.write((byte) 'T');
+    int secondOfDay = (int) Math.floorMod(seconds, 86_400);
+    writeDigits(out, secondOfDay / 3_600, 2);
+    out.write((byte) ':');
+    writeDigits(out, secondOfDay / 60 % 60, 2);
+    out.write((byte) ':');
+    writeDigits(out, secondOfDay % 60, 2);
+    int nanos = value.getNano();
+    if (nanos != 0) {
+      out.write((byte) '.');
+      if (nanos % 1_000_000 == 0) {
+        writeDigits(out, nanos / 1_000_000, 3);
+      } else if (nanos % 1_000 == 0) {
+        writeDigits(out, nanos / 1_000, 6);
+      } else {
+        writeDigits(out, nanos, 9);
+      }
+    }
+    out.write((byte) 'Z');
+    out.write((byte) '"');
+  }
+
+  private static void writeAscii(DataBuffer out, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      out.write((byte) value.charAt(i));
+    }
+  }
+
+  private static void writeDigits(DataBuffer out, int value, int width) {
+    for (int divisor = pow10(width - 1); divisor > 0; divisor /= 10) {
+      out.write((byte) ('0' + value / divisor % 10));
+    }
+  }
+
+  private static int pow10(int exponent) {
+    int result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= 10;
+    }
+    return result;
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,195 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.domain.model.Transaction;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Formato Protobuf de {@link Transaction} y {@link CreateTxRequest} según
+ * {@code src/main/proto/transactions.proto}, escrito a mano sobre {@link CodedOutputStream} y
+ * {@link CodedInputStream}, sin clases generadas ni copias a objetos intermedios.
+ *
+ * <p>Como en proto3, los textos vacíos o {@code null} no se escriben y al leer quedan en
+ * {@code null}; los montos viajan como decimal en texto para no perder precisión.</p>
+ */
+public final class TransactionProtobuf {
+
+  private static final int LENGTH_DELIMITED = 2;
+  private static final int TIMESTAMP_FIELD = 7;
+  private static final int TIMESTAMP_TAG = TIMESTAMP_FIELD << 3 | LENGTH_DELIMITED;
+  private static final int SECONDS_TAG = 1 << 3;
+  private static final int NANOS_TAG = 2 << 3;
+
+  private TransactionProtobuf() {
+  }
+
+  /**
+   * Tamaño serializado de una transacción.
+   *
+   * @param tx transacción
+   * @return bytes del mensaje, sin prefijo de longitud
+   */
+  public static int size(Transaction tx) {
+    int size = stringSize(1, tx.getId())
+        + stringSize(2, tx.getAccountId())
+        + stringSize(3, tx.getAccountNumber())
+        + stringSize(4, tx.getCurrency())
+        + stringSize(5, tx.getType())
+        + stringSize(6, decimal(tx.getAmount()))
+        + stringSize(8, tx.getStatus())
+        + stringSize(9, tx.getReason());
+    if (tx.getTimestamp() != null) {
+      int timestamp = timestampSize(tx.getTimestamp());
+      size += CodedOutputStream.computeTagSize(TIMESTAMP_FIELD)
+          + CodedOutputStream.computeUInt32SizeNoTag(timestamp) + timestamp;
+    }
+    return size;
+  }
+
+  /**
+   * Tamaño serializado de una solicitud de creación.
+   *
+   * @param req solicitud
+   * @return bytes del mensaje, sin prefijo de longitud
+   */
+  public static int size(CreateTxRequest req) {
+    return stringSize(1, req.getAccountNumber())
+        + stringSize(2, req.getType())
+        + stringSize(3, decimal(req.getAmount()))
+        + stringSize(4, req.getCurrency());
+  }
+
+  /**
+   * Escribe una transacción.
+   *
+   * @param tx  transacción
+   * @param out destino
+   * @throws IOException si el destino falla o se queda sin espacio
+   */
+  public static void write(Transaction tx, CodedOutputStream out) throws IOException {
+    writeString(out, 1, tx.getId());
+    writeString(out, 2, tx.getAccountId());
+    writeString(out, 3, tx.getAccountNumber());
+    writeString(out, 4, tx.getCurrency());
+    writeString(out, 5, tx.getType());
+    writeString(out, 6, decimal(tx.getAmount()));
+    Instant timestamp = tx.getTimestamp();
+    if (timestamp != null) {
+      out.writeUInt32NoTag(TIMESTAMP_TAG);
+      out.writeUInt32NoTag(timestampSize(timestamp));
+      if (timestamp.getEpochSecond() != 0) {
+        out.writeInt64(1, timestamp.getEpochSecond());
+      }
+      if (timestamp.getNano() != 0) {
+        out.writeInt32(2, timestamp.getNano());
+      }
+    }
+    writeString(out, 8, tx.getStatus());
+    writeString(out, 9, tx.getReason());
+  }
+
+  /**
+   * Escribe una solicitud de creación.
+   *
+   * @param req solicitud
+   * @param out destino
+   * @throws IOException si el destino falla o se queda sin espacio
+   */
+  public static void write(CreateTxRequest req, CodedOutputStream out) throws IOException {
+    writeString(out, 1, req.getAccountNumber());
+    writeString(out, 2, req.getType());
+    writeString(out, 3, decimal(req.getAmount()));
+    writeString(out, 4, req.getCurrency());
+  }
+
+  /**
+   * Lee una transacción hasta el final de la entrada o del límite activo.
+   *
+   * @param in origen
+   * @return transacción
+   * @throws IOException si el mensaje está mal formado
+   */
+  public static Transaction readTransaction(CodedInputStream in) throws IOException {
+    Transaction tx = new Transaction();
+    int tag;
+    while ((tag = in.readTag()) != 0) {
+      switch (tag) {
+        case 1 << 3 | LENGTH_DELIMITED -> tx.setId(in.readStringRequireUtf8());
+        case 2 << 3 | LENGTH_DELIMITED -> tx.setAccountId(in.readStringRequireUtf8());
+        case 3 << 3 | LENGTH_DELIMITED -> tx.setAccountNumber(in.readStringRequireUtf8());
+        case 4 << 3 | LENGTH_DELIMITED -> tx.setCurrency(in.readStringRequireUtf8());
+        case 5 << 3 | LENGTH_DELIMITED -> tx.setType(in.readStringRequireUtf8());
+        case 6 << 3 | LENGTH_DELIMITED -> tx.setAmount(new BigDecimal(in.readStringRequireUtf8()));
+        case TIMESTAMP_TAG -> tx.setTimestamp(readTimestamp(in));
+        case 8 << 3 | LENGTH_DELIMITED -> tx.setStatus(in.readStringRequireUtf8());
+        case 9 << 3 | LENGTH_DELIMITED -> tx.setReason(in.readStringRequireUtf8());
+        default -> in.skipField(tag);
+      }
+    }
+    return tx;
+  }
+
+  /**
+   * Lee una solicitud de creación hasta el final de la entrada o del límite activo.
+   *
+   * @param in origen
+   * @return solicitud
+   * @throws IOException si el mensaje está mal formado
+   */
+  public static CreateTxRequest readCreateTxRequest(CodedInputStream in) throws IOException {
+    CreateTxRequest req = new CreateTxRequest();
+    int tag;
+    while ((tag = in.readTag()) != 0) {
+      switch (tag) {
+        case 1 << 3 | LENGTH_DELIMITED -> req.setAccountNumber(in.readStringRequireUtf8());
+        case 2 << 3 | LENGTH_DELIMITED -> req.setType(in.readStringRequireUtf8());
+        case 3 << 3 | LENGTH_DELIMITED -> req.setAmount(new BigDecimal(in.readStringRequireUtf8()));
+        case 4 << 3 | LENGTH_DELIMITED -> req.setCurrency(in.readStringRequireUtf8());
+        default -> in.skipField(tag);
+      }
+    }
+    return req;
+  }
+
+  private static Instant readTimestamp(CodedInputStream in) throws IOException {
+    int limit = in.pushLimit(in.readRawVarint32());
+    long seconds = 0;
+    int nanos = 0;
+    int tag;
+    while ((tag = in.readTag()) != 0) {
+      switch (tag) {
+        case SECONDS_TAG -> seconds = in.readInt64();
+        case NANOS_TAG -> nanos = in.readInt32();
+        default -> in.skipField(tag);
+      }
+    }
+    in.popLimit(limit);
+    return Instant.ofEpochSecond(seconds, nanos);
+  }
+
+  private static int timestampSize(Instant timestamp) {
+    return (timestamp.getEpochSecond() != 0
+        ? CodedOutputStream.computeInt64Size(1, timestamp.getEpochSecond()) : 0)
+        + (timestamp.getNano() != 0
+          ? CodedOutputStream.computeInt32Size(2, timestamp.getNano()) : 0);
+  }
+
+  private static int stringSize(int field, String value) {
+    return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(field, value);
+  }
+
+  private static void writeString(CodedOutputStream out, int field, String value)
+      throws IOException {
+    if (value != null && !value.isEmpty()) {
+      out.writeString(field, value);
+    }
+  }
+
+  private static String decimal(BigDecimal value) {
+    return value == null ? null : value.toPlainString();
+  }
+}
@@ -0,0 +1,115 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.domain.model.Transaction;
+import com.google.protobuf.CodedInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decodifica {@link Transaction} y {@link CreateTxRequest} desde Protobuf con
+ * {@link TransactionProtobuf}: un cuerpo con un mensaje simple, o con mensajes delimitados
+ * cuando se pide un {@link Flux}.
+ *
+ * <p>El cuerpo se junta en memoria hasta {@code maxInMemorySize} bytes antes de leerlo.</p>
+ */
+public class TransactionProtobufDecoder extends AbstractDecoder<Object> {
+
+  private static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+
+  private final int maxInMemorySize;
+
+  /**
+   * Crea el decodificador con el límite por defecto de Spring (256 KB).
+   */
+  public TransactionProtobufDecoder() {
+    this(DEFAULT_MAX_IN_MEMORY_SIZE);
+  }
+
+  /**
+   * Crea el decodificador.
+   *
+   * @param maxInMemorySize bytes máximos del cuerpo
+   */
+  public TransactionProtobufDecoder(int maxInMemorySize) {
+    super(ApiMediaTypes.PROTOBUF);
+    this.maxInMemorySize = maxInMemorySize;
+  }
+
+  @Override
+  public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+    Class<?> type = elementType.toClass();
+    return (Transaction.class == type || CreateTxRequest.class == type)
+        && super.canDecode(elementType, mimeType);
+  }
+
+  @Override
+  public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType,
+                             MimeType mimeType, Map<String, Object> hints) {
+    return DataBufferUtils.join(input, maxInMemorySize)
+      .flatMapIterable(buffer -> decodeDelimited(buffer, elementType.toClass()));
+  }
+
+  @Override
+  public Object decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType,
+                       Map<String, Object> hints) {
+    try {
+      return read(input(buffer), targetType.toClass());
+    } catch (IOException e) {
+      throw new DecodingException("Could not read Protobuf message", e);
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  @Override
+  public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+    return DataBufferUtils.join(input, maxInMemorySize)
+      .map(buffer -> decode(buffer, elementType, mimeType, hints));
+  }
+
+  private static List<Object> decodeDelimited(DataBuffer buffer, Class<?> type) {
+    try {
+      CodedInputStream in = input(buffer);
+      List<Object> values = new ArrayList<>();
+      while (!in.isAtEnd()) {
+        int limit = in.pushLimit(in.readRawVarint32());
+        values.add(read(in, type));
+        in.popLimit(limit);
+      }
+      return values;
+    } catch (IOException e) {
+      throw new DecodingException("Could not read Protobuf messages", e);
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  /**
+   * Copia el cuerpo a un arreglo exacto: leer desde un {@code InputStream} reserva 4 KB por
+   * mensaje.
+   */
+  private static CodedInputStream input(DataBuffer buffer) {
+    byte[] bytes = new byte[buffer.readableByteCount()];
+    buffer.read(bytes);
+    return CodedInputStream.newInstance(bytes);
+  }
+
+  private static Object read(CodedInputStream in, Class<?> type) throws IOException {
+    return type == Transaction.class
+        ? TransactionProtobuf.readTransaction(in)
+        : TransactionProtobuf.readCreateTxRequest(in);
+  }
+}
@@ -0,0 +1,94 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.domain.model.Transaction;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Codifica {@link Transaction} y {@link CreateTxRequest} en Protobuf con
+ * {@link TransactionProtobuf}. Un valor único va como mensaje simple; un {@link Flux} como
+ * mensajes delimitados, cada uno enviado apenas está listo.
+ */
+public class TransactionProtobufEncoder extends AbstractEncoder<Object>
+    implements HttpMessageEncoder<Object> {
+
+  /**
+   * Crea el codificador para {@code application/x-protobuf}.
+   */
+  public TransactionProtobufEncoder() {
+    super(ApiMediaTypes.PROTOBUF);
+  }
+
+  @Override
+  public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+    Class<?> type = elementType.toClass();
+    return (Transaction.class.isAssignableFrom(type)
+        || CreateTxRequest.class.isAssignableFrom(type)) && super.canEncode(elementType, mimeType);
+  }
+
+  @Override
+  public List<MediaType> getStreamingMediaTypes() {
+    return List.of(ApiMediaTypes.PROTOBUF);
+  }
+
+  @Override
+  public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory,
+                                ResolvableType valueType, MimeType mimeType,
+                                Map<String, Object> hints) {
+    return bufferFactory.wrap(encode(value, false));
+  }
+
+  @Override
+  public Flux<DataBuffer> encode(Publisher<?> input, DataBufferFactory bufferFactory,
+                                 ResolvableType elementType, MimeType mimeType,
+                                 Map<String, Object> hints) {
+    if (input instanceof Mono) {
+      return Mono.from(input).map(value -> bufferFactory.wrap(encode(value, false))).flux();
+    }
+    return Flux.from(input).map(value -> bufferFactory.wrap(encode(value, true)));
+  }
+
+  /**
+   * Serializa un valor en un arreglo de tamaño exacto.
+   *
+   * @param value     {@link Transaction} o {@link CreateTxRequest}
+   * @param delimited antepone la longitud del mensaje
+   * @return bytes del mensaje
+   */
+  static byte[] encode(Object value, boolean delimited) {
+    int size = value instanceof Transaction tx
+        ? TransactionProtobuf.size(tx)
+        : TransactionProtobuf.size((CreateTxRequest) value);
+    int prefix = delimited ? CodedOutputStream.computeUInt32SizeNoTag(size) : 0;
+    byte[] bytes = new byte[prefix + size];
+    CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+    try {
+      if (delimited) {
+        out.writeUInt32NoTag(size);
+      }
+      if (value instanceof Transaction tx) {
+        TransactionProtobuf.write(tx, out);
+      } else {
+        TransactionProtobuf.write((CreateTxRequest) value, out);
+      }
+      out.checkNoSpaceLeft();
+      return bytes;
+    } catch (IOException e) {
+      throw new EncodingException("Could not write Protobuf message", e);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.bank.transactions.infrastructure.web;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.application.dto.TransactionHistoryQuery;
+import com.bank.transactions.application.service.TransactionService;
+import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.model.Transaction;
+import io.rsocket.exceptions.ApplicationErrorException;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.stereotype.Controller;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Endpoints RSocket de transacciones, por TCP y WebSocket (ver
+ * {@link com.bank.transactions.config.RsocketConfig}).
+ *
+ * <p>A diferencia de SSE, el cliente controla el flujo con {@code request(n)}: el servidor no
+ * envía más de lo pedido. En el historial la demanda llega hasta el cursor de Mongo, que lee
+ * por lotes según lo pedido. El stream en vivo no puede frenar a quien crea transacciones, así
+ * que cada suscriptor tiene un buffer de {@code bankx.rsocket.stream.max-lag} eventos; si se
+ * llena, el stream entrega lo que ya estaba en el buffer y termina con el error
+ * {@code subscriber_lagging}; el cliente puede recuperar lo perdido con {@code tx.history}.</p>
+ *
+ * <p>Los rechazos de negocio llegan como error de aplicación con el código del catálogo.</p>
+ */
+@Controller
+@Slf4j
+public class TransactionRsocketController {
+
+  static final String LAGGING = "subscriber_lagging";
+  static final String VALIDATION_FAILED = "validation_failed";
+  static final String INTERNAL_ERROR = "internal_error";
+
+  private final TransactionService service;
+  private final int maxLag;
+
+  /**
+   * Crea el controlador.
+   *
+   * @param service servicio de transacciones
+   * @param maxLag  {@code bankx.rsocket.stream.max-lag}, eventos en espera por suscriptor
+   */
+  public TransactionRsocketController(
+      TransactionService service,
+      @Value("${bankx.rsocket.stream.max-lag:10000}") int maxLag) {
+    this.service = service;
+    this.maxLag = Math.max(1, maxLag);
+  }
+
+  /**
+   * Request-response: crea una transacción y responde con ella.
+   *
+   * @param req datos de la transacción
+   * @return un {@link Mono} con la transacción creada
+   */
+  @MessageMapping("tx.create")
+  public Mono<Transaction> create(@Valid CreateTxRequest req) {
+    log.info("RSocket tx.create - Account: {}, Type: {}, Amount: {}",
+        req.getAccountNumber(), req.getType(), req.getAmount());
+    return service.create(req);
+  }
+
+  /**
+   * Fire-and-forget: crea una transacción sin respuesta; los rechazos solo se registran.
+   *
+   * @param req datos de la transacción
+   * @return un {@link Mono} que completa al terminar la creación
+   */
+  @MessageMapping("tx.submit")
+  public Mono<Void> submit(@Valid CreateTxRequest req) {
+    return service.create(req)
+      .doOnError(BusinessException.class, error ->
+        log.debug("RSocket tx.submit rejected: {}", error.getMessage()))
+      .onErrorResume(error -> Mono.empty())
+      .then();
+  }
+
+  /**
+   * Request-stream: historial de una cuenta, del más reciente al más antiguo si hay
+   * {@code before} o {@code limit}, o completo si no.
+   *
+   * @param query cuenta y paginación opcional
+   * @return un {@link Flux} con las transacciones, al ritmo que pida el cliente
+   */
+  @MessageMapping("tx.history")
+  public Flux<Transaction> history(@Valid TransactionHistoryQuery query) {
+    log.info("RSocket tx.history - Account: {}, before: {}, limit: {}",
+        query.getAccountNumber(), query.getBefore(), query.getLimit());
+    return query.getBefore() == null && query.getLimit() == null
+        ? service.byAccount(query.getAccountNumber())
+        : service.byAccount(query.getAccountNumber(), query.getBefore(),
+          TransactionController.pageSize(query.getLimit()));
+  }
+
+  /**
+   * Request-stream: transacciones en tiempo real.
+   *
+   * @return un {@link Flux} con las transacciones a medida que se crean
+   */
+  @MessageMapping("tx.stream")
+  public Flux<Transaction> stream() {
+    log.debug("RSocket tx.stream - subscriber connected");
+    return service.live()
+      .onBackpressureBuffer(maxLag, tx -> log.warn("RSocket tx.stream subscriber lagging"),
+        BufferOverflowStrategy.ERROR)
+      .onErrorMap(Exceptions::isOverflow, error -> new ApplicationErrorException(LAGGING));
+  }
+
+  /**
+   * Rechazo de negocio: error de aplicación con el código del catálogo.
+   *
+   * @param ex excepción de negocio
+   * @return el error a enviar
+   */
+  @MessageExceptionHandler(BusinessException.class)
+  public Mono<Void> handleBusinessException(BusinessException ex) {
+    return Mono.error(new ApplicationErrorException(ex.getMessage()));
+  }
+
+  /**
+   * Payload inválido.
+   *
+   * @param ex errores de validación
+   * @return el error a enviar
+   */
+  @MessageExceptionHandler(MethodArgumentNotValidException.class)
+  public Mono<Void> handleValidationException(MethodArgumentNotValidException ex) {
+    return Mono.error(new ApplicationErrorException(VALIDATION_FAILED));
+  }
+
+  /**
+   * Cualquier otro error: se registra y no se exponen detalles al cliente.
+   *
+   * @param ex excepción
+   * @return el error a enviar
+   */
+  @MessageExceptionHandler(Exception.class)
+  public Mono<Void> handleGenericException(Exception ex) {
+    log.error("RSocket request failed", ex);
+    return Mono.error(new ApplicationErrorException(INTERNAL_ERROR));
+  }
+}
@@ -5,7 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// El puerto RSocket fijo queda para main(); los contextos de prueba usan uno libre
+@SpringBootTest(properties = "spring.rsocket.server.port=0")
 class TransactionsServiceApplicationTests {
 
   @Test
@@ -5,22 +5,26 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
+import com.bank.transactions.application.service.RiskRuleEngine;
 import com.bank.transactions.application.service.RiskService;
 import com.bank.transactions.domain.model.RiskRule;
 import com.bank.transactions.domain.repository.RiskRuleRepository;
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.rsocket.server.port=0")
 class SimpleCoverageTest {
 
   @Autowired
   private RiskService riskService;
 
+  @Autowired
+  private RiskRuleEngine ruleEngine;
+
   @MockBean
   private RiskRuleRepository riskRuleRepository;
 
@@ -32,7 +36,7 @@ class SimpleCoverageTest {
   @Test
   void riskService_creditAlwaysAllowed() {
     // Test simple: crédito siempre permitido
-    Boolean result = riskService.isAllowedLegacy("USD", "CREDIT", new BigDecimal("1000"));
+    Boolean result = riskService.isAllowedLegacy("USD", "CREDIT", new BigDecimal("1000"), null);
     assertTrue(result);
   }
 
@@ -40,10 +44,12 @@ class SimpleCoverageTest {
   void riskService_debitWithRule() {
     // Configurar regla simple
     RiskRule rule = new RiskRule();
+    rule.setCurrency("USD");
     rule.setMaxDebitPerTx(new BigDecimal("500"));
-    when(riskRuleRepository.findFirstByCurrency("USD")).thenReturn(Optional.of(rule));
+    when(riskRuleRepository.findAll()).thenReturn(List.of(rule));
+    ruleEngine.reload().block();
 
-    Boolean result = riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("300"));
+    Boolean result = riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("300"), null);
     assertTrue(result);
   }
 
@@ -51,10 +57,12 @@ class SimpleCoverageTest {
   void riskService_debitExceedsLimit() {
     // Configurar regla simple
     RiskRule rule = new RiskRule();
+    rule.setCurrency("USD");
     rule.setMaxDebitPerTx(new BigDecimal("500"));
-    when(riskRuleRepository.findFirstByCurrency("USD")).thenReturn(Optional.of(rule));
+    when(riskRuleRepository.findAll()).thenReturn(List.of(rule));
+    ruleEngine.reload().block();
 
-    Boolean result = riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("600"));
+    Boolean result = riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("600"), null);
     assertFalse(result);
   }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.AccountView;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.bank.transactions.domain.repository.TransactionRepository;
+import com.bank.transactions.domain.repository.TransactionRepositoryCustom.TypeCounts;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class AccountViewProjectorTest {
+
+  private static final String TX_ID = new ObjectId().toHexString();
+  private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+  private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+  private final AccountRepository accountRepo = mock(AccountRepository.class);
+  private final TransactionRepository txRepo = mock(TransactionRepository.class);
+  private final ShardedBalanceService shardedBalances = mock(ShardedBalanceService.class);
+  private final Sinks.Many<Transaction> sink = Sinks.many().multicast().onBackpressureBuffer();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private AccountViewProjector projector;
+
+  @BeforeEach
+  void setUp() {
+    projector = new AccountViewProjector(mongoTemplate, accountRepo, txRepo, shardedBalances,
+        new CompactTransactionCodec(false), sink, registry, 2, 4, 100);
+    when(accountRepo.findByNumber("001-0001")).thenReturn(Mono.just(Account.builder()
+        .id("acc-1").number("001-0001").currency("PEN").balance(new BigDecimal("900.00"))
+        .build()));
+  }
+
+  @Test
+  void apply_updatesTheViewWithOneIdempotentUpdate() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+    StepVerifier.create(projector.apply(tx(TX_ID, "DEBIT", NOW))).verifyComplete();
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(AccountView.class));
+    Document filter = query.getValue().getQueryObject();
+    assertEquals("001-0001", filter.get("_id"));
+    assertEquals(new Document("$ne", new ObjectId(TX_ID)), filter.get("recent._id"));
+
+    Document changes = update.getValue().getUpdateObject();
+    assertEquals(new Decimal128(new BigDecimal("900.00")),
+        changes.get("$set", Document.class).get("balance"));
+    assertEquals(new Document("transactionCount", 1L).append("debitCount", 1L),
+        changes.get("$inc", Document.class));
+    assertEquals(NOW, changes.get("$max", Document.class).get("lastActivity"));
+    Map<String, Object> push = ((Update.Modifiers) changes.get("$push", Document.class)
+        .get("recent")).getModifiers().stream()
+        .collect(Collectors.toMap(Update.Modifier::getKey, Update.Modifier::getValue));
+    assertEquals(2, push.get("$slice"));
+    verify(mongoTemplate, never()).insert(any(AccountView.class));
+  }
+
+  @Test
+  void apply_alreadyApplied_isSkipped() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+    when(mongoTemplate.exists(any(Query.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(true));
+
+    StepVerifier.create(projector.apply(tx(TX_ID, "CREDIT", NOW))).verifyComplete();
+
+    verify(mongoTemplate, never()).insert(any(AccountView.class));
+  }
+
+  @Test
+  void apply_withoutView_rebuildsItFromRecentHistoryAndCounts() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+    when(mongoTemplate.exists(any(Query.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(false));
+    when(txRepo.findHistory("acc-1", null, 2)).thenReturn(Flux.just(
+        tx(TX_ID, "DEBIT", NOW),
+        tx("tx-2", "CREDIT", NOW.minusSeconds(60))));
+    // Los conteos incluyen el archivo sin leer el historial completo
+    when(txRepo.countByType("acc-1")).thenReturn(Mono.just(new TypeCounts(30, 10)));
+    when(mongoTemplate.insert(any(AccountView.class)))
+      .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+    StepVerifier.create(projector.apply(tx(TX_ID, "DEBIT", NOW))).verifyComplete();
+
+    ArgumentCaptor<AccountView> view = ArgumentCaptor.forClass(AccountView.class);
+    verify(mongoTemplate).insert(view.capture());
+    assertEquals("001-0001", view.getValue().getAccountNumber());
+    assertEquals(new BigDecimal("900.00"), view.getValue().getBalance());
+    assertEquals(30, view.getValue().getTransactionCount());
+    assertEquals(10, view.getValue().getCreditCount());
+    assertEquals(20, view.getValue().getDebitCount());
+    assertEquals(NOW, view.getValue().getLastActivity());
+    assertEquals(List.of(TX_ID, "tx-2"),
+        view.getValue().getRecent().stream().map(Transaction::getId).toList());
+    assertEquals(1.0, registry.get("bankx.account-view.rebuilds").counter().count());
+    verify(txRepo, never()).findByAccountIdOrderByTimestampDesc("acc-1");
+  }
+
+  @Test
+  void apply_concurrentRebuild_retriesTheUpdate() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+    when(mongoTemplate.exists(any(Query.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(false));
+    when(txRepo.findHistory("acc-1", null, 2)).thenReturn(Flux.empty());
+    when(txRepo.countByType("acc-1")).thenReturn(Mono.just(TypeCounts.NONE));
+    when(mongoTemplate.insert(any(AccountView.class)))
+      .thenReturn(Mono.error(new DuplicateKeyException("account_views")));
+
+    StepVerifier.create(projector.apply(tx(TX_ID, "DEBIT", NOW))).verifyComplete();
+
+    verify(mongoTemplate, times(2))
+      .updateFirst(any(Query.class), any(Update.class), eq(AccountView.class));
+  }
+
+  @Test
+  void apply_shardedAccount_copiesTheShardTotal() {
+    when(accountRepo.findByNumber("001-0002")).thenReturn(Mono.just(Account.builder()
+        .id("acc-2").number("001-0002").balance(BigDecimal.ZERO).shards(4).build()));
+    when(shardedBalances.totalBalance("acc-2")).thenReturn(Mono.just(new BigDecimal("350")));
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+    Transaction tx = tx(TX_ID, "CREDIT", NOW);
+    tx.setAccountNumber("001-0002");
+
+    StepVerifier.create(projector.apply(tx)).verifyComplete();
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(AccountView.class));
+    assertEquals(new Decimal128(new BigDecimal("350")),
+        update.getValue().getUpdateObject().get("$set", Document.class).get("balance"));
+  }
+
+  @Test
+  void view_fillsTheAccountNumberOfCompactEntries() {
+    Transaction compact = tx(TX_ID, "DEBIT", NOW);
+    compact.setAccountNumber(null);
+    when(mongoTemplate.findById("001-0001", AccountView.class)).thenReturn(Mono.just(
+        AccountView.builder().accountNumber("001-0001").recent(List.of(compact)).build()));
+
+    StepVerifier.create(projector.view("001-0001"))
+      .assertNext(view -> assertEquals("001-0001", view.getRecent().get(0).getAccountNumber()))
+      .verifyComplete();
+  }
+
+  @Test
+  void view_missing_isRebuilt() {
+    when(mongoTemplate.findById("001-0001", AccountView.class)).thenReturn(Mono.empty());
+    when(txRepo.findHistory("acc-1", null, 2)).thenReturn(Flux.empty());
+    when(txRepo.countByType("acc-1")).thenReturn(Mono.just(TypeCounts.NONE));
+    when(mongoTemplate.insert(any(AccountView.class)))
+      .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+    StepVerifier.create(projector.view("001-0001"))
+      .assertNext(view -> {
+        assertEquals(0, view.getTransactionCount());
+        assertNull(view.getLastActivity());
+        assertEquals(new BigDecimal("900.00"), view.getBalance());
+      })
+      .verifyComplete();
+  }
+
+  @Test
+  void start_projectsEventsFromTheSink() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+    projector.start();
+    try {
+      sink.tryEmitNext(tx(TX_ID, "DEBIT", Instant.now()));
+
+      verify(mongoTemplate, timeout(2000))
+        .updateFirst(any(Query.class), any(Update.class), eq(AccountView.class));
+      assertEquals(0, projector.pending());
+      assertEquals(1, registry.get("bankx.account-view.lag").timer().count());
+    } finally {
+      projector.destroy();
+    }
+  }
+
+  @Test
+  void start_transactionWithoutTimestamp_isProjectedWithoutMeasuringLag() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountView.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+    projector.start();
+    try {
+      sink.tryEmitNext(tx(TX_ID, "CREDIT", null));
+
+      verify(mongoTemplate, timeout(2000))
+        .updateFirst(any(Query.class), any(Update.class), eq(AccountView.class));
+      assertEquals(0, projector.pending());
+      assertEquals(0, registry.get("bankx.account-view.lag").timer().count());
+    } finally {
+      projector.destroy();
+    }
+  }
+
+  @Test
+  void recordLag_withoutTimestamp_isSkipped() {
+    projector.recordLag(tx(TX_ID, "DEBIT", null));
+    projector.recordLag(tx(TX_ID, "DEBIT", Instant.now()));
+
+    assertEquals(1, registry.get("bankx.account-view.lag").timer().count());
+  }
+
+  private static Transaction tx(String id, String type, Instant at) {
+    return Transaction.builder()
+        .id(id)
+        .accountId("acc-1")
+        .accountNumber("001-0001")
+        .type(type)
+        .amount(new BigDecimal("100.00"))
+        .currency("PEN")
+        .timestamp(at)
+        .status("COMPLETED")
+        .build();
+  }
+}
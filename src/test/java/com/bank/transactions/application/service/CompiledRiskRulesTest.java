@@ -0,0 +1,112 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.bank.transactions.application.service.CompiledRiskRules.Decision;
+import com.bank.transactions.application.service.CompiledRiskRules.VelocityLimit;
+import com.bank.transactions.domain.model.RiskRule;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CompiledRiskRulesTest {
+
+  private static final BigDecimal TEN = BigDecimal.TEN;
+
+  @Test
+  void legacyRule_capsDebitsOnly() {
+    CompiledRiskRules rules = CompiledRiskRules.compile(List.of(
+        RiskRule.builder().id(1L).currency("PEN").maxDebitPerTx(new BigDecimal("1500")).build()));
+
+    assertEquals(Decision.ALLOW, rules.evaluate("PEN", "DEBIT", new BigDecimal("1500"), null, 0));
+    assertEquals(Decision.REJECT,
+        rules.evaluate("PEN", "debit", new BigDecimal("1500.01"), null, 0));
+    assertEquals(Decision.ALLOW, rules.evaluate("PEN", "CREDIT", new BigDecimal("99999"), null, 0));
+    assertEquals(Decision.NO_MATCH, rules.evaluate("USD", "DEBIT", TEN, null, 0));
+    assertEquals(Decision.NO_MATCH, rules.evaluate("PEN", "REFUND", TEN, null, 0));
+  }
+
+  @Test
+  void lowestPriorityWins() {
+    CompiledRiskRules rules = CompiledRiskRules.compile(List.of(
+        RiskRule.builder().id(1L).currency("USD").maxDebitPerTx(new BigDecimal("500")).build(),
+        RiskRule.builder().id(2L).currency("USD").type("DEBIT").minAmount(new BigDecimal("100"))
+          .maxAmount(new BigDecimal("200")).action("REJECT").priority(-1).build()));
+
+    assertEquals(Decision.ALLOW, rules.evaluate("USD", "DEBIT", new BigDecimal("99.99"), null, 0));
+    assertEquals(Decision.REJECT, rules.evaluate("USD", "DEBIT", new BigDecimal("150"), null, 0));
+    assertEquals(Decision.ALLOW, rules.evaluate("USD", "DEBIT", new BigDecimal("201"), null, 0));
+    assertEquals(Decision.ALLOW, rules.evaluate("USD", "CREDIT", new BigDecimal("150"), null, 0));
+  }
+
+  @Test
+  void tierRules_applyOnlyToTheirTier() {
+    CompiledRiskRules rules = CompiledRiskRules.compile(List.of(
+        RiskRule.builder().id(1L).currency("USD").maxDebitPerTx(new BigDecimal("500")).build(),
+        RiskRule.builder().id(2L).currency("USD").accountTier("PREMIUM").priority(-1)
+          .maxDebitPerTx(new BigDecimal("5000")).build()));
+
+    BigDecimal amount = new BigDecimal("1000");
+    assertEquals(Decision.ALLOW, rules.evaluate("USD", "DEBIT", amount, "PREMIUM", 0));
+    assertEquals(Decision.REJECT, rules.evaluate("USD", "DEBIT", amount, "BASIC", 0));
+    assertEquals(Decision.REJECT, rules.evaluate("USD", "DEBIT", amount, null, 0));
+  }
+
+  @Test
+  void hourWindow_canWrapAroundMidnight() {
+    CompiledRiskRules rules = CompiledRiskRules.compile(List.of(
+        RiskRule.builder().id(1L).currency("PEN").type("DEBIT").fromHour(22).toHour(6)
+          .minAmount(new BigDecimal("300")).action("REJECT").build(),
+        RiskRule.builder().id(2L).currency("PEN").maxDebitPerTx(new BigDecimal("1500"))
+          .priority(1).build()));
+
+    BigDecimal amount = new BigDecimal("400");
+    assertEquals(Decision.REJECT, rules.evaluate("PEN", "DEBIT", amount, null, 23));
+    assertEquals(Decision.REJECT, rules.evaluate("PEN", "DEBIT", amount, null, 5));
+    assertEquals(Decision.ALLOW, rules.evaluate("PEN", "DEBIT", amount, null, 6));
+    assertEquals(Decision.ALLOW, rules.evaluate("PEN", "DEBIT", amount, null, 21));
+  }
+
+  @Test
+  void wildcardCurrency_appliesToEveryCurrency() {
+    CompiledRiskRules rules = CompiledRiskRules.compile(List.of(
+        RiskRule.builder().id(1L).type("DEBIT").minAmount(new BigDecimal("10000"))
+          .action("reject").build(),
+        RiskRule.builder().id(2L).currency("USD").maxDebitPerTx(new BigDecimal("50000"))
+          .priority(1).build()));
+
+    assertEquals(Decision.REJECT,
+        rules.evaluate("USD", "DEBIT", new BigDecimal("20000"), null, 0));
+    assertEquals(Decision.REJECT,
+        rules.evaluate("EUR", "DEBIT", new BigDecimal("20000"), null, 0));
+    assertEquals(Decision.ALLOW, rules.evaluate("USD", "DEBIT", TEN, null, 0));
+    assertEquals(Decision.NO_MATCH, rules.evaluate("EUR", "DEBIT", TEN, null, 0));
+  }
+
+  @Test
+  void inactiveAndUnknownTypeRules_areNotCompiled() {
+    CompiledRiskRules rules = CompiledRiskRules.compile(List.of(
+        RiskRule.builder().id(1L).currency("USD").action("REJECT").active(false).build(),
+        RiskRule.builder().id(2L).currency("USD").type("REFUND").action("REJECT").build()));
+
+    assertEquals(0, rules.size());
+    assertEquals(Decision.NO_MATCH, rules.evaluate("USD", "DEBIT", TEN, null, 0));
+  }
+
+  @Test
+  void velocityLimit_comesFromTheFirstRuleDefiningOne() {
+    CompiledRiskRules rules = CompiledRiskRules.compile(List.of(
+        RiskRule.builder().id(1L).currency("PEN").maxDebitPerTx(new BigDecimal("1500")).build(),
+        RiskRule.builder().id(2L).currency("PEN").maxDebitPerDay(new BigDecimal("3000"))
+          .maxTxPerHour(5).build(),
+        RiskRule.builder().id(3L).currency("PEN").maxTxPerHour(1).priority(1).build(),
+        RiskRule.builder().id(4L).maxTxPerHour(20).build()));
+
+    assertEquals(new VelocityLimit(new BigDecimal("3000"), 5), rules.velocityLimit("PEN"));
+    assertEquals(new VelocityLimit(null, 20), rules.velocityLimit("USD"));
+    assertNull(CompiledRiskRules.compile(List.of(
+        RiskRule.builder().id(1L).currency("PEN").maxDebitPerTx(TEN).build()))
+      .velocityLimit("PEN"));
+  }
+}
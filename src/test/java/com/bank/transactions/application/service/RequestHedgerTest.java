@@ -0,0 +1,148 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class RequestHedgerTest {
+
+  private static final Duration DELAY = Duration.ofMillis(100);
+
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void fastCall_isNotHedged() {
+    RequestHedger hedger = hedger(0.05, 10);
+    AtomicInteger calls = new AtomicInteger();
+
+    StepVerifier.withVirtualTime(() -> hedger.hedge(() -> {
+      calls.incrementAndGet();
+      return Mono.delay(Duration.ofMillis(10)).thenReturn("primary");
+    }))
+      .thenAwait(Duration.ofSeconds(1))
+      .expectNext("primary")
+      .verifyComplete();
+
+    assertEquals(1, calls.get());
+    assertEquals(0, count("bankx.hedge.sent"));
+  }
+
+  @Test
+  void slowCall_hedgeWinsAndPrimaryIsCancelled() {
+    RequestHedger hedger = hedger(0.05, 10);
+    AtomicInteger calls = new AtomicInteger();
+    AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+    StepVerifier.withVirtualTime(() -> hedger.hedge(() -> calls.incrementAndGet() == 1
+        ? Mono.delay(Duration.ofSeconds(5)).thenReturn("primary")
+          .doOnCancel(() -> primaryCancelled.set(true))
+        : Mono.delay(Duration.ofMillis(10)).thenReturn("hedge")))
+      .thenAwait(Duration.ofSeconds(1))
+      .expectNext("hedge")
+      .verifyComplete();
+
+    assertEquals(2, calls.get());
+    assertTrue(primaryCancelled.get());
+    assertEquals(1, count("bankx.hedge.sent"));
+    assertEquals(1, count("bankx.hedge.wins"));
+  }
+
+  @Test
+  void slowCall_primaryStillWinsIfFirst() {
+    RequestHedger hedger = hedger(0.05, 10);
+    AtomicInteger calls = new AtomicInteger();
+
+    StepVerifier.withVirtualTime(() -> hedger.hedge(() -> calls.incrementAndGet() == 1
+        ? Mono.delay(Duration.ofMillis(150)).thenReturn("primary")
+        : Mono.delay(Duration.ofSeconds(5)).thenReturn("hedge")))
+      .thenAwait(Duration.ofSeconds(1))
+      .expectNext("primary")
+      .verifyComplete();
+
+    assertEquals(1, count("bankx.hedge.sent"));
+    assertEquals(0, count("bankx.hedge.wins"));
+  }
+
+  @Test
+  void budgetExhausted_skipsHedge() {
+    RequestHedger hedger = hedger(0, 1);
+    AtomicInteger calls = new AtomicInteger();
+
+    for (int i = 0; i < 2; i++) {
+      StepVerifier.withVirtualTime(() -> hedger.hedge(() -> {
+        calls.incrementAndGet();
+        return Mono.delay(Duration.ofSeconds(1)).thenReturn("slow");
+      }))
+        .thenAwait(Duration.ofSeconds(2))
+        .expectNext("slow")
+        .verifyComplete();
+    }
+
+    assertEquals(3, calls.get());
+    assertEquals(1, count("bankx.hedge.sent"));
+    assertEquals(1, count("bankx.hedge.skipped"));
+  }
+
+  @Test
+  void primaryError_isPropagated() {
+    RequestHedger hedger = hedger(0.05, 10);
+
+    StepVerifier.withVirtualTime(() -> hedger.hedge(
+        () -> Mono.<String>error(new IllegalStateException("risk down"))))
+      .expectError(IllegalStateException.class)
+      .verify();
+
+    assertEquals(0, count("bankx.hedge.sent"));
+  }
+
+  @Test
+  void delay_followsObservedLatency() {
+    RequestHedger hedger = new RequestHedger("test", registry, true, 95, Duration.ofMillis(5),
+        Duration.ofSeconds(1), Duration.ZERO, 1, 0.05, 10);
+    assertEquals(Duration.ofSeconds(1), hedger.currentDelay());
+
+    hedger.hedge(() -> Mono.just("fast")).block();
+    hedger.hedge(() -> Mono.just("fast")).block();
+
+    assertEquals(Duration.ofMillis(5), hedger.currentDelay());
+  }
+
+  @Test
+  void disabled_callsThrough() {
+    RequestHedger hedger = new RequestHedger("test", registry, false, 95, DELAY, DELAY,
+        Duration.ofSeconds(10), 100, 0.05, 10);
+    AtomicInteger calls = new AtomicInteger();
+
+    StepVerifier.withVirtualTime(() -> hedger.hedge(() -> {
+      calls.incrementAndGet();
+      return Mono.delay(Duration.ofSeconds(1)).thenReturn("slow");
+    }))
+      .thenAwait(Duration.ofSeconds(2))
+      .expectNext("slow")
+      .verifyComplete();
+
+    assertEquals(1, calls.get());
+  }
+
+  private RequestHedger hedger(double budgetRatio, int budgetBurst) {
+    return new RequestHedger("test", registry, true, 95, DELAY, DELAY, Duration.ofSeconds(10),
+        100, budgetRatio, budgetBurst);
+  }
+
+  private double count(String name) {
+    return registry.get(name).tag("client", "test").counter().count();
+  }
+}
@@ -1,5 +1,7 @@
 package com.bank.transactions.application.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
@@ -8,8 +10,15 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.bank.transactions.config.LogContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +26,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import org.springframework.web.util.UriBuilder;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 class RiskRemoteClientTest {
@@ -28,6 +38,8 @@ class RiskRemoteClientTest {
   private RiskService legacyRiskService;
   private LogContext logContext;
   private RiskRemoteClient riskRemoteClient;
+  private final ObservationRegistry observations = ObservationRegistry.create();
+  private final List<String> observedStages = new CopyOnWriteArrayList<>();
 
   @BeforeEach
   void setup() {
@@ -39,7 +51,22 @@ class RiskRemoteClientTest {
     legacyRiskService = mock(RiskService.class);
     logContext = mock(LogContext.class);
 
-    riskRemoteClient = new RiskRemoteClient(webClient, logContext, legacyRiskService);
+    observations.observationConfig().observationHandler(new ObservationHandler<>() {
+      @Override
+      public boolean supportsContext(Observation.Context context) {
+        return true;
+      }
+
+      @Override
+      public void onStop(Observation.Context context) {
+        observedStages.add(context.getContextualName());
+      }
+    });
+
+    RequestHedger hedger = new RequestHedger("risk", new SimpleMeterRegistry(), true, 95,
+        Duration.ofMillis(50), Duration.ofMillis(50), Duration.ofSeconds(10), 100, 0.05, 1);
+    riskRemoteClient = new RiskRemoteClient(webClient, logContext, legacyRiskService, hedger,
+        observations);
 
     // ⚙️ Configurar la cadena completa WebClient -> uri -> retrieve -> bodyToMono
     when(webClient.get()).thenReturn(uriSpec);
@@ -61,23 +88,85 @@ class RiskRemoteClientTest {
       return headersSpec;
     });
 
-    StepVerifier.create(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100")))
+    StepVerifier.create(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
       .expectNext(true)
       .verifyComplete();
 
     verify(responseSpec, times(1)).bodyToMono(Boolean.class);
   }
 
+  @Test
+  void isAllowed_withTier_sendsTierQueryParam() {
+    when(responseSpec.bodyToMono(Boolean.class)).thenReturn(Mono.just(true));
+    List<URI> built = new CopyOnWriteArrayList<>();
+    when(uriSpec.uri(any(Function.class))).thenAnswer(invocation -> {
+      Function<UriBuilder, URI> func = invocation.getArgument(0);
+      built.add(func.apply(new DefaultUriBuilderFactory().builder()));
+      return headersSpec;
+    });
+
+    StepVerifier.create(riskRemoteClient.isAllowed("USD", "DEBIT", BigDecimal.TEN, "GOLD"))
+      .expectNext(true)
+      .verifyComplete();
+
+    assertTrue(built.get(0).getQuery().contains("tier=GOLD"));
+  }
+
+  @Test
+  void isAllowed_slowCall_isHedged() {
+    when(responseSpec.bodyToMono(Boolean.class))
+      .thenReturn(Mono.never(), Mono.just(true));
+
+    StepVerifier.create(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
+      .expectNext(true)
+      .verifyComplete();
+
+    verify(webClient, times(2)).get();
+  }
+
   @Test
   void fallback_usesLegacyService() {
-    when(legacyRiskService.isAllowedLegacy(anyString(), anyString(), any()))
+    when(legacyRiskService.isAllowedLegacy(anyString(), anyString(), any(), any()))
       .thenReturn(false);
 
-    StepVerifier.create(riskRemoteClient.fallback("USD", "DEBIT", new BigDecimal("100"),
+    StepVerifier.create(riskRemoteClient.fallback("USD", "DEBIT", new BigDecimal("100"), null,
         new RuntimeException("Simulated")))
       .expectNext(false)
       .verifyComplete();
 
-    verify(legacyRiskService, times(1)).isAllowedLegacy("USD", "DEBIT", new BigDecimal("100"));
+    verify(legacyRiskService, times(1)).isAllowedLegacy("USD", "DEBIT", new BigDecimal("100"),
+        null);
+  }
+
+  @Test
+  void pendingCalls_countsCallsInFlight() {
+    Sinks.One<Boolean> reply = Sinks.one();
+    when(responseSpec.bodyToMono(Boolean.class)).thenReturn(reply.asMono());
+
+    StepVerifier.create(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("10"), null))
+      .then(() -> assertEquals(1, riskRemoteClient.pendingCalls()))
+      .then(() -> reply.tryEmitValue(true))
+      .expectNext(true)
+      .verifyComplete();
+
+    assertEquals(0, riskRemoteClient.pendingCalls());
+  }
+
+  @Test
+  void callAndFallback_areObservedAsStages() {
+    when(responseSpec.bodyToMono(Boolean.class)).thenReturn(Mono.just(true));
+    when(legacyRiskService.isAllowedLegacy(anyString(), anyString(), any(), any()))
+      .thenReturn(true);
+
+    StepVerifier.create(riskRemoteClient.isAllowed("USD", "DEBIT", BigDecimal.TEN, null))
+      .expectNext(true)
+      .verifyComplete();
+    StepVerifier.create(riskRemoteClient.fallback("USD", "DEBIT", BigDecimal.TEN, null,
+        new RuntimeException("Simulated")))
+      .expectNext(true)
+      .verifyComplete();
+
+    assertEquals(List.of(TransactionStages.RISK_CALL, TransactionStages.RISK_LEGACY),
+        observedStages);
   }
 }
@@ -0,0 +1,61 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.application.service.CompiledRiskRules.Decision;
+import com.bank.transactions.domain.model.RiskRule;
+import com.bank.transactions.domain.repository.RiskRuleRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class RiskRuleEngineTest {
+
+  private RiskRuleRepository riskRepo;
+  private RiskRuleEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    riskRepo = mock(RiskRuleRepository.class);
+    engine = new RiskRuleEngine(riskRepo, Schedulers.immediate(), Duration.ofSeconds(30));
+  }
+
+  @Test
+  void withoutRules_rejectsDebitsAndAllowsCredits() {
+    assertEquals(Decision.NO_MATCH, engine.evaluate("USD", "DEBIT", BigDecimal.ONE, null));
+    assertFalse(engine.isAllowed("USD", "DEBIT", BigDecimal.ONE, null));
+    assertTrue(engine.isAllowed("USD", "CREDIT", BigDecimal.ONE, null));
+  }
+
+  @Test
+  void reload_publishesNewRules() {
+    when(riskRepo.findAll()).thenReturn(List.of(
+        RiskRule.builder().id(1L).currency("USD").maxDebitPerTx(new BigDecimal("500")).build()));
+
+    StepVerifier.create(engine.reload())
+      .expectNext(1)
+      .verifyComplete();
+    assertTrue(engine.isAllowed("USD", "DEBIT", new BigDecimal("500"), null));
+    assertFalse(engine.isAllowed("USD", "DEBIT", new BigDecimal("501"), null));
+  }
+
+  @Test
+  void reload_failure_keepsCurrentRules() {
+    engine.replace(List.of(
+        RiskRule.builder().id(1L).currency("USD").maxDebitPerTx(new BigDecimal("500")).build()));
+    when(riskRepo.findAll()).thenThrow(new IllegalStateException("h2 down"));
+
+    StepVerifier.create(engine.reload())
+      .expectError(IllegalStateException.class)
+      .verify();
+    assertTrue(engine.isAllowed("USD", "DEBIT", new BigDecimal("100"), null));
+  }
+}
@@ -2,37 +2,50 @@ package com.bank.transactions.application.service;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.bank.transactions.domain.model.RiskRule;
 import com.bank.transactions.domain.repository.RiskRuleRepository;
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 class RiskServiceTest {
 
   private RiskRuleRepository riskRepo;
+  private VelocityAggregates velocity;
+  private RiskRuleEngine ruleEngine;
     private RiskService riskService;
 
   @BeforeEach
   void setup() {
     riskRepo = Mockito.mock(RiskRuleRepository.class);
-    riskService = new RiskService(riskRepo);
+    velocity = Mockito.mock(VelocityAggregates.class);
+    ruleEngine = new RiskRuleEngine(riskRepo, Schedulers.immediate(), Duration.ofSeconds(30));
+    riskService = new RiskService(velocity, ruleEngine);
   }
 
   @Test
   void isAllowed_debitBelowLimit_shouldReturnTrue() {
     RiskRule rule =
       RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("5000")).build();
-    when(riskRepo.findFirstByCurrency("USD")).thenReturn(Optional.of(rule));
+    when(riskRepo.findAll()).thenReturn(List.of(rule));
+    ruleEngine.reload().block();
 
-    Mono<Boolean> result = riskService.isAllowed("USD", "DEBIT", new BigDecimal("1000"));
+    Mono<Boolean> result = riskService.isAllowed("USD", "DEBIT", new BigDecimal("1000"), null);
 
     StepVerifier.create(result)
                 .expectNext(true)
@@ -43,64 +56,185 @@ class RiskServiceTest {
     void isAllowed_debitAboveLimit_shouldReturnFalse() {
       RiskRule rule =
         RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("1000")).build();
-      when(riskRepo.findFirstByCurrency("USD")).thenReturn(Optional.of(rule));
+      when(riskRepo.findAll()).thenReturn(List.of(rule));
+      ruleEngine.reload().block();
 
-      StepVerifier.create(riskService.isAllowed("USD", "DEBIT", new BigDecimal("5000")))
+      StepVerifier.create(riskService.isAllowed("USD", "DEBIT", new BigDecimal("5000"), null))
                 .expectNext(false)
                 .verifyComplete();
     }
 
     @Test
     void isAllowed_creditTransaction_shouldAlwaysReturnTrue() {
-      when(riskRepo.findFirstByCurrency("USD")).thenReturn(Optional.empty());
+      when(riskRepo.findAll()).thenReturn(List.of());
+      ruleEngine.reload().block();
 
-      StepVerifier.create(riskService.isAllowed("USD", "CREDIT", new BigDecimal("5000")))
+      StepVerifier.create(riskService.isAllowed("USD", "CREDIT", new BigDecimal("5000"), null))
                 .expectNext(true)
                 .verifyComplete();
     }
 
   @Test
   void isAllowed_onError_shouldReturnFalse() {
-    when(riskRepo.findFirstByCurrency(anyString())).thenThrow(new RuntimeException("DB error"));
+    when(riskRepo.findAll()).thenThrow(new RuntimeException("DB error"));
 
-    StepVerifier.create(riskService.isAllowed("USD", "DEBIT", BigDecimal.TEN))
+    StepVerifier.create(ruleEngine.reload())
+      .expectError(RuntimeException.class)
+      .verify();
+    StepVerifier.create(riskService.isAllowed("USD", "DEBIT", BigDecimal.TEN, null))
+      .expectNext(false)
+      .verifyComplete();
+  }
+
+  @Test
+  void isAllowed_usesAccountTier() {
+    when(riskRepo.findAll()).thenReturn(List.of(
+        RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("500")).build(),
+        RiskRule.builder().currency("USD").accountTier("PREMIUM").priority(-1)
+          .maxDebitPerTx(new BigDecimal("5000")).build()));
+    ruleEngine.reload().block();
+
+    StepVerifier.create(riskService.isAllowed("USD", "DEBIT", new BigDecimal("1000"), "PREMIUM"))
+      .expectNext(true)
+      .verifyComplete();
+    StepVerifier.create(riskService.isAllowed("USD", "DEBIT", new BigDecimal("1000"), null))
       .expectNext(false)
       .verifyComplete();
   }
 
   @Test
   void isAllowedLegacy_debitBelowLimit_shouldReturnTrue() {
-    RiskRule rule =
-      RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("2000")).build();
-    when(riskRepo.findFirstByCurrency("USD")).thenReturn(Optional.of(rule));
+    when(riskRepo.findAll()).thenReturn(List.of(
+        RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("2000")).build()));
+    ruleEngine.reload().block();
 
-    Boolean allowed = riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("1000"));
-    assertTrue(allowed);
+    assertTrue(riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("1000"), null));
+    verify(riskRepo, never()).findFirstByCurrency(anyString());
   }
 
   @Test
   void isAllowedLegacy_debitAboveLimit_shouldReturnFalse() {
-    RiskRule rule =
-      RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("1000")).build();
-    when(riskRepo.findFirstByCurrency("USD")).thenReturn(Optional.of(rule));
+    when(riskRepo.findAll()).thenReturn(List.of(
+        RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("1000")).build()));
+    ruleEngine.reload().block();
 
-    Boolean allowed = riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("5000"));
-    assertFalse(allowed);
+    assertFalse(riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("5000"), null));
   }
 
   @Test
   void isAllowedLegacy_creditAlwaysAllowed() {
-    when(riskRepo.findFirstByCurrency("USD")).thenReturn(Optional.empty());
+    when(riskRepo.findAll()).thenReturn(List.of());
+    ruleEngine.reload().block();
+
+    assertTrue(riskService.isAllowedLegacy("USD", "CREDIT", new BigDecimal("5000"), null));
+  }
+
+  @Test
+  void isAllowedLegacy_noRule_shouldRejectDebitLikeTheMainPath() {
+    when(riskRepo.findAll()).thenReturn(List.of());
+    ruleEngine.reload().block();
+
+    assertFalse(riskService.isAllowedLegacy("USD", "DEBIT", BigDecimal.ONE, null));
+  }
 
-    Boolean allowed = riskService.isAllowedLegacy("USD", "CREDIT", new BigDecimal("5000"));
-    assertTrue(allowed);
+  @Test
+  void isAllowedLegacy_usesAccountTier() {
+    when(riskRepo.findAll()).thenReturn(List.of(
+        RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("500")).build(),
+        RiskRule.builder().currency("USD").accountTier("PREMIUM").priority(-1)
+          .maxDebitPerTx(new BigDecimal("5000")).build()));
+    ruleEngine.reload().block();
+
+    assertTrue(riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("1000"), "PREMIUM"));
+    assertFalse(riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("1000"), null));
   }
 
   @Test
   void isAllowedLegacy_exceptionHandled_shouldReturnFalse() {
-    when(riskRepo.findFirstByCurrency(anyString())).thenThrow(new RuntimeException("DB error"));
+    RiskRuleEngine failing = Mockito.mock(RiskRuleEngine.class);
+    when(failing.isAllowed(any(), any(), any(), any()))
+      .thenThrow(new IllegalStateException("rules"));
+    RiskService service = new RiskService(velocity, failing);
+
+    assertFalse(service.isAllowedLegacy("USD", "DEBIT", new BigDecimal("1000"), null));
+  }
+
+  @Test
+  void reserveVelocity_usesCompiledLimitsWithoutQueryingH2() {
+    when(riskRepo.findAll()).thenReturn(List.of(velocityRule()));
+    ruleEngine.reload().block();
+    when(velocity.reserve(eq("acc-1"), eq(new BigDecimal("500")), any(Instant.class),
+        eq(new BigDecimal("3000")), eq(5)))
+      .thenReturn(Mono.just(true));
+
+    StepVerifier.create(riskService.reserveVelocity("acc-1", "PEN", "DEBIT",
+        new BigDecimal("500"), Instant.now()))
+      .expectNext(true)
+      .verifyComplete();
+    verify(riskRepo, never()).findFirstByCurrency(anyString());
+  }
+
+  @Test
+  void reserveVelocity_limitReached_shouldReturnFalse() {
+    when(riskRepo.findAll()).thenReturn(List.of(velocityRule()));
+    ruleEngine.reload().block();
+    when(velocity.reserve(any(), any(), any(), any(), any())).thenReturn(Mono.just(false));
+
+    StepVerifier.create(riskService.reserveVelocity("acc-1", "PEN", "DEBIT",
+        BigDecimal.ONE, Instant.now()))
+      .expectNext(false)
+      .verifyComplete();
+  }
+
+  @Test
+  void reserveVelocity_noLimitsConfigured_shouldStillRecordTheDebit() {
+    when(riskRepo.findAll()).thenReturn(List.of(
+        RiskRule.builder().currency("PEN").maxDebitPerTx(new BigDecimal("1500")).build()));
+    ruleEngine.reload().block();
+    when(velocity.reserve(eq("acc-1"), eq(BigDecimal.TEN), any(Instant.class), isNull(),
+        isNull()))
+      .thenReturn(Mono.just(true));
+
+    StepVerifier.create(riskService.reserveVelocity("acc-1", "PEN", "DEBIT",
+        BigDecimal.TEN, Instant.now()))
+      .expectNext(true)
+      .verifyComplete();
+  }
+
+  @Test
+  void reserveVelocity_credit_shouldAlwaysReturnTrue() {
+    StepVerifier.create(riskService.reserveVelocity("acc-1", "PEN", "CREDIT",
+        new BigDecimal("99999"), Instant.now()))
+      .expectNext(true)
+      .verifyComplete();
+    verify(velocity, never()).reserve(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void releaseVelocity_debit_shouldReleaseAndSwallowErrors() {
+    Instant at = Instant.now();
+    when(velocity.release("acc-1", BigDecimal.TEN, at))
+      .thenReturn(Mono.error(new RuntimeException("mongo down")));
+
+    StepVerifier.create(riskService.releaseVelocity("acc-1", "DEBIT", BigDecimal.TEN, at))
+      .verifyComplete();
+    verify(velocity).release("acc-1", BigDecimal.TEN, at);
+  }
+
+  @Test
+  void releaseVelocity_credit_shouldDoNothing() {
+    StepVerifier.create(riskService.releaseVelocity("acc-1", "CREDIT", BigDecimal.TEN,
+        Instant.now()))
+      .verifyComplete();
+    verify(velocity, never()).release(any(), any(), any());
+  }
 
-    Boolean allowed = riskService.isAllowedLegacy("USD", "DEBIT", new BigDecimal("1000"));
-    assertFalse(allowed);
+  private static RiskRule velocityRule() {
+    return RiskRule.builder()
+      .currency("PEN")
+      .maxDebitPerTx(new BigDecimal("1500"))
+      .maxDebitPerDay(new BigDecimal("3000"))
+      .maxTxPerHour(5)
+      .build();
   }
 }
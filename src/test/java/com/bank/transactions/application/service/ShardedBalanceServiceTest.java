@@ -0,0 +1,221 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.AccountShard;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.mongodb.MongoException;
+import com.mongodb.client.result.UpdateResult;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ShardedBalanceServiceTest {
+
+  private ReactiveMongoTemplate mongoTemplate;
+  private AccountRepository accountRepo;
+  private ShardedBalanceService service;
+  private Account account;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    accountRepo = mock(AccountRepository.class);
+    TransactionalOperator txOperator = mock(TransactionalOperator.class);
+    when(txOperator.transactional(any(Mono.class)))
+      .thenAnswer(invocation -> invocation.getArgument(0));
+    service = new ShardedBalanceService(mongoTemplate, txOperator, accountRepo);
+
+    account = Account.builder().id("acc-1").number("001-0001").currency("PEN")
+      .balance(BigDecimal.ZERO).shards(4).build();
+  }
+
+  @Test
+  void isSharded() {
+    assertTrue(ShardedBalanceService.isSharded(account));
+    account.setShards(null);
+    assertFalse(ShardedBalanceService.isSharded(account));
+  }
+
+  @Test
+  void credit_incrementsOneShard() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountShard.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+    StepVerifier.create(service.credit(account, BigDecimal.TEN))
+      .verifyComplete();
+
+    verify(mongoTemplate, times(1))
+      .updateFirst(any(Query.class), any(Update.class), eq(AccountShard.class));
+  }
+
+  @Test
+  void debit_takesFromFirstShardWithFunds() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(AccountShard.class)))
+      .thenReturn(Mono.empty(), Mono.just(new AccountShard()));
+
+    StepVerifier.create(service.debit(account, BigDecimal.TEN))
+      .expectNext(true)
+      .verifyComplete();
+
+    verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(AccountShard.class));
+    verify(mongoTemplate, never())
+      .findAndModify(any(Query.class), any(Update.class), eq(AccountShard.class));
+  }
+
+  @Test
+  void debit_rebalancesWhenNoShardHasEnough() {
+    // Ningún sub-saldo alcanza en el primer intento; tras el rebalanceo sí
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(AccountShard.class)))
+      .thenReturn(Mono.empty(), Mono.empty(), Mono.empty(), Mono.empty(),
+        Mono.just(new AccountShard()));
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(AccountShard.class)))
+      .thenReturn(Mono.just(AccountShard.builder().balance(new BigDecimal("6")).build()));
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountShard.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+    StepVerifier.create(service.debit(account, BigDecimal.TEN))
+      .expectNext(true)
+      .verifyComplete();
+
+    // Se barren los otros 3 sub-saldos y se concentran en el destino
+    verify(mongoTemplate, times(3))
+      .findAndModify(any(Query.class), any(Update.class), eq(AccountShard.class));
+    verify(mongoTemplate, times(1))
+      .updateFirst(any(Query.class), any(Update.class), eq(AccountShard.class));
+  }
+
+  @Test
+  void debit_insufficientFundsAfterRebalance() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(AccountShard.class)))
+      .thenReturn(Mono.empty());
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(AccountShard.class)))
+      .thenReturn(Mono.empty());
+
+    StepVerifier.create(service.debit(account, BigDecimal.TEN))
+      .expectNext(false)
+      .verifyComplete();
+  }
+
+  @Test
+  void totalBalance_sumsShards() {
+    when(mongoTemplate.find(any(Query.class), eq(AccountShard.class)))
+      .thenReturn(Flux.just(
+        AccountShard.builder().balance(new BigDecimal("10.50")).build(),
+        AccountShard.builder().balance(new BigDecimal("4.50")).build()));
+
+    StepVerifier.create(service.totalBalance("acc-1"))
+      .expectNextMatches(total -> new BigDecimal("15.00").compareTo(total) == 0)
+      .verifyComplete();
+  }
+
+  @Test
+  void enableSharding_alreadySharded() {
+    when(accountRepo.findByNumber("001-0001")).thenReturn(Mono.just(account));
+
+    StepVerifier.create(service.enableSharding("001-0001", 8))
+      .expectErrorMatches(e -> e instanceof BusinessException
+        && "account_already_sharded".equals(e.getMessage()))
+      .verify();
+  }
+
+  @Test
+  void enableSharding_invalidCount() {
+    StepVerifier.create(service.enableSharding("001-0001", 0))
+      .expectErrorMatches(e -> "invalid_shard_count".equals(e.getMessage()))
+      .verify();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void enableSharding_balanceChangedMeanwhile_retriesWithFreshBalance() {
+    Account stale = Account.builder().id("acc-1").number("001-0001")
+      .balance(new BigDecimal("100")).build();
+    Account fresh = Account.builder().id("acc-1").number("001-0001")
+      .balance(new BigDecimal("150")).build();
+    when(accountRepo.findByNumber("001-0001")).thenReturn(Mono.just(stale), Mono.just(fresh));
+    when(accountRepo.markSharded("acc-1", new BigDecimal("100"), 2)).thenReturn(Mono.just(false));
+    when(accountRepo.markSharded("acc-1", new BigDecimal("150"), 2)).thenReturn(Mono.just(true));
+    ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+    when(indexOps.ensureIndex(any(IndexDefinition.class))).thenReturn(Mono.just("idx"));
+    when(mongoTemplate.indexOps(AccountShard.class)).thenReturn(indexOps);
+    List<AccountShard> inserted = new ArrayList<>();
+    when(mongoTemplate.insertAll(any(Mono.class))).thenAnswer(invocation ->
+        ((Mono<List<AccountShard>>) invocation.getArgument(0)).flatMapMany(docs -> {
+          inserted.addAll(docs);
+          return Flux.fromIterable(docs);
+        }));
+
+    StepVerifier.create(service.enableSharding("001-0001", 2))
+      .expectNextMatches(acc -> acc.getShards() == 2)
+      .verifyComplete();
+
+    // Los sub-saldos se crean una sola vez, con el saldo vigente
+    assertEquals(2, inserted.size());
+    assertEquals(new BigDecimal("150"), inserted.get(0).getBalance());
+    verify(accountRepo, never()).save(any(Account.class));
+  }
+
+  @Test
+  void debit_rebalanceRetriesOnWriteConflict() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(AccountShard.class)))
+      .thenReturn(Mono.empty(), Mono.empty(), Mono.empty(), Mono.empty(),
+        Mono.just(new AccountShard()));
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(AccountShard.class)))
+      .thenReturn(Mono.error(new UncategorizedMongoDbException("conflict",
+          new MongoException(112, "WriteConflict"))))
+      .thenReturn(Mono.just(AccountShard.builder().balance(new BigDecimal("6")).build()));
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AccountShard.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+    StepVerifier.create(service.debit(account, BigDecimal.TEN))
+      .expectNext(true)
+      .verifyComplete();
+
+    // Primer intento: falla el primer barrido; segundo intento: los 3 sub-saldos
+    verify(mongoTemplate, times(4))
+      .findAndModify(any(Query.class), any(Update.class), eq(AccountShard.class));
+  }
+
+  @Test
+  void isTransient() {
+    MongoException labelled = new MongoException("aborted");
+    labelled.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+
+    assertTrue(ShardedBalanceService.isTransient(labelled));
+    assertTrue(ShardedBalanceService.isTransient(
+        new UncategorizedMongoDbException("x", new MongoException(112, "WriteConflict"))));
+    assertFalse(ShardedBalanceService.isTransient(new MongoException(11000, "duplicate")));
+    assertFalse(ShardedBalanceService.isTransient(new IllegalStateException()));
+  }
+}
@@ -0,0 +1,154 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.bank.transactions.domain.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class SseSubscriberGuardTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final Sinks.Many<Transaction> sink = Sinks.many().multicast().onBackpressureBuffer();
+
+  @Test
+  void evict_closesOnlyTheSlowSubscriber() {
+    SseSubscriberGuard guard = guard(3, "evict", Duration.ZERO);
+    List<ServerSentEvent<Transaction>> fast = new ArrayList<>();
+    guard.attach(sink.asFlux()).subscribe(fast::add);
+
+    StepVerifier.create(guard.attach(sink.asFlux()), 0)
+      .then(() -> emit(1, 2, 3, 4))
+      .expectNoEvent(Duration.ZERO)
+      .thenRequest(1)
+      .assertNext(event -> assertEquals("evicted", event.comment()))
+      .verifyComplete();
+
+    assertEquals(4, fast.size());
+    assertEquals(1.0, registry.get("bankx.sse.subscriber.evictions").counter().count());
+    assertEquals(1, guard.subscribers());
+  }
+
+  @Test
+  void downgrade_keepsNewestEventsAndReportsTheGap() {
+    SseSubscriberGuard guard = guard(2, "downgrade", Duration.ZERO);
+
+    StepVerifier.create(guard.attach(sink.asFlux()), 0)
+      .then(() -> emit(1, 2, 3, 4, 5))
+      .thenRequest(2)
+      .assertNext(event -> {
+        assertEquals("dropped 3", event.comment());
+        assertEquals("tx-4", event.data().getId());
+      })
+      .assertNext(event -> {
+        assertNull(event.comment());
+        assertEquals("transaction", event.event());
+        assertEquals("tx-5", event.data().getId());
+      })
+      .thenCancel()
+      .verify();
+
+    assertEquals(3.0, registry.get("bankx.sse.subscriber.dropped").counter().count());
+    assertEquals(0, guard.subscribers());
+  }
+
+  @Test
+  void heartbeat_sendsCommentsWhileIdle() {
+    SseSubscriberGuard guard = guard(10, "evict", Duration.ofSeconds(15));
+
+    StepVerifier.withVirtualTime(() -> guard.attach(Flux.never()))
+      .expectSubscription()
+      .expectNoEvent(Duration.ofSeconds(14))
+      .thenAwait(Duration.ofSeconds(1))
+      .assertNext(event -> assertEquals("heartbeat", event.comment()))
+      .thenAwait(Duration.ofSeconds(15))
+      .assertNext(event -> assertEquals("heartbeat", event.comment()))
+      .thenCancel()
+      .verify();
+
+    assertEquals(0, guard.subscribers());
+  }
+
+  @Test
+  void heartbeat_zeroOrNegativeDisablesComments() {
+    for (Duration heartbeat : List.of(Duration.ZERO, Duration.ofSeconds(-1))) {
+      SseSubscriberGuard guard = guard(10, "evict", heartbeat);
+
+      StepVerifier.withVirtualTime(() -> guard.attach(Flux.never()))
+        .expectSubscription()
+        .expectNoEvent(Duration.ofMinutes(5))
+        .thenCancel()
+        .verify();
+    }
+  }
+
+  @Test
+  void attach_completesWithoutControlCommentWhenSourceEnds() {
+    SseSubscriberGuard guard = guard(10, "evict", Duration.ZERO);
+
+    StepVerifier.create(guard.attach(Flux.just(Transaction.builder().id("tx-1").build())))
+      .assertNext(event -> assertEquals("tx-1", event.data().getId()))
+      .verifyComplete();
+
+    assertEquals(0, guard.subscribers());
+  }
+
+  @Test
+  void startSampling_recordsLagEveryIntervalUntilDestroyed() {
+    guard(10, "evict", Duration.ZERO).destroy();
+
+    VirtualTimeScheduler time = VirtualTimeScheduler.getOrSet();
+    try {
+      SseSubscriberGuard guard = guard(10, "evict", Duration.ZERO);
+      guard.startSampling();
+      StepVerifier.create(guard.attach(sink.asFlux()), 0)
+        .then(() -> emit(1))
+        .then(() -> time.advanceTimeBy(Duration.ofSeconds(2)))
+        .thenCancel()
+        .verify();
+      guard.destroy();
+      time.advanceTimeBy(Duration.ofSeconds(5));
+    } finally {
+      VirtualTimeScheduler.reset();
+    }
+
+    assertEquals(2, registry.get("bankx.sse.subscriber.lag").summary().count());
+    assertEquals(1.0, registry.get("bankx.sse.subscriber.lag").summary().max());
+  }
+
+  @Test
+  void sampleLag_recordsEventsWaitingPerSubscriber() {
+    SseSubscriberGuard guard = guard(10, "evict", Duration.ZERO);
+
+    StepVerifier.create(guard.attach(sink.asFlux()), 1)
+      .then(() -> emit(1, 2, 3))
+      .expectNextCount(1)
+      .then(() -> {
+        guard.sampleLag();
+        assertEquals(1.0, registry.get("bankx.sse.subscribers").gauge().value());
+      })
+      .thenCancel()
+      .verify();
+
+    assertEquals(2.0, registry.get("bankx.sse.subscriber.lag").summary().max());
+  }
+
+  private SseSubscriberGuard guard(int maxLag, String policy, Duration heartbeat) {
+    return new SseSubscriberGuard(registry, maxLag, policy, heartbeat, Duration.ofSeconds(1));
+  }
+
+  private void emit(int... ids) {
+    for (int id : ids) {
+      sink.tryEmitNext(Transaction.builder().id("tx-" + id).build());
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.TransactionRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class TransactionBatchWriterTest {
+
+  private ReactiveMongoTemplate mongoTemplate;
+  private TransactionRepository txRepo;
+  private SimpleMeterRegistry registry;
+  private List<Integer> batchSizes;
+  private List<Sinks.One<BulkWriteResult>> acks;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    txRepo = mock(TransactionRepository.class);
+    registry = new SimpleMeterRegistry();
+    batchSizes = new ArrayList<>();
+    acks = new ArrayList<>();
+
+    // Cada lote queda pendiente hasta que el test confirme su Sinks.One
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Transaction.class)).thenAnswer(inv -> {
+      ReactiveBulkOperations ops = mock(ReactiveBulkOperations.class);
+      when(ops.insert(anyList())).thenAnswer(insert -> {
+        batchSizes.add(((List<Object>) insert.getArgument(0)).size());
+        return ops;
+      });
+      Sinks.One<BulkWriteResult> ack = Sinks.one();
+      acks.add(ack);
+      when(ops.execute()).thenReturn(ack.asMono());
+      return ops;
+    });
+  }
+
+  private TransactionBatchWriter writer(boolean enabled, int maxSize, int maxInFlight) {
+    return new TransactionBatchWriter(mongoTemplate, txRepo, registry, enabled, maxSize,
+        maxInFlight);
+  }
+
+  private static Transaction tx() {
+    return Transaction.builder().accountNumber("001-0001").type("CREDIT")
+      .amount(BigDecimal.TEN).currency("PEN").status("COMPLETED").build();
+  }
+
+  private void ack(int batch) {
+    acks.get(batch).tryEmitValue(BulkWriteResult.unacknowledged());
+  }
+
+  @Test
+  void insert_idleFlushesImmediately() {
+    TransactionBatchWriter writer = writer(true, 256, 1);
+
+    StepVerifier.create(writer.insert(tx()))
+      .then(() -> ack(0))
+      .assertNext(saved -> assertNotNull(saved.getId()))
+      .verifyComplete();
+
+    assertEquals(List.of(1), batchSizes);
+    assertEquals(1, registry.get("bankx.tx.batch.flush").tag("outcome", "success")
+        .timer().count());
+  }
+
+  @Test
+  void insert_busyGroupsPendingIntoOneBatch() {
+    TransactionBatchWriter writer = writer(true, 256, 1);
+    List<Mono<Transaction>> results = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      results.add(writer.insert(tx()).cache());
+    }
+    results.forEach(Mono::subscribe);
+
+    // El primero salió solo; los otros 5 esperan al lote en curso
+    assertEquals(List.of(1), batchSizes);
+    ack(0);
+    assertEquals(List.of(1, 5), batchSizes);
+    ack(1);
+
+    results.forEach(result -> StepVerifier.create(result).expectNextCount(1).verifyComplete());
+    assertEquals(6.0, registry.get("bankx.tx.batch.size").summary().totalAmount());
+  }
+
+  @Test
+  void insert_respectsMaxSize() {
+    TransactionBatchWriter writer = writer(true, 2, 1);
+    for (int i = 0; i < 5; i++) {
+      writer.insert(tx()).subscribe();
+    }
+    ack(0);
+    ack(1);
+    ack(2);
+
+    assertEquals(List.of(1, 2, 2), batchSizes);
+  }
+
+  @Test
+  void insert_partialFailureOnlyFailsBadDocuments() {
+    TransactionBatchWriter writer = writer(true, 256, 1);
+    writer.insert(tx()).subscribe();
+    Mono<Transaction> ok = writer.insert(tx()).cache();
+    Mono<Transaction> duplicate = writer.insert(tx()).cache();
+    ok.subscribe(v -> { }, e -> { });
+    duplicate.subscribe(v -> { }, e -> { });
+    ack(0);
+
+    acks.get(1).tryEmitError(new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+        List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)),
+        null, new ServerAddress(), Set.of()));
+
+    StepVerifier.create(ok).expectNextCount(1).verifyComplete();
+    StepVerifier.create(duplicate).expectError(MongoBulkWriteException.class).verify();
+  }
+
+  @Test
+  void insert_disabledUsesRepository() {
+    Transaction tx = tx();
+    when(txRepo.save(any(Transaction.class))).thenReturn(Mono.just(tx));
+
+    StepVerifier.create(writer(false, 256, 1).insert(tx))
+      .expectNext(tx)
+      .verifyComplete();
+
+    verify(txRepo).save(tx);
+    verify(mongoTemplate, never()).bulkOps(eq(BulkMode.UNORDERED), eq(Transaction.class));
+  }
+}
@@ -0,0 +1,42 @@
+package com.bank.transactions.application.service;
+
+import com.bank.transactions.domain.model.Transaction;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class TransactionEventPublisherTest {
+
+  private final Sinks.Many<Transaction> sink = Sinks.many().replay().all();
+
+  @Test
+  void publish_local_emitsOnTheNodeSink() {
+    new TransactionEventPublisher(sink, "local").publish(tx());
+    sink.tryEmitComplete();
+
+    StepVerifier.create(sink.asFlux())
+      .expectNextMatches(tx -> "tx-1".equals(tx.getId()))
+      .verifyComplete();
+  }
+
+  @Test
+  void publish_changeStream_leavesEmissionToTheChangeStream() {
+    new TransactionEventPublisher(sink, "CHANGE-STREAM").publish(tx());
+    sink.tryEmitComplete();
+
+    StepVerifier.create(sink.asFlux()).verifyComplete();
+  }
+
+  @Test
+  void publish_local_toleratesATerminatedSink() {
+    sink.tryEmitComplete();
+
+    new TransactionEventPublisher(sink, "local").publish(tx());
+
+    StepVerifier.create(sink.asFlux()).verifyComplete();
+  }
+
+  private static Transaction tx() {
+    return Transaction.builder().id("tx-1").build();
+  }
+}
@@ -13,6 +13,8 @@ import java.math.BigDecimal;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
@@ -21,6 +23,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 @WebFluxTest(TransactionService.class)
+@ImportAutoConfiguration(ObservationAutoConfiguration.class)
 @Import({LogContext.class, SinksConfig.class}) // Importar configuraciones necesarias
 class TransactionServiceCoverageTest {
 
@@ -36,6 +39,21 @@ class TransactionServiceCoverageTest {
   @MockBean
   private RiskRemoteClient riskRemoteClient;
 
+  @MockBean
+  private ShardedBalanceService shardedBalances;
+
+  @MockBean
+  private TransactionBatchWriter txWriter;
+
+  @MockBean
+  private RiskService riskService;
+
+  @MockBean
+  private SseSubscriberGuard sseSubscribers;
+
+  @MockBean
+  private TransactionEventPublisher events;
+
   @MockBean
   private LogContext logContext;
 
@@ -1,6 +1,9 @@
 package com.bank.transactions.application.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,7 +19,10 @@ import java.time.Instant;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
@@ -25,6 +31,7 @@ import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 @WebFluxTest(TransactionService.class)
+@ImportAutoConfiguration(ObservationAutoConfiguration.class)
 @Import({LogContext.class, SinksConfig.class}) // Importar configuraciones necesarias
 class TransactionServiceCreateTest {
 
@@ -40,12 +47,27 @@ class TransactionServiceCreateTest {
   @MockBean
   private RiskRemoteClient riskRemoteClient;
 
+  @MockBean
+  private ShardedBalanceService shardedBalances;
+
+  @MockBean
+  private TransactionBatchWriter txWriter;
+
+  @MockBean
+  private RiskService riskService;
+
+  @MockBean
+  private SseSubscriberGuard sseSubscribers;
+
   @MockBean
   private LogContext logContext;
 
   @MockBean
   private Sinks.Many<Transaction> txSink;
 
+  @MockBean
+  private TransactionEventPublisher events;
+
   private Account testAccount;
   private CreateTxRequest validRequest;
 
@@ -65,7 +87,9 @@ class TransactionServiceCreateTest {
 
     when(logContext.withMdc(any(Mono.class)))
       .thenAnswer(invocation -> invocation.getArgument(0));
-    when(txSink.tryEmitNext(any(Transaction.class))).thenReturn(Sinks.EmitResult.OK);
+    when(riskService.reserveVelocity(any(), any(), any(), any(), any()))
+      .thenReturn(Mono.just(true));
+    when(riskService.releaseVelocity(any(), any(), any(), any())).thenReturn(Mono.empty());
   }
 
   @Test
@@ -73,18 +97,11 @@ class TransactionServiceCreateTest {
     // Configurar mocks - usando los nombres correctos que coinciden con el servicio
     when(accountRepo.findByNumber("001-0001"))
       .thenReturn(Mono.just(testAccount));
-    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100")))
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
       .thenReturn(Mono.just(true));
 
-    // Mock para la cuenta actualizada después del débito
-    Account updatedAccount = new Account();
-    updatedAccount.setId(testAccount.getId());
-    updatedAccount.setNumber(testAccount.getNumber());
-    updatedAccount.setBalance(new BigDecimal("900")); // 1000 - 100
-    updatedAccount.setCurrency(testAccount.getCurrency());
-
-    when(accountRepo.save(any(Account.class)))
-      .thenReturn(Mono.just(updatedAccount));
+    when(accountRepo.compareAndSetBalance(eq(testAccount.getId()), any(), any()))
+      .thenReturn(Mono.just(true));
 
     Transaction savedTransaction = Transaction.builder()
       .id(UUID.randomUUID().toString())
@@ -97,7 +114,7 @@ class TransactionServiceCreateTest {
       .status("COMPLETED")
       .build();
 
-    when(txRepo.save(any(Transaction.class)))
+    when(txWriter.insert(any(Transaction.class)))
       .thenReturn(Mono.just(savedTransaction));
 
     // Ejecutar test
@@ -110,10 +127,14 @@ class TransactionServiceCreateTest {
 
     // Verificar interacciones - usando los nombres correctos
     verify(accountRepo).findByNumber("001-0001");
-    verify(riskRemoteClient).isAllowed("USD", "DEBIT", new BigDecimal("100"));
-    verify(accountRepo).save(any(Account.class));
-    verify(txRepo).save(any(Transaction.class));
-    verify(txSink).tryEmitNext(any(Transaction.class));
+    verify(riskRemoteClient).isAllowed("USD", "DEBIT", new BigDecimal("100"), null);
+    verify(accountRepo).compareAndSetBalance(testAccount.getId(), new BigDecimal("1000"),
+        new BigDecimal("900"));
+    verify(txWriter).insert(any(Transaction.class));
+    verify(riskService).reserveVelocity(eq(testAccount.getId()), eq("USD"), eq("DEBIT"),
+        eq(new BigDecimal("100")), any(Instant.class));
+    verify(riskService, never()).releaseVelocity(any(), any(), any(), any());
+    verify(events).publish(any(Transaction.class));
   }
 
   @Test
@@ -126,18 +147,11 @@ class TransactionServiceCreateTest {
 
     when(accountRepo.findByNumber("001-0001"))
       .thenReturn(Mono.just(testAccount));
-    when(riskRemoteClient.isAllowed("USD", "CREDIT", new BigDecimal("200")))
+    when(riskRemoteClient.isAllowed("USD", "CREDIT", new BigDecimal("200"), null))
       .thenReturn(Mono.just(true));
 
-    // Mock para la cuenta actualizada después del crédito
-    Account updatedAccount = new Account();
-    updatedAccount.setId(testAccount.getId());
-    updatedAccount.setNumber(testAccount.getNumber());
-    updatedAccount.setBalance(new BigDecimal("1200")); // 1000 + 200
-    updatedAccount.setCurrency(testAccount.getCurrency());
-
-    when(accountRepo.save(any(Account.class)))
-      .thenReturn(Mono.just(updatedAccount));
+    when(accountRepo.compareAndSetBalance(eq(testAccount.getId()), any(), any()))
+      .thenReturn(Mono.just(true));
 
     Transaction savedTransaction = Transaction.builder()
       .id(UUID.randomUUID().toString())
@@ -150,7 +164,7 @@ class TransactionServiceCreateTest {
       .status("COMPLETED")
       .build();
 
-    when(txRepo.save(any(Transaction.class)))
+    when(txWriter.insert(any(Transaction.class)))
       .thenReturn(Mono.just(savedTransaction));
 
     StepVerifier.create(transactionService.create(creditRequest))
@@ -192,7 +206,7 @@ class TransactionServiceCreateTest {
   void create_riskRejected() {
     when(accountRepo.findByNumber("001-0001"))
       .thenReturn(Mono.just(testAccount));
-    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100")))
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
       .thenReturn(Mono.just(false));
 
     StepVerifier.create(transactionService.create(validRequest))
@@ -202,6 +216,46 @@ class TransactionServiceCreateTest {
       .verify();
   }
 
+  @Test
+  void create_velocityLimitExceeded() {
+    when(accountRepo.findByNumber("001-0001"))
+      .thenReturn(Mono.just(testAccount));
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(true));
+    when(riskService.reserveVelocity(eq(testAccount.getId()), eq("USD"), eq("DEBIT"),
+        eq(new BigDecimal("100")), any(Instant.class)))
+      .thenReturn(Mono.just(false));
+
+    StepVerifier.create(transactionService.create(validRequest))
+      .expectErrorMatches(throwable ->
+        throwable instanceof BusinessException &&
+          "velocity_limit_exceeded".equals(throwable.getMessage()))
+      .verify();
+    verify(accountRepo, never()).compareAndSetBalance(any(), any(), any());
+    verify(riskService, never()).releaseVelocity(any(), any(), any(), any());
+  }
+
+  @Test
+  void create_insertFails_releasesVelocityReservation() {
+    when(accountRepo.findByNumber("001-0001"))
+      .thenReturn(Mono.just(testAccount));
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(true));
+    when(accountRepo.compareAndSetBalance(eq(testAccount.getId()), any(), any()))
+      .thenReturn(Mono.just(true));
+    when(txWriter.insert(any(Transaction.class)))
+      .thenReturn(Mono.error(new RuntimeException("insert failed")));
+
+    StepVerifier.create(transactionService.create(validRequest))
+      .expectErrorMessage("insert failed")
+      .verify();
+    ArgumentCaptor<Instant> reservedAt = ArgumentCaptor.forClass(Instant.class);
+    verify(riskService).reserveVelocity(eq(testAccount.getId()), eq("USD"), eq("DEBIT"),
+        eq(new BigDecimal("100")), reservedAt.capture());
+    verify(riskService).releaseVelocity(testAccount.getId(), "DEBIT", new BigDecimal("100"),
+        reservedAt.getValue());
+  }
+
   @Test
   void create_insufficientFunds() {
     CreateTxRequest largeDebitRequest = new CreateTxRequest();
@@ -212,7 +266,7 @@ class TransactionServiceCreateTest {
 
     when(accountRepo.findByNumber("001-0001"))
       .thenReturn(Mono.just(testAccount));
-    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("2000")))
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("2000"), null))
       .thenReturn(Mono.just(true));
 
     StepVerifier.create(transactionService.create(largeDebitRequest))
@@ -221,4 +275,100 @@ class TransactionServiceCreateTest {
           "insufficient_funds".equals(throwable.getMessage()))
       .verify();
   }
-}
\ No newline at end of file
+
+  @Test
+  void create_shardedDebitSkipsAccountSave() {
+    testAccount.setShards(4);
+    when(accountRepo.findByNumber("001-0001"))
+      .thenReturn(Mono.just(testAccount));
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(true));
+    when(shardedBalances.debit(testAccount, new BigDecimal("100")))
+      .thenReturn(Mono.just(true));
+    when(txWriter.insert(any(Transaction.class)))
+      .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+    StepVerifier.create(transactionService.create(validRequest))
+      .expectNextMatches(tx -> "DEBIT".equals(tx.getType())
+        && "COMPLETED".equals(tx.getStatus()))
+      .verifyComplete();
+
+    verify(accountRepo, never()).compareAndSetBalance(any(), any(), any());
+  }
+
+  @Test
+  void create_shardedDebitInsufficientFunds() {
+    testAccount.setShards(4);
+    when(accountRepo.findByNumber("001-0001"))
+      .thenReturn(Mono.just(testAccount));
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(true));
+    when(shardedBalances.debit(testAccount, new BigDecimal("100")))
+      .thenReturn(Mono.just(false));
+
+    StepVerifier.create(transactionService.create(validRequest))
+      .expectErrorMatches(throwable ->
+        throwable instanceof BusinessException &&
+          "insufficient_funds".equals(throwable.getMessage()))
+      .verify();
+  }
+
+  @Test
+  void create_accountShardedMeanwhile_debitsTheShards() {
+    // La cuenta se leyó sin fraccionar, pero se fraccionó antes de escribir el saldo
+    Account sharded = Account.builder().id(testAccount.getId()).number("001-0001")
+      .currency("USD").balance(new BigDecimal("1000")).shards(4).build();
+    when(accountRepo.findByNumber("001-0001"))
+      .thenReturn(Mono.just(testAccount));
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(true));
+    when(accountRepo.compareAndSetBalance(eq(testAccount.getId()), any(), any()))
+      .thenReturn(Mono.just(false));
+    when(accountRepo.findById(testAccount.getId())).thenReturn(Mono.just(sharded));
+    when(shardedBalances.debit(sharded, new BigDecimal("100")))
+      .thenReturn(Mono.just(true));
+    when(txWriter.insert(any(Transaction.class)))
+      .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+    StepVerifier.create(transactionService.create(validRequest))
+      .expectNextMatches(tx -> "DEBIT".equals(tx.getType()))
+      .verifyComplete();
+
+    verify(accountRepo, times(1)).compareAndSetBalance(any(), any(), any());
+    verify(accountRepo, never()).save(any(Account.class));
+  }
+
+  @Test
+  void create_balanceChangedMeanwhile_revalidatesFunds() {
+    Account drained = Account.builder().id(testAccount.getId()).number("001-0001")
+      .currency("USD").balance(new BigDecimal("50")).build();
+    when(accountRepo.findByNumber("001-0001"))
+      .thenReturn(Mono.just(testAccount));
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(true));
+    when(accountRepo.compareAndSetBalance(eq(testAccount.getId()), any(), any()))
+      .thenReturn(Mono.just(false));
+    when(accountRepo.findById(testAccount.getId())).thenReturn(Mono.just(drained));
+
+    StepVerifier.create(transactionService.create(validRequest))
+      .expectErrorMatches(throwable -> "insufficient_funds".equals(throwable.getMessage()))
+      .verify();
+    verify(txWriter, never()).insert(any(Transaction.class));
+  }
+
+  @Test
+  void create_balanceKeepsChanging_failsWithConcurrentUpdate() {
+    when(accountRepo.findByNumber("001-0001"))
+      .thenReturn(Mono.just(testAccount));
+    when(riskRemoteClient.isAllowed("USD", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(true));
+    when(accountRepo.compareAndSetBalance(eq(testAccount.getId()), any(), any()))
+      .thenReturn(Mono.just(false));
+    when(accountRepo.findById(testAccount.getId())).thenReturn(Mono.just(testAccount));
+
+    StepVerifier.create(transactionService.create(validRequest))
+      .expectErrorMatches(throwable -> "concurrent_update".equals(throwable.getMessage()))
+      .verify();
+    verify(accountRepo, times(3)).compareAndSetBalance(any(), any(), any());
+  }
+}
@@ -0,0 +1,191 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.application.dto.TransferRequest;
+import com.bank.transactions.config.LogContext;
+import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class TransferServiceTest {
+
+  private AccountRepository accountRepo;
+  private ReactiveMongoTemplate mongoTemplate;
+  private ReactiveBulkOperations bulkOps;
+  private BulkWriteResult bulkResult;
+  private RiskRemoteClient riskRemoteClient;
+  private RiskService riskService;
+  private TransferService transferService;
+
+  private Account source;
+  private Account target;
+  private TransferRequest request;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    accountRepo = mock(AccountRepository.class);
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    bulkOps = mock(ReactiveBulkOperations.class);
+    bulkResult = mock(BulkWriteResult.class);
+    riskRemoteClient = mock(RiskRemoteClient.class);
+    TransactionalOperator txOperator = mock(TransactionalOperator.class);
+    when(txOperator.transactional(any(Mono.class)))
+      .thenAnswer(invocation -> invocation.getArgument(0));
+
+    riskService = mock(RiskService.class);
+    when(riskService.reserveVelocity(anyString(), anyString(), anyString(),
+        any(BigDecimal.class), any(Instant.class))).thenReturn(Mono.just(true));
+    when(riskService.releaseVelocity(anyString(), anyString(), any(BigDecimal.class),
+        any(Instant.class))).thenReturn(Mono.empty());
+
+    transferService = new TransferService(accountRepo, mongoTemplate, txOperator,
+        riskRemoteClient, new LogContext(),
+        new TransactionEventPublisher(Sinks.many().multicast().onBackpressureBuffer(), "local"),
+        riskService);
+
+    // La cuenta destino tiene número menor: debe escribirse primero
+    source = Account.builder().id("id-b").number("001-0002").currency("PEN")
+      .balance(new BigDecimal("800")).build();
+    target = Account.builder().id("id-a").number("001-0001").currency("PEN")
+      .balance(new BigDecimal("2000")).build();
+
+    request = new TransferRequest();
+    request.setFromAccount("001-0002");
+    request.setToAccount("001-0001");
+    request.setAmount(new BigDecimal("100"));
+    request.setCurrency("PEN");
+
+    when(accountRepo.findByNumber("001-0002")).thenReturn(Mono.just(source));
+    when(accountRepo.findByNumber("001-0001")).thenReturn(Mono.just(target));
+    when(riskRemoteClient.isAllowed("PEN", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(true));
+    when(mongoTemplate.bulkOps(BulkMode.ORDERED, Account.class)).thenReturn(bulkOps);
+    when(bulkOps.updateOne(any(Query.class), any(Update.class))).thenReturn(bulkOps);
+    when(bulkOps.execute()).thenReturn(Mono.just(bulkResult));
+    when(mongoTemplate.insertAll(anyList()))
+      .thenAnswer(invocation -> Flux.fromIterable(invocation.<List<Transaction>>getArgument(0)));
+  }
+
+  @Test
+  void transfer_writesBothLegsInAccountOrderWithOneRiskCall() {
+    when(bulkResult.getMatchedCount()).thenReturn(2);
+
+    StepVerifier.create(transferService.transfer(request))
+      .expectNextMatches(result ->
+        "DEBIT".equals(result.getDebit().getType())
+          && "001-0002".equals(result.getDebit().getAccountNumber())
+          && "CREDIT".equals(result.getCredit().getType())
+          && "001-0001".equals(result.getCredit().getAccountNumber()))
+      .verifyComplete();
+
+    ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+    InOrder order = inOrder(bulkOps);
+    order.verify(bulkOps, times(2)).updateOne(queries.capture(), any(Update.class));
+    order.verify(bulkOps).execute();
+    assertEquals("id-a", queries.getAllValues().get(0).getQueryObject().get("_id"));
+    assertEquals("id-b", queries.getAllValues().get(1).getQueryObject().get("_id"));
+
+    verify(riskRemoteClient, times(1)).isAllowed(any(), any(), any(), any());
+    verify(mongoTemplate, times(1)).insertAll(anyList());
+    verify(riskService).reserveVelocity(eq("id-b"), eq("PEN"), eq("DEBIT"),
+        eq(new BigDecimal("100")), any(Instant.class));
+    verify(riskService, never()).releaseVelocity(any(), any(), any(), any());
+  }
+
+  @Test
+  void transfer_concurrentUpdate_failsWithoutInsertingTransactions() {
+    when(bulkResult.getMatchedCount()).thenReturn(1);
+
+    StepVerifier.create(transferService.transfer(request))
+      .expectErrorMatches(e -> e instanceof BusinessException
+        && "concurrent_update".equals(e.getMessage()))
+      .verify();
+    verify(riskService).releaseVelocity(eq("id-b"), eq("DEBIT"), eq(new BigDecimal("100")),
+        any(Instant.class));
+  }
+
+  @Test
+  void transfer_insufficientFunds() {
+    request.setAmount(new BigDecimal("900"));
+    when(riskRemoteClient.isAllowed("PEN", "DEBIT", new BigDecimal("900"), null))
+      .thenReturn(Mono.just(true));
+
+    StepVerifier.create(transferService.transfer(request))
+      .expectErrorMatches(e -> "insufficient_funds".equals(e.getMessage()))
+      .verify();
+    verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), any(Class.class));
+    verify(riskService, never()).reserveVelocity(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void transfer_riskRejected() {
+    when(riskRemoteClient.isAllowed("PEN", "DEBIT", new BigDecimal("100"), null))
+      .thenReturn(Mono.just(false));
+
+    StepVerifier.create(transferService.transfer(request))
+      .expectErrorMatches(e -> "risk_rejected".equals(e.getMessage()))
+      .verify();
+  }
+
+  @Test
+  void transfer_velocityLimitExceeded() {
+    when(riskService.reserveVelocity(eq("id-b"), eq("PEN"), eq("DEBIT"),
+        eq(new BigDecimal("100")), any(Instant.class)))
+      .thenReturn(Mono.just(false));
+
+    StepVerifier.create(transferService.transfer(request))
+      .expectErrorMatches(e -> "velocity_limit_exceeded".equals(e.getMessage()))
+      .verify();
+    verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), any(Class.class));
+    verify(riskService, never()).releaseVelocity(any(), any(), any(), any());
+  }
+
+  @Test
+  void transfer_sameAccount() {
+    request.setToAccount("001-0002");
+
+    StepVerifier.create(transferService.transfer(request))
+      .expectErrorMatches(e -> "same_account".equals(e.getMessage()))
+      .verify();
+  }
+
+  @Test
+  void transfer_currencyMismatch() {
+    target.setCurrency("USD");
+
+    StepVerifier.create(transferService.transfer(request))
+      .expectErrorMatches(e -> "currency_mismatch".equals(e.getMessage()))
+      .verify();
+  }
+}
@@ -0,0 +1,273 @@
+package com.bank.transactions.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.VelocityWindow;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class VelocityAggregatesTest {
+
+  private static final Instant NOW = Instant.parse("2024-03-15T10:42:00Z");
+
+  private ReactiveMongoTemplate mongoTemplate;
+  private VelocityAggregates velocity;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    velocity = new VelocityAggregates(mongoTemplate);
+  }
+
+  @Test
+  void windowIds_areUtcDayAndHour() {
+    assertEquals("acc-1:D:20240315", VelocityAggregates.dayId("acc-1", NOW));
+    assertEquals("acc-1:H:2024031510", VelocityAggregates.hourId("acc-1", NOW));
+  }
+
+  @Test
+  void current_readsBothWindowsById() {
+    VelocityWindow day = VelocityWindow.builder().id("acc-1:D:20240315")
+      .debitSum(new BigDecimal("750.50")).debitCount(6).build();
+    VelocityWindow hour = VelocityWindow.builder().id("acc-1:H:2024031510")
+      .debitSum(new BigDecimal("100")).debitCount(2).build();
+    when(mongoTemplate.find(any(Query.class), eq(VelocityWindow.class)))
+      .thenReturn(Flux.just(day, hour));
+
+    StepVerifier.create(velocity.current("acc-1", NOW))
+      .expectNext(new VelocityAggregates.Snapshot(new BigDecimal("750.50"), 2))
+      .verifyComplete();
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).find(query.capture(), eq(VelocityWindow.class));
+    Document id = query.getValue().getQueryObject().get("_id", Document.class);
+    assertEquals(List.of("acc-1:D:20240315", "acc-1:H:2024031510"), id.get("$in"));
+  }
+
+  @Test
+  void current_withoutWindows_isZero() {
+    when(mongoTemplate.find(any(Query.class), eq(VelocityWindow.class)))
+      .thenReturn(Flux.empty());
+
+    StepVerifier.create(velocity.current("acc-1", NOW))
+      .expectNext(new VelocityAggregates.Snapshot(BigDecimal.ZERO, 0))
+      .verifyComplete();
+  }
+
+  @Test
+  void reserve_incrementsHourAndDayWithConditionalUpserts() {
+    Windows windows = new Windows();
+
+    StepVerifier.create(velocity.reserve("acc-1", new BigDecimal("100"), NOW,
+        new BigDecimal("3000"), 5))
+      .expectNext(true)
+      .verifyComplete();
+
+    ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate, times(2))
+      .upsert(queries.capture(), updates.capture(), eq(VelocityWindow.class));
+    Document hour = queries.getAllValues().get(0).getQueryObject();
+    assertEquals("acc-1:H:2024031510", hour.get("_id"));
+    assertEquals(new Document("$lt", 5L), hour.get("debitCount"));
+    Document day = queries.getAllValues().get(1).getQueryObject();
+    assertEquals("acc-1:D:20240315", day.get("_id"));
+    assertEquals(new Document("$lte", new Decimal128(new BigDecimal("2900"))),
+        day.get("debitSum"));
+
+    Document inc = updates.getValue().getUpdateObject().get("$inc", Document.class);
+    assertEquals(new Decimal128(new BigDecimal("100")), inc.get("debitSum"));
+    assertEquals(1L, inc.get("debitCount"));
+    Document hourInsert = updates.getAllValues().get(0).getUpdateObject()
+        .get("$setOnInsert", Document.class);
+    assertEquals(Instant.parse("2024-03-15T12:00:00Z"), hourInsert.get("expiresAt"));
+    Document dayInsert = updates.getValue().getUpdateObject().get("$setOnInsert", Document.class);
+    assertEquals(Instant.parse("2024-03-16T01:00:00Z"), dayInsert.get("expiresAt"));
+    assertEquals(1L, windows.count("acc-1:D:20240315"));
+  }
+
+  @Test
+  void reserve_hourlyCountReached_rejectsWithoutTouchingTheDay() {
+    Windows windows = new Windows();
+    windows.put("acc-1:H:2024031510", BigDecimal.ZERO, 5);
+
+    StepVerifier.create(velocity.reserve("acc-1", BigDecimal.ONE, NOW, null, 5))
+      .expectNext(false)
+      .verifyComplete();
+    assertEquals(5L, windows.count("acc-1:H:2024031510"));
+    assertEquals(0L, windows.count("acc-1:D:20240315"));
+  }
+
+  @Test
+  void reserve_dailySumExceeded_releasesTheHour() {
+    Windows windows = new Windows();
+    windows.put("acc-1:D:20240315", new BigDecimal("2500"), 3);
+
+    StepVerifier.create(velocity.reserve("acc-1", new BigDecimal("500.01"), NOW,
+        new BigDecimal("3000"), 5))
+      .expectNext(false)
+      .verifyComplete();
+    assertEquals(0L, windows.count("acc-1:H:2024031510"));
+    assertEquals(0, BigDecimal.ZERO.compareTo(windows.sum("acc-1:H:2024031510")));
+    assertEquals(new BigDecimal("2500"), windows.sum("acc-1:D:20240315"));
+  }
+
+  @Test
+  void reserve_amountAboveDailyLimit_rejectsWithoutWriting() {
+    StepVerifier.create(velocity.reserve("acc-1", new BigDecimal("3000.01"), NOW,
+        new BigDecimal("3000"), null))
+      .expectNext(false)
+      .verifyComplete();
+    verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class),
+        eq(VelocityWindow.class));
+  }
+
+  @Test
+  void reserve_duplicateKeyFromConcurrentInsert_isRetried() {
+    when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(VelocityWindow.class)))
+      .thenReturn(Mono.error(new DuplicateKeyException("E11000")))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+    StepVerifier.create(velocity.reserve("acc-1", BigDecimal.TEN, NOW, null, 5))
+      .expectNext(true)
+      .verifyComplete();
+    verify(mongoTemplate, times(3)).upsert(any(Query.class), any(Update.class),
+        eq(VelocityWindow.class));
+  }
+
+  @Test
+  void reserve_concurrentDebitsAtTheLimit_onlyMaxTxSucceed() {
+    Windows windows = new Windows();
+    int maxTx = 5;
+
+    List<Boolean> results = Flux.range(0, 64)
+      .flatMap(i -> velocity.reserve("acc-1", BigDecimal.TEN, NOW, new BigDecimal("1000"), maxTx)
+        .subscribeOn(Schedulers.parallel()))
+      .collectList()
+      .block(Duration.ofSeconds(10));
+
+    assertEquals(maxTx, results.stream().filter(Boolean::booleanValue).count());
+    assertEquals(maxTx, windows.count("acc-1:H:2024031510"));
+    assertEquals(maxTx, windows.count("acc-1:D:20240315"));
+    assertEquals(0, new BigDecimal("50").compareTo(windows.sum("acc-1:D:20240315")));
+  }
+
+  @Test
+  void release_decrementsBothWindows() {
+    ReactiveBulkOperations ops = mock(ReactiveBulkOperations.class);
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, VelocityWindow.class)).thenReturn(ops);
+    when(ops.updateOne(any(Query.class), any(Update.class))).thenReturn(ops);
+    when(ops.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+
+    StepVerifier.create(velocity.release("acc-1", new BigDecimal("100"), NOW))
+      .verifyComplete();
+
+    ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+    verify(ops, times(2)).updateOne(queries.capture(), updates.capture());
+    assertEquals("acc-1:D:20240315", queries.getAllValues().get(0).getQueryObject().get("_id"));
+    assertEquals("acc-1:H:2024031510",
+        queries.getAllValues().get(1).getQueryObject().get("_id"));
+    Document inc = updates.getValue().getUpdateObject().get("$inc", Document.class);
+    assertEquals(new Decimal128(new BigDecimal("-100")), inc.get("debitSum"));
+    assertEquals(-1L, inc.get("debitCount"));
+  }
+
+  /**
+   * Ventanas en memoria que aplican cada upsert de forma atómica, como Mongo sobre un
+   * documento: si el filtro no coincide con un {@code _id} existente, clave duplicada.
+   */
+  private final class Windows {
+
+    private final Map<String, Object[]> docs = new HashMap<>();
+
+    Windows() {
+      when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(VelocityWindow.class)))
+        .thenAnswer(invocation -> Mono.fromCallable(() -> upsert(
+            invocation.<Query>getArgument(0).getQueryObject(),
+            invocation.<Update>getArgument(1).getUpdateObject())));
+      when(mongoTemplate.updateFirst(any(Query.class), any(Update.class),
+          eq(VelocityWindow.class)))
+        .thenAnswer(invocation -> Mono.fromCallable(() -> update(
+            invocation.<Query>getArgument(0).getQueryObject(),
+            invocation.<Update>getArgument(1).getUpdateObject())));
+    }
+
+    synchronized void put(String id, BigDecimal sum, long count) {
+      docs.put(id, new Object[] {sum, count});
+    }
+
+    synchronized long count(String id) {
+      return docs.containsKey(id) ? (long) docs.get(id)[1] : 0L;
+    }
+
+    synchronized BigDecimal sum(String id) {
+      return docs.containsKey(id) ? (BigDecimal) docs.get(id)[0] : BigDecimal.ZERO;
+    }
+
+    private synchronized UpdateResult upsert(Document query, Document update) {
+      String id = query.getString("_id");
+      Object[] doc = docs.get(id);
+      if (doc == null) {
+        docs.put(id, new Object[] {BigDecimal.ZERO, 0L});
+        apply(docs.get(id), update);
+        return UpdateResult.acknowledged(0, 0L, null);
+      }
+      if (!matches(doc, query)) {
+        throw new DuplicateKeyException("E11000 duplicate key: " + id);
+      }
+      apply(doc, update);
+      return UpdateResult.acknowledged(1, 1L, null);
+    }
+
+    private synchronized UpdateResult update(Document query, Document update) {
+      Object[] doc = docs.get(query.getString("_id"));
+      if (doc != null) {
+        apply(doc, update);
+      }
+      return UpdateResult.acknowledged(doc != null ? 1 : 0, doc != null ? 1L : 0L, null);
+    }
+
+    private static boolean matches(Object[] doc, Document query) {
+      Document count = query.get("debitCount", Document.class);
+      Document sum = query.get("debitSum", Document.class);
+      return (count == null || (long) doc[1] < (long) count.get("$lt"))
+          && (sum == null || ((BigDecimal) doc[0])
+            .compareTo(((Decimal128) sum.get("$lte")).bigDecimalValue()) <= 0);
+    }
+
+    private static void apply(Object[] doc, Document update) {
+      Document inc = update.get("$inc", Document.class);
+      doc[0] = ((BigDecimal) doc[0]).add(((Decimal128) inc.get("debitSum")).bigDecimalValue());
+      doc[1] = (long) doc[1] + (long) inc.get("debitCount");
+    }
+  }
+}
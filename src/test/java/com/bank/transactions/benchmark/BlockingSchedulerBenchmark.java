@@ -0,0 +1,116 @@
+package com.bank.transactions.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.bank.transactions.application.service.RiskRuleEngine;
+import com.bank.transactions.config.SchedulerConfig;
+import com.bank.transactions.domain.model.RiskRule;
+import com.bank.transactions.domain.repository.RiskRuleRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Compara {@code boundedElastic} contra hilos virtuales en una sección bloqueante real: la
+ * lectura JPA de las reglas de riesgo ({@link RiskRuleEngine#reload}), lanzada muchas veces a
+ * la vez.
+ *
+ * <p>La consulta JPA se simula con una espera fija ({@code bench.jpaLatencyMs}) para aislar
+ * el efecto del scheduler; en la aplicación real el pool de conexiones de Hikari sigue
+ * limitando cuántas consultas a H2 corren a la vez.</p>
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java \
+ *   -Dexec.mainClass=com.bank.transactions.benchmark.BlockingSchedulerBenchmark \
+ *   -Dbench.requests=50000 -Dbench.concurrency=5000
+ * </pre>
+ */
+public final class BlockingSchedulerBenchmark {
+
+  private BlockingSchedulerBenchmark() {
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code bench.*}
+   */
+  public static void main(String[] args) {
+    int requests = Integer.getInteger("bench.requests", 20_000);
+    int concurrency = Integer.getInteger("bench.concurrency", 2_000);
+    long jpaLatencyMs = Long.getLong("bench.jpaLatencyMs", 5);
+
+    System.out.printf("Blocking JPA reads: %d requests, %d in flight, %d ms per JPA call%n",
+        requests, concurrency, jpaLatencyMs);
+    System.out.println("scheduler        throughput_rps  p50_ms   p99_ms   p99_9_ms  max_ms");
+
+    // Calentamiento de JIT con ambas variantes antes de medir
+    run("warmup", SchedulerConfig.virtualThreads(), requests / 10, concurrency, jpaLatencyMs);
+    run("warmup", Schedulers.newBoundedElastic(
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "bench-warmup"),
+        requests / 10, concurrency, jpaLatencyMs);
+
+    print("bounded-elastic", run("bounded-elastic", Schedulers.newBoundedElastic(
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "bench-be"),
+        requests, concurrency, jpaLatencyMs));
+    print("virtual", run("virtual", SchedulerConfig.virtualThreads(),
+        requests, concurrency, jpaLatencyMs));
+    System.exit(0);
+  }
+
+  private static Result run(String name, Scheduler scheduler, int requests, int concurrency,
+                            long jpaLatencyMs) {
+    RiskRuleRepository repo = mock(RiskRuleRepository.class, withSettings().stubOnly());
+    List<RiskRule> rules = List.of(
+        RiskRule.builder().currency("USD").maxDebitPerTx(new BigDecimal("500")).build());
+    when(repo.findAll()).thenAnswer(invocation -> {
+      Thread.sleep(jpaLatencyMs);
+      return rules;
+    });
+
+    RiskRuleEngine engine = new RiskRuleEngine(repo, scheduler, Duration.ofSeconds(30));
+    Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+    AtomicLong rejected = new AtomicLong();
+
+    long start = System.nanoTime();
+    Flux.range(0, requests)
+      .flatMap(i -> Mono.defer(() -> {
+        long t0 = System.nanoTime();
+        return engine.reload()
+          .doOnNext(active -> latency.recordValue((System.nanoTime() - t0) / 1_000));
+      }).onErrorResume(e -> {
+        rejected.incrementAndGet();
+        return Mono.empty();
+      }), concurrency)
+      .blockLast();
+    long elapsed = System.nanoTime() - start;
+    scheduler.dispose();
+
+    if (rejected.get() > 0) {
+      System.out.printf("%s: %d requests rejected by the scheduler%n", name, rejected.get());
+    }
+    return new Result(latency, requests * 1e9 / elapsed);
+  }
+
+  private static void print(String name, Result result) {
+    Histogram h = result.latency();
+    System.out.printf("%-16s %14.0f %8.2f %8.2f %10.2f %7.2f%n", name, result.throughput(),
+        h.getValueAtPercentile(50) / 1_000.0, h.getValueAtPercentile(99) / 1_000.0,
+        h.getValueAtPercentile(99.9) / 1_000.0, h.getMaxValue() / 1_000.0);
+  }
+
+  private record Result(Histogram latency, double throughput) {
+  }
+}
@@ -0,0 +1,123 @@
+package com.bank.transactions.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import com.bank.transactions.application.service.ShardedBalanceService;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.AccountShard;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mide créditos y débitos concurrentes sobre una sola cuenta "caliente" con 1, 4 y 16
+ * sub-saldos, contra un Mongo real ({@code bench.mongoUri}). Con un solo sub-saldo todas
+ * las escrituras compiten por el mismo documento; al fraccionarlo se reparten.
+ *
+ * <p>Requiere un Mongo en modo réplica (el rebalanceo usa transacciones):</p>
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java \
+ *   -Dexec.mainClass=com.bank.transactions.benchmark.HotAccountBenchmark \
+ *   -Dbench.mongoUri=mongodb://localhost:27017/bankx_bench?replicaSet=rs0
+ * </pre>
+ */
+public final class HotAccountBenchmark {
+
+  private static final String ACCOUNT_ID = "hot-merchant";
+
+  private HotAccountBenchmark() {
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code bench.*}
+   */
+  public static void main(String[] args) {
+    String uri = System.getProperty("bench.mongoUri", "mongodb://localhost:27017/bankx_bench");
+    int ops = Integer.getInteger("bench.ops", 50_000);
+    int concurrency = Integer.getInteger("bench.concurrency", 256);
+    int debitPercent = Integer.getInteger("bench.debitPercent", 40);
+
+    try (MongoClient client = MongoClients.create(uri)) {
+      SimpleReactiveMongoDatabaseFactory factory = new SimpleReactiveMongoDatabaseFactory(
+          client, uri.replaceFirst("^.*/([^/?]+).*$", "$1"));
+      ReactiveMongoTemplate template = new ReactiveMongoTemplate(factory);
+      TransactionalOperator txOperator =
+          TransactionalOperator.create(new ReactiveMongoTransactionManager(factory));
+
+      System.out.printf("%d ops, %d in flight, %d%% debits%n", ops, concurrency, debitPercent);
+      System.out.println("shards   ops_per_s   p50_ms   p99_ms  rejected  balance_ok");
+      for (int shards : new int[] {1, 4, 16}) {
+        run(template, txOperator, shards, ops / 10, concurrency, debitPercent, false);
+        run(template, txOperator, shards, ops, concurrency, debitPercent, true);
+      }
+    }
+    System.exit(0);
+  }
+
+  private static void run(ReactiveMongoTemplate template, TransactionalOperator txOperator,
+                          int shards, int ops, int concurrency, int debitPercent,
+                          boolean print) {
+    template.remove(Query.query(Criteria.where("accountId").is(ACCOUNT_ID)), AccountShard.class)
+      .block();
+    BigDecimal initial = new BigDecimal("1000000");
+    Account account = Account.builder().id(ACCOUNT_ID).number("999-0001").currency("PEN")
+        .balance(initial).shards(shards).build();
+    template.insertAll(Flux.range(0, shards)
+        .map(i -> AccountShard.builder().accountId(ACCOUNT_ID).shard(i)
+          .balance(i == 0 ? initial : BigDecimal.ZERO).build())
+        .collectList())
+      .blockLast();
+
+    ShardedBalanceService service = new ShardedBalanceService(template, txOperator,
+        mock(AccountRepository.class, withSettings().stubOnly()));
+    Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+    AtomicLong rejected = new AtomicLong();
+    AtomicLong expectedCents = new AtomicLong(initial.movePointRight(2).longValueExact());
+    BigDecimal amount = new BigDecimal("10.00");
+
+    long start = System.nanoTime();
+    Flux.range(0, ops)
+      .flatMap(i -> Mono.defer(() -> {
+        long t0 = System.nanoTime();
+        boolean debit = i % 100 < debitPercent;
+        Mono<Boolean> op = debit
+            ? service.debit(account, amount)
+            : service.credit(account, amount).thenReturn(true);
+        return op.doOnNext(applied -> {
+          latency.recordValue((System.nanoTime() - t0) / 1_000);
+          if (!applied) {
+            rejected.incrementAndGet();
+          } else {
+            expectedCents.addAndGet(debit ? -1_000 : 1_000);
+          }
+        });
+      }), concurrency)
+      .blockLast();
+    double throughput = ops * 1e9 / (System.nanoTime() - start);
+
+    BigDecimal total = service.totalBalance(ACCOUNT_ID).block();
+    if (print) {
+      System.out.printf("%6d %11.0f %8.2f %8.2f %9d %11s%n", shards, throughput,
+          latency.getValueAtPercentile(50) / 1_000.0,
+          latency.getValueAtPercentile(99) / 1_000.0, rejected.get(),
+          total.movePointRight(2).longValue() == expectedCents.get());
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.bank.transactions.benchmark;
+
+import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.exception.ErrorCode;
+import com.bank.transactions.infrastructure.web.GlobalErrorHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+/**
+ * Throughput de rechazos de negocio de punta a punta en memoria: crear el error a
+ * {@code depth} marcos de profundidad, propagarlo por un {@link Mono} y armar la respuesta 400.
+ *
+ * <ul>
+ *   <li>{@code legacy}: excepción nueva con traza de pila y cuerpo {@code Map} serializado con
+ *   Jackson en cada rechazo, como antes del catálogo.</li>
+ *   <li>{@code catalog}: {@link ErrorCode#exception()} compartida y sin traza, respondida por
+ *   {@link GlobalErrorHandler} con el JSON ya codificado.</li>
+ * </ul>
+ *
+ * <p>El manejador se crea con 0 registros permitidos para medir el costo del limitador sin
+ * escribir logs; el camino anterior tampoco registra, aunque en producción lo hacía dos veces
+ * por rechazo.</p>
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java \
+ *   -Dexec.mainClass=com.bank.transactions.benchmark.RejectionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RejectionBenchmark {
+
+  private static final ErrorCode[] REJECTIONS = {
+    ErrorCode.INSUFFICIENT_FUNDS, ErrorCode.RISK_REJECTED, ErrorCode.ACCOUNT_NOT_FOUND
+  };
+
+  @Param({"32", "128"})
+  public int depth;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final GlobalErrorHandler handler = new GlobalErrorHandler(0, Duration.ofSeconds(1));
+  private int next;
+
+  /**
+   * Rechazo con excepción nueva, traza de pila y cuerpo serializado por petición.
+   *
+   * @return respuesta
+   */
+  @Benchmark
+  public Object legacy() {
+    String code = nextRejection().code();
+    RuntimeException error = atDepth(depth, () -> new LegacyBusinessException(code));
+    return Mono.error(error)
+      .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
+          .body(encode(Map.of("error", e.getMessage())))))
+      .block();
+  }
+
+  /**
+   * Rechazo con la excepción del catálogo y la respuesta precodificada.
+   *
+   * @return respuesta
+   */
+  @Benchmark
+  public Object catalog() {
+    ErrorCode code = nextRejection();
+    BusinessException error = atDepth(depth, code::exception);
+    return Mono.error(error)
+      .onErrorResume(BusinessException.class, handler::handleBusinessException)
+      .block();
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code bench.*}
+   * @throws RunnerException si JMH falla
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RejectionBenchmark.class.getName())
+        .forks(Integer.getInteger("bench.forks", 0))
+        .addProfiler(GCProfiler.class)
+        .build())
+      .run();
+  }
+
+  private ErrorCode nextRejection() {
+    ErrorCode code = REJECTIONS[next];
+    next = (next + 1) % REJECTIONS.length;
+    return code;
+  }
+
+  private byte[] encode(Object body) {
+    try {
+      return mapper.writeValueAsBytes(body);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T atDepth(int frames, Supplier<T> supplier) {
+    return frames == 0 ? supplier.get() : atDepth(frames - 1, supplier);
+  }
+
+  private static final class LegacyBusinessException extends RuntimeException {
+
+    LegacyBusinessException(String message) {
+      super(message);
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package com.bank.transactions.benchmark;
+
+import com.bank.transactions.application.service.CompiledRiskRules;
+import com.bank.transactions.application.service.CompiledRiskRules.Decision;
+import com.bank.transactions.domain.model.RiskRule;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compara la evaluación de riesgo con {@link CompiledRiskRules} contra recorrer la lista de
+ * {@link RiskRule} en cada llamada comparando textos, con miles de reglas sobre monedas,
+ * tipos, segmentos, rangos de monto y franjas horarias. El perfilador de GC reporta
+ * {@code gc.alloc.rate.norm}, los bytes creados por evaluación.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java \
+ *   -Dexec.mainClass=com.bank.transactions.benchmark.RiskRuleEngineBenchmark
+ * </pre>
+ *
+ * <p>{@code exec:java} corre dentro de Maven y no expone el classpath a JVMs hijas, así que
+ * por defecto no se usan forks ({@code bench.forks=0}); para resultados publicables, correr
+ * con {@code bench.forks=1} desde un classpath plano.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RiskRuleEngineBenchmark {
+
+  private static final String[] CURRENCIES = {
+    "PEN", "USD", "EUR", "GBP", "JPY", "CHF", "CAD", "AUD", "BRL", "CLP",
+    "COP", "MXN", "ARS", "CNY", "INR", "KRW", "SEK", "NOK", "DKK", "PLN"
+  };
+  private static final String[] TYPES = {"DEBIT", "CREDIT"};
+  private static final String[] TIERS = {"BASIC", "GOLD", "PREMIUM", "CORPORATE"};
+  private static final int QUERIES = 4096;
+
+  @Param({"1000", "5000"})
+  public int rules;
+
+  private List<RiskRule> sorted;
+  private CompiledRiskRules compiled;
+  private Query[] queries;
+  private int next;
+
+  /**
+   * Genera las reglas y las consultas con una semilla fija.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    List<RiskRule> source = new ArrayList<>(rules);
+    for (long id = 0; id < rules; id++) {
+      BigDecimal min = random.nextInt(4) == 0 ? null : BigDecimal.valueOf(random.nextInt(5_000));
+      boolean windowed = random.nextInt(3) == 0;
+      int from = random.nextInt(24);
+      source.add(RiskRule.builder()
+          .id(id)
+          .currency(random.nextInt(50) == 0 ? null : pick(random, CURRENCIES))
+          .type(random.nextBoolean() ? null : pick(random, TYPES))
+          .accountTier(random.nextBoolean() ? null : pick(random, TIERS))
+          .minAmount(min)
+          .maxAmount(min == null ? null : min.add(BigDecimal.valueOf(1 + random.nextInt(2_000))))
+          .fromHour(windowed ? from : null)
+          .toHour(windowed ? (from + 1 + random.nextInt(8)) % 24 : null)
+          .maxDebitPerTx(BigDecimal.valueOf(100 + random.nextInt(10_000)))
+          .action(random.nextInt(10) == 0 ? "REJECT" : "ALLOW")
+          .priority(random.nextInt(100))
+          .build());
+    }
+    sorted = new ArrayList<>(source);
+    sorted.sort(Comparator.comparingInt(RiskRule::getPriority)
+        .thenComparing(RiskRule::getId));
+    compiled = CompiledRiskRules.compile(source);
+
+    queries = new Query[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      queries[i] = new Query(
+          pick(random, CURRENCIES),
+          random.nextBoolean() ? "DEBIT" : "credit",
+          new BigDecimal(random.nextInt(800_000)).movePointLeft(2),
+          random.nextInt(5) == 0 ? null : pick(random, TIERS),
+          random.nextInt(24));
+    }
+  }
+
+  /**
+   * Evaluación con el conjunto compilado.
+   *
+   * @return decisión
+   */
+  @Benchmark
+  public Decision compiled() {
+    Query q = nextQuery();
+    return compiled.evaluate(q.currency(), q.type(), q.amount(), q.tier(), q.hour());
+  }
+
+  /**
+   * Evaluación recorriendo todas las reglas y comparando textos en cada llamada.
+   *
+   * @return decisión
+   */
+  @Benchmark
+  public Decision interpreted() {
+    Query q = nextQuery();
+    for (RiskRule rule : sorted) {
+      if (matches(rule, q)) {
+        boolean reject = "REJECT".equalsIgnoreCase(rule.getAction())
+            || ("DEBIT".equalsIgnoreCase(q.type()) && rule.getMaxDebitPerTx() != null
+              && q.amount().compareTo(rule.getMaxDebitPerTx()) > 0);
+        return reject ? Decision.REJECT : Decision.ALLOW;
+      }
+    }
+    return Decision.NO_MATCH;
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code bench.*}
+   * @throws RunnerException si JMH falla
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RiskRuleEngineBenchmark.class.getName())
+        .forks(Integer.getInteger("bench.forks", 0))
+        .addProfiler(GCProfiler.class)
+        .build())
+      .run();
+  }
+
+  private Query nextQuery() {
+    Query q = queries[next];
+    next = (next + 1) & (QUERIES - 1);
+    return q;
+  }
+
+  private static boolean matches(RiskRule rule, Query q) {
+    if (rule.getCurrency() != null && !rule.getCurrency().equals(q.currency())) {
+      return false;
+    }
+    if (rule.getType() != null && !rule.getType().equalsIgnoreCase(q.type())) {
+      return false;
+    }
+    if (rule.getAccountTier() != null && !rule.getAccountTier().equals(q.tier())) {
+      return false;
+    }
+    if (rule.getMinAmount() != null && q.amount().compareTo(rule.getMinAmount()) < 0) {
+      return false;
+    }
+    if (rule.getMaxAmount() != null && q.amount().compareTo(rule.getMaxAmount()) > 0) {
+      return false;
+    }
+    Integer from = rule.getFromHour();
+    Integer to = rule.getToHour();
+    if (from == null || to == null || from.equals(to)) {
+      return true;
+    }
+    return from < to ? q.hour() >= from && q.hour() < to : q.hour() >= from || q.hour() < to;
+  }
+
+  private static String pick(Random random, String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private record Query(String currency, String type, BigDecimal amount, String tier, int hour) {
+  }
+}
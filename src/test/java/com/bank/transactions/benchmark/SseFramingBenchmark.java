@@ -0,0 +1,206 @@
+package com.bank.transactions.benchmark;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.web.CoalescingSseWriter;
+import com.bank.transactions.infrastructure.web.SseProperties;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.ServerSentEventHttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Escribe una ráfaga de {@code events} eventos SSE con el escritor de Spring (un flush por
+ * evento, lo que usa hoy {@code /api/stream/transactions}), con {@link CoalescingSseWriter} y
+ * con el mismo más gzip, sobre buffers Netty del pool. Al terminar cada prueba imprime los
+ * flushes y los bytes por ráfaga, que son lo que llega al socket.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java \
+ *   -Dexec.mainClass=com.bank.transactions.benchmark.SseFramingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SseFramingBenchmark {
+
+  private static final ResolvableType TYPE =
+      ResolvableType.forClassWithGenerics(ServerSentEvent.class, Transaction.class);
+
+  @Param({"per-event", "coalesced", "coalesced-gzip"})
+  public String mode;
+
+  @Param({"256"})
+  public int events;
+
+  private final NettyDataBufferFactory bufferFactory =
+      new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+  private HttpMessageWriter<ServerSentEvent<?>> writer;
+  private ServerHttpRequest request;
+  private ServerSentEvent<?>[] burst;
+  private long bursts;
+  private long flushes;
+  private long bytes;
+
+  /**
+   * Prepara la ráfaga con una semilla fija y el escritor del parámetro.
+   */
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    if ("per-event".equals(mode)) {
+      writer = (HttpMessageWriter<ServerSentEvent<?>>) (HttpMessageWriter<?>)
+          new ServerSentEventHttpMessageWriter(new Jackson2JsonEncoder(
+            Jackson2ObjectMapperBuilder.json()
+              .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+              .build()));
+    } else {
+      SseProperties properties = new SseProperties();
+      properties.getCoalesce().setMaxEvents(events);
+      properties.getCoalesce().setMaxDelay(Duration.ofSeconds(1));
+      properties.getCompression().setEnabled(true);
+      writer = new CoalescingSseWriter(properties, new SimpleMeterRegistry(),
+          Schedulers.parallel());
+    }
+    request = MockServerHttpRequest.get("/api/stream/transactions")
+      .header(HttpHeaders.ACCEPT_ENCODING, "coalesced-gzip".equals(mode) ? "gzip" : "identity")
+      .build();
+
+    Random random = new Random(42);
+    Instant now = Instant.parse("2024-06-01T12:00:00Z");
+    burst = new ServerSentEvent<?>[events];
+    for (int i = 0; i < events; i++) {
+      burst[i] = ServerSentEvent.builder(Transaction.builder()
+          .id(Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()))
+          .accountId("acc-" + random.nextInt(1_000))
+          .accountNumber("001-" + random.nextInt(10_000))
+          .currency(random.nextBoolean() ? "PEN" : "USD")
+          .type(random.nextBoolean() ? "DEBIT" : "CREDIT")
+          .amount(BigDecimal.valueOf(random.nextInt(1_000_000), 2))
+          .timestamp(now.plusMillis(i))
+          .status("COMPLETED")
+          .build())
+        .event("transaction")
+        .build();
+    }
+  }
+
+  /**
+   * Escribe la ráfaga completa en una conexión nueva.
+   */
+  @Benchmark
+  public void write() {
+    writer.write(Flux.fromArray(burst), TYPE, TYPE, MediaType.TEXT_EVENT_STREAM, request,
+        new CountingResponse(), Map.of())
+      .block();
+    bursts++;
+  }
+
+  /**
+   * Imprime flushes y bytes por ráfaga.
+   */
+  @TearDown(Level.Trial)
+  public void report() {
+    System.out.printf("%n%s: %d flushes y %d bytes por ráfaga de %d eventos%n", mode,
+        flushes / bursts, bytes / bursts, events);
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code bench.*}
+   * @throws RunnerException si JMH falla
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(SseFramingBenchmark.class.getName())
+        .forks(Integer.getInteger("bench.forks", 0))
+        .addProfiler(GCProfiler.class)
+        .build())
+      .run();
+  }
+
+  /**
+   * Respuesta que cuenta flushes y bytes y libera los buffers, como haría el socket.
+   */
+  private final class CountingResponse extends AbstractServerHttpResponse {
+
+    CountingResponse() {
+      super(bufferFactory);
+    }
+
+    @Override
+    public <T> T getNativeResponse() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+      return Flux.from(body).doOnNext(this::consume).then(Mono.fromRunnable(() -> flushes++));
+    }
+
+    @Override
+    protected Mono<Void> writeAndFlushWithInternal(
+        Publisher<? extends Publisher<? extends DataBuffer>> body) {
+      return Flux.from(body).concatMap(this::writeWithInternal).then();
+    }
+
+    @Override
+    protected void applyStatusCode() {
+    }
+
+    @Override
+    protected void applyHeaders() {
+    }
+
+    @Override
+    protected void applyCookies() {
+    }
+
+    private void consume(DataBuffer buffer) {
+      bytes += buffer.readableByteCount();
+      DataBufferUtils.release(buffer);
+    }
+  }
+}
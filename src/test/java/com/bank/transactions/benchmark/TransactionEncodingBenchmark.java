@@ -0,0 +1,134 @@
+package com.bank.transactions.benchmark;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.web.TransactionJsonEncoder;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+/**
+ * Codifica un historial de {@code rows} transacciones con {@link Jackson2JsonEncoder} (lo que
+ * usa hoy {@code GET /api/transactions}) y con {@link TransactionJsonEncoder}, en JSON y
+ * NDJSON, sobre buffers Netty del pool como en el servidor. El perfilador de GC reporta
+ * {@code gc.alloc.rate.norm}, los bytes de heap creados por historial.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java \
+ *   -Dexec.mainClass=com.bank.transactions.benchmark.TransactionEncodingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TransactionEncodingBenchmark {
+
+  private static final ResolvableType TYPE = ResolvableType.forClass(Transaction.class);
+
+  @Param({"jackson", "direct"})
+  public String encoder;
+
+  @Param({"application/json", "application/x-ndjson"})
+  public String mediaType;
+
+  @Param({"1000"})
+  public int rows;
+
+  private final NettyDataBufferFactory bufferFactory =
+      new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+  private Encoder<Object> selected;
+  private MediaType mimeType;
+  private Transaction[] history;
+
+  /**
+   * Prepara el historial con una semilla fija y el codificador del parámetro.
+   */
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    selected = "jackson".equals(encoder)
+        ? new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json()
+          .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build())
+        : (Encoder<Object>) (Encoder<?>) new TransactionJsonEncoder();
+    mimeType = MediaType.parseMediaType(mediaType);
+
+    Random random = new Random(42);
+    Instant now = Instant.parse("2024-06-01T12:00:00Z");
+    history = new Transaction[rows];
+    for (int i = 0; i < rows; i++) {
+      history[i] = Transaction.builder()
+          .id(Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()))
+          .accountId("acc-" + random.nextInt(1_000))
+          .accountNumber("001-" + random.nextInt(10_000))
+          .currency(random.nextBoolean() ? "PEN" : "USD")
+          .type(random.nextBoolean() ? "DEBIT" : "CREDIT")
+          .amount(BigDecimal.valueOf(random.nextInt(1_000_000), 2))
+          .timestamp(now.minusMillis(random.nextInt(1_000_000_000)))
+          .status("COMPLETED")
+          .build();
+    }
+  }
+
+  /**
+   * Codifica el historial completo y libera los buffers.
+   *
+   * @return bytes escritos
+   */
+  @Benchmark
+  public long encode() {
+    return selected.encode(Flux.fromArray(history), bufferFactory, TYPE, mimeType, Map.of())
+      .reduce(0L, (total, buffer) -> total + release(buffer))
+      .block();
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code bench.*}
+   * @throws RunnerException si JMH falla
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TransactionEncodingBenchmark.class.getName())
+        .forks(Integer.getInteger("bench.forks", 0))
+        .addProfiler(GCProfiler.class)
+        .build())
+      .run();
+  }
+
+  private static int release(DataBuffer buffer) {
+    int size = buffer.readableByteCount();
+    DataBufferUtils.release(buffer);
+    return size;
+  }
+}
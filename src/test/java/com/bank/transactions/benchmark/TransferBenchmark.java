@@ -0,0 +1,205 @@
+package com.bank.transactions.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.application.dto.TransferRequest;
+import com.bank.transactions.application.service.RiskRemoteClient;
+import com.bank.transactions.application.service.RiskService;
+import com.bank.transactions.application.service.ShardedBalanceService;
+import com.bank.transactions.application.service.SseSubscriberGuard;
+import com.bank.transactions.application.service.TransactionBatchWriter;
+import com.bank.transactions.application.service.TransactionEventPublisher;
+import com.bank.transactions.application.service.TransactionService;
+import com.bank.transactions.application.service.TransferService;
+import com.bank.transactions.config.LogContext;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.bank.transactions.domain.repository.TransactionRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Compara una transferencia vía {@code POST /api/transfers} contra el enfoque de dos
+ * llamadas a {@code POST /api/transactions} (débito y luego crédito).
+ *
+ * <p>Mongo y el servicio de riesgo se simulan con latencias fijas por ida y vuelta
+ * ({@code bench.mongoMs}, {@code bench.riskMs}; por defecto 1 ms y los 200 ms que
+ * {@code RiskRemoteClient} pide al mock), de modo que el resultado refleja el número de
+ * viajes de red de cada enfoque y no el costo de CPU de Mongo.</p>
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java \
+ *   -Dexec.mainClass=com.bank.transactions.benchmark.TransferBenchmark
+ * </pre>
+ */
+public final class TransferBenchmark {
+
+  private static final long MONGO_MS = Long.getLong("bench.mongoMs", 1);
+  private static final long RISK_MS = Long.getLong("bench.riskMs", 200);
+
+  private TransferBenchmark() {
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code bench.*}
+   */
+  public static void main(String[] args) {
+    int transfers = Integer.getInteger("bench.transfers", 20_000);
+    int concurrency = Integer.getInteger("bench.concurrency", 1_000);
+
+    System.out.printf("%d transfers, %d in flight, mongo %d ms, risk %d ms%n",
+        transfers, concurrency, MONGO_MS, RISK_MS);
+    System.out.println("approach    transfers_per_s  p50_ms   p99_ms  risk_calls  mongo_trips");
+
+    TransactionService txService = transactionService();
+    TransferService transferService = transferService();
+
+    Supplier<Mono<?>> twoCalls = () -> txService.create(txRequest("001-0002", "DEBIT"))
+        .then(txService.create(txRequest("001-0001", "CREDIT")));
+    Supplier<Mono<?>> transfer = () -> transferService.transfer(transferRequest());
+
+    run("warmup", twoCalls, transfers / 10, concurrency);
+    run("warmup", transfer, transfers / 10, concurrency);
+    print("two-calls", run("two-calls", twoCalls, transfers, concurrency), 2, 8);
+    print("transfer", run("transfer", transfer, transfers, concurrency), 1, 4);
+    System.exit(0);
+  }
+
+  private static Result run(String name, Supplier<Mono<?>> op, int transfers, int concurrency) {
+    Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+    long start = System.nanoTime();
+    Flux.range(0, transfers)
+      .flatMap(i -> Mono.defer(() -> {
+        long t0 = System.nanoTime();
+        return op.get().doOnSuccess(r -> latency.recordValue((System.nanoTime() - t0) / 1_000));
+      }), concurrency)
+      .blockLast();
+    return new Result(latency, transfers * 1e9 / (System.nanoTime() - start));
+  }
+
+  private static void print(String name, Result result, int riskCalls, int mongoTrips) {
+    Histogram h = result.latency();
+    System.out.printf("%-11s %15.0f %8.2f %8.2f %11d %12d%n", name, result.throughput(),
+        h.getValueAtPercentile(50) / 1_000.0, h.getValueAtPercentile(99) / 1_000.0,
+        riskCalls, mongoTrips);
+  }
+
+  private static TransactionService transactionService() {
+    AccountRepository accountRepo = accountRepo();
+    when(accountRepo.compareAndSetBalance(anyString(), any(), any()))
+      .thenAnswer(invocation -> mongo(Boolean.TRUE));
+    TransactionRepository txRepo = mock(TransactionRepository.class, withSettings().stubOnly());
+    when(txRepo.save(any(Transaction.class)))
+      .thenAnswer(invocation -> mongo(invocation.getArgument(0)));
+    // Sin agrupar inserciones: se comparan los viajes de red de cada enfoque
+    TransactionBatchWriter txWriter = new TransactionBatchWriter(null, txRepo,
+        new SimpleMeterRegistry(), false, 1, 1);
+    return new TransactionService(accountRepo, txRepo, riskClient(), new LogContext(), sink(),
+        events(), mock(ShardedBalanceService.class, withSettings().stubOnly()), txWriter, riskService(),
+        mock(SseSubscriberGuard.class, withSettings().stubOnly()),
+        ObservationRegistry.NOOP);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static TransferService transferService() {
+    ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class, withSettings().stubOnly());
+    BulkWriteResult bulkResult = mock(BulkWriteResult.class, withSettings().stubOnly());
+    when(bulkResult.getMatchedCount()).thenReturn(2);
+    ReactiveBulkOperations ops = mock(ReactiveBulkOperations.class, withSettings().stubOnly());
+    when(ops.updateOne(any(Query.class), any(Update.class))).thenReturn(ops);
+    when(ops.execute()).thenAnswer(invocation -> mongo(bulkResult));
+    when(template.bulkOps(BulkMode.ORDERED, Account.class)).thenReturn(ops);
+    when(template.insertAll(anyList())).thenAnswer(invocation ->
+        mongo(invocation.<List<Transaction>>getArgument(0)).flatMapMany(Flux::fromIterable));
+    TransactionalOperator txOperator = mock(TransactionalOperator.class, withSettings().stubOnly());
+    when(txOperator.transactional(any(Mono.class)))
+      .thenAnswer(invocation -> invocation.<Mono<?>>getArgument(0));
+    return new TransferService(accountRepo(), template, txOperator, riskClient(),
+        new LogContext(), events(), riskService());
+  }
+
+  private static AccountRepository accountRepo() {
+    AccountRepository repo = mock(AccountRepository.class, withSettings().stubOnly());
+    when(repo.findByNumber(anyString())).thenAnswer(invocation -> mongo(Account.builder()
+        .id("id-" + invocation.getArgument(0))
+        .number(invocation.getArgument(0))
+        .currency("PEN")
+        .balance(new BigDecimal("1000000"))
+        .build()));
+    return repo;
+  }
+
+  private static RiskRemoteClient riskClient() {
+    RiskRemoteClient client = mock(RiskRemoteClient.class, withSettings().stubOnly());
+    when(client.isAllowed(anyString(), anyString(), any(), any()))
+      .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(RISK_MS)).thenReturn(true));
+    return client;
+  }
+
+  private static RiskService riskService() {
+    // Sin límites de velocidad: se compara solo el flujo de escritura
+    RiskService service = mock(RiskService.class, withSettings().stubOnly());
+    when(service.reserveVelocity(any(), anyString(), anyString(), any(), any()))
+      .thenReturn(Mono.just(true));
+    return service;
+  }
+
+  private static <T> Mono<T> mongo(T value) {
+    return Mono.delay(Duration.ofMillis(MONGO_MS)).thenReturn(value);
+  }
+
+  private static Sinks.Many<Transaction> sink() {
+    return Sinks.many().multicast().directBestEffort();
+  }
+
+  private static TransactionEventPublisher events() {
+    return new TransactionEventPublisher(sink(), "local");
+  }
+
+  private static CreateTxRequest txRequest(String account, String type) {
+    CreateTxRequest req = new CreateTxRequest();
+    req.setAccountNumber(account);
+    req.setType(type);
+    req.setAmount(BigDecimal.TEN);
+    req.setCurrency("PEN");
+    return req;
+  }
+
+  private static TransferRequest transferRequest() {
+    TransferRequest req = new TransferRequest();
+    req.setFromAccount("001-0002");
+    req.setToAccount("001-0001");
+    req.setAmount(BigDecimal.TEN);
+    req.setCurrency("PEN");
+    return req;
+  }
+
+  private record Result(Histogram latency, double throughput) {
+  }
+}
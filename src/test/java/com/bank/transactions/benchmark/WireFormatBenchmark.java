@@ -0,0 +1,189 @@
+package com.bank.transactions.benchmark;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.web.ApiMediaTypes;
+import com.bank.transactions.infrastructure.web.TransactionCborEncoder;
+import com.bank.transactions.infrastructure.web.TransactionJsonEncoder;
+import com.bank.transactions.infrastructure.web.TransactionProtobufDecoder;
+import com.bank.transactions.infrastructure.web.TransactionProtobufEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+
+/**
+ * Costo de codificar una {@link Transaction} (respuesta de create/list) y de decodificar un
+ * {@link CreateTxRequest} (cuerpo de create) con los códecs que usa la API en cada formato.
+ * El tamaño de cada carga se imprime al iniciar; el perfilador de GC reporta los bytes de heap
+ * por operación.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java \
+ *   -Dexec.mainClass=com.bank.transactions.benchmark.WireFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WireFormatBenchmark {
+
+  private static final ResolvableType TRANSACTION = ResolvableType.forClass(Transaction.class);
+  private static final ResolvableType REQUEST = ResolvableType.forClass(CreateTxRequest.class);
+
+  @Param({"json", "json-direct", "cbor", "smile", "protobuf"})
+  public String format;
+
+  private final NettyDataBufferFactory bufferFactory =
+      new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+  private final Transaction transaction = Transaction.builder()
+      .id("665f1c2e9b1d4a3f8c7e6d5b")
+      .accountId("665f1c2e9b1d4a3f8c7e6d00")
+      .accountNumber("001-0001")
+      .currency("PEN")
+      .type("DEBIT")
+      .amount(new BigDecimal("1250.75"))
+      .timestamp(Instant.parse("2024-06-01T12:34:56.789Z"))
+      .status("COMPLETED")
+      .build();
+
+  private Encoder<Object> encoder;
+  private Decoder<Object> decoder;
+  private MimeType mimeType;
+  private byte[] request;
+
+  /**
+   * Elige los códecs del formato y codifica la solicitud que se decodificará.
+   */
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    switch (format) {
+      case "json" -> use(new Jackson2JsonEncoder(json), new Jackson2JsonDecoder(json),
+          MediaType.APPLICATION_JSON);
+      case "json-direct" -> use(new TransactionJsonEncoder(), new Jackson2JsonDecoder(json),
+          MediaType.APPLICATION_JSON);
+      case "cbor" -> {
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        use(new TransactionCborEncoder(cbor), new Jackson2CborDecoder(cbor),
+            MediaType.APPLICATION_CBOR);
+      }
+      case "smile" -> use(new Jackson2SmileEncoder(), new Jackson2SmileDecoder(),
+          ApiMediaTypes.SMILE);
+      case "protobuf" -> use(new TransactionProtobufEncoder(), new TransactionProtobufDecoder(),
+          ApiMediaTypes.PROTOBUF);
+      default -> throw new IllegalArgumentException(format);
+    }
+
+    CreateTxRequest req = new CreateTxRequest();
+    req.setAccountNumber("001-0001");
+    req.setType("DEBIT");
+    req.setAmount(new BigDecimal("1250.75"));
+    req.setCurrency("PEN");
+    // La solicitud se codifica con Jackson salvo en Protobuf, igual que la enviaría un cliente
+    Encoder<Object> requestEncoder = switch (format) {
+      case "json", "json-direct" -> (Encoder<Object>) (Encoder<?>) new Jackson2JsonEncoder(json);
+      case "cbor" -> new Jackson2CborEncoder(Jackson2ObjectMapperBuilder.cbor().build());
+      default -> encoder;
+    };
+    request = bytes(requestEncoder.encodeValue(req, DefaultDataBufferFactory.sharedInstance,
+        REQUEST, mimeType, Map.of()));
+    int response = bytes(encoder.encodeValue(transaction, DefaultDataBufferFactory.sharedInstance,
+        TRANSACTION, mimeType, Map.of())).length;
+    System.out.printf("%n%s: Transaction %d bytes, CreateTxRequest %d bytes%n",
+        format, response, request.length);
+  }
+
+  /**
+   * Codifica la transacción en un buffer del pool y lo libera.
+   *
+   * @return bytes escritos
+   */
+  @Benchmark
+  public int encodeTransaction() {
+    DataBuffer buffer = encoder.encodeValue(transaction, bufferFactory, TRANSACTION, mimeType,
+        Map.of());
+    int size = buffer.readableByteCount();
+    DataBufferUtils.release(buffer);
+    return size;
+  }
+
+  /**
+   * Decodifica la solicitud de creación.
+   *
+   * @return solicitud
+   */
+  @Benchmark
+  public Object decodeCreateRequest() {
+    return decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(request), REQUEST,
+        mimeType, Map.of());
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code bench.*}
+   * @throws RunnerException si JMH falla
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(WireFormatBenchmark.class.getName())
+        .forks(Integer.getInteger("bench.forks", 0))
+        .addProfiler(GCProfiler.class)
+        .build())
+      .run();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void use(Encoder<?> encoder, Decoder<?> decoder, MimeType mimeType) {
+    this.encoder = (Encoder<Object>) encoder;
+    this.decoder = (Decoder<Object>) decoder;
+    this.mimeType = mimeType;
+  }
+
+  private static byte[] bytes(DataBuffer buffer) {
+    byte[] bytes = new byte[buffer.readableByteCount()];
+    buffer.read(bytes);
+    DataBufferUtils.release(buffer);
+    return bytes;
+  }
+}
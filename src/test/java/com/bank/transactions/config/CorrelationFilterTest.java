@@ -1,8 +1,12 @@
 package com.bank.transactions.config;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.WebFilterChain;
@@ -27,4 +31,30 @@ class CorrelationFilterTest {
     StepVerifier.create(filter.filter(exchange, chain))
       .verifyComplete();
   }
-}
\ No newline at end of file
+
+  @Test
+  void filter_tagsTheRequestObservation() {
+    MockServerHttpRequest request = MockServerHttpRequest.get("/test")
+        .header("X-Correlation-Id", "corr-1")
+        .build();
+    MockServerWebExchange exchange = MockServerWebExchange.from(request);
+    ServerRequestObservationContext context = new ServerRequestObservationContext(
+        exchange.getRequest(), exchange.getResponse(), exchange.getAttributes());
+    exchange.getAttributes().put(
+        ServerRequestObservationContext.CURRENT_OBSERVATION_CONTEXT_ATTRIBUTE, context);
+
+    StepVerifier.create(filter.filter(exchange, webExchange -> Mono.empty()))
+      .verifyComplete();
+
+    assertEquals("corr-1", context.getHighCardinalityKeyValue("correlation.id").getValue());
+  }
+
+  @Test
+  void newCorrelationId_isARandomVersion4Uuid() {
+    UUID id = UUID.fromString(CorrelationFilter.newCorrelationId());
+
+    assertEquals(4, id.version());
+    assertEquals(2, id.variant());
+    assertNotEquals(CorrelationFilter.newCorrelationId(), CorrelationFilter.newCorrelationId());
+  }
+}
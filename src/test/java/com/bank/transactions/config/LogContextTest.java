@@ -34,6 +34,31 @@ class LogContextTest {
     assertNull(ThreadContext.get("corrId"));
   }
 
+  @Test
+  void withMdc_Mono_withDownstreamContext_setsMdcWhileRunning() {
+    Mono<String> result = logContext.withMdc(Mono.fromCallable(() -> ThreadContext.get("corrId")))
+      .contextWrite(ctx -> ctx.put("corrId", "12345"));
+
+    StepVerifier.create(result)
+      .expectNext("12345")
+      .verifyComplete();
+
+    assertNull(ThreadContext.get("corrId"));
+  }
+
+  @Test
+  void withMdc_Flux_withDownstreamContext_setsMdcWhileRunning() {
+    Flux<String> result = logContext.withMdc(Flux.just("A", "B")
+        .map(value -> value + ThreadContext.get("corrId")))
+      .contextWrite(ctx -> ctx.put("corrId", "XYZ"));
+
+    StepVerifier.create(result)
+      .expectNext("AXYZ", "BXYZ")
+      .verifyComplete();
+
+    assertNull(ThreadContext.get("corrId"));
+  }
+
   @Test
   void withMdc_Mono_withoutContext_shouldNotFail() {
     Mono<String> mono = Mono.just("no-context");
@@ -0,0 +1,35 @@
+package com.bank.transactions.config;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.test.StepVerifier;
+
+class SchedulerConfigTest {
+
+  private final SchedulerConfig config = new SchedulerConfig();
+
+  @Test
+  void blockingScheduler_virtual_runsOnVirtualThreads() {
+    Scheduler scheduler = config.blockingScheduler("virtual");
+
+    StepVerifier.create(Mono.fromCallable(() -> Thread.currentThread().isVirtual())
+        .subscribeOn(scheduler))
+      .expectNext(true)
+      .verifyComplete();
+
+    scheduler.dispose();
+  }
+
+  @Test
+  void blockingScheduler_boundedElastic_runsOnPlatformThreads() {
+    Scheduler scheduler = config.blockingScheduler("bounded-elastic");
+
+    StepVerifier.create(Mono.fromCallable(() -> Thread.currentThread().getName())
+        .subscribeOn(scheduler))
+      .expectNextMatches(name -> name.startsWith("blocking"))
+      .verifyComplete();
+
+    scheduler.dispose();
+  }
+}
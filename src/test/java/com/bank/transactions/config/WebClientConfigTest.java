@@ -0,0 +1,81 @@
+package com.bank.transactions.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.bank.transactions.application.service.RequestHedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+class WebClientConfigTest {
+
+  private final WebClientConfig config = new WebClientConfig();
+  private final List<ClientRequest> requests = new ArrayList<>();
+
+  @Test
+  void riskWebClient_targetsTheMockRiskService() {
+    WebClient client = config.riskWebClient(recordingBuilder());
+
+    StepVerifier.create(client.get().uri("/allow").retrieve().toBodilessEntity())
+      .expectNextMatches(entity -> entity.getStatusCode() == HttpStatus.OK)
+      .verifyComplete();
+
+    assertEquals(URI.create("http://localhost:8070/mock/risk/allow"), requests.get(0).url());
+  }
+
+  @Test
+  void riskHedger_startsAtTheMaximumDelay() {
+    RequestHedger hedger = config.riskHedger(new SimpleMeterRegistry(), true, 95,
+        Duration.ofMillis(20), Duration.ofSeconds(1), Duration.ofSeconds(10), 100, 0.05, 10);
+
+    assertEquals(Duration.ofSeconds(1), hedger.currentDelay());
+  }
+
+  @Test
+  void clusterConnections_areBoundedPerNode() {
+    ConnectionProvider connections = config.clusterConnections(50, Duration.ofSeconds(1),
+        Duration.ofSeconds(30));
+
+    assertEquals(50, connections.maxConnections());
+    connections.dispose();
+  }
+
+  @Test
+  void clusterWebClient_keepsTheFiltersOfBootsBuilder() {
+    ConnectionProvider connections = config.clusterConnections(10, Duration.ofSeconds(1),
+        Duration.ofSeconds(30));
+    WebClient client = config.clusterWebClient(recordingBuilder(), connections,
+        Duration.ofSeconds(5));
+
+    StepVerifier.create(client.get().uri("http://localhost:8071/api/accounts/001-0001/balance")
+        .retrieve()
+        .toBodilessEntity())
+      .expectNextCount(1)
+      .verifyComplete();
+
+    // El filtro del builder (observación y propagación en la app) ve el reenvío
+    assertEquals(1, requests.size());
+    assertEquals("/api/accounts/001-0001/balance", requests.get(0).url().getPath());
+    connections.dispose();
+  }
+
+  /**
+   * Builder con un filtro que registra la petición y responde sin salir a la red.
+   */
+  private WebClient.Builder recordingBuilder() {
+    return WebClient.builder().filter((request, next) -> {
+      requests.add(request);
+      return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+    });
+  }
+}
@@ -2,6 +2,7 @@ package com.bank.transactions.domain.exception;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 
@@ -23,4 +24,24 @@ class BusinessExceptionTest {
     assertEquals(cause, exception.getCause());
     assertEquals("Root cause", exception.getCause().getMessage());
   }
-}
\ No newline at end of file
+
+  @Test
+  void catalogException_isSharedAndStackless() {
+    BusinessException exception = ErrorCode.INSUFFICIENT_FUNDS.exception();
+    exception.addSuppressed(new RuntimeException("ignored"));
+
+    assertSame(exception, ErrorCode.INSUFFICIENT_FUNDS.exception());
+    assertEquals("insufficient_funds", exception.getMessage());
+    assertEquals(ErrorCode.INSUFFICIENT_FUNDS, exception.getErrorCode());
+    assertEquals(0, exception.getStackTrace().length);
+    assertEquals(0, exception.getSuppressed().length);
+  }
+
+  @Test
+  void businessException_resolvesCatalogCodeFromMessage() {
+    assertEquals(ErrorCode.ACCOUNT_NOT_FOUND,
+        new BusinessException("account_not_found").getErrorCode());
+    assertNull(new BusinessException("Test error").getErrorCode());
+    assertEquals(0, new BusinessException("Test error").getStackTrace().length);
+  }
+}
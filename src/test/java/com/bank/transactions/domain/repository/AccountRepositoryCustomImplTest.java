@@ -0,0 +1,63 @@
+package com.bank.transactions.domain.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.Account;
+import com.mongodb.client.result.UpdateResult;
+import java.math.BigDecimal;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class AccountRepositoryCustomImplTest {
+
+  private ReactiveMongoTemplate mongoTemplate;
+  private AccountRepositoryCustomImpl repository;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    repository = new AccountRepositoryCustomImpl(mongoTemplate);
+  }
+
+  @Test
+  void compareAndSetBalance_setsOnlyTheBalanceOfAnUnshardedAccount() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Account.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+    StepVerifier.create(repository.compareAndSetBalance("acc-1", new BigDecimal("100"),
+        new BigDecimal("90")))
+      .expectNext(true)
+      .verifyComplete();
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Account.class));
+    assertEquals(new Document("_id", "acc-1").append("balance", new BigDecimal("100"))
+        .append("shards", null), query.getValue().getQueryObject());
+    // Un $set parcial: nunca reescribe shards aunque llegue tarde
+    assertEquals(new Document("$set", new Document("balance", new BigDecimal("90"))),
+        update.getValue().getUpdateObject());
+  }
+
+  @Test
+  void markSharded_staleBalance_doesNotMatch() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Account.class)))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+    StepVerifier.create(repository.markSharded("acc-1", BigDecimal.TEN, 4))
+      .expectNext(false)
+      .verifyComplete();
+  }
+}
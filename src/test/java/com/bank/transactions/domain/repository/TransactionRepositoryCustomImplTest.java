@@ -0,0 +1,182 @@
+package com.bank.transactions.domain.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class TransactionRepositoryCustomImplTest {
+
+  private ReactiveMongoTemplate mongoTemplate;
+  private final CompactTransactionCodec codec = new CompactTransactionCodec(false);
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    MongoConverter converter = mock(MongoConverter.class);
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    when(mongoTemplate.getCollectionName(Transaction.class)).thenReturn("transactions");
+    when(converter.read(eq(Transaction.class), any(Document.class)))
+      .thenAnswer(invocation -> codec.decode(invocation.getArgument(1)));
+    when(mongoTemplate.getCollectionNames()).thenReturn(Flux.empty());
+  }
+
+  private static Transaction tx(String id, int minute) {
+    return Transaction.builder().id(id).accountId("acc-1")
+      .timestamp(Instant.parse("2024-01-15T10:00:00Z").plusSeconds(minute * 60L)).build();
+  }
+
+  private static Document legacy(String id, int minute) {
+    return new Document("_id", id).append("accountId", "acc-1")
+      .append("timestamp", Date.from(tx(id, minute).getTimestamp()));
+  }
+
+  @Test
+  void findByAccount_mergesCompactAndLegacyNewestFirst() {
+    when(mongoTemplate.find(any(Query.class), eq(Transaction.class)))
+      .thenReturn(Flux.just(tx("c3", 30), tx("c1", 10)));
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("transactions")))
+      .thenReturn(Flux.just(legacy("l2", 20), legacy("l0", 0)));
+
+    StepVerifier.create(new TransactionRepositoryCustomImpl(mongoTemplate, true)
+        .findByAccountIdOrderByTimestampDesc("acc-1")
+        .map(Transaction::getId))
+      .expectNext("c3", "l2", "c1", "l0")
+      .verifyComplete();
+  }
+
+  @Test
+  void findByAccount_skipsLegacyQueryWhenDisabled() {
+    when(mongoTemplate.find(any(Query.class), eq(Transaction.class)))
+      .thenReturn(Flux.just(tx("c1", 10)));
+
+    StepVerifier.create(new TransactionRepositoryCustomImpl(mongoTemplate, false)
+        .findByAccountIdOrderByTimestampDesc("acc-1"))
+      .expectNextCount(1)
+      .verifyComplete();
+
+    verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), eq("transactions"));
+  }
+
+  @Test
+  void findHistory_readsArchivesNewestMonthFirstAfterHotTier() {
+    when(mongoTemplate.find(any(Query.class), eq(Transaction.class)))
+      .thenReturn(Flux.just(tx("hot", 30)));
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("transactions")))
+      .thenReturn(Flux.empty());
+    when(mongoTemplate.getCollectionNames()).thenReturn(Flux.just("transactions",
+        "transactions_archive_2023_11", "accounts", "transactions_archive_2023_12"));
+    when(mongoTemplate.find(any(Query.class), eq(Transaction.class),
+        eq("transactions_archive_2023_12")))
+      .thenReturn(Flux.just(tx("dec", 0)));
+    when(mongoTemplate.find(any(Query.class), eq(Transaction.class),
+        eq("transactions_archive_2023_11")))
+      .thenReturn(Flux.just(tx("nov", 0)));
+
+    StepVerifier.create(new TransactionRepositoryCustomImpl(mongoTemplate, true)
+        .findHistory("acc-1", null, 0)
+        .map(Transaction::getId))
+      .expectNext("hot", "dec", "nov")
+      .verifyComplete();
+  }
+
+  @Test
+  void findHistory_doesNotTouchArchivesWhenHotTierFillsThePage() {
+    when(mongoTemplate.find(any(Query.class), eq(Transaction.class)))
+      .thenReturn(Flux.just(tx("c3", 30), tx("c2", 20)));
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("transactions")))
+      .thenReturn(Flux.empty());
+
+    StepVerifier.create(new TransactionRepositoryCustomImpl(mongoTemplate, true)
+        .findHistory("acc-1", Instant.parse("2024-02-01T00:00:00Z"), 2))
+      .expectNextCount(2)
+      .verifyComplete();
+
+    verify(mongoTemplate, never()).getCollectionNames();
+  }
+
+  @Test
+  void findHistory_skipsArchiveMonthsAfterCursor() {
+    when(mongoTemplate.find(any(Query.class), eq(Transaction.class)))
+      .thenReturn(Flux.empty());
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("transactions")))
+      .thenReturn(Flux.empty());
+    when(mongoTemplate.getCollectionNames()).thenReturn(Flux.just(
+        "transactions_archive_2023_11", "transactions_archive_2023_12"));
+    when(mongoTemplate.find(any(Query.class), eq(Transaction.class),
+        eq("transactions_archive_2023_11")))
+      .thenReturn(Flux.just(tx("nov", 0)));
+
+    StepVerifier.create(new TransactionRepositoryCustomImpl(mongoTemplate, false)
+        .findHistory("acc-1", Instant.parse("2023-11-20T00:00:00Z"), 10)
+        .map(Transaction::getId))
+      .expectNext("nov")
+      .verifyComplete();
+
+    verify(mongoTemplate, never()).find(any(Query.class), eq(Transaction.class),
+        eq("transactions_archive_2023_12"));
+  }
+
+  @Test
+  void countByType_countsHotLegacyAndArchivedWithoutReadingThem() {
+    when(mongoTemplate.getCollectionNames()).thenReturn(Flux.just("transactions", "accounts",
+        "transactions_archive_2023_12"));
+    Map<String, Long> counts = Map.of(
+        "transactions a", 5L, "transactions a t=C", 2L,
+        "transactions accountId", 3L, "transactions accountId type=CREDIT", 1L,
+        "transactions_archive_2023_12 a", 4L, "transactions_archive_2023_12 a t=C", 1L);
+    when(mongoTemplate.count(any(Query.class), anyString())).thenAnswer(invocation -> {
+      Document filter = invocation.<Query>getArgument(0).getQueryObject();
+      String key = invocation.getArgument(1) + filter.entrySet().stream()
+          .map(entry -> entry.getValue().equals("acc-1") ? " " + entry.getKey()
+            : " " + entry.getKey() + "=" + entry.getValue())
+          .collect(Collectors.joining());
+      return Mono.just(counts.get(key));
+    });
+
+    StepVerifier.create(new TransactionRepositoryCustomImpl(mongoTemplate, true)
+        .countByType("acc-1"))
+      .assertNext(result -> {
+        assertEquals(12, result.total());
+        assertEquals(4, result.credits());
+        assertEquals(8, result.debits());
+      })
+      .verifyComplete();
+
+    verify(mongoTemplate, never()).find(any(Query.class), eq(Transaction.class));
+    verify(mongoTemplate, never()).count(any(Query.class), eq("accounts"));
+  }
+
+  @Test
+  void countByType_skipsLegacyCountsWhenDisabled() {
+    when(mongoTemplate.count(any(Query.class), eq("transactions"))).thenReturn(Mono.just(2L));
+
+    StepVerifier.create(new TransactionRepositoryCustomImpl(mongoTemplate, false)
+        .countByType("acc-1"))
+      .expectNext(new TransactionRepositoryCustom.TypeCounts(2, 2))
+      .verifyComplete();
+
+    verify(mongoTemplate, times(2)).count(any(Query.class), eq("transactions"));
+  }
+}
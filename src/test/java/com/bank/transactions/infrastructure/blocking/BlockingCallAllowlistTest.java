@@ -0,0 +1,56 @@
+package com.bank.transactions.infrastructure.blocking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Persistence;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+/**
+ * BlockHound está instalado en toda la suite por {@code blockhound-junit-platform}.
+ */
+class BlockingCallAllowlistTest {
+
+  @Test
+  void blockingCallOnParallel_fails() {
+    Mono<Integer> sleeping = Mono.fromCallable(() -> {
+      Thread.sleep(1);
+      return 1;
+    }).subscribeOn(Schedulers.parallel());
+
+    StepVerifier.create(sleeping)
+      .expectError(BlockingOperationError.class)
+      .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void allowlistedCall_runsOnParallel() {
+    Mono<Boolean> loaded = Mono.fromCallable(() -> Persistence.getPersistenceUtil().isLoaded("x"))
+      .subscribeOn(Schedulers.parallel());
+
+    StepVerifier.create(loaded)
+      .expectNext(true)
+      .expectComplete()
+      .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void detector_countsEveryCallButLogsWithinTheLimit() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    BlockingCallDetector detector = new BlockingCallDetector(registry, 1, Duration.ofHours(1));
+    BlockingMethod sleep = new BlockingMethod("java/lang/Thread", "sleep", 0);
+
+    for (int i = 0; i < 3; i++) {
+      detector.onBlockingCall(sleep);
+    }
+
+    assertEquals(3.0, registry.get("bankx.blocking.calls")
+        .tag("method", sleep.toString()).counter().count());
+  }
+}
@@ -0,0 +1,113 @@
+package com.bank.transactions.infrastructure.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class ClusterMembershipTest {
+
+  private static final String A = "http://localhost:8070";
+  private static final String B = "http://localhost:8071";
+  private static final String C = "http://localhost:8072";
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void staticMembers_areNormalized() {
+    ClusterMembership membership = membership(A + "/", " " + B + " ,," + A, "");
+
+    assertEquals(List.of(A, B), membership.members());
+    assertEquals(A, membership.self());
+  }
+
+  @Test
+  void withoutMembers_thisNodeOwnsEveryAccount() {
+    ClusterMembership membership = membership(A, "", "");
+
+    assertTrue(membership.isLocal("001-0001"));
+    assertTrue(membership.isLocal("002-0002"));
+  }
+
+  @Test
+  void reload_replacesTheRingWhenTheFileChanges() throws IOException {
+    Path file = dir.resolve("members.txt");
+    Files.writeString(file, "# nodos locales\n" + A + "\n" + B + "\n");
+    ClusterMembership membership = membership(A, "", file.toString());
+    assertEquals(List.of(A, B), membership.members());
+
+    Files.writeString(file, A + "\n" + B + "\n" + C + "  # nuevo\n");
+    membership.reload();
+    assertEquals(List.of(A, B, C), membership.members());
+
+    // Un archivo vacío (p. ej. a medio escribir) no deja el anillo sin miembros
+    Files.writeString(file, "");
+    membership.reload();
+    assertEquals(List.of(A, B, C), membership.members());
+  }
+
+  @Test
+  void nonMember_forwardsEveryAccount() {
+    ClusterMembership membership = membership(C, A + "," + B, "");
+
+    assertFalse(membership.isLocal("001-0001"));
+    assertTrue(List.of(A, B).contains(membership.owner("001-0001")));
+  }
+
+  @Test
+  void start_withoutFile_doesNotSchedule() {
+    ClusterMembership membership = membership(A, B, "");
+
+    membership.start();
+    membership.destroy();
+
+    assertEquals(List.of(B), membership.members());
+  }
+
+  @Test
+  void start_rereadsTheFileEveryIntervalAndSurvivesErrors() throws IOException {
+    Path file = dir.resolve("members.txt");
+    Files.writeString(file, A + "\n");
+    VirtualTimeScheduler time = VirtualTimeScheduler.getOrSet();
+    try {
+      ClusterMembership membership = membership(A, "", file.toString());
+      membership.start();
+
+      Files.writeString(file, A + "\n" + B + "\n");
+      time.advanceTimeBy(Duration.ofSeconds(5));
+      assertEquals(List.of(A, B), membership.members());
+
+      // Si el archivo desaparece se conservan los miembros y se sigue releyendo
+      Files.delete(file);
+      time.advanceTimeBy(Duration.ofSeconds(5));
+      assertEquals(List.of(A, B), membership.members());
+
+      Files.writeString(file, A + "\n" + C + "\n");
+      time.advanceTimeBy(Duration.ofSeconds(5));
+      assertEquals(List.of(A, C), membership.members());
+
+      membership.destroy();
+      Files.writeString(file, B + "\n");
+      time.advanceTimeBy(Duration.ofSeconds(5));
+      assertEquals(List.of(A, C), membership.members());
+    } finally {
+      VirtualTimeScheduler.reset();
+    }
+  }
+
+  private static ClusterMembership membership(String self, String members, String file) {
+    return new ClusterMembership(new SimpleMeterRegistry(), Schedulers.immediate(), self,
+        members, file, 128, Duration.ofSeconds(5));
+  }
+}
@@ -0,0 +1,157 @@
+package com.bank.transactions.infrastructure.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+/**
+ * Reenvía contra un servidor HTTP real que hace de nodo dueño y responde qué recibió.
+ */
+class ClusterRoutingFilterTest {
+
+  private static final String SELF = "http://localhost:8070";
+  private static final String LOCAL = "001-0001";
+  private static final String REMOTE = "001-0002";
+
+  private final ClusterMembership membership = mock(ClusterMembership.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private DisposableServer owner;
+  private ClusterRoutingFilter filter;
+  private ServerWebExchange servedLocally;
+
+  @BeforeEach
+  void setUp() {
+    owner = HttpServer.create()
+      .port(0)
+      .handle((req, res) -> req.receive().aggregate().asString().defaultIfEmpty("")
+        .flatMap(body -> res.status(HttpStatus.CREATED.value())
+          .header("X-Forwarded-Seen", req.requestHeaders().get(ClusterRoutingFilter.FORWARDED_BY))
+          .sendString(Mono.just(req.method() + " " + req.uri() + " " + body))
+          .then()))
+      .bindNow();
+    when(membership.self()).thenReturn(SELF);
+    when(membership.isLocal(LOCAL)).thenReturn(true);
+    when(membership.owner(REMOTE)).thenReturn("http://localhost:" + owner.port());
+    filter = new ClusterRoutingFilter(membership, WebClient.create(),
+        ServerCodecConfigurer.create(), registry, DataSize.ofKilobytes(256));
+  }
+
+  @AfterEach
+  void tearDown() {
+    owner.disposeNow();
+  }
+
+  @Test
+  void postForAnotherNode_isForwardedWithTheOriginalBody() {
+    String body = "{\"accountNumber\":\"" + REMOTE + "\",\"type\":\"DEBIT\"}";
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.post("/api/transactions")
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(body));
+
+    StepVerifier.create(filter.filter(exchange, this::serveLocally)).verifyComplete();
+
+    assertNull(servedLocally);
+    assertEquals(HttpStatus.CREATED, exchange.getResponse().getStatusCode());
+    assertEquals(SELF, exchange.getResponse().getHeaders().getFirst("X-Forwarded-Seen"));
+    assertEquals("POST /api/transactions " + body,
+        exchange.getResponse().getBodyAsString().block());
+    assertEquals(1.0, registry.get("bankx.cluster.forwarded").counter().count());
+  }
+
+  @Test
+  void postForThisNode_replaysTheBodyToTheController() {
+    String body = "{\"fromAccount\":\"" + LOCAL + "\",\"toAccount\":\"" + REMOTE + "\"}";
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.post("/api/transfers")
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(body));
+
+    StepVerifier.create(filter.filter(exchange, this::serveLocally)).verifyComplete();
+
+    assertNotNull(servedLocally);
+    assertEquals(body, DataBufferUtils.join(servedLocally.getRequest().getBody())
+        .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+        .block());
+  }
+
+  @Test
+  void accountRoutes_areForwardedWithPathAndQuery() {
+    MockServerWebExchange balance = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/api/accounts/" + REMOTE + "/balance"));
+    MockServerWebExchange history = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/api/transactions?accountNumber=" + REMOTE + "&limit=5"));
+
+    StepVerifier.create(filter.filter(balance, this::serveLocally)).verifyComplete();
+    StepVerifier.create(filter.filter(history, this::serveLocally)).verifyComplete();
+
+    assertEquals("GET /api/accounts/" + REMOTE + "/balance ",
+        balance.getResponse().getBodyAsString().block());
+    assertEquals("GET /api/transactions?accountNumber=" + REMOTE + "&limit=5 ",
+        history.getResponse().getBodyAsString().block());
+  }
+
+  @Test
+  void alreadyForwarded_isServedLocally() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/api/accounts/" + REMOTE + "/summary")
+          .header(ClusterRoutingFilter.FORWARDED_BY, "http://localhost:8071"));
+
+    StepVerifier.create(filter.filter(exchange, this::serveLocally)).verifyComplete();
+
+    assertNotNull(servedLocally);
+  }
+
+  @Test
+  void unreadableBody_isLeftToTheController() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.post("/api/transactions")
+          .contentType(MediaType.APPLICATION_JSON)
+          .body("{not json"));
+
+    StepVerifier.create(filter.filter(exchange, this::serveLocally)).verifyComplete();
+
+    assertNotNull(servedLocally);
+  }
+
+  @Test
+  void ownerDown_answersServiceUnavailable() {
+    owner.disposeNow();
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/api/accounts/" + REMOTE + "/balance"));
+
+    StepVerifier.create(filter.filter(exchange, this::serveLocally)).verifyComplete();
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+    assertEquals("{\"error\":\"owner_unavailable\"}",
+        exchange.getResponse().getBodyAsString().block());
+    assertEquals(1.0, registry.get("bankx.cluster.forward.failures").counter().count());
+  }
+
+  private Mono<Void> serveLocally(ServerWebExchange exchange) {
+    servedLocally = exchange;
+    return Mono.empty();
+  }
+}
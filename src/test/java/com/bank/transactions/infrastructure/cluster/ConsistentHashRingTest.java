@@ -0,0 +1,79 @@
+package com.bank.transactions.infrastructure.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTest {
+
+  private static final String A = "http://localhost:8070";
+  private static final String B = "http://localhost:8071";
+  private static final String C = "http://localhost:8072";
+  private static final String D = "http://localhost:8073";
+  private static final List<String> ACCOUNTS = IntStream.range(0, 30_000)
+      .mapToObj(i -> String.format("%03d-%04d", i / 10_000, i % 10_000))
+      .toList();
+
+  @Test
+  void owner_doesNotDependOnMemberOrder() {
+    ConsistentHashRing ring = ConsistentHashRing.of(List.of(A, B, C), 128);
+    ConsistentHashRing shuffled = ConsistentHashRing.of(List.of(C, A, B, A), 128);
+
+    assertEquals(owners(ring), owners(shuffled));
+    assertEquals(List.of(A, B, C), shuffled.members());
+  }
+
+  @Test
+  void owner_spreadsAccountsEvenly() {
+    Map<String, Long> counts = owners(ConsistentHashRing.of(List.of(A, B, C), 128)).values()
+        .stream()
+        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+    assertEquals(3, counts.size());
+    counts.values().forEach(count -> {
+      double share = count / (double) ACCOUNTS.size();
+      assertTrue(share > 0.25 && share < 0.42, "share " + share);
+    });
+  }
+
+  @Test
+  void addingAMember_onlyMovesAccountsToIt() {
+    Map<String, String> before = owners(ConsistentHashRing.of(List.of(A, B, C), 128));
+    Map<String, String> after = owners(ConsistentHashRing.of(List.of(A, B, C, D), 128));
+
+    List<String> moved = ACCOUNTS.stream()
+        .filter(account -> !before.get(account).equals(after.get(account)))
+        .toList();
+    moved.forEach(account -> assertEquals(D, after.get(account)));
+    double share = moved.size() / (double) ACCOUNTS.size();
+    assertTrue(share > 0.15 && share < 0.35, "moved " + share);
+  }
+
+  @Test
+  void removingAMember_onlyMovesItsAccounts() {
+    Map<String, String> before = owners(ConsistentHashRing.of(List.of(A, B, C), 128));
+    Map<String, String> after = owners(ConsistentHashRing.of(List.of(A, C), 128));
+
+    ACCOUNTS.forEach(account -> {
+      if (!B.equals(before.get(account))) {
+        assertEquals(before.get(account), after.get(account));
+      }
+    });
+  }
+
+  @Test
+  void owner_emptyRing_isNull() {
+    assertNull(ConsistentHashRing.of(List.of(), 128).owner("001-0001"));
+  }
+
+  private static Map<String, String> owners(ConsistentHashRing ring) {
+    return ACCOUNTS.stream().collect(Collectors.toMap(Function.identity(), ring::owner));
+  }
+}
@@ -0,0 +1,81 @@
+package com.bank.transactions.infrastructure.config;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.application.service.RiskRuleEngine;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.bank.transactions.domain.repository.RiskRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class DataSeederTest {
+
+  private RiskRuleRepository riskRepo;
+  private AccountRepository accountRepo;
+  private RiskRuleEngine ruleEngine;
+  private DataSeeder seeder;
+
+  @BeforeEach
+  void setUp() {
+    riskRepo = mock(RiskRuleRepository.class);
+    accountRepo = mock(AccountRepository.class);
+    ruleEngine = mock(RiskRuleEngine.class);
+    when(ruleEngine.reload()).thenReturn(Mono.just(2));
+    when(accountRepo.deleteAll()).thenReturn(Mono.empty());
+    when(accountRepo.save(any(Account.class)))
+      .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    seeder = new DataSeeder(riskRepo, accountRepo, Schedulers.immediate(), ruleEngine);
+  }
+
+  @Test
+  void run_sync_seedsRulesThenAccountsBeforeReturning() {
+    ReflectionTestUtils.setField(seeder, "async", false);
+
+    seeder.run();
+
+    verify(riskRepo).deleteAllInBatch();
+    verify(riskRepo).saveAll(anyList());
+    verify(ruleEngine).reload();
+    verify(accountRepo, times(DataSeeder.accounts().size())).save(any(Account.class));
+  }
+
+  @Test
+  void run_sync_propagatesSeedErrors() {
+    ReflectionTestUtils.setField(seeder, "async", false);
+    when(ruleEngine.reload()).thenReturn(Mono.error(new IllegalStateException("h2 down")));
+
+    assertThrows(IllegalStateException.class, seeder::run);
+    verify(accountRepo, never()).save(any(Account.class));
+  }
+
+  @Test
+  void run_async_seedsInTheBackground() {
+    ReflectionTestUtils.setField(seeder, "async", true);
+
+    seeder.run();
+
+    verify(ruleEngine).reload();
+    verify(accountRepo, times(DataSeeder.accounts().size())).save(any(Account.class));
+  }
+
+  @Test
+  void run_async_logsSeedErrorsWithoutFailingStartup() {
+    ReflectionTestUtils.setField(seeder, "async", true);
+    when(ruleEngine.reload()).thenReturn(Mono.error(new IllegalStateException("h2 down")));
+
+    seeder.run();
+
+    verify(accountRepo, never()).save(any(Account.class));
+  }
+}
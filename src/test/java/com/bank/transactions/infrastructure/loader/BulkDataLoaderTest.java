@@ -0,0 +1,140 @@
+package com.bank.transactions.infrastructure.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.bulk.BulkWriteResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class BulkDataLoaderTest {
+
+  private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+  private final List<List<?>> batches = Collections.synchronizedList(new ArrayList<>());
+  private final BulkLoadProperties props = new BulkLoadProperties();
+  private ReactiveMongoTemplate mongoTemplate;
+  private ReactiveBulkOperations bulkOps;
+  private AccountRepository accountRepo;
+
+  @TempDir
+  Path dir;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    bulkOps = mock(ReactiveBulkOperations.class);
+    accountRepo = mock(AccountRepository.class);
+    when(mongoTemplate.bulkOps(eq(BulkMode.UNORDERED), eq(Account.class))).thenReturn(bulkOps);
+    when(mongoTemplate.bulkOps(eq(BulkMode.UNORDERED), eq(Transaction.class))).thenReturn(bulkOps);
+    when(bulkOps.insert(anyList())).thenAnswer(invocation -> {
+      List<?> batch = invocation.getArgument(0);
+      batches.add(batch);
+      return bulkOps;
+    });
+    when(bulkOps.execute()).thenAnswer(invocation ->
+        Mono.just(inserted(batches.get(batches.size() - 1).size())));
+    props.setBatchSize(2);
+    props.setParallelism(1);
+    props.setProgressInterval(Duration.ofHours(1));
+  }
+
+  private BulkDataLoader loader() {
+    return new BulkDataLoader(props, mongoTemplate, accountRepo, mapper,
+        Schedulers.boundedElastic(), null);
+  }
+
+  private static BulkWriteResult inserted(int count) {
+    return BulkWriteResult.acknowledged(count, 0, 0, 0, List.of(), List.of());
+  }
+
+  @Test
+  void load_writesSyntheticDataInBatches() {
+    props.setAccounts(3);
+    props.setTransactions(4);
+
+    StepVerifier.create(loader().load()).verifyComplete();
+
+    assertEquals(List.of(2, 1, 2, 2), batches.stream().map(List::size).toList());
+    assertEquals(Account.class, batches.get(0).get(0).getClass());
+    assertEquals(Transaction.class, batches.get(2).get(0).getClass());
+  }
+
+  @Test
+  void load_resolvesAccountsOfFileTransactionsAndSkipsUnknown() throws IOException {
+    props.setAccountsFile(write("accounts.csv", "number,holderName,currency,balance\n"
+        + "001-0001,Ana,PEN,100\n").toString());
+    props.setTransactionsFile(write("transactions.ndjson",
+        "{\"accountNumber\":\"001-0001\",\"type\":\"DEBIT\",\"amount\":1,\"currency\":\"PEN\"}\n"
+          + "{\"accountNumber\":\"404\",\"type\":\"DEBIT\",\"amount\":1,\"currency\":\"PEN\"}\n"
+          + "{\"accountNumber\":\"001-0001\",\"type\":\"CREDIT\",\"amount\":2,\"currency\":\"PEN\"}\n")
+        .toString());
+    when(accountRepo.findByNumber("001-0001"))
+      .thenReturn(Mono.just(Account.builder().id("acc-1").number("001-0001").build()));
+    when(accountRepo.findByNumber("404")).thenReturn(Mono.empty());
+
+    StepVerifier.create(loader().load()).verifyComplete();
+
+    assertEquals(2, batches.size());
+    List<?> transactions = batches.get(1);
+    assertEquals(2, transactions.size());
+    transactions.forEach(tx -> assertEquals("acc-1", ((Transaction) tx).getAccountId()));
+    verify(accountRepo, times(1)).findByNumber("001-0001");
+  }
+
+  @Test
+  void load_forgetsLeastRecentlyUsedAccounts() throws IOException {
+    props.setAccountCacheSize(1);
+    props.setAccountsFile(write("accounts.csv", "number,holderName,currency,balance\n")
+        .toString());
+    props.setTransactionsFile(write("transactions.ndjson",
+        "{\"accountNumber\":\"A\",\"type\":\"DEBIT\",\"amount\":1,\"currency\":\"PEN\"}\n"
+          + "{\"accountNumber\":\"B\",\"type\":\"DEBIT\",\"amount\":1,\"currency\":\"PEN\"}\n"
+          + "{\"accountNumber\":\"A\",\"type\":\"DEBIT\",\"amount\":1,\"currency\":\"PEN\"}\n")
+        .toString());
+    when(accountRepo.findByNumber("A")).thenReturn(Mono.just(Account.builder().id("a").build()));
+    when(accountRepo.findByNumber("B")).thenReturn(Mono.just(Account.builder().id("b").build()));
+
+    StepVerifier.create(loader().load()).verifyComplete();
+
+    verify(accountRepo, times(2)).findByNumber("A");
+  }
+
+  @Test
+  void load_failedBatch_failsTheLoad() {
+    props.setAccounts(2);
+    doReturn(Mono.error(new IllegalStateException("mongo down"))).when(bulkOps).execute();
+
+    StepVerifier.create(loader().load())
+      .expectErrorMessage("mongo down")
+      .verify();
+  }
+
+  private Path write(String name, String content) throws IOException {
+    return Files.writeString(dir.resolve(name), content);
+  }
+}
@@ -0,0 +1,32 @@
+package com.bank.transactions.infrastructure.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LoadProgressTest {
+
+  @Test
+  void onBatch_accumulatesDocumentsAndBatches() {
+    LoadProgress progress = new LoadProgress("accounts", 8);
+
+    progress.onBatch(2);
+    progress.onBatch(4);
+
+    assertEquals(6, progress.written());
+    assertTrue(progress.summary().startsWith("accounts: 6 docs (75.0%) in 2 batches"),
+        progress.summary());
+    assertTrue(progress.docsPerSecond() >= 0);
+  }
+
+  @Test
+  void summary_unknownTotal_omitsPercentage() {
+    LoadProgress progress = new LoadProgress("transactions", -1);
+
+    progress.onBatch(3);
+
+    assertTrue(progress.summary().startsWith("transactions: 3 docs in 1 batches"),
+        progress.summary());
+  }
+}
@@ -0,0 +1,61 @@
+package com.bank.transactions.infrastructure.loader;
+
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class RecordFileReaderTest {
+
+  private final RecordFileReader reader =
+      new RecordFileReader(new ObjectMapper().registerModule(new JavaTimeModule()),
+          Schedulers.boundedElastic());
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void read_csvWithHeader() throws IOException {
+    Path file = Files.writeString(dir.resolve("accounts.csv"),
+        "number,holderName,currency,balance\n"
+          + "001-0001,Ana,PEN,2000.50\n"
+          + "\n"
+          + "001-0002,Luis,USD,10\n");
+
+    StepVerifier.create(reader.read(file, Account.class))
+      .expectNextMatches(acc -> "001-0001".equals(acc.getNumber())
+        && new BigDecimal("2000.50").equals(acc.getBalance()))
+      .expectNextMatches(acc -> "USD".equals(acc.getCurrency()))
+      .verifyComplete();
+  }
+
+  @Test
+  void read_ndjson() throws IOException {
+    Path file = Files.writeString(dir.resolve("transactions.ndjson"),
+        "{\"accountNumber\":\"001-0001\",\"type\":\"DEBIT\",\"amount\":12.5,"
+          + "\"currency\":\"PEN\",\"timestamp\":\"2026-01-01T00:00:00Z\"}\n");
+
+    StepVerifier.create(reader.read(file, Transaction.class))
+      .expectNextMatches(tx -> "DEBIT".equals(tx.getType())
+        && Instant.parse("2026-01-01T00:00:00Z").equals(tx.getTimestamp()))
+      .verifyComplete();
+  }
+
+  @Test
+  void read_invalidNdjson_fails() throws IOException {
+    Path file = Files.writeString(dir.resolve("broken.jsonl"), "{not json}\n");
+
+    StepVerifier.create(reader.read(file, Transaction.class))
+      .expectError(IllegalArgumentException.class)
+      .verify();
+  }
+}
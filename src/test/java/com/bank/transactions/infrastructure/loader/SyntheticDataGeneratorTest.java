@@ -0,0 +1,69 @@
+package com.bank.transactions.infrastructure.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SyntheticDataGeneratorTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+  private BulkLoadProperties props;
+  private SyntheticDataGenerator generator;
+
+  @BeforeEach
+  void setUp() {
+    props = new BulkLoadProperties();
+    generator = new SyntheticDataGenerator(props, 10_000, NOW);
+  }
+
+  @Test
+  void account_isDeterministicAndHasValidObjectId() {
+    Account first = generator.account(123);
+    Account second = new SyntheticDataGenerator(props, 10_000, NOW).account(123);
+
+    assertEquals(first, second);
+    assertTrue(ObjectId.isValid(first.getId()));
+    assertEquals("900-00000123", first.getNumber());
+    assertTrue(Set.of("PEN", "USD", "EUR").contains(first.getCurrency()));
+    assertTrue(first.getBalance().signum() > 0);
+  }
+
+  @Test
+  void transaction_referencesGeneratedAccountWithinTimeSpread() {
+    Transaction tx = generator.transaction(77);
+    long accountIndex = Long.parseLong(tx.getAccountNumber().substring(4));
+
+    assertEquals(SyntheticDataGenerator.accountId(accountIndex), tx.getAccountId());
+    assertEquals(generator.currencyOf(accountIndex), tx.getCurrency());
+    assertTrue(tx.getTimestamp().isAfter(NOW.minus(Duration.ofDays(props.getDaysSpread()))));
+    assertTrue(!tx.getTimestamp().isAfter(NOW));
+  }
+
+  @Test
+  void transactions_areSkewedTowardsHotAccounts() {
+    int samples = 20_000;
+    int hot = 0;
+    for (int i = 0; i < samples; i++) {
+      if (Long.parseLong(generator.transaction(i).getAccountNumber().substring(4)) < 100) {
+        hot++;
+      }
+    }
+    // El 1% de cuentas más activas concentra bastante más que el 1% del tráfico
+    assertTrue(hot > samples / 4, "hot share was " + hot);
+  }
+
+  @Test
+  void hotAccountIndex_staysInRange() {
+    assertEquals(0, generator.hotAccountIndex(0.0));
+    assertTrue(generator.hotAccountIndex(0.999999) < 10_000);
+  }
+}
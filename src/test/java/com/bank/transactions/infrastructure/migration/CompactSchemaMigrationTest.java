@@ -0,0 +1,184 @@
+package com.bank.transactions.infrastructure.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.reactivestreams.client.AggregatePublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class CompactSchemaMigrationTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-15T10:15:30Z");
+
+  private final CompactTransactionCodec codec = new CompactTransactionCodec(false);
+  private final CompactMigrationProperties props = new CompactMigrationProperties();
+  /** Colección de transacciones en memoria, ordenada por {@code _id}. */
+  private final Map<ObjectId, Document> stored = new TreeMap<>();
+  private ReactiveMongoTemplate mongoTemplate;
+  private CompactSchemaMigration migration;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    MongoCollection<Document> collection = mock(MongoCollection.class);
+    when(mongoTemplate.getCollectionName(Transaction.class)).thenReturn("transactions");
+    when(mongoTemplate.getCollection("transactions")).thenReturn(Mono.just(collection));
+    ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+    when(indexOps.ensureIndex(any(IndexDefinition.class))).thenReturn(Mono.just("idx"));
+    when(mongoTemplate.indexOps("transactions")).thenReturn(indexOps);
+
+    // $collStats: cantidad de documentos y bytes de la colección en memoria
+    AggregatePublisher<Document> stats = mock(AggregatePublisher.class);
+    when(collection.aggregate(anyList())).thenReturn(stats);
+    when(stats.first()).thenAnswer(invocation -> Mono.fromSupplier(() ->
+        new Document("storageStats", new Document("count", stored.size())
+          .append("size", stored.values().stream().mapToInt(doc -> doc.toJson().length()).sum())
+          .append("avgObjSize", 0)
+          .append("storageSize", 0L)
+          .append("totalIndexSize", 0))));
+
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("transactions")))
+      .thenAnswer(invocation -> Flux.fromIterable(legacyPage(invocation.getArgument(0))));
+    when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+      .thenAnswer(invocation -> Mono.just(replace(invocation.getArgument(0))));
+
+    props.setBatchSize(2);
+    props.setDocsPerSecond(1_000_000);
+    migration = new CompactSchemaMigration(props, mongoTemplate, codec, null);
+  }
+
+  private List<Document> legacyPage(Query query) {
+    Document gt = (Document) query.getQueryObject().get("_id");
+    ObjectId after = gt != null ? (ObjectId) gt.get("$gt") : null;
+    return stored.entrySet().stream()
+      .filter(entry -> after == null || entry.getKey().compareTo(after) > 0)
+      .map(Map.Entry::getValue)
+      .filter(doc -> doc.containsKey(CompactTransactionCodec.LEGACY_MARKER))
+      .limit(query.getLimit())
+      .toList();
+  }
+
+  /** Aplica los reemplazos condicionados a que el documento siga en el formato anterior. */
+  private BulkWriteResult replace(List<ReplaceOneModel<Document>> models) {
+    int modified = 0;
+    for (ReplaceOneModel<Document> model : models) {
+      Document replacement = model.getReplacement();
+      ObjectId id = replacement.getObjectId("_id");
+      if (stored.get(id).containsKey(CompactTransactionCodec.LEGACY_MARKER)) {
+        stored.put(id, replacement);
+        modified++;
+      }
+    }
+    return BulkWriteResult.acknowledged(0, modified, 0, modified, List.of(), List.of());
+  }
+
+  private void storeLegacy(String amount) {
+    ObjectId id = new ObjectId();
+    stored.put(id, new Document("_id", id)
+        .append("accountId", "acc-1")
+        .append("accountNumber", "001-0001")
+        .append("currency", "PEN")
+        .append("type", "DEBIT")
+        .append("amount", amount)
+        .append("timestamp", Date.from(NOW))
+        .append("status", "COMPLETED")
+        .append("_class", Transaction.class.getName()));
+  }
+
+  private void storeCompact() {
+    Document doc = codec.encode(Transaction.builder().id(new ObjectId().toHexString())
+        .accountId("acc-2").currency("USD").type("CREDIT").amount(BigDecimal.ONE)
+        .timestamp(NOW).status("COMPLETED").build());
+    stored.put(doc.getObjectId("_id"), doc);
+  }
+
+  @Test
+  void migrate_rewritesLegacyDocumentsToTheCompactSchema() {
+    storeLegacy("10");
+    storeCompact();
+    storeLegacy("20.50");
+    storeLegacy("30");
+
+    StepVerifier.create(migration.migrate())
+      .expectNext(3L)
+      .verifyComplete();
+
+    assertEquals(4, stored.size());
+    stored.values().forEach(doc -> {
+      assertFalse(doc.containsKey(CompactTransactionCodec.LEGACY_MARKER), doc.toJson());
+      assertFalse(doc.containsKey("_class"), doc.toJson());
+    });
+    List<BigDecimal> amounts = new ArrayList<>();
+    stored.values().forEach(doc -> amounts.add(codec.decode(doc).getAmount()));
+    assertEquals(List.of(new BigDecimal("10.00"), new BigDecimal("1.00"),
+        new BigDecimal("20.50"), new BigDecimal("30.00")), amounts);
+  }
+
+  @Test
+  void migrate_twice_changesNothingTheSecondTime() {
+    storeLegacy("10");
+    storeLegacy("20");
+    storeLegacy("30");
+    migration.migrate().block();
+    Map<ObjectId, Document> afterFirst = new TreeMap<>(stored);
+
+    StepVerifier.create(migration.migrate())
+      .expectNext(0L)
+      .verifyComplete();
+
+    assertEquals(afterFirst, stored);
+  }
+
+  @Test
+  void migrate_reportOnly_doesNotRewrite() {
+    storeLegacy("10");
+    props.setReportOnly(true);
+
+    StepVerifier.create(migration.migrate())
+      .expectNext(0L)
+      .verifyComplete();
+
+    verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), eq("transactions"));
+  }
+
+  @Test
+  void storageReport_readsCollStats() {
+    storeLegacy("10");
+    storeCompact();
+
+    StepVerifier.create(migration.storageReport())
+      .expectNextMatches(report -> report.count() == 2 && report.size() > 0)
+      .verifyComplete();
+  }
+}
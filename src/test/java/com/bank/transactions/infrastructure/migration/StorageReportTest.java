@@ -0,0 +1,35 @@
+package com.bank.transactions.infrastructure.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+class StorageReportTest {
+
+  @Test
+  void from_readsAnyNumericTypeAndDefaultsMissingToZero() {
+    Document stats = new Document("count", 1_000)
+        .append("size", 250_000L)
+        .append("avgObjSize", 250.0)
+        .append("storageSize", 90_000);
+
+    assertEquals(new StorageReport(1_000, 250_000, 250, 90_000, 0), StorageReport.from(stats));
+  }
+
+  @Test
+  void compare_showsPercentageChangePerMetric() {
+    StorageReport before = new StorageReport(1_000, 250_000, 250, 100_000, 0);
+    StorageReport after = new StorageReport(1_000, 100_000, 100, 40_000, 8_000);
+
+    String[] rows = StorageReport.compare(before, after).split(System.lineSeparator());
+
+    assertEquals(6, rows.length);
+    assertEquals(String.format("%-15s %15d %15d %8s", "count", 1_000, 1_000, "+0.0%"), rows[1]);
+    assertEquals(String.format("%-15s %15d %15d %8s", "size", 250_000, 100_000, "-60.0%"),
+        rows[2]);
+    assertEquals(String.format("%-15s %15d %15d %8s", "storageSize", 100_000, 40_000, "-60.0%"),
+        rows[4]);
+    assertEquals(String.format("%-15s %15d %15d %8s", "totalIndexSize", 0, 8_000, "-"), rows[5]);
+  }
+}
@@ -0,0 +1,174 @@
+package com.bank.transactions.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.transactions.domain.model.Transaction;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+class CompactTransactionCodecTest {
+
+  private static final String ID = "65a1b2c3d4e5f6a7b8c9d0e1";
+  private static final Instant NOW = Instant.parse("2024-01-15T10:15:30.123Z");
+
+  private final CompactTransactionCodec codec = new CompactTransactionCodec(false);
+
+  private static Transaction tx(String currency, String amount) {
+    return Transaction.builder()
+      .id(ID)
+      .accountId("65a1b2c3d4e5f6a7b8c9d0ff")
+      .accountNumber("001-0001")
+      .currency(currency)
+      .type("DEBIT")
+      .amount(new BigDecimal(amount))
+      .timestamp(NOW)
+      .status("COMPLETED")
+      .build();
+  }
+
+  @Test
+  void encode_usesShortKeysAndCodes() {
+    Document doc = codec.encode(tx("PEN", "150.25"));
+
+    assertEquals(new ObjectId(ID), doc.get("_id"));
+    assertEquals("65a1b2c3d4e5f6a7b8c9d0ff", doc.get("a"));
+    assertEquals(604, doc.get("c"));
+    assertEquals("D", doc.get("t"));
+    assertEquals(15025, doc.get("m"));
+    assertEquals("C", doc.get("s"));
+    assertFalse(doc.containsKey("r"));
+    assertFalse(doc.containsKey("_class"));
+  }
+
+  @Test
+  void roundTrip_preservesValues() {
+    Transaction original = tx("USD", "99.90");
+    original.setReason("manual");
+
+    Transaction decoded = codec.decode(codec.encode(original));
+
+    assertEquals(original, decoded);
+  }
+
+  @Test
+  void encode_amountWithExtraScaleFallsBackToDecimal128() {
+    Document doc = codec.encode(tx("PEN", "10.12345"));
+
+    assertEquals(new Decimal128(new BigDecimal("10.12345")), doc.get("m"));
+    assertEquals(0, new BigDecimal("10.12345").compareTo(codec.decode(doc).getAmount()));
+  }
+
+  @Test
+  void decode_returnsAmountsAtTheCurrencyScale() {
+    BigDecimal expected = new BigDecimal("100.00");
+
+    assertEquals(expected, codec.decode(codec.encode(tx("PEN", "100"))).getAmount());
+    assertEquals(expected, codec.decode(codec.encode(tx("PEN", "100.0000"))).getAmount());
+    assertEquals(expected, codec.decode(legacy(tx("PEN", "100"))).getAmount());
+    assertEquals(new BigDecimal("5"), codec.decode(codec.encode(tx("JPY", "5.00"))).getAmount());
+  }
+
+  @Test
+  void encode_unknownValuesAreKeptVerbatim() {
+    Transaction original = tx("XYZ1", "5");
+    original.setType("REVERSAL");
+    original.setStatus("ON_HOLD");
+
+    Document doc = codec.encode(original);
+    Transaction decoded = codec.decode(doc);
+
+    assertEquals("XYZ1", doc.get("c"));
+    assertEquals(new Decimal128(new BigDecimal("5")), doc.get("m"));
+    assertEquals("XYZ1", decoded.getCurrency());
+    assertEquals("REVERSAL", decoded.getType());
+    assertEquals("ON_HOLD", decoded.getStatus());
+  }
+
+  @Test
+  void encode_canDropAccountNumber() {
+    Document doc = new CompactTransactionCodec(true).encode(tx("PEN", "1"));
+
+    assertFalse(doc.containsKey("n"));
+    assertNull(codec.decode(doc).getAccountNumber());
+  }
+
+  @Test
+  void converters_skipMissingOptionalFields() {
+    Transaction sparse = Transaction.builder()
+      .accountId("65a1b2c3d4e5f6a7b8c9d0ff")
+      .amount(new BigDecimal("7"))
+      .build();
+
+    Document doc = codec.writer().convert(sparse);
+    Transaction decoded = codec.reader().convert(doc);
+
+    assertEquals(Set.of("a", "m"), doc.keySet());
+    assertEquals(new Decimal128(new BigDecimal("7")), doc.get("m"));
+    assertNull(decoded.getId());
+    assertNull(decoded.getCurrency());
+    assertNull(decoded.getType());
+    assertNull(decoded.getTimestamp());
+    assertNull(decoded.getStatus());
+    assertEquals(new BigDecimal("7"), decoded.getAmount());
+  }
+
+  @Test
+  void converters_keepNonObjectIdIdentifiers() {
+    Transaction tx = tx("PEN", "1");
+    tx.setId("tx-1");
+
+    Document doc = codec.writer().convert(tx);
+
+    assertEquals("tx-1", doc.get("_id"));
+    assertEquals("tx-1", codec.reader().convert(doc).getId());
+  }
+
+  @Test
+  void decode_readsLegacyDocuments() {
+    Document legacy = legacy(tx("PEN", "150.25"));
+
+    assertEquals(tx("PEN", "150.25"), codec.decode(legacy));
+  }
+
+  @Test
+  void compactDocumentIsMuchSmaller() {
+    Transaction tx = tx("PEN", "150.25");
+
+    int legacySize = bsonSize(legacy(tx));
+    int compactSize = bsonSize(codec.encode(tx));
+
+    // Sin _class ni claves largas el documento queda en menos de la mitad
+    assertTrue(compactSize * 2 < legacySize,
+        "compact " + compactSize + " bytes vs legacy " + legacySize + " bytes");
+  }
+
+  /**
+   * Documento tal como lo escribía Spring Data antes del formato compacto.
+   */
+  private static Document legacy(Transaction tx) {
+    return new Document("_id", new ObjectId(tx.getId()))
+      .append("accountId", tx.getAccountId())
+      .append("accountNumber", tx.getAccountNumber())
+      .append("currency", tx.getCurrency())
+      .append("type", tx.getType())
+      .append("amount", tx.getAmount().toString())
+      .append("timestamp", Date.from(tx.getTimestamp()))
+      .append("status", tx.getStatus())
+      .append("_class", Transaction.class.getName());
+  }
+
+  private static int bsonSize(Document doc) {
+    return new RawBsonDocument(doc, new DocumentCodec()).getByteBuffer().remaining();
+  }
+}
@@ -0,0 +1,36 @@
+package com.bank.transactions.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ThrottlingTest {
+
+  @Test
+  void minBatchDuration_spreadsTheBatchOverTheRate() {
+    assertEquals(Duration.ofMillis(500), Throttling.minBatchDuration(100, 200));
+    // Un ritmo no positivo se trata como 1 documento por segundo
+    assertEquals(Duration.ofSeconds(10), Throttling.minBatchDuration(10, 0));
+  }
+
+  @Test
+  void atLeast_waitsForTheRemainingTime() {
+    StepVerifier.withVirtualTime(() -> Throttling.atLeast(Mono.just("batch"),
+            Duration.ofSeconds(1)))
+      .expectSubscription()
+      .expectNoEvent(Duration.ofMillis(900))
+      .thenAwait(Duration.ofMillis(100))
+      .expectNext("batch")
+      .verifyComplete();
+  }
+
+  @Test
+  void atLeast_doesNotWaitWhenUnthrottled() {
+    StepVerifier.create(Throttling.atLeast(Mono.just("batch"), Duration.ZERO))
+      .expectNext("batch")
+      .verifyComplete();
+  }
+}
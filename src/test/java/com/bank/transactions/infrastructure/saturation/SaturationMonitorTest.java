@@ -0,0 +1,141 @@
+package com.bank.transactions.infrastructure.saturation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.application.service.RiskRemoteClient;
+import com.bank.transactions.domain.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.LoopResources;
+
+class SaturationMonitorTest {
+
+  private final Sinks.Many<Transaction> sink = Sinks.many().multicast().onBackpressureBuffer(10);
+  private final RiskRemoteClient riskClient = mock(RiskRemoteClient.class);
+  private final LoopResources loops = LoopResources.create("saturation-test", 1, true);
+  private final EventLoopGroup eventLoop = loops.onServer(LoopResources.DEFAULT_NATIVE);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private SaturationMonitor monitor;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    ReactorResourceFactory resources = new ReactorResourceFactory();
+    resources.setUseGlobalResources(false);
+    resources.setLoopResources(loops);
+    ObjectProvider<ReactorResourceFactory> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable()).thenReturn(resources);
+    monitor = new SaturationMonitor(registry, sink, riskClient, provider, Duration.ofHours(1),
+        Duration.ofMillis(100), 1000, 0.9, 0.8, 200);
+    monitor.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    monitor.destroy();
+    loops.dispose();
+  }
+
+  @Test
+  void idleNode_isUp() {
+    monitor.sample();
+    await(() -> registry.get("bankx.saturation.event-loop.lag").timeGauge()
+        .value(TimeUnit.NANOSECONDS) > 0);
+
+    assertEquals(List.of(), monitor.snapshot().saturated());
+    assertEquals(Status.UP, new SaturationHealthIndicator(monitor).health().getStatus());
+  }
+
+  @Test
+  void blockedEventLoop_isSaturatedUntilItRecovers() throws InterruptedException {
+    AtomicBoolean release = new AtomicBoolean();
+    // Ocupa el loop sin llamadas bloqueantes, que BlockHound cortaría
+    eventLoop.execute(() -> {
+      while (!release.get()) {
+        // espera activa
+      }
+    });
+    monitor.sample();
+    Thread.sleep(150);
+
+    assertEquals(List.of("eventLoopLag"), monitor.snapshot().saturated());
+    assertTrue(registry.get("bankx.saturation.event-loop.lag").timeGauge()
+        .value(TimeUnit.MILLISECONDS) >= 150);
+
+    release.set(true);
+    await(() -> {
+      monitor.sample();
+      return monitor.snapshot().saturated().isEmpty();
+    });
+  }
+
+  @Test
+  void fullSinkAndPendingRiskCalls_takeTheNodeOutOfService() {
+    for (int i = 0; i < 9; i++) {
+      sink.tryEmitNext(new Transaction());
+    }
+    when(riskClient.pendingCalls()).thenReturn(500);
+
+    assertEquals(0.9, registry.get("bankx.saturation.sink.fill").gauge().value(), 1e-9);
+    assertEquals(500, registry.get("bankx.saturation.risk.pending").gauge().value());
+    var health = new SaturationHealthIndicator(monitor).health();
+    assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+    assertEquals(List.of("sinkFill", "riskPending"), health.getDetails().get("saturated"));
+  }
+
+  @Test
+  void schedulerLoad_countsRunningAndWaitingTasks() {
+    Scheduler elastic = Schedulers.newBoundedElastic(1, 10, "saturation-test");
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      elastic.schedule(() -> awaitQuietly(release));
+      elastic.schedule(() -> { });
+
+      // Un hilo recién creado ya cuenta como activo antes de tomar su primera tarea
+      await(() -> SchedulerExecutors.load(elastic).queued() == 1);
+      assertEquals(new SchedulerExecutors.Load(1, 1, 1), SchedulerExecutors.load(elastic));
+      assertEquals(1.0, SchedulerExecutors.load(elastic).utilization());
+    } finally {
+      release.countDown();
+      elastic.dispose();
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(BooleanSupplier condition) {
+    Instant deadline = Instant.now().plusSeconds(5);
+    while (!condition.getAsBoolean()) {
+      if (Instant.now().isAfter(deadline)) {
+        throw new AssertionError("Condition not met in 5s");
+      }
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.bank.transactions.infrastructure.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import com.mongodb.ConnectionString;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+/**
+ * Prueba contra un Mongo real en modo replica set (alcanza uno de un solo nodo):
+ *
+ * <pre>
+ * mkdir -p /tmp/rs0 &amp;&amp; mongod --replSet rs0 --dbpath /tmp/rs0 --fork --logpath /tmp/rs0.log
+ * mongosh --eval 'rs.initiate()'
+ * mvn test -Dtest=TransactionChangeStreamReplicaSetTest \
+ *   -Dit.mongoUri="mongodb://localhost:27017/bankx_it?replicaSet=rs0"
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "it.mongoUri", matches = ".+")
+class TransactionChangeStreamReplicaSetTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private MongoClient client;
+  private ReactiveMongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void setUp() {
+    ConnectionString uri = new ConnectionString(System.getProperty("it.mongoUri"));
+    client = MongoClients.create(uri);
+    mongoTemplate = new ReactiveMongoTemplate(
+        new SimpleReactiveMongoDatabaseFactory(client, uri.getDatabase()),
+        TransactionChangeStreamTest.converter(new CompactTransactionCodec(false)));
+    mongoTemplate.dropCollection(Transaction.class).block();
+    mongoTemplate.dropCollection(TransactionChangeStream.TOKENS).block();
+    mongoTemplate.createCollection(Transaction.class).block();
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+  }
+
+  @Test
+  void insertsReachEveryNodeAndResumeAfterARestart() throws InterruptedException {
+    Sinks.Many<Transaction> nodeA = Sinks.many().replay().all();
+    Sinks.Many<Transaction> nodeB = Sinks.many().replay().all();
+    TransactionChangeStream streamA = stream(nodeA, "node-a");
+    TransactionChangeStream streamB = stream(nodeB, "node-b");
+    streamA.start();
+    streamB.start();
+    awaitListening(nodeA, nodeB);
+
+    Transaction first = tx();
+    mongoTemplate.insert(first).block();
+    StepVerifier.create(nodeA.asFlux().filter(tx -> tx.getId().equals(first.getId())).take(1))
+      .expectNextCount(1)
+      .expectComplete()
+      .verify(TIMEOUT);
+    StepVerifier.create(nodeB.asFlux().filter(tx -> tx.getId().equals(first.getId())).take(1))
+      .expectNextCount(1)
+      .expectComplete()
+      .verify(TIMEOUT);
+
+    // Con el nodo B detenido se inserta otra; al volver la recibe desde su token
+    streamB.destroy();
+    Transaction second = tx();
+    mongoTemplate.insert(second).block();
+    Sinks.Many<Transaction> restarted = Sinks.many().replay().all();
+    TransactionChangeStream streamB2 = stream(restarted, "node-b");
+    streamB2.start();
+
+    StepVerifier.create(restarted.asFlux().filter(tx -> tx.getId().equals(second.getId()))
+        .take(1))
+      .assertNext(tx -> assertEquals(second.getAmount(), tx.getAmount()))
+      .expectComplete()
+      .verify(TIMEOUT);
+    streamA.destroy();
+    streamB2.destroy();
+  }
+
+  /**
+   * El change stream se abre en segundo plano: se insertan transacciones de prueba hasta que
+   * todos los nodos reciban alguna.
+   */
+  @SafeVarargs
+  private void awaitListening(Sinks.Many<Transaction>... nodes) throws InterruptedException {
+    Instant deadline = Instant.now().plus(TIMEOUT);
+    while (Arrays.stream(nodes).anyMatch(node -> Boolean.FALSE.equals(
+        node.asFlux().take(Duration.ofMillis(200)).hasElements().block()))) {
+      if (Instant.now().isAfter(deadline)) {
+        throw new AssertionError("Change streams did not open in " + TIMEOUT);
+      }
+      mongoTemplate.insert(tx()).block();
+      Thread.sleep(100);
+    }
+  }
+
+  private TransactionChangeStream stream(Sinks.Many<Transaction> sink, String nodeId) {
+    return new TransactionChangeStream(mongoTemplate, mock(AccountRepository.class), sink,
+        new SimpleMeterRegistry(), nodeId, Duration.ofMillis(100), Duration.ofMillis(100));
+  }
+
+  private static Transaction tx() {
+    return Transaction.builder()
+        .id(new ObjectId().toHexString())
+        .accountId("acc-1")
+        .accountNumber("001-0001")
+        .type("CREDIT")
+        .amount(new BigDecimal("25.50"))
+        .currency("PEN")
+        .timestamp(Instant.now().truncatedTo(ChronoUnit.MILLIS))
+        .status("COMPLETED")
+        .build();
+  }
+}
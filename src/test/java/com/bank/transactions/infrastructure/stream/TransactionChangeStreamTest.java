@@ -0,0 +1,250 @@
+package com.bank.transactions.infrastructure.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import com.mongodb.MongoException;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class TransactionChangeStreamTest {
+
+  private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+  private static final BsonDocument TOKEN = new BsonDocument("_data", new BsonString("8263"));
+
+  private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+  private final AccountRepository accountRepo = mock(AccountRepository.class);
+  private final Sinks.Many<Transaction> sink = Sinks.many().multicast().onBackpressureBuffer();
+  private final List<Transaction> emitted = new ArrayList<>();
+  private TransactionChangeStream stream;
+
+  @BeforeEach
+  void setUp() {
+    when(mongoTemplate.getCollectionName(Transaction.class)).thenReturn("transactions");
+    when(mongoTemplate.getConverter()).thenReturn(converter(new CompactTransactionCodec(false)));
+    when(mongoTemplate.upsert(any(Query.class), any(Update.class), anyString()))
+      .thenReturn(Mono.just(UpdateResult.acknowledged(0, 1L, null)));
+    sink.asFlux().subscribe(emitted::add);
+    stream = new TransactionChangeStream(mongoTemplate, accountRepo, sink,
+        new SimpleMeterRegistry(), "node-a", Duration.ofHours(1), Duration.ofMillis(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    stream.destroy();
+  }
+
+  @Test
+  void emit_decodesTheCompactDocumentIntoTheLocalSink() {
+    Transaction tx = tx();
+
+    StepVerifier.create(stream.emit(event(new CompactTransactionCodec(false).encode(tx))))
+      .expectNextCount(1)
+      .verifyComplete();
+
+    assertEquals(List.of(tx), emitted);
+  }
+
+  @Test
+  void emit_fillsTheAccountNumberWhenItIsNotStored() {
+    when(accountRepo.findById("acc-1"))
+      .thenReturn(Mono.just(Account.builder().id("acc-1").number("001-0001").build()));
+
+    StepVerifier.create(stream.emit(event(new CompactTransactionCodec(true).encode(tx()))))
+      .expectNextCount(1)
+      .verifyComplete();
+
+    assertEquals("001-0001", emitted.get(0).getAccountNumber());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void emit_rejectedBySink_failsWithoutAdvancingTheToken() {
+    Sinks.Many<Transaction> full = mock(Sinks.Many.class);
+    when(full.tryEmitNext(any())).thenReturn(Sinks.EmitResult.FAIL_OVERFLOW);
+    TransactionChangeStream rejecting = new TransactionChangeStream(mongoTemplate, accountRepo,
+        full, new SimpleMeterRegistry(), "node-a", Duration.ofHours(1), Duration.ofMillis(1));
+
+    StepVerifier.create(rejecting.emit(event(new CompactTransactionCodec(false).encode(tx()))))
+      .expectError(IllegalStateException.class)
+      .verify();
+    StepVerifier.create(rejecting.checkpoint()).verifyComplete();
+
+    verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), anyString());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void emit_concurrentEmission_isRetried() {
+    Sinks.Many<Transaction> busy = mock(Sinks.Many.class);
+    when(busy.tryEmitNext(any()))
+      .thenReturn(Sinks.EmitResult.FAIL_NON_SERIALIZED)
+      .thenReturn(Sinks.EmitResult.OK);
+    TransactionChangeStream retrying = new TransactionChangeStream(mongoTemplate, accountRepo,
+        busy, new SimpleMeterRegistry(), "node-a", Duration.ofHours(1), Duration.ofMillis(1));
+
+    StepVerifier.create(retrying.emit(event(new CompactTransactionCodec(false).encode(tx()))))
+      .expectNextCount(1)
+      .verifyComplete();
+    StepVerifier.create(retrying.checkpoint()).verifyComplete();
+
+    verify(busy, times(2)).tryEmitNext(any());
+    verify(mongoTemplate).upsert(any(Query.class), any(Update.class),
+        eq(TransactionChangeStream.TOKENS));
+  }
+
+  @Test
+  void checkpoint_storesTheLastTokenOnlyWhenItChanged() {
+    StepVerifier.create(stream.checkpoint()).verifyComplete();
+    stream.emit(event(new CompactTransactionCodec(false).encode(tx()))).block();
+    StepVerifier.create(stream.checkpoint()).verifyComplete();
+    StepVerifier.create(stream.checkpoint()).verifyComplete();
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).upsert(query.capture(), update.capture(),
+        eq(TransactionChangeStream.TOKENS));
+    assertEquals("node-a", query.getValue().getQueryObject().get("_id"));
+    assertEquals(TOKEN, BsonDocument.parse(update.getValue().getUpdateObject()
+        .get("$set", Document.class).getString(TransactionChangeStream.TOKEN)));
+  }
+
+  @Test
+  void start_resumesAfterTheStoredToken() {
+    when(mongoTemplate.findById("node-a", Document.class, TransactionChangeStream.TOKENS))
+      .thenReturn(Mono.just(new Document(TransactionChangeStream.TOKEN, TOKEN.toJson())));
+    when(mongoTemplate.changeStream(eq("transactions"), any(ChangeStreamOptions.class),
+        eq(Document.class))).thenReturn(Flux.never());
+
+    stream.start();
+
+    ArgumentCaptor<ChangeStreamOptions> options =
+        ArgumentCaptor.forClass(ChangeStreamOptions.class);
+    verify(mongoTemplate, timeout(1000))
+      .changeStream(eq("transactions"), options.capture(), eq(Document.class));
+    assertEquals(TOKEN, options.getValue().getResumeToken().orElseThrow());
+    assertTrue(options.getValue().getFilter().isPresent());
+  }
+
+  @Test
+  void start_historyLost_continuesFromNewTransactions() {
+    when(mongoTemplate.findById("node-a", Document.class, TransactionChangeStream.TOKENS))
+      .thenReturn(Mono.just(new Document(TransactionChangeStream.TOKEN, TOKEN.toJson())));
+    when(mongoTemplate.changeStream(eq("transactions"), any(ChangeStreamOptions.class),
+        eq(Document.class)))
+      .thenReturn(Flux.error(new MongoException(286, "history lost")))
+      .thenReturn(Flux.never());
+
+    stream.start();
+
+    ArgumentCaptor<ChangeStreamOptions> options =
+        ArgumentCaptor.forClass(ChangeStreamOptions.class);
+    verify(mongoTemplate, timeout(1000).times(2))
+      .changeStream(eq("transactions"), options.capture(), eq(Document.class));
+    assertTrue(options.getAllValues().get(0).getResumeToken().isPresent());
+    assertFalse(options.getAllValues().get(1).getResumeToken().isPresent());
+  }
+
+  @Test
+  void start_otherErrors_resumeFromTheLastEmittedToken() {
+    ChangeStreamEvent<Document> inserted = event(new CompactTransactionCodec(false).encode(tx()));
+    when(mongoTemplate.findById("node-a", Document.class, TransactionChangeStream.TOKENS))
+      .thenReturn(Mono.empty());
+    when(mongoTemplate.changeStream(eq("transactions"), any(ChangeStreamOptions.class),
+        eq(Document.class)))
+      .thenReturn(Flux.just(inserted)
+        .concatWith(Flux.error(new MongoException(6, "host unreachable"))))
+      .thenReturn(Flux.never());
+
+    stream.start();
+
+    ArgumentCaptor<ChangeStreamOptions> options =
+        ArgumentCaptor.forClass(ChangeStreamOptions.class);
+    verify(mongoTemplate, timeout(1000).times(2))
+      .changeStream(eq("transactions"), options.capture(), eq(Document.class));
+    assertFalse(options.getAllValues().get(0).getResumeToken().isPresent());
+    assertEquals(TOKEN, options.getAllValues().get(1).getResumeToken().orElseThrow());
+    assertEquals(1, emitted.size());
+  }
+
+  @Test
+  void historyLost_looksThroughWrappedCauses() {
+    assertTrue(TransactionChangeStream.historyLost(
+        new UncategorizedMongoDbException("wrapped", new MongoException(286, "lost"))));
+    assertFalse(TransactionChangeStream.historyLost(new MongoException(6, "unreachable")));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ChangeStreamEvent<Document> event(Document body) {
+    ChangeStreamEvent<Document> event = mock(ChangeStreamEvent.class);
+    when(event.getBody()).thenReturn(body);
+    when(event.getResumeToken()).thenReturn(TOKEN);
+    return event;
+  }
+
+  static MappingMongoConverter converter(CompactTransactionCodec codec) {
+    MongoCustomConversions conversions =
+        new MongoCustomConversions(List.of(codec.writer(), codec.reader()));
+    MongoMappingContext context = new MongoMappingContext();
+    context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    context.afterPropertiesSet();
+    MappingMongoConverter converter =
+        new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+    return converter;
+  }
+
+  private static Transaction tx() {
+    return Transaction.builder()
+        .id("663200000000000000000001")
+        .accountId("acc-1")
+        .accountNumber("001-0001")
+        .type("DEBIT")
+        .amount(new BigDecimal("100.00"))
+        .currency("PEN")
+        .timestamp(NOW)
+        .status("COMPLETED")
+        .build();
+  }
+}
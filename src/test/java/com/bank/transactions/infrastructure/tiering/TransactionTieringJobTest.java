@@ -0,0 +1,108 @@
+package com.bank.transactions.infrastructure.tiering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.infrastructure.persistence.CompactTransactionCodec;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class TransactionTieringJobTest {
+
+  private final CompactTransactionCodec codec = new CompactTransactionCodec(false);
+  private ReactiveMongoTemplate mongoTemplate;
+  private MongoCollection<Document> archive;
+  private TransactionTieringJob job;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    mongoTemplate = mock(ReactiveMongoTemplate.class);
+    archive = mock(MongoCollection.class);
+    when(mongoTemplate.getCollectionName(Transaction.class)).thenReturn("transactions");
+    ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+    when(indexOps.ensureIndex(any(IndexDefinition.class))).thenReturn(Mono.just("idx"));
+    when(mongoTemplate.indexOps(anyString())).thenReturn(indexOps);
+    when(mongoTemplate.getCollection(anyString())).thenReturn(Mono.just(archive));
+    when(archive.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+      .thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+
+    TieringProperties props = new TieringProperties();
+    props.setBatchSize(2);
+    props.setDocsPerSecond(1_000_000);
+    props.setHotAge(Duration.ofDays(90));
+    job = new TransactionTieringJob(props, mongoTemplate, codec);
+  }
+
+  private Document old(int daysAgo) {
+    return codec.encode(Transaction.builder()
+      .id(new ObjectId().toHexString())
+      .accountId("acc-1")
+      .currency("PEN")
+      .type("DEBIT")
+      .amount(BigDecimal.TEN)
+      .timestamp(Instant.now().minus(daysAgo, ChronoUnit.DAYS))
+      .status("COMPLETED")
+      .build());
+  }
+
+  @Test
+  void runOnce_copiesToMonthlyArchiveBeforeDeleting() {
+    List<Document> first = List.of(old(400), old(100));
+    List<Document> second = List.of(old(200));
+    List<Document> empty = new ArrayList<>();
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("transactions")))
+      .thenReturn(Flux.fromIterable(first),
+        Flux.fromIterable(second),
+        Flux.fromIterable(empty));
+    when(mongoTemplate.remove(any(Query.class), eq("transactions")))
+      .thenReturn(Mono.just(DeleteResult.acknowledged(2)), Mono.just(DeleteResult.acknowledged(1)));
+
+    StepVerifier.create(job.runOnce())
+      .expectNext(3L)
+      .verifyComplete();
+
+    InOrder order = inOrder(archive, mongoTemplate);
+    order.verify(archive).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    order.verify(mongoTemplate).remove(any(Query.class), eq("transactions"));
+  }
+
+  @Test
+  void runOnce_nothingToArchive() {
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("transactions")))
+      .thenReturn(Flux.empty());
+
+    StepVerifier.create(job.runOnce())
+      .expectNext(0L)
+      .verifyComplete();
+    assertEquals(0, mockingDetails(archive).getInvocations().size());
+  }
+}
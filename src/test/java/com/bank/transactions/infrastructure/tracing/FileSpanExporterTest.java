@@ -0,0 +1,95 @@
+package com.bank.transactions.infrastructure.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSpanExporterTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void spans_areWrittenAsJsonLines() throws IOException {
+    Path file = dir.resolve("traces/spans.jsonl");
+    try (SdkTracerProvider provider = provider(new FileSpanExporter(file, 1_000_000, mapper))) {
+      Span root = provider.get("test").spanBuilder("POST /api/transactions")
+          .setAttribute("correlation.id", "abc")
+          .startSpan();
+      Span child = provider.get("test").spanBuilder("account-lookup")
+          .setParent(Context.root().with(root))
+          .startSpan();
+      child.end();
+      root.end();
+    }
+
+    List<String> lines = Files.readAllLines(file);
+    assertEquals(2, lines.size());
+    JsonNode child = mapper.readTree(lines.get(0));
+    JsonNode root = mapper.readTree(lines.get(1));
+    assertEquals("account-lookup", child.get("name").asText());
+    assertEquals(root.get("traceId"), child.get("traceId"));
+    assertEquals(root.get("spanId"), child.get("parentSpanId"));
+    assertEquals("abc", root.get("attributes").get("correlation.id").asText());
+    assertTrue(root.get("durationMicros").isNumber());
+  }
+
+  @Test
+  void fullFile_isRotated() throws IOException {
+    Path file = dir.resolve("spans.jsonl");
+    try (SdkTracerProvider provider = provider(new FileSpanExporter(file, 1, mapper))) {
+      provider.get("test").spanBuilder("first").startSpan().end();
+      provider.get("test").spanBuilder("second").startSpan().end();
+    }
+
+    assertEquals("first", mapper.readTree(
+        Files.readAllLines(dir.resolve("spans.jsonl.1")).get(0)).get("name").asText());
+    assertEquals("second", mapper.readTree(
+        Files.readAllLines(file).get(0)).get("name").asText());
+  }
+
+  @Test
+  void rotation_countsUtf8Bytes() throws IOException {
+    Path file = dir.resolve("spans.jsonl");
+    // ~700 caracteres por línea pero ~1200 bytes
+    String name = "ñ".repeat(500);
+    try (SdkTracerProvider provider = provider(new FileSpanExporter(file, 800, mapper))) {
+      provider.get("test").spanBuilder(name).startSpan().end();
+      provider.get("test").spanBuilder("second").startSpan().end();
+    }
+
+    assertEquals(name, mapper.readTree(
+        Files.readAllLines(dir.resolve("spans.jsonl.1")).get(0)).get("name").asText());
+    assertEquals(List.of("second"), Files.readAllLines(file).stream()
+        .map(this::readName)
+        .toList());
+  }
+
+  private String readName(String line) {
+    try {
+      return mapper.readTree(line).get("name").asText();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static SdkTracerProvider provider(FileSpanExporter exporter) {
+    return SdkTracerProvider.builder()
+      .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+      .build();
+  }
+}
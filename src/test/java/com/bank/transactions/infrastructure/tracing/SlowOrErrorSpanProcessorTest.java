@@ -0,0 +1,167 @@
+package com.bank.transactions.infrastructure.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+class SlowOrErrorSpanProcessorTest {
+
+  // Con 0 el SDK toma la hora actual como inicio
+  private static final long START = 1_000;
+
+  private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private SdkTracerProvider provider;
+
+  @AfterEach
+  void tearDown() {
+    provider.close();
+  }
+
+  @Test
+  void fastTrace_isDropped() {
+    trace(tracer(0.0), 100, false);
+
+    assertEquals(List.of(), exported);
+  }
+
+  @Test
+  void slowTrace_isExportedWithAllItsSpans() {
+    trace(tracer(0.0), 600, false);
+
+    assertEquals(List.of("account-lookup", "POST /api/transactions"), names());
+    assertFalse(exported.get(1).getSpanContext().isSampled());
+    assertEquals(1.0, registry.get("bankx.tracing.kept").tag("reason", "slow").counter().count());
+  }
+
+  @Test
+  void failedChild_keepsTheTrace() {
+    trace(tracer(0.0), 100, true);
+
+    assertEquals(List.of("account-lookup", "POST /api/transactions"), names());
+    assertEquals(1.0, registry.get("bankx.tracing.kept").tag("reason", "error").counter().count());
+  }
+
+  @Test
+  void headSampledTrace_isLeftToTheBatchProcessor() {
+    Tracer tracer = tracer(1.0);
+    Span root = tracer.spanBuilder("GET /api/accounts").startSpan();
+
+    assertTrue(root.getSpanContext().isSampled());
+    root.end();
+    assertEquals(List.of(), exported);
+  }
+
+  @Test
+  void tracesBeyondTheLimit_areNotFollowed() {
+    Tracer tracer = tracer(0.0);
+    for (int i = 0; i < 3; i++) {
+      tracer.spanBuilder("open").startSpan();
+    }
+
+    assertEquals(1.0, registry.get("bankx.tracing.overflow").counter().count());
+  }
+
+  @Test
+  void finishedTraces_releaseTheirSlot() {
+    Tracer tracer = tracer(0.0);
+    for (int i = 0; i < 5; i++) {
+      trace(tracer, 100, false);
+    }
+    tracer.spanBuilder("open").startSpan();
+    tracer.spanBuilder("open").startSpan();
+
+    assertEquals(0.0, registry.get("bankx.tracing.overflow").counter().count());
+  }
+
+  @Test
+  void concurrentRoots_neverExceedTheLimit() throws InterruptedException {
+    Tracer tracer = tracer(0.0);
+    int roots = 64;
+    CountDownLatch go = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < roots; i++) {
+      pool.execute(() -> {
+        try {
+          go.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        tracer.spanBuilder("open").startSpan();
+      });
+    }
+    go.countDown();
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(roots - 2, registry.get("bankx.tracing.overflow").counter().count());
+  }
+
+  private Tracer tracer(double probability) {
+    provider = SdkTracerProvider.builder()
+      .setSampler(HeadSampler.parentBased(probability))
+      .addSpanProcessor(new SlowOrErrorSpanProcessor(() -> new Capture(), Duration.ofMillis(500),
+          2, Schedulers.immediate(), registry))
+      .build();
+    return provider.get("test");
+  }
+
+  private static void trace(Tracer tracer, long rootMillis, boolean childFails) {
+    Span root = tracer.spanBuilder("POST /api/transactions")
+        .setStartTimestamp(START, TimeUnit.MILLISECONDS)
+        .startSpan();
+    Span child = tracer.spanBuilder("account-lookup")
+        .setParent(Context.root().with(root))
+        .setStartTimestamp(START + 1, TimeUnit.MILLISECONDS)
+        .startSpan();
+    if (childFails) {
+      child.setStatus(StatusCode.ERROR);
+    }
+    child.end(START + 2, TimeUnit.MILLISECONDS);
+    root.end(START + rootMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private List<String> names() {
+    return exported.stream().map(SpanData::getName).toList();
+  }
+
+  private final class Capture implements SpanExporter {
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+      exported.addAll(spans);
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.bank.transactions.infrastructure.web;
+
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.application.service.AccountViewProjector;
+import com.bank.transactions.application.service.ShardedBalanceService;
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.AccountView;
+import com.bank.transactions.domain.model.Transaction;
+import com.bank.transactions.domain.repository.AccountRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(AccountController.class)
+class AccountControllerTest {
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @MockBean
+  private AccountRepository accountRepo;
+
+  @MockBean
+  private ShardedBalanceService shardedBalances;
+
+  @MockBean
+  private AccountViewProjector accountViews;
+
+  @Test
+  void balance_plainAccount() {
+    Account account = Account.builder().id("acc-1").number("001-0001")
+        .balance(new BigDecimal("2000")).build();
+    when(accountRepo.findByNumber("001-0001")).thenReturn(Mono.just(account));
+
+    webTestClient.get()
+      .uri("/api/accounts/001-0001/balance")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.balance").isEqualTo(2000);
+  }
+
+  @Test
+  void balance_shardedAccountSumsShards() {
+    Account account = Account.builder().id("acc-1").number("001-0001")
+        .balance(BigDecimal.ZERO).shards(4).build();
+    when(accountRepo.findByNumber("001-0001")).thenReturn(Mono.just(account));
+    when(shardedBalances.totalBalance("acc-1")).thenReturn(Mono.just(new BigDecimal("350")));
+
+    webTestClient.get()
+      .uri("/api/accounts/001-0001/balance")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.balance").isEqualTo(350);
+  }
+
+  @Test
+  void summary_readsTheAccountView() {
+    AccountView view = AccountView.builder().accountNumber("001-0001")
+        .balance(new BigDecimal("1500")).transactionCount(3).creditCount(1).debitCount(2)
+        .recent(List.of(Transaction.builder().id("tx-3").type("DEBIT").build()))
+        .build();
+    when(accountViews.view("001-0001")).thenReturn(Mono.just(view));
+
+    webTestClient.get()
+      .uri("/api/accounts/001-0001/summary")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.balance").isEqualTo(1500)
+      .jsonPath("$.transactionCount").isEqualTo(3)
+      .jsonPath("$.recent[0].id").isEqualTo("tx-3");
+  }
+
+  @Test
+  void enableSharding_success() {
+    Account account = Account.builder().id("acc-1").number("001-0001").shards(8).build();
+    when(shardedBalances.enableSharding("001-0001", 8)).thenReturn(Mono.just(account));
+
+    webTestClient.put()
+      .uri("/api/accounts/001-0001/shards?count=8")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.shards").isEqualTo(8);
+  }
+}
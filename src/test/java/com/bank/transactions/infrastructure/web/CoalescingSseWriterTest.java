@@ -0,0 +1,266 @@
+package com.bank.transactions.infrastructure.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.transactions.config.WebCodecConfig;
+import com.bank.transactions.domain.model.Transaction;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.ServerSentEventHttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class CoalescingSseWriterTest {
+
+  private static final ResolvableType EVENT_TYPE =
+      ResolvableType.forClassWithGenerics(ServerSentEvent.class, Transaction.class);
+  private static final Duration DELAY = Duration.ofMillis(50);
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void coalesce_flushesAtOnceWhenIdleAndBatchesBursts() {
+    VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+    Sinks.Many<String> source = Sinks.many().unicast().onBackpressureBuffer();
+    List<List<String>> frames = new ArrayList<>();
+    AdaptiveCoalescer.coalesce(source.asFlux(), 3, DELAY, timer).subscribe(frames::add);
+
+    source.tryEmitNext("a");
+    assertEquals(List.of(List.of("a")), frames);
+
+    source.tryEmitNext("b");
+    source.tryEmitNext("c");
+    timer.advanceTimeBy(DELAY.minusMillis(1));
+    assertEquals(1, frames.size());
+    timer.advanceTimeBy(Duration.ofMillis(1));
+    assertEquals(List.of("b", "c"), frames.get(1));
+
+    timer.advanceTimeBy(Duration.ofSeconds(1));
+    source.tryEmitNext("d");
+    assertEquals(List.of("d"), frames.get(2));
+
+    source.tryEmitNext("e");
+    source.tryEmitNext("f");
+    source.tryEmitNext("g");
+    assertEquals(List.of("e", "f", "g"), frames.get(3));
+
+    source.tryEmitNext("h");
+    source.tryEmitComplete();
+    assertEquals(List.of("h"), frames.get(4));
+  }
+
+  @Test
+  void coalesce_keepsAccumulatingWhileConsumerHasNoDemand() {
+    VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+    Sinks.Many<String> source = Sinks.many().unicast().onBackpressureBuffer();
+
+    StepVerifier.create(AdaptiveCoalescer.coalesce(source.asFlux(), 100, DELAY, timer), 1)
+      .then(() -> source.tryEmitNext("a"))
+      .expectNext(List.of("a"))
+      .then(() -> {
+        source.tryEmitNext("b");
+        timer.advanceTimeBy(DELAY.multipliedBy(3));
+        source.tryEmitNext("c");
+      })
+      .expectNoEvent(Duration.ZERO)
+      .thenRequest(1)
+      .expectNext(List.of("b", "c"))
+      .then(source::tryEmitComplete)
+      .verifyComplete();
+  }
+
+  @Test
+  void coalesce_requestsAtMostOneFrameAheadFromTheSource() {
+    List<Long> requested = new ArrayList<>();
+    Flux<Integer> source = Flux.range(1, 10).doOnRequest(requested::add);
+
+    VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+
+    StepVerifier.create(AdaptiveCoalescer.coalesce(source, 3, DELAY, timer), 0)
+      .expectSubscription()
+      .then(() -> assertEquals(List.of(3L), requested))
+      .thenRequest(1)
+      .expectNext(List.of(1, 2, 3))
+      .then(() -> assertEquals(List.of(3L, 3L), requested))
+      .thenCancel()
+      .verify();
+  }
+
+  @Test
+  void write_matchesSpringOutputWithFewerFrames() {
+    List<ServerSentEvent<Transaction>> events = events(5);
+    events.add(ServerSentEvent.<Transaction>builder().comment("ping\nlive").build());
+    events.add(ServerSentEvent.builder(transaction(9)).id("42").event("transaction")
+        .retry(Duration.ofSeconds(3)).build());
+
+    MockServerHttpResponse expected = new MockServerHttpResponse();
+    new ServerSentEventHttpMessageWriter(new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build()))
+      .write(Flux.fromIterable(events), EVENT_TYPE, EVENT_TYPE, MediaType.TEXT_EVENT_STREAM,
+        MockServerHttpRequest.get("/").build(), expected, Map.of())
+      .block();
+
+    MockServerHttpResponse actual = new MockServerHttpResponse();
+    writer(false).write(Flux.fromIterable(events), EVENT_TYPE, EVENT_TYPE,
+        MediaType.TEXT_EVENT_STREAM, MockServerHttpRequest.get("/").build(), actual, Map.of())
+      .block();
+
+    assertEquals(expected.getBodyAsString().block(), actual.getBodyAsString().block());
+    assertEquals(expected.getHeaders().getContentType(), actual.getHeaders().getContentType());
+    // El primero sale solo (sin tráfico previo); el resto espera la ventana y sale al completar
+    DistributionSummary perFrame = registry.get("bankx.sse.frame.events").summary();
+    assertEquals(2, perFrame.count());
+    assertEquals(events.size(), perFrame.totalAmount());
+  }
+
+  @Test
+  void write_compressesWhenClientAcceptsGzip() throws Exception {
+    List<ServerSentEvent<Transaction>> events = events(50);
+    MockServerHttpResponse plain = new MockServerHttpResponse();
+    writer(true).write(Flux.fromIterable(events), EVENT_TYPE, EVENT_TYPE,
+        MediaType.TEXT_EVENT_STREAM, MockServerHttpRequest.get("/").build(), plain, Map.of())
+      .block();
+    assertFalse(plain.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+
+    MockServerHttpResponse gzip = new MockServerHttpResponse();
+    writer(true).write(Flux.fromIterable(events), EVENT_TYPE, EVENT_TYPE,
+        MediaType.TEXT_EVENT_STREAM, MockServerHttpRequest.get("/")
+          .header(HttpHeaders.ACCEPT_ENCODING, "br, GZIP;q=0.8").build(), gzip, Map.of())
+      .block();
+
+    assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    byte[] compressed = DataBufferUtils.join(gzip.getBody()).map(CoalescingSseWriterTest::bytes)
+        .block();
+    String body = new String(new GZIPInputStream(new ByteArrayInputStream(compressed))
+        .readAllBytes(), StandardCharsets.UTF_8);
+    assertEquals(plain.getBodyAsString().block(), body);
+    assertTrue(compressed.length * 4 < body.length(), "ratio " + body.length() / compressed.length);
+  }
+
+  @Test
+  void gzipFrames_decodeWithoutWaitingForTheNextOne() throws Exception {
+    try (GzipFrameCompressor gzip = new GzipFrameCompressor()) {
+      byte[] first = gzip.compress(buffer("event:transaction\ndata:{\"id\":1}\n\n"));
+      byte[] second = gzip.compress(buffer("event:transaction\ndata:{\"id\":2}\n\n"));
+
+      Inflater inflater = new Inflater(true);
+      inflater.setInput(Arrays.copyOfRange(first, 10, first.length));
+      byte[] out = new byte[256];
+      int n = inflater.inflate(out);
+      assertEquals("event:transaction\ndata:{\"id\":1}\n\n",
+          new String(out, 0, n, StandardCharsets.UTF_8));
+      inflater.setInput(second);
+      n = inflater.inflate(out);
+      assertEquals("event:transaction\ndata:{\"id\":2}\n\n",
+          new String(out, 0, n, StandardCharsets.UTF_8));
+      // El segundo frame reutiliza el diccionario del primero
+      assertTrue(second.length < first.length - 10);
+      inflater.end();
+    }
+  }
+
+  @Test
+  void acceptsGzip_honoursQualityValues() {
+    assertTrue(CoalescingSseWriter.acceptsGzip(request("gzip, deflate, br")));
+    assertFalse(CoalescingSseWriter.acceptsGzip(request("br, gzip;q=0")));
+    assertFalse(CoalescingSseWriter.acceptsGzip(request("identity")));
+    assertFalse(CoalescingSseWriter.acceptsGzip(MockServerHttpRequest.get("/").build()));
+  }
+
+  @Test
+  void webCodecConfig_registersWriterOnlyWhenEnabled() {
+    SseProperties properties = new SseProperties();
+    assertInstanceOf(ServerSentEventHttpMessageWriter.class, sseWriter(properties));
+
+    properties.getCoalesce().setEnabled(true);
+    assertInstanceOf(CoalescingSseWriter.class, sseWriter(properties));
+  }
+
+  private Object sseWriter(SseProperties properties) {
+    ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+    new WebCodecConfig(true, properties,
+        new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class))
+      .configureHttpMessageCodecs(configurer);
+    return configurer.getWriters().stream()
+      .filter(writer -> writer.canWrite(EVENT_TYPE, MediaType.TEXT_EVENT_STREAM))
+      .findFirst()
+      .orElseThrow();
+  }
+
+  private CoalescingSseWriter writer(boolean compression) {
+    SseProperties properties = new SseProperties();
+    properties.getCoalesce().setMaxDelay(Duration.ofMinutes(1));
+    properties.getCompression().setEnabled(compression);
+    return new CoalescingSseWriter(properties, registry, Schedulers.parallel());
+  }
+
+  private static MockServerHttpRequest request(String acceptEncoding) {
+    return MockServerHttpRequest.get("/").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+      .build();
+  }
+
+  private static List<ServerSentEvent<Transaction>> events(int count) {
+    List<ServerSentEvent<Transaction>> events = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      events.add(ServerSentEvent.builder(transaction(i)).event("transaction").build());
+    }
+    return events;
+  }
+
+  private static DataBuffer buffer(String text) {
+    return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static byte[] bytes(DataBuffer buffer) {
+    byte[] bytes = new byte[buffer.readableByteCount()];
+    buffer.read(bytes);
+    DataBufferUtils.release(buffer);
+    return bytes;
+  }
+
+  private static Transaction transaction(int i) {
+    return Transaction.builder()
+        .id(String.format("665f1c2e9b1d4a3f8c7e%04d", i))
+        .accountId("acc-001")
+        .accountNumber("001-0001")
+        .currency("PEN")
+        .type(i % 2 == 0 ? "DEBIT" : "CREDIT")
+        .amount(new BigDecimal(i + ".50"))
+        .timestamp(Instant.parse("2024-05-01T10:00:00Z").plusSeconds(i))
+        .status("COMPLETED")
+        .build();
+  }
+}
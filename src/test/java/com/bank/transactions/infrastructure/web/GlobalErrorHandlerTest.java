@@ -1,17 +1,24 @@
 package com.bank.transactions.infrastructure.web;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.bank.transactions.domain.exception.BusinessException;
+import com.bank.transactions.domain.exception.ErrorCode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import reactor.test.StepVerifier;
 
 class GlobalErrorHandlerTest {
 
-  private GlobalErrorHandler errorHandler = new GlobalErrorHandler();
+  private GlobalErrorHandler errorHandler = new GlobalErrorHandler(5, Duration.ofSeconds(1));
 
   @Test
   void handleBusinessException() {
@@ -20,8 +27,9 @@ class GlobalErrorHandlerTest {
     StepVerifier.create(errorHandler.handleBusinessException(exception))
       .expectNextMatches(response -> {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertTrue(response.getBody().containsKey("error"));
-        assertEquals("Test error", response.getBody().get("error"));
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertTrue(body.containsKey("error"));
+        assertEquals("Test error", body.get("error"));
         return true;
       })
       .verifyComplete();
@@ -47,12 +55,35 @@ class GlobalErrorHandlerTest {
 
     StepVerifier.create(errorHandler.handleBusinessException(exception))
       .expectNextMatches(response -> {
-        Map<String, Object> body = response.getBody();
-        return response.getStatusCode() == HttpStatus.BAD_REQUEST &&
-          body != null &&
-          body.containsKey("error") &&
-          "account_not_found".equals(body.get("error"));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals("{\"error\":\"account_not_found\"}".getBytes(StandardCharsets.UTF_8),
+            (byte[]) response.getBody());
+        return true;
       })
       .verifyComplete();
   }
-}
\ No newline at end of file
+
+  @Test
+  void handleBusinessException_catalogCodeReusesEncodedResponse() {
+    BusinessException exception = ErrorCode.INSUFFICIENT_FUNDS.exception();
+
+    assertSame(errorHandler.handleBusinessException(exception).block(),
+        errorHandler.handleBusinessException(exception).block());
+  }
+
+  @Test
+  void rateLimitedLog_suppressesWithinWindowAndReportsCount() {
+    AtomicLong now = new AtomicLong();
+    RateLimitedLog limiter = new RateLimitedLog(2, Duration.ofSeconds(1), now::get);
+
+    assertEquals(0, limiter.tryAcquire());
+    assertEquals(0, limiter.tryAcquire());
+    assertEquals(RateLimitedLog.SUPPRESSED, limiter.tryAcquire());
+    assertEquals(RateLimitedLog.SUPPRESSED, limiter.tryAcquire());
+
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertEquals(2, limiter.tryAcquire());
+    assertEquals(0, limiter.tryAcquire());
+  }
+}
@@ -1,10 +1,28 @@
 package com.bank.transactions.infrastructure.web;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.application.service.CompiledRiskRules.Decision;
+import com.bank.transactions.application.service.RiskRuleEngine;
+import com.bank.transactions.infrastructure.web.RiskFaultInjector.Outcome;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.math.BigDecimal;
+import java.time.Duration;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.server.reactive.AbstractServerHttpRequest;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.Connection;
+import reactor.test.StepVerifier;
 
 @WebFluxTest(MockRiskController.class)
 class MockRiskControllerTest {
@@ -12,6 +30,19 @@ class MockRiskControllerTest {
   @Autowired
   private WebTestClient webTestClient;
 
+  @MockBean
+  private RiskRuleEngine ruleEngine;
+
+  @MockBean
+  private RiskFaultInjector faults;
+
+  @BeforeEach
+  void setUp() {
+    // Sin reglas aplicables: rige el límite por defecto de 1200
+    when(ruleEngine.evaluate(any(), any(), any(), any())).thenReturn(Decision.NO_MATCH);
+    when(faults.next()).thenReturn(new RiskFaultInjector.Plan(0, Outcome.RESPOND));
+  }
+
   @Test
   void allow_debitBelowThreshold_returnsTrue() {
     webTestClient.get()
@@ -116,4 +147,109 @@ class MockRiskControllerTest {
       .expectBody(Boolean.class)
       .value(Assertions::assertFalse);
   }
-}
\ No newline at end of file
+
+  @Test
+  void allow_matchingRuleOverridesDefaultThreshold() {
+    when(ruleEngine.evaluate("USD", "DEBIT", new BigDecimal("100"), "PREMIUM"))
+      .thenReturn(Decision.REJECT);
+    when(ruleEngine.evaluate("USD", "DEBIT", new BigDecimal("5000"), null))
+      .thenReturn(Decision.ALLOW);
+
+    webTestClient.get()
+      .uri(uriBuilder -> uriBuilder
+        .path("/mock/risk/allow")
+        .queryParam("currency", "USD")
+        .queryParam("type", "DEBIT")
+        .queryParam("amount", "100")
+        .queryParam("tier", "PREMIUM")
+        .build())
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody(Boolean.class)
+      .value(Assertions::assertFalse);
+
+    webTestClient.get()
+      .uri(uriBuilder -> uriBuilder
+        .path("/mock/risk/allow")
+        .queryParam("currency", "USD")
+        .queryParam("type", "DEBIT")
+        .queryParam("amount", "5000")
+        .build())
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody(Boolean.class)
+      .value(Assertions::assertTrue);
+  }
+
+  @Test
+  void allow_profileError_returnsError() {
+    when(faults.next()).thenReturn(new RiskFaultInjector.Plan(10, Outcome.ERROR));
+
+    webTestClient.get()
+      .uri(uriBuilder -> uriBuilder
+        .path("/mock/risk/allow")
+        .queryParam("currency", "USD")
+        .queryParam("type", "DEBIT")
+        .queryParam("amount", "100")
+        .build())
+      .exchange()
+      .expectStatus().is5xxServerError();
+  }
+
+  @Test
+  void allow_profileReset_withoutNettyConnection_returnsError() {
+    when(faults.next()).thenReturn(new RiskFaultInjector.Plan(0, Outcome.RESET));
+
+    webTestClient.get()
+      .uri(uriBuilder -> uriBuilder
+        .path("/mock/risk/allow")
+        .queryParam("currency", "USD")
+        .queryParam("type", "DEBIT")
+        .queryParam("amount", "100")
+        .build())
+      .exchange()
+      .expectStatus().is5xxServerError();
+  }
+
+  @Test
+  void allow_explicitDelay_overridesProfile() {
+    when(faults.next()).thenReturn(new RiskFaultInjector.Plan(0, Outcome.ERROR));
+
+    webTestClient.get()
+      .uri(uriBuilder -> uriBuilder
+        .path("/mock/risk/allow")
+        .queryParam("currency", "USD")
+        .queryParam("type", "DEBIT")
+        .queryParam("amount", "100")
+        .queryParam("delayMs", "0")
+        .build())
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody(Boolean.class)
+      .value(Assertions::assertTrue);
+  }
+
+  @Test
+  void allow_profileReset_closesTheConnectionAfterTheDelay() {
+    when(faults.next()).thenReturn(new RiskFaultInjector.Plan(50, Outcome.RESET));
+    EmbeddedChannel channel = new EmbeddedChannel();
+    Connection connection = mock(Connection.class);
+    when(connection.channel()).thenReturn(channel);
+    AbstractServerHttpRequest request = mock(AbstractServerHttpRequest.class);
+    when(request.getNativeRequest()).thenReturn(connection);
+    ServerWebExchange exchange = mock(ServerWebExchange.class);
+    when(exchange.getRequest()).thenReturn(request);
+    MockRiskController controller =
+        new MockRiskController(ruleEngine, faults, new BigDecimal("1200"));
+
+    StepVerifier.withVirtualTime(() -> controller.allow("USD", "DEBIT", BigDecimal.TEN, null,
+          false, null, exchange))
+      .expectSubscription()
+      .then(() -> assertTrue(channel.isOpen()))
+      .thenAwait(Duration.ofMillis(49))
+      .then(() -> assertTrue(channel.isOpen()))
+      .thenAwait(Duration.ofMillis(1))
+      .then(() -> assertFalse(channel.isOpen()))
+      .verifyComplete();
+  }
+}
@@ -0,0 +1,71 @@
+package com.bank.transactions.infrastructure.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@WebFluxTest(RiskFaultAdminController.class)
+@Import(RiskFaultInjector.class)
+class RiskFaultAdminControllerTest {
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @Autowired
+  private RiskFaultInjector faults;
+
+  @Test
+  void activatePreset_switchesProfile() {
+    webTestClient.put()
+      .uri("/mock/risk/admin/profile/long-tail")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.name").isEqualTo("long-tail")
+      .jsonPath("$.latency.type").isEqualTo("percentiles");
+
+    assertEquals("long-tail", faults.current().name());
+  }
+
+  @Test
+  void activatePreset_unknown_returnsNotFound() {
+    webTestClient.put()
+      .uri("/mock/risk/admin/profile/missing")
+      .exchange()
+      .expectStatus().isNotFound();
+  }
+
+  @Test
+  void activate_customProfile() {
+    webTestClient.put()
+      .uri("/mock/risk/admin/profile")
+      .contentType(MediaType.APPLICATION_JSON)
+      .bodyValue("""
+          {"name": "soak", "latency": {"type": "lognormal", "medianMs": 25, "sigma": 0.7},
+           "errorRate": 0.02, "resetRate": 0.001,
+           "brownout": {"periodMs": 30000, "durationMs": 3000,
+                        "latency": {"type": "uniform", "minMs": 500, "maxMs": 1500},
+                        "errorRate": 0.5}}
+          """)
+      .exchange()
+      .expectStatus().isOk();
+
+    RiskFaultProfile current = faults.current();
+    assertEquals("soak", current.name());
+    assertInstanceOf(LatencyDistribution.LogNormal.class, current.latency());
+    assertEquals(0.5, current.brownout().errorRate());
+
+    webTestClient.get()
+      .uri("/mock/risk/admin/profile")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.brownout.latency.maxMs").isEqualTo(1500);
+  }
+}
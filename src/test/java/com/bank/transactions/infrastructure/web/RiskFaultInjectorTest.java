@@ -0,0 +1,109 @@
+package com.bank.transactions.infrastructure.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.transactions.infrastructure.web.LatencyDistribution.Percentiles.Point;
+import com.bank.transactions.infrastructure.web.RiskFaultInjector.Outcome;
+import com.bank.transactions.infrastructure.web.RiskFaultInjector.Plan;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RiskFaultInjectorTest {
+
+  private static final int SAMPLES = 20_000;
+
+  @Test
+  void distributions_matchTheirParameters() {
+    Random random = new Random(7);
+
+    assertEquals(200, new LatencyDistribution.Fixed(200).sampleMs(random));
+    long[] uniform = samples(new LatencyDistribution.Uniform(100, 300), random);
+    assertTrue(uniform[0] >= 100 && uniform[SAMPLES - 1] <= 300);
+
+    long[] logNormal = samples(new LatencyDistribution.LogNormal(40, 1), random);
+    assertEquals(40, percentile(logNormal, 50), 3);
+    assertTrue(percentile(logNormal, 99) > 300);
+
+    long[] table = samples(new LatencyDistribution.Percentiles(List.of(
+        new Point(50, 30), new Point(99, 900), new Point(100, 1000))), random);
+    assertEquals(30, percentile(table, 25));
+    assertEquals(900, percentile(table, 99), 30);
+  }
+
+  @Test
+  void distributions_withoutSpreadAreConstant() {
+    Random random = new Random(7);
+
+    assertEquals(0, new LatencyDistribution.Fixed(0).sampleMs(random));
+    assertEquals(40, new LatencyDistribution.LogNormal(40, 0).sampleMs(random));
+    assertEquals(40, new LatencyDistribution.LogNormal(40, 0).sampleMs(random));
+  }
+
+  @Test
+  void distributions_rejectInvalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> new LatencyDistribution.Fixed(-1));
+    assertThrows(IllegalArgumentException.class, () -> new LatencyDistribution.Uniform(-1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new LatencyDistribution.Uniform(5, 1));
+    assertThrows(IllegalArgumentException.class, () -> new LatencyDistribution.LogNormal(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new LatencyDistribution.LogNormal(40, -1));
+    assertThrows(IllegalArgumentException.class, () -> new LatencyDistribution.Percentiles(
+        List.of(new Point(90, 100), new Point(50, 10))));
+    assertThrows(IllegalArgumentException.class,
+        () -> new RiskFaultProfile("bad", null, 1.5, 0, null));
+  }
+
+  @Test
+  void plan_appliesErrorAndResetRates() {
+    RiskFaultProfile profile = new RiskFaultProfile("flaky", new LatencyDistribution.Fixed(5),
+        0.2, 0.1, null);
+    Random random = new Random(11);
+    int errors = 0;
+    int resets = 0;
+    for (int i = 0; i < SAMPLES; i++) {
+      Plan plan = RiskFaultInjector.plan(profile, random, 0);
+      assertEquals(5, plan.delayMs());
+      errors += plan.outcome() == Outcome.ERROR ? 1 : 0;
+      resets += plan.outcome() == Outcome.RESET ? 1 : 0;
+    }
+    assertEquals(0.1, resets / (double) SAMPLES, 0.01);
+    assertEquals(0.9 * 0.2, errors / (double) SAMPLES, 0.01);
+  }
+
+  @Test
+  void plan_usesBrownoutDuringItsWindow() {
+    RiskFaultProfile profile = new RiskFaultProfile("brownout", new LatencyDistribution.Fixed(10),
+        0, 0, new RiskFaultProfile.Brownout(60_000, 10_000, new LatencyDistribution.Fixed(2_000),
+          1));
+    Random random = new Random(3);
+
+    assertEquals(new Plan(2_000, Outcome.ERROR), RiskFaultInjector.plan(profile, random, 125_000));
+    assertEquals(new Plan(10, Outcome.RESPOND), RiskFaultInjector.plan(profile, random, 135_000));
+  }
+
+  @Test
+  void injector_switchesProfilesAtRuntime() {
+    RiskFaultInjector injector = new RiskFaultInjector("none");
+    assertEquals(new Plan(0, Outcome.RESPOND), injector.next());
+
+    injector.activate(injector.preset(RiskFaultProfile.DEFAULT));
+    assertEquals(new Plan(200, Outcome.RESPOND), injector.next());
+    assertThrows(IllegalArgumentException.class, () -> injector.preset("missing"));
+  }
+
+  private static long[] samples(LatencyDistribution distribution, Random random) {
+    long[] values = new long[SAMPLES];
+    for (int i = 0; i < SAMPLES; i++) {
+      values[i] = distribution.sampleMs(random);
+    }
+    Arrays.sort(values);
+    return values;
+  }
+
+  private static long percentile(long[] sorted, double p) {
+    return sorted[(int) Math.min(sorted.length - 1, Math.round(p / 100 * sorted.length))];
+  }
+}
@@ -1,23 +1,34 @@
 package com.bank.transactions.infrastructure.web;
 
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.application.dto.TransferRequest;
+import com.bank.transactions.application.dto.TransferResponse;
 import com.bank.transactions.application.service.TransactionService;
+import com.bank.transactions.application.service.TransferService;
 import com.bank.transactions.domain.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 @WebFluxTest(TransactionController.class)
 class TransactionControllerTest {
@@ -28,6 +39,9 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransferService transferService;
+
     @Test
     void createTransaction_success() {
         CreateTxRequest request = new CreateTxRequest();
@@ -100,4 +114,173 @@ class TransactionControllerTest {
           .expectBodyList(Transaction.class)
           .hasSize(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void transfer_success() {
+      TransferRequest request = new TransferRequest();
+      request.setFromAccount("001-0001");
+      request.setToAccount("001-0002");
+      request.setAmount(new BigDecimal("50.00"));
+      request.setCurrency("PEN");
+
+      TransferResponse response = TransferResponse.builder()
+        .debit(Transaction.builder().id("tx-d").accountNumber("001-0001").type("DEBIT").build())
+        .credit(Transaction.builder().id("tx-c").accountNumber("001-0002").type("CREDIT").build())
+        .build();
+
+      when(transferService.transfer(any(TransferRequest.class))).thenReturn(Mono.just(response));
+
+      webTestClient.post()
+        .uri("/api/transfers")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(request)
+        .exchange()
+        .expectStatus().isCreated()
+        .expectBody()
+        .jsonPath("$.debit.id").isEqualTo("tx-d")
+        .jsonPath("$.credit.accountNumber").isEqualTo("001-0002");
+    }
+
+    @Test
+    void transfer_invalidRequest_returnsBadRequest() {
+      webTestClient.post()
+        .uri("/api/transfers")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new TransferRequest())
+        .exchange()
+        .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getTransactionsByAccount_page() {
+      Instant before = Instant.parse("2024-01-15T10:00:00Z");
+      Transaction tx = Transaction.builder().id("tx1").accountNumber("001-0001").type("DEBIT")
+        .amount(BigDecimal.TEN).currency("USD").status("OK").timestamp(before.minusSeconds(60))
+        .build();
+
+      when(transactionService.byAccount("001-0001", before, 20)).thenReturn(Flux.just(tx));
+
+      webTestClient.get()
+        .uri("/api/transactions?accountNumber=001-0001&before=2024-01-15T10:00:00Z&limit=20")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBodyList(Transaction.class)
+        .hasSize(1);
+    }
+
+    @Test
+    void getTransactionsByAccount_ndjson() {
+      Transaction tx1 = Transaction.builder().id("tx1").accountNumber("001-0001").type("DEBIT")
+        .amount(BigDecimal.TEN).currency("USD").status("OK")
+        .timestamp(Instant.parse("2024-01-15T10:00:00Z")).build();
+      Transaction tx2 = Transaction.builder().id("tx2").accountNumber("001-0001").type("CREDIT")
+        .amount(BigDecimal.ONE).currency("USD").status("OK")
+        .timestamp(Instant.parse("2024-01-14T10:00:00Z")).build();
+
+      when(transactionService.byAccount("001-0001")).thenReturn(Flux.just(tx1, tx2));
+
+      webTestClient.get()
+        .uri("/api/transactions?accountNumber=001-0001")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .returnResult(Transaction.class)
+        .getResponseBody()
+        .as(StepVerifier::create)
+        .expectNextMatches(tx -> "tx1".equals(tx.getId())
+          && Instant.parse("2024-01-15T10:00:00Z").equals(tx.getTimestamp()))
+        .expectNextMatches(tx -> "tx2".equals(tx.getId()))
+        .verifyComplete();
+    }
+
+    @Test
+    void createTransaction_protobuf() {
+      CreateTxRequest request = new CreateTxRequest();
+      request.setAccountNumber("001-0001");
+      request.setType("DEBIT");
+      request.setAmount(new BigDecimal("100.00"));
+      request.setCurrency("USD");
+      Transaction saved = Transaction.builder().id("tx1").accountNumber("001-0001").type("DEBIT")
+        .amount(new BigDecimal("100.00")).currency("USD").status("COMPLETED")
+        .timestamp(Instant.parse("2024-01-15T10:00:00Z")).build();
+
+      when(transactionService.create(request)).thenReturn(Mono.just(saved));
+
+      byte[] body = webTestClient.post()
+        .uri("/api/transactions")
+        .contentType(ApiMediaTypes.PROTOBUF)
+        .accept(ApiMediaTypes.PROTOBUF)
+        .bodyValue(TransactionProtobufEncoder.encode(request, false))
+        .exchange()
+        .expectStatus().isCreated()
+        .expectHeader().contentTypeCompatibleWith(ApiMediaTypes.PROTOBUF)
+        .expectBody(byte[].class)
+        .returnResult()
+        .getResponseBody();
+
+      assertEquals(saved, new TransactionProtobufDecoder().decode(
+        DefaultDataBufferFactory.sharedInstance.wrap(body),
+        ResolvableType.forClass(Transaction.class), ApiMediaTypes.PROTOBUF, Map.of()));
+    }
+
+    @Test
+    void getTransactionsByAccount_cborAndDefaultJson() throws Exception {
+      Transaction tx1 = Transaction.builder().id("tx1").accountNumber("001-0001").type("DEBIT")
+        .amount(BigDecimal.TEN).currency("USD").status("OK")
+        .timestamp(Instant.parse("2024-01-15T10:00:00Z")).build();
+      Transaction tx2 = Transaction.builder().id("tx2").accountNumber("001-0001").type("CREDIT")
+        .amount(BigDecimal.ONE).currency("USD").status("OK")
+        .timestamp(Instant.parse("2024-01-14T10:00:00Z")).build();
+      when(transactionService.byAccount("001-0001")).thenAnswer(call -> Flux.just(tx1, tx2));
+      ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+      byte[] array = webTestClient.get()
+        .uri("/api/transactions?accountNumber=001-0001")
+        .accept(MediaType.APPLICATION_CBOR)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(byte[].class)
+        .returnResult()
+        .getResponseBody();
+      assertEquals(List.of(tx1, tx2), List.of(cbor.readValue(array, Transaction[].class)));
+
+      byte[] sequence = webTestClient.get()
+        .uri("/api/transactions?accountNumber=001-0001")
+        .accept(ApiMediaTypes.CBOR_SEQ)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(byte[].class)
+        .returnResult()
+        .getResponseBody();
+      assertEquals(List.of(tx1, tx2),
+        cbor.readerFor(Transaction.class).readValues(sequence).readAll());
+
+      webTestClient.get()
+        .uri("/api/transactions?accountNumber=001-0001")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentType(MediaType.APPLICATION_JSON)
+        .expectBody()
+        .jsonPath("$[1].id").isEqualTo("tx2");
+    }
+
+    @Test
+    void liveTransactions_smileStream() {
+      Transaction tx = Transaction.builder().id("tx1").accountNumber("001-0001").type("DEBIT")
+        .amount(BigDecimal.TEN).currency("USD").status("OK")
+        .timestamp(Instant.parse("2024-01-15T10:00:00Z")).build();
+      when(transactionService.live()).thenReturn(Flux.just(tx));
+
+      webTestClient.get()
+        .uri("/api/live/transactions")
+        .accept(ApiMediaTypes.SMILE_STREAM)
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(Transaction.class)
+        .getResponseBody()
+        .as(StepVerifier::create)
+        .expectNext(tx)
+        .verifyComplete();
+    }
+}
@@ -0,0 +1,157 @@
+package com.bank.transactions.infrastructure.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bank.transactions.config.WebCodecConfig;
+import com.bank.transactions.domain.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class TransactionJsonEncoderTest {
+
+  private static final ResolvableType TYPE = ResolvableType.forClass(Transaction.class);
+
+  private final TransactionJsonEncoder encoder = new TransactionJsonEncoder();
+  // Misma configuración que aplica Spring Boot a su ObjectMapper
+  private final ObjectMapper jackson = Jackson2ObjectMapperBuilder.json()
+      .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build();
+
+  @Test
+  void encodeValue_matchesJackson() throws Exception {
+    List<Transaction> samples = new ArrayList<>(List.of(
+        transaction(Instant.parse("2024-02-29T23:59:59Z"), new BigDecimal("100.00")),
+        transaction(Instant.parse("1970-01-01T00:00:00.120Z"), new BigDecimal("1E+3")),
+        transaction(Instant.parse("1969-12-31T23:59:59.000001Z"), new BigDecimal("-0.5")),
+        transaction(Instant.parse("0001-01-01T00:00:00.123456789Z"), BigDecimal.ZERO),
+        transaction(Instant.parse("+10000-01-01T00:00:00Z"), BigDecimal.ONE),
+        transaction(Instant.parse("-0001-12-31T10:00:00Z"), BigDecimal.TEN),
+        new Transaction()));
+    samples.get(0).setReason("límite \"diario\"\\ \n\t\u0001 ✓ 😀");
+    Random random = new Random(5);
+    for (int i = 0; i < 2_000; i++) {
+      long seconds = random.nextLong(-62_167_219_200L, 253_402_300_800L);
+      samples.add(transaction(Instant.ofEpochSecond(seconds, random.nextInt(4) == 0
+          ? random.nextInt(1_000_000_000) : random.nextInt(1_000) * 1_000_000),
+          BigDecimal.valueOf(random.nextLong(), random.nextInt(6))));
+    }
+
+    for (Transaction tx : samples) {
+      assertEquals(jackson.writeValueAsString(tx),
+          text(encoder.encodeValue(tx, DefaultDataBufferFactory.sharedInstance, TYPE,
+            MediaType.APPLICATION_JSON, Map.of())));
+    }
+  }
+
+  @Test
+  void encodeValue_escapesControlCharactersWithUppercaseHexLikeJackson() throws Exception {
+    Transaction tx = transaction(Instant.parse("2024-05-01T10:00:00Z"), BigDecimal.ONE);
+    tx.setReason("esc \u001b[31m unit \u001f del \u007f");
+
+    String encoded = text(encoder.encodeValue(tx, DefaultDataBufferFactory.sharedInstance, TYPE,
+        MediaType.APPLICATION_JSON, Map.of()));
+
+    assertEquals(jackson.writeValueAsString(tx), encoded);
+    assertTrue(encoded.contains("\\u001B[31m unit \\u001F"));
+  }
+
+  @Test
+  void encode_jsonArrayMatchesJackson() throws Exception {
+    List<Transaction> rows = List.of(
+        transaction(Instant.parse("2024-05-01T10:00:00Z"), new BigDecimal("10.50")),
+        transaction(Instant.parse("2024-05-02T10:00:00Z"), new BigDecimal("20")));
+
+    assertEquals(jackson.writeValueAsString(rows),
+        encode(Flux.fromIterable(rows), MediaType.APPLICATION_JSON));
+    assertEquals("[]", encode(Flux.empty(), MediaType.APPLICATION_JSON));
+    assertEquals(jackson.writeValueAsString(rows.get(0)),
+        encode(Mono.just(rows.get(0)), MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  void encode_ndjsonWritesOneLinePerTransaction() throws Exception {
+    List<Transaction> rows = List.of(
+        transaction(Instant.parse("2024-05-01T10:00:00Z"), new BigDecimal("10.50")),
+        transaction(Instant.parse("2024-05-02T10:00:00Z"), new BigDecimal("20")));
+
+    List<String> lines = Flux.fromIterable(rows)
+        .as(input -> encoder.encode(input, DefaultDataBufferFactory.sharedInstance, TYPE,
+          MediaType.APPLICATION_NDJSON, Map.of()))
+        .map(TransactionJsonEncoderTest::text)
+        .collectList()
+        .block();
+
+    assertEquals(List.of(
+        jackson.writeValueAsString(rows.get(0)) + "\n",
+        jackson.writeValueAsString(rows.get(1)) + "\n"), lines);
+    assertEquals(List.of(MediaType.APPLICATION_NDJSON), encoder.getStreamingMediaTypes());
+  }
+
+  @Test
+  void webCodecConfig_registersEncoderAheadOfJackson() {
+    ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+    new WebCodecConfig(true, new SseProperties(),
+        new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class))
+      .configureHttpMessageCodecs(configurer);
+
+    for (MediaType mediaType : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON)) {
+      HttpMessageWriter<?> writer = configurer.getWriters().stream()
+          .filter(candidate -> candidate.canWrite(TYPE, mediaType))
+          .findFirst()
+          .orElseThrow();
+      Encoder<?> selected = assertInstanceOf(EncoderHttpMessageWriter.class, writer).getEncoder();
+      assertInstanceOf(TransactionJsonEncoder.class, selected);
+    }
+  }
+
+  private String encode(org.reactivestreams.Publisher<Transaction> input, MimeType mimeType) {
+    return DataBufferUtils.join(encoder.encode(input, DefaultDataBufferFactory.sharedInstance,
+        TYPE, mimeType, Map.of()))
+      .map(TransactionJsonEncoderTest::text)
+      .block();
+  }
+
+  private static String text(DataBuffer buffer) {
+    String text = buffer.toString(StandardCharsets.UTF_8);
+    DataBufferUtils.release(buffer);
+    return text;
+  }
+
+  private static Transaction transaction(Instant timestamp, BigDecimal amount) {
+    return Transaction.builder()
+        .id("665f1c2e9b1d4a3f8c7e6d5b")
+        .accountId("acc-001")
+        .accountNumber("001-0001")
+        .currency("PEN")
+        .type("DEBIT")
+        .amount(amount)
+        .timestamp(timestamp)
+        .status("COMPLETED")
+        .build();
+  }
+}
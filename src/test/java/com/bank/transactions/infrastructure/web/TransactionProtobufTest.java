@@ -0,0 +1,147 @@
+package com.bank.transactions.infrastructure.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.domain.model.Transaction;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.TimestampProto;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class TransactionProtobufTest {
+
+  private static final ResolvableType TRANSACTION = ResolvableType.forClass(Transaction.class);
+
+  private final TransactionProtobufEncoder encoder = new TransactionProtobufEncoder();
+  private final TransactionProtobufDecoder decoder = new TransactionProtobufDecoder();
+
+  @Test
+  void transaction_roundTrip() {
+    Transaction tx = transaction();
+
+    Transaction decoded = (Transaction) decoder.decode(
+        encoder.encodeValue(tx, DefaultDataBufferFactory.sharedInstance, TRANSACTION,
+          ApiMediaTypes.PROTOBUF, Map.of()), TRANSACTION, ApiMediaTypes.PROTOBUF, Map.of());
+
+    assertEquals(tx, decoded);
+  }
+
+  @Test
+  void createRequest_roundTripKeepsDecimalScale() {
+    CreateTxRequest req = new CreateTxRequest();
+    req.setAccountNumber("001-0001");
+    req.setType("DEBIT");
+    req.setAmount(new BigDecimal("1.50E+3"));
+    ResolvableType type = ResolvableType.forClass(CreateTxRequest.class);
+
+    CreateTxRequest decoded = (CreateTxRequest) decoder.decode(
+        encoder.encodeValue(req, DefaultDataBufferFactory.sharedInstance, type,
+          ApiMediaTypes.PROTOBUF, Map.of()), type, ApiMediaTypes.PROTOBUF, Map.of());
+
+    assertEquals("001-0001", decoded.getAccountNumber());
+    assertEquals(new BigDecimal("1500"), decoded.getAmount());
+    assertNull(decoded.getCurrency());
+  }
+
+  @Test
+  void transaction_isReadableWithTheProtoSchema() throws Exception {
+    Descriptor schema = schema().findMessageTypeByName("Transaction");
+    Transaction tx = transaction();
+
+    DynamicMessage message = DynamicMessage.parseFrom(schema,
+        TransactionProtobufEncoder.encode(tx, false));
+
+    assertEquals("acc-001", message.getField(schema.findFieldByName("account_id")));
+    assertEquals("100.25", message.getField(schema.findFieldByName("amount")));
+    Timestamp timestamp = Timestamp.parseFrom(
+        ((DynamicMessage) message.getField(schema.findFieldByName("timestamp"))).toByteString());
+    assertEquals(tx.getTimestamp(),
+        Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()));
+    assertEquals("límite", message.getField(schema.findFieldByName("reason")));
+
+    DynamicMessage built = DynamicMessage.newBuilder(schema)
+        .setField(schema.findFieldByName("id"), "tx-9")
+        .setField(schema.findFieldByName("amount"), "7.00")
+        .build();
+    Transaction decoded = (Transaction) decoder.decode(
+        DefaultDataBufferFactory.sharedInstance.wrap(built.toByteArray()), TRANSACTION,
+        ApiMediaTypes.PROTOBUF, Map.of());
+    assertEquals("tx-9", decoded.getId());
+    assertEquals(new BigDecimal("7.00"), decoded.getAmount());
+  }
+
+  @Test
+  void flux_isWrittenAsDelimitedMessages() {
+    Transaction first = transaction();
+    Transaction second = transaction();
+    second.setId("tx-2");
+    second.setTimestamp(Instant.EPOCH);
+
+    Flux<DataBuffer> body = encoder.encode(Flux.just(first, second),
+        DefaultDataBufferFactory.sharedInstance, TRANSACTION, ApiMediaTypes.PROTOBUF, Map.of());
+
+    StepVerifier.create(decoder.decode(body, TRANSACTION, ApiMediaTypes.PROTOBUF, Map.of()))
+      .expectNext(first, second)
+      .verifyComplete();
+  }
+
+  private static Transaction transaction() {
+    return Transaction.builder()
+        .id("665f1c2e9b1d4a3f8c7e6d5b")
+        .accountId("acc-001")
+        .accountNumber("001-0001")
+        .currency("PEN")
+        .type("DEBIT")
+        .amount(new BigDecimal("100.25"))
+        .timestamp(Instant.parse("2024-05-01T10:00:00.123456Z"))
+        .status("REJECTED")
+        .reason("límite")
+        .build();
+  }
+
+  /** Mismo esquema que {@code src/main/proto/transactions.proto}. */
+  private static FileDescriptor schema() throws Exception {
+    DescriptorProto transaction = DescriptorProto.newBuilder()
+        .setName("Transaction")
+        .addAllField(List.of(
+          string("id", 1), string("account_id", 2), string("account_number", 3),
+          string("currency", 4), string("type", 5), string("amount", 6),
+          FieldDescriptorProto.newBuilder().setName("timestamp").setNumber(7)
+            .setType(FieldDescriptorProto.Type.TYPE_MESSAGE)
+            .setTypeName(".google.protobuf.Timestamp").build(),
+          string("status", 8), string("reason", 9)))
+        .build();
+    FileDescriptorProto file = FileDescriptorProto.newBuilder()
+        .setName("transactions.proto")
+        .setSyntax("proto3")
+        .setPackage("bankx.transactions.v1")
+        .addDependency("google/protobuf/timestamp.proto")
+        .addMessageType(transaction)
+        .build();
+    return FileDescriptor.buildFrom(file, new FileDescriptor[] {TimestampProto.getDescriptor()});
+  }
+
+  private static FieldDescriptorProto string(String name, int number) {
+    return FieldDescriptorProto.newBuilder()
+        .setName(name)
+        .setNumber(number)
+        .setType(FieldDescriptorProto.Type.TYPE_STRING)
+        .build();
+  }
+}
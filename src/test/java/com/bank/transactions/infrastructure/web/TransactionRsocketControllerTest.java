@@ -0,0 +1,234 @@
+package com.bank.transactions.infrastructure.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bank.transactions.application.dto.CreateTxRequest;
+import com.bank.transactions.application.dto.TransactionHistoryQuery;
+import com.bank.transactions.application.service.TransactionService;
+import com.bank.transactions.config.RsocketConfig;
+import com.bank.transactions.domain.exception.ErrorCode;
+import com.bank.transactions.domain.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.exceptions.ApplicationErrorException;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+class TransactionRsocketControllerTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private final TransactionService service = mock(TransactionService.class);
+  private RSocketStrategies strategies;
+  private RSocketMessageHandler handler;
+  private CloseableChannel server;
+  private RSocketRequester requester;
+
+  @BeforeEach
+  void startServer() throws Exception {
+    ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+    strategies = RSocketStrategies.builder()
+      .encoders(encoders -> encoders.add(
+        new Jackson2CborEncoder(cbor, MediaType.APPLICATION_CBOR)))
+      .decoders(decoders -> decoders.add(
+        new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR)))
+      .build();
+    LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+    validator.afterPropertiesSet();
+    handler = new RSocketMessageHandler();
+    handler.setHandlers(List.of(new TransactionRsocketController(service, 5)));
+    handler.setRSocketStrategies(strategies);
+    handler.setValidator(validator);
+    handler.afterPropertiesSet();
+
+    server = RSocketServer.create(handler.responder())
+      .bind(TcpServerTransport.create("localhost", 0))
+      .block();
+    requester = requester().tcp("localhost", server.address().getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    requester.dispose();
+    server.dispose();
+  }
+
+  @Test
+  void create_requestResponse_returnsTransaction() {
+    when(service.create(any(CreateTxRequest.class)))
+      .thenAnswer(invocation -> Mono.just(transaction(1)));
+
+    StepVerifier.create(requester.route("tx.create").data(request("100.00"))
+        .retrieveMono(Transaction.class))
+      .assertNext(tx -> {
+        assertEquals("tx-1", tx.getId());
+        assertEquals(new BigDecimal("1.50"), tx.getAmount());
+      })
+      .expectComplete()
+      .verify(TIMEOUT);
+  }
+
+  @Test
+  void create_businessRejection_returnsErrorCode() {
+    when(service.create(any(CreateTxRequest.class)))
+      .thenReturn(Mono.error(ErrorCode.INSUFFICIENT_FUNDS.exception()));
+
+    StepVerifier.create(requester.route("tx.create").data(request("100.00"))
+        .retrieveMono(Transaction.class))
+      .expectErrorMatches(error -> error instanceof ApplicationErrorException
+        && "insufficient_funds".equals(error.getMessage()))
+      .verify(TIMEOUT);
+  }
+
+  @Test
+  void create_invalidPayload_returnsValidationFailed() {
+    StepVerifier.create(requester.route("tx.create").data(request("0"))
+        .retrieveMono(Transaction.class))
+      .expectErrorMatches(error -> error instanceof ApplicationErrorException
+        && TransactionRsocketController.VALIDATION_FAILED.equals(error.getMessage()))
+      .verify(TIMEOUT);
+    verify(service, never()).create(any());
+  }
+
+  @Test
+  void submit_fireAndForget_createsTransaction() {
+    when(service.create(any(CreateTxRequest.class)))
+      .thenReturn(Mono.error(ErrorCode.RISK_REJECTED.exception()));
+
+    StepVerifier.create(requester.route("tx.submit").data(request("100.00")).send())
+      .expectComplete()
+      .verify(TIMEOUT);
+    verify(service, timeout(TIMEOUT.toMillis())).create(any(CreateTxRequest.class));
+  }
+
+  @Test
+  void history_requestsFromTheSourceOnlyWhatTheClientAsks() {
+    List<Long> requested = new CopyOnWriteArrayList<>();
+    when(service.byAccount("001-0001")).thenReturn(Flux.range(1, 1_000)
+        .map(TransactionRsocketControllerTest::transaction)
+        .doOnRequest(requested::add));
+    TransactionHistoryQuery query = new TransactionHistoryQuery();
+    query.setAccountNumber("001-0001");
+
+    StepVerifier.create(requester.route("tx.history").data(query)
+        .retrieveFlux(Transaction.class), 0)
+      .thenRequest(3)
+      .expectNextCount(3)
+      .then(() -> assertEquals(3L, requested.stream().mapToLong(Long::longValue).sum()))
+      .thenRequest(2)
+      .expectNextCount(2)
+      .then(() -> assertEquals(5L, requested.stream().mapToLong(Long::longValue).sum()))
+      .thenCancel()
+      .verify(TIMEOUT);
+  }
+
+  @Test
+  void history_withLimit_usesPagedQuery() {
+    Instant before = Instant.parse("2024-05-01T00:00:00Z");
+    when(service.byAccount("001-0001", before, 1_000))
+      .thenReturn(Flux.just(transaction(1), transaction(2)));
+    TransactionHistoryQuery query = new TransactionHistoryQuery();
+    query.setAccountNumber("001-0001");
+    query.setBefore(before);
+    query.setLimit(5_000);
+
+    StepVerifier.create(requester.route("tx.history").data(query)
+        .retrieveFlux(Transaction.class))
+      .expectNextCount(2)
+      .expectComplete()
+      .verify(TIMEOUT);
+  }
+
+  @Test
+  void stream_endsWithLaggingWhenTheBufferOverflows() {
+    when(service.live()).thenReturn(Flux.range(1, 100)
+        .map(TransactionRsocketControllerTest::transaction));
+
+    StepVerifier.create(requester.route("tx.stream").retrieveFlux(Transaction.class), 1)
+      .assertNext(tx -> assertEquals("tx-1", tx.getId()))
+      .thenRequest(Long.MAX_VALUE)
+      .expectNextCount(5)
+      .expectErrorMatches(error -> error instanceof ApplicationErrorException
+        && TransactionRsocketController.LAGGING.equals(error.getMessage()))
+      .verify(TIMEOUT);
+  }
+
+  @Test
+  void webSocketRoute_servesTheSameHandlers() {
+    when(service.create(any(CreateTxRequest.class)))
+      .thenAnswer(invocation -> Mono.just(transaction(7)));
+    DisposableServer http = HttpServer.create()
+        .host("localhost")
+        .port(0)
+        .route(routes -> new RsocketConfig().rsocketWebSocketRoute(handler, "/rsocket")
+          .apply(routes))
+        .bindNow();
+    RSocketRequester overWebSocket = requester()
+        .websocket(URI.create("ws://localhost:" + http.port() + "/rsocket"));
+    try {
+      StepVerifier.create(overWebSocket.route("tx.create").data(request("10.00"))
+          .retrieveMono(Transaction.class))
+        .assertNext(tx -> assertEquals("tx-7", tx.getId()))
+        .expectComplete()
+        .verify(TIMEOUT);
+    } finally {
+      overWebSocket.dispose();
+      http.disposeNow();
+    }
+  }
+
+  private RSocketRequester.Builder requester() {
+    return RSocketRequester.builder()
+      .rsocketStrategies(strategies)
+      .dataMimeType(MediaType.APPLICATION_CBOR);
+  }
+
+  private static CreateTxRequest request(String amount) {
+    CreateTxRequest req = new CreateTxRequest();
+    req.setAccountNumber("001-0001");
+    req.setType("DEBIT");
+    req.setAmount(new BigDecimal(amount));
+    req.setCurrency("PEN");
+    return req;
+  }
+
+  private static Transaction transaction(int i) {
+    return Transaction.builder()
+        .id("tx-" + i)
+        .accountNumber("001-0001")
+        .type("DEBIT")
+        .amount(new BigDecimal(i + ".50"))
+        .currency("PEN")
+        .timestamp(Instant.parse("2024-05-01T10:00:00Z"))
+        .status("COMPLETED")
+        .build();
+  }
+}
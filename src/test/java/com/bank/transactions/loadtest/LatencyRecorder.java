@@ -0,0 +1,46 @@
+package com.bank.transactions.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Histogramas HDR de latencia agrupados por endpoint y resultado.
+ *
+ * <p>Las latencias se registran en microsegundos con 3 dígitos significativos.</p>
+ */
+public class LatencyRecorder {
+
+  private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+  /**
+   * Registra una latencia.
+   *
+   * @param endpoint endpoint invocado (por ejemplo "POST /api/transactions")
+   * @param outcome  resultado (por ejemplo "created" o "risk_rejected")
+   * @param nanos    latencia en nanosegundos
+   */
+  public void record(String endpoint, String outcome, long nanos) {
+    long micros = Math.min(MAX_TRACKABLE_MICROS, Math.max(1, nanos / 1_000));
+    histograms
+      .computeIfAbsent(endpoint + " | " + outcome,
+        key -> new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3))
+      .recordValue(micros);
+  }
+
+  /**
+   * Copia ordenada de los histogramas por clave.
+   *
+   * @return histogramas ordenados por "endpoint | resultado"
+   */
+  public Map<String, Histogram> snapshot() {
+    Map<String, Histogram> copy = new TreeMap<>();
+    histograms.forEach((key, histogram) -> copy.put(key, histogram.copy()));
+    return copy;
+  }
+}
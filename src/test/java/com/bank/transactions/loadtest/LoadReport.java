@@ -0,0 +1,69 @@
+package com.bank.transactions.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Escribe el reporte de latencias en un formato estable para comparar ejecuciones.
+ *
+ * <p>Genera {@code <label>-summary.csv} (una fila por endpoint y resultado, siempre con las
+ * mismas columnas y orden) y {@code <label>-<clave>.hgrm} con la distribución completa,
+ * que puede graficarse con HdrHistogram Plotter.</p>
+ */
+public final class LoadReport {
+
+  static final String HEADER =
+      "endpoint,outcome,count,throughput_rps,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms";
+
+  private LoadReport() {
+  }
+
+  /**
+   * Escribe el reporte y lo imprime en consola.
+   *
+   * @param settings       configuración de la ejecución
+   * @param histograms     histogramas por "endpoint | resultado"
+   * @param measuredSecond duración medida (sin calentamiento) en segundos
+   * @return ruta del resumen CSV
+   * @throws IOException si no se puede escribir el reporte
+   */
+  public static Path write(LoadTestSettings settings, Map<String, Histogram> histograms,
+                           double measuredSecond) throws IOException {
+    Files.createDirectories(settings.getOutputDir());
+    Path summary = settings.getOutputDir().resolve(settings.getLabel() + "-summary.csv");
+
+    StringBuilder csv = new StringBuilder(HEADER).append('\n');
+    histograms.forEach((key, histogram) -> {
+      String[] parts = key.split(" \\| ", 2);
+      csv.append(String.format(Locale.ROOT, "%s,%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+          parts[0], parts[1], histogram.getTotalCount(),
+          histogram.getTotalCount() / measuredSecond,
+          millis(histogram, 50.0), millis(histogram, 90.0), millis(histogram, 99.0),
+          millis(histogram, 99.9), histogram.getMaxValue() / 1_000.0));
+    });
+    Files.writeString(summary, csv);
+
+    for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+      String name = entry.getKey().replaceAll("[^A-Za-z0-9_]+", "_");
+      Path hgrm = settings.getOutputDir().resolve(settings.getLabel() + "-" + name + ".hgrm");
+      try (PrintStream out = new PrintStream(Files.newOutputStream(hgrm))) {
+        entry.getValue().outputPercentileDistribution(out, 1_000.0);
+      }
+    }
+
+    System.out.printf("%n=== Load test '%s' (%.0f req/s target, %.0fs measured) ===%n",
+        settings.getLabel(), settings.getRate(), measuredSecond);
+    System.out.print(csv);
+    System.out.printf("Report written to %s%n", summary.toAbsolutePath());
+    return summary;
+  }
+
+  private static double millis(Histogram histogram, double percentile) {
+    return histogram.getValueAtPercentile(percentile) / 1_000.0;
+  }
+}
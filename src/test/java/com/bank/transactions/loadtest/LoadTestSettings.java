@@ -0,0 +1,60 @@
+package com.bank.transactions.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Parámetros del generador de carga, leídos de propiedades de sistema {@code loadtest.*}.
+ */
+@Value
+@Builder
+public class LoadTestSettings {
+
+  String baseUrl;
+  double rate;
+  Duration duration;
+  Duration warmup;
+  Duration timeout;
+  int postWeight;
+  int getWeight;
+  double debitRatio;
+  double invalidAccountRatio;
+  double riskRejectedRatio;
+  int sseSubscribers;
+  List<String> accounts;
+  String label;
+  Path outputDir;
+  long seed;
+
+  /**
+   * Construye la configuración desde {@link System#getProperties()}.
+   *
+   * @return configuración con valores por defecto para lo no indicado
+   */
+  public static LoadTestSettings fromSystemProperties() {
+    return LoadTestSettings.builder()
+      .baseUrl(prop("baseUrl", "http://localhost:8070"))
+      .rate(Double.parseDouble(prop("rate", "100")))
+      .duration(Duration.parse(prop("duration", "PT60S")))
+      .warmup(Duration.parse(prop("warmup", "PT10S")))
+      .timeout(Duration.parse(prop("timeout", "PT10S")))
+      .postWeight(Integer.parseInt(prop("postWeight", "70")))
+      .getWeight(Integer.parseInt(prop("getWeight", "30")))
+      .debitRatio(Double.parseDouble(prop("debitRatio", "0.5")))
+      .invalidAccountRatio(Double.parseDouble(prop("invalidAccountRatio", "0.05")))
+      .riskRejectedRatio(Double.parseDouble(prop("riskRejectedRatio", "0.05")))
+      .sseSubscribers(Integer.parseInt(prop("sseSubscribers", "2")))
+      .accounts(List.of(prop("accounts", "001-0001,001-0002,001-0003").split(",")))
+      .label(prop("label", "run"))
+      .outputDir(Path.of(prop("outputDir", "target/loadtest")))
+      .seed(Long.parseLong(prop("seed", "42")))
+      .build();
+  }
+
+  private static String prop(String name, String defaultValue) {
+    return System.getProperty("loadtest." + name, defaultValue);
+  }
+}
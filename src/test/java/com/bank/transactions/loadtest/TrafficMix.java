@@ -0,0 +1,92 @@
+package com.bank.transactions.loadtest;
+
+import com.bank.transactions.domain.model.Account;
+import com.bank.transactions.domain.model.RiskRule;
+import com.bank.transactions.infrastructure.config.DataSeeder;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Decide la siguiente petición del generador según la mezcla configurada.
+ *
+ * <p>No es thread-safe: la usa únicamente el hilo que programa las llegadas.</p>
+ */
+public class TrafficMix {
+
+  private final LoadTestSettings settings;
+  private final SplittableRandom random;
+  /** Tope por débito de las reglas sembradas, por número de cuenta sembrada. */
+  private final Map<String, BigDecimal> riskThresholds;
+  /** Mayor tope sembrado: se usa para cuentas que no vienen del seed. */
+  private final BigDecimal maxRiskThreshold;
+
+  /**
+   * Petición a enviar.
+   *
+   * @param create        {@code true} para POST, {@code false} para GET del historial
+   * @param accountNumber cuenta destino
+   * @param type          CREDIT o DEBIT (solo POST)
+   * @param amount        monto (solo POST)
+   */
+  public record Request(boolean create, String accountNumber, String type, BigDecimal amount) {
+  }
+
+  /**
+   * Crea la mezcla.
+   *
+   * @param settings configuración del generador
+   */
+  public TrafficMix(LoadTestSettings settings) {
+    this.settings = settings;
+    this.random = new SplittableRandom(settings.getSeed());
+    Map<String, BigDecimal> byCurrency = DataSeeder.riskRules().stream()
+        .filter(rule -> rule.getCurrency() != null && rule.getMaxDebitPerTx() != null)
+        .collect(Collectors.toMap(RiskRule::getCurrency, RiskRule::getMaxDebitPerTx,
+          BigDecimal::min));
+    this.riskThresholds = DataSeeder.accounts().stream()
+        .filter(account -> byCurrency.containsKey(account.getCurrency()))
+        .collect(Collectors.toMap(Account::getNumber,
+          account -> byCurrency.get(account.getCurrency())));
+    this.maxRiskThreshold = byCurrency.values().stream()
+        .max(BigDecimal::compareTo)
+        .orElse(BigDecimal.ZERO);
+  }
+
+  /**
+   * Monto a partir del cual las reglas sembradas rechazan un débito de la cuenta.
+   *
+   * @param accountNumber cuenta
+   * @return tope de la moneda de la cuenta, o el mayor tope si la cuenta no está sembrada
+   */
+  BigDecimal riskThreshold(String accountNumber) {
+    return riskThresholds.getOrDefault(accountNumber, maxRiskThreshold);
+  }
+
+  /**
+   * Elige la siguiente petición.
+   *
+   * @return petición a enviar
+   */
+  public Request next() {
+    String account = random.nextDouble() < settings.getInvalidAccountRatio()
+        ? "999-" + random.nextInt(1_000_000)
+        : settings.getAccounts().get(random.nextInt(settings.getAccounts().size()));
+
+    int total = settings.getPostWeight() + settings.getGetWeight();
+    if (random.nextInt(total) >= settings.getPostWeight()) {
+      return new Request(false, account, null, null);
+    }
+
+    if (random.nextDouble() < settings.getRiskRejectedRatio()) {
+      BigDecimal over = riskThreshold(account).add(BigDecimal.valueOf(1 + random.nextInt(5_000)));
+      return new Request(true, account, "DEBIT", over);
+    }
+    String type = random.nextDouble() < settings.getDebitRatio() ? "DEBIT" : "CREDIT";
+    BigDecimal amount = BigDecimal.valueOf(1 + random.nextDouble() * 99)
+        .setScale(2, RoundingMode.HALF_UP);
+    return new Request(true, account, type, amount);
+  }
+}
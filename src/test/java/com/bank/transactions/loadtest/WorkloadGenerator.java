@@ -0,0 +1,197 @@
+package com.bank.transactions.loadtest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Generador de carga de modelo abierto para la API de transacciones.
+ *
+ * <p>Las llegadas se programan a tasa fija ({@code loadtest.rate} peticiones/s) sin esperar
+ * a las respuestas, y la latencia se mide desde el instante <em>previsto</em> de envío, no
+ * desde el real: si el generador o el servidor se atrasan, ese atraso cuenta como latencia
+ * (se evita la omisión coordinada). Además mantiene {@code loadtest.sseSubscribers}
+ * suscripciones a {@code /api/stream/transactions} y mide el retraso de entrega de eventos.</p>
+ *
+ * <p>Pensado para ejecutarse contra la aplicación local, que usa {@code MockRiskController}
+ * como servicio de riesgo:</p>
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dloadtest.rate=200 -Dloadtest.duration=PT2M
+ * </pre>
+ */
+public class WorkloadGenerator {
+
+  static final String POST_ENDPOINT = "POST /api/transactions";
+  static final String GET_ENDPOINT = "GET /api/transactions";
+  static final String SSE_ENDPOINT = "SSE /api/stream/transactions";
+
+  private static final Pattern ERROR_CODE = Pattern.compile("\"error\"\\s*:\\s*\"([^\"]+)\"");
+  private static final ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>> SSE_TYPE =
+      new ParameterizedTypeReference<>() { };
+
+  private final LoadTestSettings settings;
+  private final WebClient client;
+  private final LatencyRecorder recorder = new LatencyRecorder();
+  private final AtomicLong inFlight = new AtomicLong();
+  private volatile long measureFromNanos;
+
+  /**
+   * Crea el generador.
+   *
+   * @param settings configuración de la ejecución
+   */
+  public WorkloadGenerator(LoadTestSettings settings) {
+    this.settings = settings;
+    ConnectionProvider pool = ConnectionProvider.builder("loadtest")
+        .maxConnections(2_000)
+        .pendingAcquireMaxCount(-1)
+        .build();
+    this.client = WebClient.builder()
+      .baseUrl(settings.getBaseUrl())
+      .clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool)))
+      .build();
+  }
+
+  /**
+   * Punto de entrada.
+   *
+   * @param args no se usan; la configuración llega por propiedades {@code loadtest.*}
+   * @throws Exception si falla la escritura del reporte
+   */
+  public static void main(String[] args) throws Exception {
+    new WorkloadGenerator(LoadTestSettings.fromSystemProperties()).run();
+    System.exit(0);
+  }
+
+  /**
+   * Ejecuta calentamiento y medición, y escribe el reporte.
+   *
+   * @throws Exception si falla la escritura del reporte
+   */
+  public void run() throws Exception {
+    long start = System.nanoTime();
+    measureFromNanos = start + settings.getWarmup().toNanos();
+    long end = measureFromNanos + settings.getDuration().toNanos();
+    long period = (long) (TimeUnit.SECONDS.toNanos(1) / settings.getRate());
+
+    List<Disposable> subscribers = startSseSubscribers();
+    TrafficMix mix = new TrafficMix(settings);
+
+    for (long i = 0; ; i++) {
+      long intended = start + i * period;
+      if (intended >= end) {
+        break;
+      }
+      long wait = intended - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      send(mix.next(), intended);
+    }
+
+    awaitInFlight();
+    subscribers.forEach(Disposable::dispose);
+    LoadReport.write(settings, recorder.snapshot(), settings.getDuration().toMillis() / 1_000.0);
+  }
+
+  private void send(TrafficMix.Request request, long intendedNanos) {
+    inFlight.incrementAndGet();
+    String endpoint = request.create() ? POST_ENDPOINT : GET_ENDPOINT;
+    Mono<String> call = request.create()
+        ? client.post()
+          .uri("/api/transactions")
+          .contentType(MediaType.APPLICATION_JSON)
+          .bodyValue(Map.of(
+            "accountNumber", request.accountNumber(),
+            "type", request.type(),
+            "amount", request.amount(),
+            "currency", "PEN"))
+          .exchangeToMono(this::outcome)
+        : client.get()
+          .uri(uri -> uri.path("/api/transactions")
+            .queryParam("accountNumber", request.accountNumber())
+            .build())
+          .exchangeToMono(this::outcome);
+
+    call
+      .timeout(settings.getTimeout())
+      .onErrorResume(TimeoutException.class, e -> Mono.just("timeout"))
+      .onErrorResume(e -> Mono.just("io_error"))
+      .subscribe(outcome -> {
+        if (intendedNanos >= measureFromNanos) {
+          recorder.record(endpoint, outcome, System.nanoTime() - intendedNanos);
+        }
+        inFlight.decrementAndGet();
+      });
+  }
+
+  private Mono<String> outcome(ClientResponse response) {
+    int status = response.statusCode().value();
+    return response.bodyToMono(String.class)
+      .defaultIfEmpty("")
+      .map(body -> {
+        if (status == 201) {
+          return "created";
+        }
+        if (status == 200) {
+          return "ok";
+        }
+        Matcher matcher = ERROR_CODE.matcher(body);
+        return matcher.find() ? matcher.group(1) : "http_" + status;
+      });
+  }
+
+  private List<Disposable> startSseSubscribers() throws InterruptedException {
+    List<Disposable> subscribers = new ArrayList<>();
+    CountDownLatch connected = new CountDownLatch(settings.getSseSubscribers());
+    for (int i = 0; i < settings.getSseSubscribers(); i++) {
+      subscribers.add(client.get()
+          .uri("/api/stream/transactions")
+          .accept(MediaType.TEXT_EVENT_STREAM)
+          .retrieve()
+          .bodyToFlux(SSE_TYPE)
+          .doOnSubscribe(s -> connected.countDown())
+          .subscribe(this::recordEvent,
+            error -> System.err.println("SSE subscriber failed: " + error.getMessage())));
+    }
+    connected.await(10, TimeUnit.SECONDS);
+    return subscribers;
+  }
+
+  private void recordEvent(ServerSentEvent<Map<String, Object>> event) {
+    if (System.nanoTime() < measureFromNanos || event.data() == null) {
+      return;
+    }
+    Object timestamp = event.data().get("timestamp");
+    if (timestamp instanceof String iso) {
+      long delayNanos = Duration.between(Instant.parse(iso), Instant.now()).toNanos();
+      recorder.record(SSE_ENDPOINT, "event", delayNanos);
+    }
+  }
+
+  private void awaitInFlight() {
+    long deadline = System.nanoTime() + settings.getTimeout().toNanos() * 2;
+    while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+  }
+}